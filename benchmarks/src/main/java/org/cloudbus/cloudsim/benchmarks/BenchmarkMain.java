@@ -0,0 +1,47 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks with the JMH command line, writing the results in JSON to
+ * jmh-result.json unless the result format (-rf) or file (-rff) are given, so that every run leaves
+ * a file to compare with the runs of other releases.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class BenchmarkMain {
+
+	/** The default result file. */
+	public static final String RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args the JMH options, e.g. a benchmark regexp and -p param=value
+	 * @throws Exception if JMH fails
+	 */
+	public static void main(String[] args) throws Exception {
+		List<String> options = new ArrayList<String>(Arrays.asList(args));
+		boolean help = options.contains("-h") || options.contains("-l") || options.contains("-lp");
+		if (!help && !options.contains("-rf")) {
+			options.add("-rf");
+			options.add("json");
+		}
+		if (!help && !options.contains("-rff")) {
+			options.add("-rff");
+			options.add(RESULT_FILE);
+		}
+		org.openjdk.jmh.Main.main(options.toArray(new String[options.size()]));
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Loads the workloads of the datasets directory, with the cloudlets and VMs the scheduling
+ * simulations of the examples create from them. The directory is ../datasets, relative to the
+ * benchmarks directory, or the one given by the cloudsim.datasets system property.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class Datasets {
+
+	/** The datasets: LTL, SDSC, RandSimple and RandStratified. */
+	public static final String[] NAMES = { "LTL", "SDSC", "RandSimple", "RandStratified" };
+
+	/**
+	 * Gets the file of a dataset.
+	 *
+	 * @param name the dataset
+	 * @param size the number of cloudlets, ignored by SDSC which has a single file
+	 * @return the file
+	 */
+	public static File getFile(String name, int size) {
+		File dir = new File(System.getProperty("cloudsim.datasets", "../datasets"));
+		if (name.equals("LTL")) {
+			return new File(dir, "LTL/LTL" + size + ".txt");
+		} else if (name.equals("SDSC")) {
+			return new File(dir, "SDSC/SDSC7395.txt");
+		} else if (name.equals("RandSimple")) {
+			return new File(dir, "randomSimple/RandSimple" + size + ".txt");
+		} else if (name.equals("RandStratified")) {
+			return new File(dir, "randomStratified/RandStratified" + size + ".txt");
+		}
+		throw new IllegalArgumentException("Unknown dataset " + name);
+	}
+
+	/**
+	 * Reads the lengths of the first cloudlets of a dataset.
+	 *
+	 * @param name the dataset
+	 * @param size the number of cloudlets
+	 * @return the lengths, fewer than size if the file is shorter
+	 * @throws IOException if the file can't be read
+	 */
+	public static long[] readLengths(String name, int size) throws IOException {
+		File file = getFile(name, size);
+		long[] lengths = new long[size];
+		int n = 0;
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while (n < size && (line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() > 0) {
+					lengths[n++] = (long) Double.parseDouble(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		if (n < size) {
+			long[] read = new long[n];
+			System.arraycopy(lengths, 0, read, 0, n);
+			return read;
+		}
+		return lengths;
+	}
+
+	/**
+	 * Creates the cloudlets of a dataset, in file order.
+	 *
+	 * @param name the dataset
+	 * @param size the number of cloudlets
+	 * @param userId the owner of the cloudlets
+	 * @return the cloudlets
+	 * @throws IOException if the file can't be read
+	 */
+	public static List<Cloudlet> createCloudlets(String name, int size, int userId) throws IOException {
+		long[] lengths = readLengths(name, size);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<Cloudlet> list = new ArrayList<Cloudlet>(lengths.length);
+		for (int i = 0; i < lengths.length; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, lengths[i], 1, 300, 300, utilizationModel, utilizationModel,
+					utilizationModel);
+			cloudlet.setUserId(userId);
+			list.add(cloudlet);
+		}
+		return list;
+	}
+
+	/**
+	 * Creates the VMs of the scheduling simulations, of 400, 500 and 600 MIPS in turn.
+	 *
+	 * @param vms the number of VMs
+	 * @param userId the owner of the VMs
+	 * @return the VMs
+	 */
+	public static List<Vm> createVms(int vms, int userId) {
+		int[] ram = { 512, 1024, 2048 };
+		int[] mips = { 400, 500, 600 };
+		List<Vm> list = new ArrayList<Vm>(vms);
+		for (int i = 0; i < vms; i++) {
+			list.add(new Vm(i, userId, mips[i % 3], 1, ram[i % 3], 1000, 10000, "Xen",
+					new CloudletSchedulerSpaceShared()));
+		}
+		return list;
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the cost of an event through {@link CloudSim}: a ring of entities passes tokens with
+ * {@link CloudSim#send}, every entity starting one, and an operation is a simulation run of
+ * eventCount events, each processed by {@link SimEntity#processEvent}. The time of an event is the
+ * time of a send, of the future queue and of the dispatch of the main loop.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventLoopBenchmark {
+
+	/** The tag of the tokens. */
+	private static final int TOKEN = 990001;
+
+	/** The number of events of a run. */
+	@Param({ "10000", "100000", "1000000" })
+	public int eventCount;
+
+	/** The number of entities of the ring, which is also the number of pending events. */
+	@Param({ "2", "100" })
+	public int entityCount;
+
+	/** The number of events still to send. */
+	private int remaining;
+
+	/** The number of events processed. */
+	private int processed;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		Log.disable();
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Token[] ring = new Token[entityCount];
+		for (int i = 0; i < entityCount; i++) {
+			ring[i] = new Token("Token_" + i);
+		}
+		for (int i = 0; i < entityCount; i++) {
+			ring[i].next = ring[(i + 1) % entityCount].getId();
+		}
+		remaining = eventCount - entityCount;
+		processed = 0;
+	}
+
+	@Benchmark
+	public int run() {
+		CloudSim.startSimulation();
+		if (processed != eventCount) {
+			throw new IllegalStateException("processed " + processed + " events of " + eventCount);
+		}
+		return processed;
+	}
+
+	/**
+	 * An entity passing the tokens it receives to the next entity of the ring.
+	 */
+	private class Token extends SimEntity {
+
+		/** The id of the next entity. */
+		int next;
+
+		Token(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			send(next, 1.0, TOKEN);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			processed++;
+			if (remaining > 0) {
+				remaining--;
+				send(next, 1.0, TOKEN);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.examples.ABC;
+import org.cloudbus.cloudsim.examples.GeneticAlgorithm;
+import org.cloudbus.cloudsim.examples.PSO;
+import org.cloudbus.cloudsim.examples.Population;
+import org.cloudbus.cloudsim.examples.PopulationGA;
+import org.cloudbus.cloudsim.examples.PopulationPSO;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the scheduling algorithms of the examples, in iterations per second: an operation
+ * optimises the next batch of 9 cloudlets of a datacenter, in the order of the simulations, from a
+ * new population through {@value #ITERATIONS} iterations, with the parameters of the simulations
+ * (CloudSimulationABC, CloudSimulation_GA and CloudSimulation_PSO). The output of the algorithms
+ * is discarded.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SchedulingAlgorithmBenchmark {
+
+	/** The number of iterations of an operation. */
+	public static final int ITERATIONS = 10;
+
+	/** The number of VMs of a datacenter. */
+	private static final int VMS_PER_DATACENTER = 9;
+
+	/** The number of datacenters. */
+	private static final int DATACENTERS = 6;
+
+	/** The algorithm: ABC, EOABC (ABC with elite opposition-based learning), GA or PSO. */
+	@Param({ "ABC", "EOABC", "GA", "PSO" })
+	public String algorithm;
+
+	/** The dataset: LTL, SDSC, RandSimple or RandStratified. */
+	@Param({ "LTL", "SDSC", "RandSimple", "RandStratified" })
+	public String dataset;
+
+	/** The number of cloudlets of the dataset. */
+	@Param({ "1000" })
+	public int datasetSize;
+
+	/** The capacity of the fitness cache shared by the operations, 0 to evaluate every schedule. */
+	@Param({ "0", "4096" })
+	public int fitnessCacheSize;
+
+	private List<Cloudlet> cloudletList;
+
+	private List<Vm> vmList;
+
+	/** The fitness cache, null if disabled. */
+	private FitnessCache fitnessCache;
+
+	/** The number of batches of cloudlets of all the datacenters. */
+	private int batches;
+
+	/** The batch of the next operation. */
+	private int batch;
+
+	/** The standard output, while it is discarded. */
+	private PrintStream out;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Log.disable();
+		out = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+
+		}));
+
+		cloudletList = Datasets.createCloudlets(dataset, datasetSize, 0);
+		vmList = Datasets.createVms(VMS_PER_DATACENTER * DATACENTERS, 0);
+		batches = cloudletList.size() / (VMS_PER_DATACENTER * DATACENTERS);
+		if (batches == 0) {
+			throw new IllegalStateException("The dataset " + dataset + " has only " + cloudletList.size()
+					+ " cloudlets");
+		}
+		batch = 0;
+		fitnessCache = fitnessCacheSize > 0 ? new FitnessCache(fitnessCacheSize) : null;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.setOut(out);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITERATIONS)
+	public double run() {
+		int cloudletIteration = batch / DATACENTERS % batches;
+		int dataCenterIterator = batch % DATACENTERS + 1;
+		batch++;
+
+		int chromosomeLength = cloudletList.size();
+		if (algorithm.equals("ABC") || algorithm.equals("EOABC")) {
+			int populationSize = 30;
+			double limit = 0.6 * (populationSize / 2) * VMS_PER_DATACENTER;
+			ABC abc = new ABC(ITERATIONS, populationSize, limit, 0.9, algorithm.equals("EOABC"), cloudletList,
+					vmList, chromosomeLength);
+			abc.getEngine().setFitnessCache(fitnessCache);
+			Population population = abc.initPopulation(chromosomeLength, dataCenterIterator);
+			abc.runABCAlgorithm(population, dataCenterIterator, cloudletIteration);
+			return abc.getBestFitnessForDatacenter(dataCenterIterator);
+		} else if (algorithm.equals("GA")) {
+			GeneticAlgorithm ga = new GeneticAlgorithm(ITERATIONS, 10, 0.8, 0.1, cloudletList, vmList,
+					chromosomeLength);
+			ga.getEngine().setFitnessCache(fitnessCache);
+			PopulationGA population = ga.initPopulation(chromosomeLength, dataCenterIterator);
+			ga.runGA(population, dataCenterIterator, cloudletIteration);
+			return ga.getBestFitnessForDatacenter(dataCenterIterator);
+		} else if (algorithm.equals("PSO")) {
+			PSO pso = new PSO(ITERATIONS, 30, 0.6, 1.5, 2.5, cloudletList, vmList, chromosomeLength);
+			pso.getEngine().setFitnessCache(fitnessCache);
+			PopulationPSO population = pso.initPopulation(chromosomeLength, dataCenterIterator);
+			pso.evaluateFitness(population, dataCenterIterator, cloudletIteration);
+			for (int iteration = 1; iteration <= ITERATIONS; iteration++) {
+				pso.updateVelocitiesAndPositions(population, iteration, dataCenterIterator);
+				pso.evaluateFitness(population, dataCenterIterator, cloudletIteration);
+			}
+			return pso.getBestFitnessForDatacenter(dataCenterIterator);
+		}
+		throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the {@link FutureQueue}, with as many events as the simulation keeps pending:
+ * <ul>
+ * <li>hold: the queue holds eventCount events, and an operation takes the first event out and puts
+ * in an event later in time, as the main loop of {@link CloudSim} does;</li>
+ * <li>fillAndDrain: an operation adds eventCount events to an empty queue, then takes them out in
+ * time order.</li>
+ * </ul>
+ * It lies in the package of the queue to create the events.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FutureQueueBenchmark {
+
+	/** The number of pending events. */
+	@Param({ "1000", "100000", "1000000" })
+	public int eventCount;
+
+	/** The delays of the events after the current time. */
+	private double[] delays;
+
+	/** The queue of the hold benchmark. */
+	private FutureQueue queue;
+
+	/** The next delay of the hold benchmark. */
+	private int next;
+
+	/** The events of the fillAndDrain benchmark. */
+	private SimEvent[] events;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		delays = new double[1 << 16];
+		for (int i = 0; i < delays.length; i++) {
+			delays[i] = random.nextDouble() * 100;
+		}
+
+		queue = new FutureQueue();
+		events = new SimEvent[eventCount];
+		for (int i = 0; i < eventCount; i++) {
+			events[i] = new SimEvent(SimEvent.SEND, random.nextDouble() * 100, 0, 1, 0, null);
+			queue.addEvent(new SimEvent(SimEvent.SEND, events[i].eventTime(), 0, 1, 0, null));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public SimEvent hold() {
+		Iterator<SimEvent> it = queue.iterator();
+		SimEvent first = it.next();
+		it.remove();
+		next = next + 1 & delays.length - 1;
+		SimEvent ev = new SimEvent(SimEvent.SEND, first.eventTime() + delays[next], 0, 1, 0, null);
+		queue.addEvent(ev);
+		return first;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void fillAndDrain(Blackhole bh) {
+		FutureQueue fq = new FutureQueue();
+		for (SimEvent ev : events) {
+			fq.addEvent(ev);
+		}
+		Iterator<SimEvent> it = fq.iterator();
+		while (it.hasNext()) {
+			bh.consume(it.next());
+			it.remove();
+		}
+	}
+
+}
@@ -6,14 +6,12 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.DoubleSummaryStatistics;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.DoubleStream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
@@ -27,6 +25,11 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessCache;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.ListScheduler;
+import org.cloudbus.cloudsim.examples.metaheuristic.Termination;
+import org.cloudbus.cloudsim.examples.metaheuristic.WarmStart;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
@@ -35,6 +38,8 @@ import org.cloudbus.cloudsim.power.models.PowerModelLinear;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.CloudletResults;
+import org.cloudbus.cloudsim.util.RoundedFormat;
 
 
 /**
@@ -49,18 +54,6 @@ import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
  */
 public class CloudSimulationABC {
     
-    /**
-     * Inner class untuk menyimpan informasi task
-     */
-    private static class TaskInfo {
-        public int taskId;
-        public double execTime;
-        
-        public TaskInfo(int taskId, double execTime) {
-            this.taskId = taskId;
-            this.execTime = execTime;
-        }
-    }
     // Variabel untuk pusat data yang akan digunakan dalam simulasi
     private static PowerDatacenter datacenter1, datacenter2, datacenter3, datacenter4, datacenter5, datacenter6;
     
@@ -87,6 +80,41 @@ public class CloudSimulationABC {
     // Koefisien EOABC yang mengontrol tingkat oposisi
     private static final double EOABC_COEFFICIENT = 0.9; 
     
+    // Kapasitas cache fitness untuk solusi yang dikunjungi ulang (0 untuk menonaktifkan)
+    private static final int FITNESS_CACHE_SIZE = 4096;
+    
+    // Jumlah koloni (pulau) yang dijalankan bersamaan pada thread terpisah (1 untuk satu koloni)
+    private static final int ISLANDS = 1;
+    
+    // Jumlah iterasi antara dua migrasi solusi terbaik antar pulau
+    private static final int MIGRATION_INTERVAL = 3;
+    
+    // Tenggat waktu setiap run ABC dalam milidetik (0 untuk tanpa tenggat)
+    private static final long DEADLINE_MS = 0;
+    
+    // Jumlah iterasi tanpa perbaikan fitness terbaik sebelum run ABC dihentikan (0 untuk menonaktifkan)
+    private static final int STAGNATION_ITERATIONS = 0;
+    
+    // Apakah populasi setiap batch diisi dengan solusi elite batch sebelumnya (warm start)
+    private static final boolean WARM_START = false;
+    
+    // Jumlah solusi elite dan oposisinya yang dibawa ke batch berikutnya
+    private static final int WARM_START_ELITES = 5;
+    private static final int WARM_START_OPPOSITES = 3;
+    
+    // Heuristik list scheduling yang masing-masing mengisi satu sumber makanan populasi awal (kosong untuk populasi acak)
+    private static final ListScheduler.Policy[] HEURISTIC_SEEDS = {};
+    
+    // Heuristik yang menggantikan ABC jika tenggat waktu run tidak lebih dari FALLBACK_DEADLINE_MS
+    private static final ListScheduler.Policy FALLBACK_HEURISTIC = ListScheduler.Policy.MIN_MIN;
+    private static final long FALLBACK_DEADLINE_MS = 1;
+    
+    // Apakah ABC mengoptimasi seluruh cloudlet pada semua VM sekaligus, bukan per batch dan per pusat data
+    private static final boolean WHOLE_WORKLOAD = false;
+    
+    // Iterasi maksimum ABC untuk seluruh cloudlet
+    private static final int WORKLOAD_ITERATIONS = 2000;
+    
     // Jumlah percobaan yang akan dijalankan
     private static final int NUM_TRIALS = 1;      
     
@@ -212,8 +240,11 @@ public class CloudSimulationABC {
         hostId = 15;
         datacenter6 = createDatacenter("DataCenter_6", hostId);
 
+        // Dengan tenggat waktu yang terlalu singkat untuk ABC, broker menjadwalkan cloudlet dengan heuristik saja
+        boolean heuristicOnly = DEADLINE_MS > 0 && DEADLINE_MS <= FALLBACK_DEADLINE_MS;
+
         // Membuat broker data center yang mengelola VM dan cloudlet
-        DatacenterBroker broker = createBroker();
+        DatacenterBroker broker = heuristicOnly ? createBroker(FALLBACK_HEURISTIC) : createBroker();
         int brokerId = broker.getId();
         int vmNumber = 54; // Jumlah total mesin virtual
         
@@ -239,8 +270,59 @@ public class CloudSimulationABC {
         // Menghitung jumlah iterasi cloudlet berdasarkan jumlah VM
         int cloudletLoopingNumber = cloudletNumber / vmNumber - 1;
 
+        // Cache fitness bersama semua run: kuncinya memuat cloudlet pertama batch, sehingga run lain tidak bertabrakan
+        FitnessCache fitnessCache = FITNESS_CACHE_SIZE > 0 ? new FitnessCache(FITNESS_CACHE_SIZE) : null;
+
+        // Solusi elite yang dibawa antar batch, dan evaluasi fungsi semua run
+        WarmStart warmStart = WARM_START ? new WarmStart(WARM_START_ELITES, WARM_START_OPPOSITES, EOABC_COEFFICIENT) : null;
+        long totalEvaluations = 0;
+        long totalEvaluationsToBest = 0;
+
+        if (heuristicOnly) {
+            System.out.println("Deadline of " + DEADLINE_MS + " ms too short for ABC, cloudlets scheduled by "
+                               + FALLBACK_HEURISTIC + " when submitted");
+        }
+
+        if (WHOLE_WORKLOAD && !heuristicOnly) {
+            // Satu run ABC untuk seluruh cloudlet: dimensi sebanyak cloudlet, fitness dari makespan dan biaya total
+            double limit = 0.6 * (POPULATION_SIZE/2) * cloudletNumber;
+            System.out.println("\n====== ABC ALGORITHM CONFIGURATION (WHOLE WORKLOAD) ======");
+            System.out.println("- Swarm Size: " + POPULATION_SIZE);
+            System.out.println("- Dimensions: " + cloudletNumber);
+            System.out.println("- Limit: " + limit);
+            System.out.println("- Max Iterations: " + WORKLOAD_ITERATIONS);
+            System.out.println("- EOABC Enhancement: " + (USE_EOABC ? "Enabled (d=" + EOABC_COEFFICIENT + ")" : "Disabled"));
+            System.out.println("- Islands: " + (ISLANDS > 1 ? ISLANDS + " (migration every " + MIGRATION_INTERVAL + " iterations)" : "Disabled"));
+            System.out.println("- Heuristic Seeds: " + (HEURISTIC_SEEDS.length > 0 ? Arrays.toString(HEURISTIC_SEEDS) : "Disabled"));
+            System.out.println("========================================\n");
+
+            ABC abc = new ABC(WORKLOAD_ITERATIONS, POPULATION_SIZE, limit, EOABC_COEFFICIENT, USE_EOABC,
+                              cloudletList, vmlist, cloudletNumber);
+            if (ISLANDS > 1) {
+                abc.setIslandModel(ISLANDS, MIGRATION_INTERVAL);
+            }
+            abc.setTermination(Termination.anyOf(
+                    DEADLINE_MS > 0 ? Termination.deadline(DEADLINE_MS) : null,
+                    STAGNATION_ITERATIONS > 0 ? Termination.stagnation(STAGNATION_ITERATIONS) : null));
+            abc.setHeuristicSeeds(HEURISTIC_SEEDS);
+
+            Population population = abc.initPopulation(cloudletNumber, FitnessEvaluator.WHOLE_WORKLOAD);
+            abc.runABCAlgorithm(population, FitnessEvaluator.WHOLE_WORKLOAD, 0);
+            totalEvaluations += abc.getLastRun().getEvaluations();
+            totalEvaluationsToBest += abc.getLastRun().getEvaluationsToBest();
+
+            int[] bestSolution = abc.getBestVmAllocationForDatacenter(FitnessEvaluator.WHOLE_WORKLOAD);
+            System.out.println("Best solution found for the whole workload with fitness "
+                               + abc.getBestFitnessForDatacenter(FitnessEvaluator.WHOLE_WORKLOAD));
+
+            // Menetapkan semua tugas ke VM berdasarkan solusi terbaik
+            for (int assigner = 0; assigner < cloudletNumber; assigner++) {
+                broker.bindCloudletToVm(assigner, bestSolution[assigner]);
+            }
+        }
+
         // Iterasi untuk setiap batch cloudlet
-        for (int cloudletIterator = 0; cloudletIterator <= cloudletLoopingNumber; cloudletIterator++) {
+        for (int cloudletIterator = 0; !heuristicOnly && !WHOLE_WORKLOAD && cloudletIterator <= cloudletLoopingNumber; cloudletIterator++) {
             System.out.println("Cloudlet Iteration Number " + cloudletIterator);
 
             // Iterasi untuk setiap pusat data
@@ -272,10 +354,25 @@ public class CloudSimulationABC {
                 System.out.println("- Limit: " + limit);
                 System.out.println("- Max Iterations: " + Imax);
                 System.out.println("- EOABC Enhancement: " + (USE_EOABC ? "Enabled (d=" + d + ")" : "Disabled"));
+                System.out.println("- Islands: " + (ISLANDS > 1 ? ISLANDS + " (migration every " + MIGRATION_INTERVAL + " iterations)" : "Disabled"));
+                System.out.println("- Termination: Imax" + (DEADLINE_MS > 0 ? ", deadline " + DEADLINE_MS + " ms" : "")
+                                   + (STAGNATION_ITERATIONS > 0 ? ", stagnation " + STAGNATION_ITERATIONS + " iterations" : ""));
+                System.out.println("- Warm Start: " + (WARM_START ? WARM_START_ELITES + " elites, " + WARM_START_OPPOSITES + " opposites" : "Disabled"));
+                System.out.println("- Heuristic Seeds: " + (HEURISTIC_SEEDS.length > 0 ? Arrays.toString(HEURISTIC_SEEDS) : "Disabled"));
+                System.out.println("- Fitness Cache: " + (FITNESS_CACHE_SIZE > 0 ? FITNESS_CACHE_SIZE + " entries" : "Disabled"));
                 System.out.println("========================================\n");
                 
                 // Inisialisasi algoritma ABC
                 ABC abc = new ABC(Imax, populationSize, limit, d, USE_EOABC, cloudletList, vmlist, cloudletNumber);
+                abc.getEngine().setFitnessCache(fitnessCache);
+                if (ISLANDS > 1) {
+                    abc.setIslandModel(ISLANDS, MIGRATION_INTERVAL);
+                }
+                abc.setTermination(Termination.anyOf(
+                        DEADLINE_MS > 0 ? Termination.deadline(DEADLINE_MS) : null,
+                        STAGNATION_ITERATIONS > 0 ? Termination.stagnation(STAGNATION_ITERATIONS) : null));
+                abc.setWarmStart(warmStart);
+                abc.setHeuristicSeeds(HEURISTIC_SEEDS);
 
                 // Inisialisasi populasi
                 System.out.println("Datacenter " + dataCenterIterator + " Population Initialization");
@@ -283,6 +380,8 @@ public class CloudSimulationABC {
 
                 // Menjalankan algoritma ABC
                 abc.runABCAlgorithm(population, dataCenterIterator, cloudletIterator);
+                totalEvaluations += abc.getLastRun().getEvaluations();
+                totalEvaluationsToBest += abc.getLastRun().getEvaluationsToBest();
 
                 // Mendapatkan solusi terbaik
                 int[] bestSolution = abc.getBestVmAllocationForDatacenter(dataCenterIterator);
@@ -302,6 +401,14 @@ public class CloudSimulationABC {
             }
         }
 
+        // Evaluasi fungsi yang digunakan, dan yang diperlukan untuk mencapai solusi terbaik setiap run
+        System.out.println("\nFunction evaluations: " + totalEvaluations + ", until the best solutions: "
+                           + totalEvaluationsToBest);
+        if (warmStart != null) {
+            System.out.println("Warm start: " + warmStart.getSeededBatches() + " batches seeded with "
+                               + warmStart.getSeededSchedules() + " food sources");
+        }
+
         // Memulai simulasi dan mencetak hasil
         CloudSim.startSimulation();
 
@@ -310,6 +417,10 @@ public class CloudSimulationABC {
 
         // Menghentikan simulasi
         CloudSim.stopSimulation();
+        if (broker instanceof ListSchedulingBroker) {
+            System.out.println(FALLBACK_HEURISTIC + " scheduling time: "
+                               + ((ListSchedulingBroker) broker).getSchedulingMillis() + " ms");
+        }
 
         // Mencetak daftar cloudlet dan statistik
         printCloudletList(newList, trialNum);
@@ -554,6 +665,23 @@ public class CloudSimulationABC {
         return broker;
     }
 
+    /**
+     * Membuat broker yang menjadwalkan cloudlet dengan heuristik list scheduling
+     * 
+     * @param policy Heuristik penjadwalan
+     * @return DatacenterBroker Broker yang dibuat
+     */
+    private static DatacenterBroker createBroker(ListScheduler.Policy policy) {
+        DatacenterBroker broker = null;
+        try {
+            broker = new ListSchedulingBroker("Broker", policy);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+        return broker;
+    }
+
     /**
      * Mencetak daftar cloudlet dan statistiknya
      * 
@@ -564,9 +692,10 @@ public class CloudSimulationABC {
      * @param trialNum Nomor percobaan saat ini
      */
     private static void printCloudletList(List<Cloudlet> list, int trialNum) throws FileNotFoundException {
-        // Inisialisasi output yang dicetak ke nol
-        int size = list.size();
-        Cloudlet cloudlet = null;
+        // Menyimpan hasil cloudlet dalam kolom primitif dan menghitung statistik dalam satu kali jalan
+        CloudletResults results = CloudletResults.of(list);
+        CloudletResults.Statistics stats = results.getStatistics(vmlist.size());
+        int size = results.size();
 
         String indent = "    ";
         Log.printLine();
@@ -576,176 +705,32 @@ public class CloudSimulationABC {
             + indent + "Start Time" + indent + "Finish Time" + indent + "Waiting Time");
 
         // Variabel untuk menghitung statistik
-        double waitTimeSum = 0.0;
-        double CPUTimeSum = 0.0;
-        int totalValues = 0;
-        DecimalFormat dft = new DecimalFormat("###,##");
-
-        double response_time[] = new double[size];
-
-        // Mencetak status semua cloudlet
-        for (int i = 0; i < size; i++) {
-            cloudlet = list.get(i);
-            Log.print(cloudlet.getCloudletId() + indent + indent);
-
-            // Jika cloudlet berhasil diproses
-            if (cloudlet.getCloudletStatus() == Cloudlet.SUCCESS) {
-                Log.print("SUCCESS");
-                CPUTimeSum = CPUTimeSum + cloudlet.getActualCPUTime();
-                waitTimeSum = waitTimeSum + cloudlet.getWaitingTime();
-                Log.printLine(
-                    indent + indent + indent + (cloudlet.getResourceId() - 1) + indent + indent + indent + cloudlet.getVmId() +
-                        indent + indent + dft.format(cloudlet.getActualCPUTime()) + indent + indent
-                        + dft.format(cloudlet.getExecStartTime()) +
-                        indent + indent + dft.format(cloudlet.getFinishTime()) + indent + indent + indent
-                        + dft.format(cloudlet.getWaitingTime()));
-                totalValues++;
-
-                response_time[i] = cloudlet.getActualCPUTime();
-            }
+        double waitTimeSum = stats.getTotalWaitingTime();
+        double CPUTimeSum = stats.getTotalCpuTime();
+        int totalValues = stats.getSuccesses();
+
+        // Mencetak status semua cloudlet sekaligus
+        printCloudletTable(results);
+
+        // Menghitung statistik untuk waktu respons, cloudlet yang gagal dihitung dengan waktu 0
+        double minResponseTime = stats.getMinCpuTime();
+        double maxResponseTime = stats.getMaxCpuTime();
+        if (totalValues < size) {
+            minResponseTime = Math.min(minResponseTime, 0);
+            maxResponseTime = Math.max(maxResponseTime, 0);
         }
-        
-        // Menghitung statistik untuk waktu respons
-        DoubleSummaryStatistics stats = DoubleStream.of(response_time).summaryStatistics();
 
         // ================= VM STATISTICS =================
-        // Tracking CPU time and task count per VM
-        java.util.Map<Integer, Double> vmCpuTimeMap = new java.util.HashMap<>();
-        java.util.Map<Integer, Integer> vmTaskCountMap = new java.util.HashMap<>();
-        
-        // Tracking individual tasks per VM for detailed execution time display
-        java.util.Map<Integer, java.util.List<String>> vmTaskDetailsMap = new java.util.HashMap<>();
-        
-        // Initialize all VMs with 0 values and empty task lists
-        for (int i = 0; i < vmlist.size(); i++) {
-            vmCpuTimeMap.put(i, 0.0);
-            vmTaskCountMap.put(i, 0);
-            vmTaskDetailsMap.put(i, new java.util.ArrayList<String>());
-        }
-        
-        // Aggregate data per VM from successful cloudlets
-        for (int i = 0; i < size; i++) {
-            cloudlet = list.get(i);
-            if (cloudlet.getCloudletStatus() == Cloudlet.SUCCESS) {
-                int vmId = cloudlet.getVmId();
-                int cloudletId = cloudlet.getCloudletId();
-                double cpuTime = cloudlet.getActualCPUTime();
-                
-                // Update CPU time for this VM
-                vmCpuTimeMap.put(vmId, vmCpuTimeMap.get(vmId) + cpuTime);
-                
-                // Update task count for this VM
-                vmTaskCountMap.put(vmId, vmTaskCountMap.get(vmId) + 1);
-                
-                // Store individual task details (Task ID and execution time)
-                // Format: "TaskID:ExecutionTime" for easier sorting later
-                String taskDetail = String.format("%d:%.0f", cloudletId, cpuTime);
-                vmTaskDetailsMap.get(vmId).add(taskDetail);
-            }
-        }
-        
-        // Print VM statistics
-        Log.printLine();
-        Log.printLine("================= VM STATISTICS =================");
-        Log.printLine("VM CPU Time and Task Distribution with Individual Task Execution Times:");
-        Log.printLine("Format: VM ID = Total CPU Time (ms), Task Count");
-        Log.printLine("        Task ID: Individual Execution Time (ms)");
-        Log.printLine("-------------------------------------------------------------------");
-        
-        for (int vmId = 0; vmId < vmlist.size(); vmId++) {
-            double vmCpuTime = vmCpuTimeMap.get(vmId);
-            int vmTaskCount = vmTaskCountMap.get(vmId);
-            java.util.List<String> taskDetails = vmTaskDetailsMap.get(vmId);
-            
-            // Print VM summary
-            Log.printLine(String.format("VM %d = %.0fms, %d tasks", 
-                          vmId, vmCpuTime, vmTaskCount));
-            
-            // Print individual task execution times if there are tasks
-            if (vmTaskCount > 0) {
-                // Parse and sort tasks by execution time (descending)
-                java.util.List<TaskInfo> taskInfoList = new java.util.ArrayList<>();
-                for (String taskDetail : taskDetails) {
-                    String[] parts = taskDetail.split(":");
-                    int taskId = Integer.parseInt(parts[0]);
-                    double execTime = Double.parseDouble(parts[1]);
-                    taskInfoList.add(new TaskInfo(taskId, execTime));
-                }
-                
-                // Sort by execution time (descending - longest first)
-                java.util.Collections.sort(taskInfoList, new java.util.Comparator<TaskInfo>() {
-                    public int compare(TaskInfo a, TaskInfo b) {
-                        return Double.compare(b.execTime, a.execTime); // Descending order
-                    }
-                });
-                
-                // Print sorted tasks
-                for (TaskInfo taskInfo : taskInfoList) {
-                    Log.printLine(String.format("    Task %d: %.0fms", 
-                                  taskInfo.taskId, taskInfo.execTime));
-                }
-                
-                // Calculate and display VM-specific statistics
-                double minExecTime = taskInfoList.get(taskInfoList.size() - 1).execTime;
-                double maxExecTime = taskInfoList.get(0).execTime;
-                double avgExecTime = vmCpuTime / vmTaskCount;
-                double rangeExecTime = maxExecTime - minExecTime;
-                
-                Log.printLine(String.format("    VM %d Stats: Min=%.0fms, Max=%.0fms, Avg=%.0fms, Range=%.0fms", 
-                              vmId, minExecTime, maxExecTime, avgExecTime, rangeExecTime));
-                
-                // Write VM statistics to CSV
-                try {
-                    // Create task details string for CSV (TaskID:ExecTime format)
-                    StringBuilder taskDetailsBuilder = new StringBuilder();
-                    for (int j = 0; j < taskInfoList.size(); j++) {
-                        if (j > 0) taskDetailsBuilder.append("|");  // Use pipe separator instead of semicolon
-                        taskDetailsBuilder.append(String.format("T%d:%.0f", 
-                                                taskInfoList.get(j).taskId, taskInfoList.get(j).execTime));
-                    }
-                    
-                    // Properly escape the task details for CSV by replacing quotes
-                    String taskDetailsEscaped = taskDetailsBuilder.toString().replace("\"", "\"\"");
-                    
-                    vmCsvWriter.write(String.format("%d,%d,%.0f,%d,\"%s\",%.0f,%.0f,%.0f,%.0f\n",
-                        trialNum, vmId, vmCpuTime, vmTaskCount, 
-                        taskDetailsEscaped,
-                        minExecTime, maxExecTime, avgExecTime, rangeExecTime));
-                    
-                    // Log sample of task details format for verification (only for first few VMs)
-                    if (vmId < 3 && trialNum == 1) {
-                        Log.printLine(String.format("    CSV Format Sample VM %d: \"%s\"", vmId, taskDetailsEscaped));
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                
-            } else {
-                Log.printLine("    No tasks assigned");
-                
-                // Write empty VM record to CSV
-                try {
-                    vmCsvWriter.write(String.format("%d,%d,%.0f,%d,\"%s\",%.0f,%.0f,%.0f,%.0f\n",
-                        trialNum, vmId, 0.0, 0, "NO_TASKS", 0.0, 0.0, 0.0, 0.0));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            
-            // Add a separator between VMs for better readability
-            if (vmId < vmlist.size() - 1) {
-                Log.printLine("    ---");
-            }
-        }
-        
+        printVmStatistics(results, stats, trialNum);
+
         // Calculate and display VM utilization statistics
         double totalVmCpuTime = 0.0;
         int totalTasks = 0;
-        
+
         // Calculate totals using traditional loop
         for (int vmId = 0; vmId < vmlist.size(); vmId++) {
-            totalVmCpuTime += vmCpuTimeMap.get(vmId);
-            totalTasks += vmTaskCountMap.get(vmId);
+            totalVmCpuTime += stats.getVmCpuTime(vmId);
+            totalTasks += stats.getVmCount(vmId);
         }
         
         Log.printLine("-------------------------------------------");
@@ -763,7 +748,7 @@ public class CloudSimulationABC {
         int minTasks = Integer.MAX_VALUE;
         
         for (int vmId = 0; vmId < vmlist.size(); vmId++) {
-            int currentTasks = vmTaskCountMap.get(vmId);
+            int currentTasks = stats.getVmCount(vmId);
             if (currentTasks > maxTasks) {
                 maxTasks = currentTasks;
                 maxTaskVmId = vmId;
@@ -775,11 +760,11 @@ public class CloudSimulationABC {
         }
             
         if (maxTaskVmId != -1 && minTaskVmId != -1) {
-            Log.printLine("Highest loaded VM: VM " + maxTaskVmId + " with " + vmTaskCountMap.get(maxTaskVmId) + " tasks");
-            Log.printLine("Lowest loaded VM: VM " + minTaskVmId + " with " + vmTaskCountMap.get(minTaskVmId) + " tasks");
+            Log.printLine("Highest loaded VM: VM " + maxTaskVmId + " with " + maxTasks + " tasks");
+            Log.printLine("Lowest loaded VM: VM " + minTaskVmId + " with " + minTasks + " tasks");
             
             // Calculate load balance ratio
-            double loadImbalance = (double)vmTaskCountMap.get(maxTaskVmId) / vmTaskCountMap.get(minTaskVmId);
+            double loadImbalance = (double) maxTasks / minTasks;
             Log.printLine("Load Imbalance Ratio: " + String.format("%.2f", loadImbalance) + " (Max/Min tasks)");
         }
         Log.printLine("================================================");
@@ -790,7 +775,6 @@ public class CloudSimulationABC {
         } catch (IOException e) {
             e.printStackTrace();
         }
-
         // Mencetak berbagai metrik kinerja dengan detail kalkulasi
         Log.printLine();
         Log.printLine("============= PERFORMANCE METRICS CALCULATIONS =============");
@@ -806,12 +790,7 @@ public class CloudSimulationABC {
         
         // 2. Average Start Time
         Log.printLine("\n2. AVERAGE START TIME:");
-        double totalStartTime = 0.0;
-        for (int i = 0; i < size; i++) {
-            if (list.get(i).getCloudletStatus() == Cloudlet.SUCCESS) { // Only count successful cloudlets
-                totalStartTime += list.get(i).getExecStartTime();
-            }
-        }
+        double totalStartTime = stats.getSuccessStartTime(); // Only count successful cloudlets
         double avgStartTime = totalStartTime / totalValues; // Fix: use totalValues for consistency
         Log.printLine("   Total Start Time: " + String.format("%,.6f", totalStartTime));
         Log.printLine("   Number of Cloudlets: " + totalValues);
@@ -830,12 +809,7 @@ public class CloudSimulationABC {
         
         // 4. Average Finish Time
         Log.printLine("\n4. AVERAGE FINISH TIME:");
-        double totalFinishTime = 0.0;
-        for (int i = 0; i < size; i++) {
-            if (list.get(i).getCloudletStatus() == Cloudlet.SUCCESS) { // Only count successful cloudlets
-                totalFinishTime += list.get(i).getFinishTime();
-            }
-        }
+        double totalFinishTime = stats.getSuccessFinishTime(); // Only count successful cloudlets
         double avgFinishTime = totalFinishTime / totalValues; // Fix: use totalValues for consistency
         Log.printLine("   Total Finish Time: " + String.format("%,.6f", totalFinishTime));
         Log.printLine("   Number of Cloudlets: " + totalValues);
@@ -845,14 +819,7 @@ public class CloudSimulationABC {
         
         // 5. Throughput
         Log.printLine("\n5. THROUGHPUT:");
-        double maxFinishTime = 0.0;
-        for (int i = 0; i < size; i++) {
-            if (list.get(i).getCloudletStatus() == Cloudlet.SUCCESS) { // Only consider successful cloudlets
-                if (list.get(i).getFinishTime() > maxFinishTime) {
-                    maxFinishTime = list.get(i).getFinishTime();
-                }
-            }
-        }
+        double maxFinishTime = stats.getSuccessMaxFinishTime(); // Only consider successful cloudlets
         double throughput = totalValues / maxFinishTime; // Fix: use totalValues for successful cloudlets
         Log.printLine("   Number of Cloudlets Completed: " + totalValues);
         Log.printLine("   Maximum Finish Time: " + String.format("%,.6f", maxFinishTime));
@@ -869,8 +836,6 @@ public class CloudSimulationABC {
         
         // 7. Imbalance Degree
         Log.printLine("\n7. IMBALANCE DEGREE:");
-        double minResponseTime = stats.getMin();
-        double maxResponseTime = stats.getMax();
         double avgResponseTime = avgExecTime;
         double imbalanceDegree = (maxResponseTime - minResponseTime) / avgResponseTime;
         Log.printLine("   Maximum Response Time: " + String.format("%,.6f", maxResponseTime));
@@ -957,4 +922,126 @@ public class CloudSimulationABC {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Mencetak tabel hasil cloudlet
+     * 
+     * Tabel dibangun dalam satu StringBuilder dan dicetak sekaligus.
+     * 
+     * @param results Hasil cloudlet
+     */
+    private static void printCloudletTable(CloudletResults results) {
+        if (Log.isDisabled()) {
+            return;
+        }
+        String indent = "    ";
+        String newLine = System.getProperty("line.separator");
+        int size = results.size();
+        RoundedFormat dft = new RoundedFormat(2); // sama dengan DecimalFormat("###,##")
+        StringBuilder out = new StringBuilder(size * 80);
+        for (int i = 0; i < size; i++) {
+            out.append(results.getCloudletId(i)).append(indent).append(indent);
+
+            // Jika cloudlet berhasil diproses
+            if (results.isSuccess(i)) {
+                out.append("SUCCESS")
+                    .append(indent).append(indent).append(indent).append(results.getResourceId(i) - 1)
+                    .append(indent).append(indent).append(indent).append(results.getVmId(i))
+                    .append(indent).append(indent);
+                dft.append(out, results.getActualCPUTime(i)).append(indent).append(indent);
+                dft.append(out, results.getExecStartTime(i)).append(indent).append(indent);
+                dft.append(out, results.getFinishTime(i)).append(indent).append(indent).append(indent);
+                dft.append(out, results.getWaitingTime(i)).append(newLine);
+            }
+        }
+        Log.print(out.toString());
+    }
+
+    /**
+     * Mencetak statistik VM beserta waktu eksekusi setiap task, dan menulisnya ke CSV
+     * 
+     * @param results Hasil cloudlet
+     * @param stats Statistik hasil cloudlet
+     * @param trialNum Nomor percobaan saat ini
+     */
+    private static void printVmStatistics(CloudletResults results, CloudletResults.Statistics stats, int trialNum) {
+        String newLine = System.getProperty("line.separator");
+        int size = results.size();
+
+        // Task IDs of each VM, sorted by execution time (descending - longest first)
+        int[] vmTasks = results.groupByVm(stats);
+        int firstTask = 0;
+
+        StringBuilder out = new StringBuilder(size * 24);
+        out.append(newLine);
+        out.append("================= VM STATISTICS =================").append(newLine);
+        out.append("VM CPU Time and Task Distribution with Individual Task Execution Times:").append(newLine);
+        out.append("Format: VM ID = Total CPU Time (ms), Task Count").append(newLine);
+        out.append("        Task ID: Individual Execution Time (ms)").append(newLine);
+        out.append("-------------------------------------------------------------------").append(newLine);
+
+        StringBuilder taskDetails = new StringBuilder();
+        for (int vmId = 0; vmId < vmlist.size(); vmId++) {
+            double vmCpuTime = stats.getVmCpuTime(vmId);
+            int vmTaskCount = stats.getVmCount(vmId);
+
+            // Print VM summary
+            out.append(String.format("VM %d = %.0fms, %d tasks", vmId, vmCpuTime, vmTaskCount)).append(newLine);
+
+            // Print individual task execution times if there are tasks
+            if (vmTaskCount > 0) {
+                // Print sorted tasks, and build the task details for CSV (TaskID:ExecTime format)
+                taskDetails.setLength(0);
+                for (int j = firstTask; j < firstTask + vmTaskCount; j++) {
+                    int taskId = results.getCloudletId(vmTasks[j]);
+                    long execTime = Math.round(results.getActualCPUTime(vmTasks[j]));
+                    out.append("    Task ").append(taskId).append(": ").append(execTime).append("ms").append(newLine);
+                    if (j > firstTask) taskDetails.append('|');  // Use pipe separator instead of semicolon
+                    taskDetails.append('T').append(taskId).append(':').append(execTime);
+                }
+                firstTask += vmTaskCount;
+
+                // Calculate and display VM-specific statistics
+                double minExecTime = stats.getVmMinCpuTime(vmId);
+                double maxExecTime = stats.getVmMaxCpuTime(vmId);
+                double avgExecTime = vmCpuTime / vmTaskCount;
+                double rangeExecTime = maxExecTime - minExecTime;
+
+                out.append(String.format("    VM %d Stats: Min=%.0fms, Max=%.0fms, Avg=%.0fms, Range=%.0fms",
+                              vmId, minExecTime, maxExecTime, avgExecTime, rangeExecTime)).append(newLine);
+
+                // Write VM statistics to CSV
+                try {
+                    vmCsvWriter.write(String.format("%d,%d,%.0f,%d,\"%s\",%.0f,%.0f,%.0f,%.0f\n",
+                        trialNum, vmId, vmCpuTime, vmTaskCount,
+                        taskDetails,
+                        minExecTime, maxExecTime, avgExecTime, rangeExecTime));
+
+                    // Log sample of task details format for verification (only for first few VMs)
+                    if (vmId < 3 && trialNum == 1) {
+                        out.append(String.format("    CSV Format Sample VM %d: \"%s\"", vmId, taskDetails)).append(newLine);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+
+            } else {
+                out.append("    No tasks assigned").append(newLine);
+
+                // Write empty VM record to CSV
+                try {
+                    vmCsvWriter.write(String.format("%d,%d,%.0f,%d,\"%s\",%.0f,%.0f,%.0f,%.0f\n",
+                        trialNum, vmId, 0.0, 0, "NO_TASKS", 0.0, 0.0, 0.0, 0.0));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            // Add a separator between VMs for better readability
+            if (vmId < vmlist.size() - 1) {
+                out.append("    ---").append(newLine);
+            }
+        }
+        Log.print(out.toString());
+    }
+}
@@ -5,14 +5,11 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.DoubleSummaryStatistics;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.DoubleStream;
 import java.io.IOException;
 
 import org.cloudbus.cloudsim.Cloudlet;
@@ -27,6 +24,7 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
@@ -35,6 +33,8 @@ import org.cloudbus.cloudsim.power.models.PowerModelLinear;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.CloudletResults;
+import org.cloudbus.cloudsim.util.RoundedFormat;
 
 
 public class CloudSimulation_GA {
@@ -48,6 +48,8 @@ public class CloudSimulation_GA {
     private static String DATASET_TYPE = "SDSC"; // RandSimple, RandStratified, or SDSC
     private static int DATASET_SIZE = 10; // For RandSimple and RandStratified (multiplied by 1000)
     private static final int NUM_TRIALS = 10; // Number of trials to run
+    private static final boolean WHOLE_WORKLOAD = false; // Optimise all cloudlets over all VMs at once instead of per batch and datacenter
+    private static final int WORKLOAD_ITERATIONS = 2000; // Maximum number of generations for the whole workload
     
     public static void main(String[] args) {
         Locale.setDefault(new Locale("en", "US"));
@@ -150,7 +152,24 @@ public class CloudSimulation_GA {
         int cloudletLoopingNumber = cloudletNumber / vmNumber - 1;
 
         System.out.println("      └─ Running Genetic Algorithm for task scheduling...");
-        for (int cloudletIterator = 0; cloudletIterator <= cloudletLoopingNumber; cloudletIterator++) {
+        if (WHOLE_WORKLOAD) {
+            // One GA run over all the cloudlets: a gene per cloudlet, fitness from the makespan and total cost
+            System.out.println("        └─ Whole workload: " + cloudletNumber + " genes, " + WORKLOAD_ITERATIONS + " generations");
+            GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(WORKLOAD_ITERATIONS, 10, 0.8, 0.1,
+                    cloudletList, vmlist, cloudletNumber);
+            PopulationGA population = geneticAlgorithm.initPopulation(cloudletNumber, FitnessEvaluator.WHOLE_WORKLOAD);
+            geneticAlgorithm.runGA(population, FitnessEvaluator.WHOLE_WORKLOAD, 0);
+            System.out.println("            └─ " + geneticAlgorithm.getLastRun());
+
+            int[] bestSolution = geneticAlgorithm.getBestVmAllocationForDatacenter(FitnessEvaluator.WHOLE_WORKLOAD);
+
+            System.out.println("            └─ Assigning tasks to VMs");
+            for (int assigner = 0; assigner < cloudletNumber; assigner++) {
+                broker.bindCloudletToVm(assigner, bestSolution[assigner]);
+            }
+        }
+
+        for (int cloudletIterator = 0; !WHOLE_WORKLOAD && cloudletIterator <= cloudletLoopingNumber; cloudletIterator++) {
             System.out.println("        └─ Cloudlet Iteration " + cloudletIterator + "/" + cloudletLoopingNumber);
 
             for (int dataCenterIterator = 1; dataCenterIterator <= 6; dataCenterIterator++) {
@@ -169,7 +188,8 @@ public class CloudSimulation_GA {
                 PopulationGA population = geneticAlgorithm.initPopulation(cloudletNumber, dataCenterIterator);
 
                 System.out.println("            └─ Running Genetic Algorithm");
-                geneticAlgorithm.runGA(population, dataCenterIterator);
+                geneticAlgorithm.runGA(population, dataCenterIterator, cloudletIterator);
+                System.out.println("            └─ " + geneticAlgorithm.getLastRun());
 
                 int[] bestSolution = geneticAlgorithm.getBestVmAllocationForDatacenter(dataCenterIterator);
 
@@ -393,9 +413,10 @@ public class CloudSimulation_GA {
      * @param trialNum Nomor percobaan saat ini
      */
     private static void printCloudletList(List<Cloudlet> list, int trialNum) throws FileNotFoundException {
-        // Inisialisasi output yang dicetak ke nol
-        int size = list.size();
-        Cloudlet cloudlet = null;
+        // Menyimpan hasil cloudlet dalam kolom primitif dan menghitung statistik dalam satu kali jalan
+        CloudletResults results = CloudletResults.of(list);
+        CloudletResults.Statistics stats = results.getStatistics(vmlist.size());
+        int size = results.size();
 
         String indent = "    ";
         Log.printLine();
@@ -405,37 +426,20 @@ public class CloudSimulation_GA {
             + indent + "Start Time" + indent + "Finish Time" + indent + "Waiting Time");
 
         // Variabel untuk menghitung statistik
-        double waitTimeSum = 0.0;
-        double CPUTimeSum = 0.0;
-        int totalValues = 0;
-        DecimalFormat dft = new DecimalFormat("###,##");
-
-        double response_time[] = new double[size];
-
-        // Mencetak status semua cloudlet
-        for (int i = 0; i < size; i++) {
-            cloudlet = list.get(i);
-            Log.print(cloudlet.getCloudletId() + indent + indent);
-
-            // Jika cloudlet berhasil diproses
-            if (cloudlet.getCloudletStatus() == Cloudlet.SUCCESS) {
-                Log.print("SUCCESS");
-                CPUTimeSum = CPUTimeSum + cloudlet.getActualCPUTime();
-                waitTimeSum = waitTimeSum + cloudlet.getWaitingTime();
-                Log.printLine(
-                    indent + indent + indent + (cloudlet.getResourceId() - 1) + indent + indent + indent + cloudlet.getVmId() +
-                        indent + indent + dft.format(cloudlet.getActualCPUTime()) + indent + indent
-                        + dft.format(cloudlet.getExecStartTime()) +
-                        indent + indent + dft.format(cloudlet.getFinishTime()) + indent + indent + indent
-                        + dft.format(cloudlet.getWaitingTime()));
-                totalValues++;
-
-                response_time[i] = cloudlet.getActualCPUTime();
-            }
+        double waitTimeSum = stats.getTotalWaitingTime();
+        double CPUTimeSum = stats.getTotalCpuTime();
+        int totalValues = stats.getSuccesses();
+
+        // Mencetak status semua cloudlet sekaligus
+        printCloudletTable(results);
+
+        // Menghitung statistik untuk waktu respons, cloudlet yang gagal dihitung dengan waktu 0
+        double minResponseTime = stats.getMinCpuTime();
+        double maxResponseTime = stats.getMaxCpuTime();
+        if (totalValues < size) {
+            minResponseTime = Math.min(minResponseTime, 0);
+            maxResponseTime = Math.max(maxResponseTime, 0);
         }
-        
-        // Menghitung statistik untuk waktu respons
-        DoubleSummaryStatistics stats = DoubleStream.of(response_time).summaryStatistics();
 
         // Mencetak berbagai metrik kinerja dengan detail kalkulasi
         Log.printLine();
@@ -452,10 +456,7 @@ public class CloudSimulation_GA {
         
         // 2. Average Start Time
         Log.printLine("\n2. AVERAGE START TIME:");
-        double totalStartTime = 0.0;
-        for (int i = 0; i < size; i++) {
-            totalStartTime += list.get(i).getExecStartTime();
-        }
+        double totalStartTime = stats.getTotalStartTime();
         double avgStartTime = totalStartTime / size;
         Log.printLine("   Total Start Time: " + String.format("%,.6f", totalStartTime));
         Log.printLine("   Number of Cloudlets: " + size);
@@ -474,10 +475,7 @@ public class CloudSimulation_GA {
         
         // 4. Average Finish Time
         Log.printLine("\n4. AVERAGE FINISH TIME:");
-        double totalFinishTime = 0.0;
-        for (int i = 0; i < size; i++) {
-            totalFinishTime += list.get(i).getFinishTime();
-        }
+        double totalFinishTime = stats.getTotalFinishTime();
         double avgFinishTime = totalFinishTime / size;
         Log.printLine("   Total Finish Time: " + String.format("%,.6f", totalFinishTime));
         Log.printLine("   Number of Cloudlets: " + size);
@@ -487,12 +485,7 @@ public class CloudSimulation_GA {
         
         // 5. Throughput
         Log.printLine("\n5. THROUGHPUT:");
-        double maxFinishTime = stats.getMax();
-        for (int i = 0; i < size; i++) {
-            if (list.get(i).getFinishTime() > maxFinishTime) {
-                maxFinishTime = list.get(i).getFinishTime();
-            }
-        }
+        double maxFinishTime = Math.max(maxResponseTime, stats.getMaxFinishTime());
         double throughput = size / maxFinishTime;
         Log.printLine("   Number of Cloudlets Completed: " + size);
         Log.printLine("   Maximum Finish Time: " + String.format("%,.6f", maxFinishTime));
@@ -509,8 +502,6 @@ public class CloudSimulation_GA {
         
         // 7. Imbalance Degree
         Log.printLine("\n7. IMBALANCE DEGREE:");
-        double minResponseTime = stats.getMin();
-        double maxResponseTime = stats.getMax();
         double avgResponseTime = avgExecTime;
         double imbalanceDegree = (maxResponseTime - minResponseTime) / avgResponseTime;
         Log.printLine("   Maximum Response Time: " + String.format("%,.6f", maxResponseTime));
@@ -597,4 +588,38 @@ public class CloudSimulation_GA {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Mencetak tabel hasil cloudlet
+     * 
+     * Tabel dibangun dalam satu StringBuilder dan dicetak sekaligus.
+     * 
+     * @param results Hasil cloudlet
+     */
+    private static void printCloudletTable(CloudletResults results) {
+        if (Log.isDisabled()) {
+            return;
+        }
+        String indent = "    ";
+        String newLine = System.getProperty("line.separator");
+        int size = results.size();
+        RoundedFormat dft = new RoundedFormat(2); // sama dengan DecimalFormat("###,##")
+        StringBuilder out = new StringBuilder(size * 80);
+        for (int i = 0; i < size; i++) {
+            out.append(results.getCloudletId(i)).append(indent).append(indent);
+
+            // Jika cloudlet berhasil diproses
+            if (results.isSuccess(i)) {
+                out.append("SUCCESS")
+                    .append(indent).append(indent).append(indent).append(results.getResourceId(i) - 1)
+                    .append(indent).append(indent).append(indent).append(results.getVmId(i))
+                    .append(indent).append(indent);
+                dft.append(out, results.getActualCPUTime(i)).append(indent).append(indent);
+                dft.append(out, results.getExecStartTime(i)).append(indent).append(indent);
+                dft.append(out, results.getFinishTime(i)).append(indent).append(indent).append(indent);
+                dft.append(out, results.getWaitingTime(i)).append(newLine);
+            }
+        }
+        Log.print(out.toString());
+    }
+}
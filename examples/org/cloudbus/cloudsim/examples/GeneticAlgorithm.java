@@ -5,6 +5,11 @@ import java.util.Random;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.GeneticMove;
+import org.cloudbus.cloudsim.examples.metaheuristic.MetaheuristicEngine;
+import org.cloudbus.cloudsim.examples.metaheuristic.RunStatistics;
+import org.cloudbus.cloudsim.examples.metaheuristic.Termination;
 
 /**
  * Implementation of the Genetic Algorithm for VM allocation in cloud computing.
@@ -26,6 +31,9 @@ import org.cloudbus.cloudsim.Vm;
  *   end while
  *   return the best solution, Ypt
  * end
+ *
+ * A generation is a {@link GeneticMove} run by the {@link MetaheuristicEngine}. Besides MAX, a run
+ * can be stopped earlier by a {@link Termination} policy, and is reported by {@link #getLastRun()}.
  */
 public class GeneticAlgorithm {
     private int maxIterations; // Maximum number of iterations
@@ -34,9 +42,10 @@ public class GeneticAlgorithm {
     private double mutationProbability; // Probability of mutation
     private List<Cloudlet> cloudletList; // List of cloudlets (tasks)
     private List<Vm> vmList; // List of VMs
-    private int numberOfDataCenters = 6; // Number of datacenters
-    private double[] globalBestFitnesses; // Best fitness values for each datacenter
-    private int[][] globalBestPositions; // Best positions (solutions) for each datacenter
+    private MetaheuristicEngine engine; // Fitness evaluation, random numbers and best solution of each datacenter
+    private GeneticMove geneticMove; // Selection, crossover and mutation of a generation
+    private Termination termination; // Additional termination policy, if any
+    private RunStatistics lastRun; // Report of the last run
 
     /**
      * Constructor
@@ -57,16 +66,8 @@ public class GeneticAlgorithm {
         this.mutationProbability = mutationProbability;
         this.cloudletList = cloudletList;
         this.vmList = vmList;
-
-        globalBestFitnesses = new double[numberOfDataCenters];
-        globalBestPositions = new int[numberOfDataCenters][];
-
-        for (int i = 0; i < numberOfDataCenters; i++) {
-            // Initialize best fitness as negative infinity
-            globalBestFitnesses[i] = Double.NEGATIVE_INFINITY;
-            // Array to store best positions for each datacenter
-            globalBestPositions[i] = new int[chromosomeLength];
-        }
+        this.engine = new MetaheuristicEngine(new FitnessEvaluator(cloudletList, vmList), new Random());
+        this.geneticMove = new GeneticMove(crossoverProbability, mutationProbability);
     }
 
     /**
@@ -77,7 +78,8 @@ public class GeneticAlgorithm {
      */
     public PopulationGA initPopulation(int chromosomeLength, int dataCenterIterator) {
         // Create a new population
-        PopulationGA population = new PopulationGA(this.populationSize, chromosomeLength, dataCenterIterator);
+        PopulationGA population = new PopulationGA(this.populationSize, chromosomeLength, dataCenterIterator,
+                engine.getEvaluator(), engine.getRandom());
         return population;
     }
 
@@ -85,244 +87,77 @@ public class GeneticAlgorithm {
      * Compute fitness for all chromosomes in the population
      * @param population The population
      * @param dataCenterIterator Index of the datacenter being processed
+     * @param cloudletIteration Index of the cloudlet iteration
      */
-    public void computeFitness(PopulationGA population, int dataCenterIterator) {
-        for (Chromosome chromosome : population.getChromosomes()) {
-            double fitness = calcFitness(chromosome, dataCenterIterator, 0);
-            chromosome.setFitness(fitness);
-        }
-    }
-
-    /**
-     * Select a pair of chromosomes using tournament selection
-     * @param population The population
-     * @return An array containing two selected chromosomes
-     */
-    public Chromosome[] selectParents(PopulationGA population) {
-        Random random = new Random();
-        Chromosome[] parents = new Chromosome[2];
-        
-        // Tournament selection
-        for (int i = 0; i < 2; i++) {
-            // Select 3 random chromosomes for tournament
-            Chromosome best = null;
-            double bestFitness = Double.NEGATIVE_INFINITY;
-            
-            for (int j = 0; j < 3; j++) {
-                int index = random.nextInt(population.getChromosomes().size());
-                Chromosome candidate = population.getChromosome(index);
-                
-                if (candidate.getFitness() > bestFitness) {
-                    bestFitness = candidate.getFitness();
-                    best = candidate;
-                }
-            }
-            
-            parents[i] = best;
-        }
-        
-        return parents;
-    }
-
-    /**
-     * Apply crossover operation on selected parents
-     * @param parent1 First parent
-     * @param parent2 Second parent
-     * @return An array containing two offspring
-     */
-    public Chromosome[] crossover(Chromosome parent1, Chromosome parent2) {
-        Random random = new Random();
-        Chromosome[] offspring = new Chromosome[2];
-        
-        // Create offspring with same IDs as parents
-        offspring[0] = new Chromosome(parent1.getId(), new int[parent1.getChromosomeLength()]);
-        offspring[1] = new Chromosome(parent2.getId(), new int[parent2.getChromosomeLength()]);
-        
-        // Apply crossover with probability
-        if (random.nextDouble() < crossoverProbability) {
-            // Single-point crossover
-            int crossoverPoint = random.nextInt(parent1.getChromosomeLength());
-            
-            // Copy genes from parents to offspring
-            for (int i = 0; i < parent1.getChromosomeLength(); i++) {
-                if (i < crossoverPoint) {
-                    offspring[0].setGene(i, parent1.getGene(i));
-                    offspring[1].setGene(i, parent2.getGene(i));
-                } else {
-                    offspring[0].setGene(i, parent2.getGene(i));
-                    offspring[1].setGene(i, parent1.getGene(i));
-                }
-            }
-        } else {
-            // No crossover, copy parents directly
-            for (int i = 0; i < parent1.getChromosomeLength(); i++) {
-                offspring[0].setGene(i, parent1.getGene(i));
-                offspring[1].setGene(i, parent2.getGene(i));
-            }
-        }
-        
-        return offspring;
-    }
-
-    /**
-     * Apply mutation operation on offspring
-     * @param offspring The offspring to mutate
-     * @param dataCenterIterator Index of the datacenter being processed
-     */
-    public void mutate(Chromosome offspring, int dataCenterIterator) {
-        Random random = new Random();
-        
-        // Apply mutation with probability for each gene
-        for (int i = 0; i < offspring.getChromosomeLength(); i++) {
-            if (random.nextDouble() < mutationProbability) {
-                // Generate a new random value for the gene
-                int minPosition = (dataCenterIterator - 1) * 9;
-                int maxPosition = (dataCenterIterator * 9) - 1;
-                int newValue = minPosition + random.nextInt(maxPosition - minPosition + 1);
-                offspring.setGene(i, newValue);
-            }
-        }
+    public void computeFitness(PopulationGA population, int dataCenterIterator, int cloudletIteration) {
+        engine.start(population, dataCenterIterator, cloudletIteration);
+        engine.evaluateAll();
     }
 
     /**
      * Run the genetic algorithm
      * @param population The initial population
      * @param dataCenterIterator Index of the datacenter being processed
+     * @param cloudletIteration Index of the cloudlet iteration
      */
-    public void runGA(PopulationGA population, int dataCenterIterator) {
-        int iteration = 0;
+    public void runGA(PopulationGA population, int dataCenterIterator, int cloudletIteration) {
+        RunStatistics run = new RunStatistics();
+        lastRun = run;
+        run.start();
         
         // Compute initial fitness
-        computeFitness(population, dataCenterIterator);
+        computeFitness(population, dataCenterIterator, cloudletIteration);
+        long evaluations = population.size();
+        run.progress(evaluations, engine.getBestFitness(dataCenterIterator));
+        run.lap("initialisation");
         
-        // Main iteration loop
-        while (iteration < maxIterations) {
-            // Create a new population for the next generation
-            List<Chromosome> newPopulation = new java.util.ArrayList<>();
-            
-            // Elitism: Keep the best chromosome
-            population.sortByFitness();
-            newPopulation.add(population.getChromosome(0).clone());
-            
-            // Generate the rest of the new population
-            while (newPopulation.size() < population.getPopulationSize()) {
-                // Select parents
-                Chromosome[] parents = selectParents(population);
-                
-                // Apply crossover
-                Chromosome[] offspring = crossover(parents[0], parents[1]);
-                
-                // Apply mutation
-                mutate(offspring[0], dataCenterIterator);
-                mutate(offspring[1], dataCenterIterator);
-                
-                // Add offspring to new population
-                newPopulation.add(offspring[0]);
-                if (newPopulation.size() < population.getPopulationSize()) {
-                    newPopulation.add(offspring[1]);
-                }
-            }
-            
-            // Replace old population with new population
-            population.setChromosomes(newPopulation);
-            
-            // Compute fitness for new population
-            computeFitness(population, dataCenterIterator);
-            
-            // Sort population by fitness
-            population.sortByFitness();
-            
-            // Update global best if necessary
-            int dcIndex = dataCenterIterator - 1;
-            if (population.getChromosome(0).getFitness() > globalBestFitnesses[dcIndex]) {
-                globalBestFitnesses[dcIndex] = population.getChromosome(0).getFitness();
-                globalBestPositions[dcIndex] = population.getChromosome(0).getGenes().clone();
-            }
+        // Main iteration loop, until MAX iterations or the termination policy
+        Termination stop = Termination.anyOf(Termination.maxIterations(maxIterations), termination);
+        while (!run.shouldStop(stop)) {
+            // Select, cross over and mutate a new generation, replace the old one and compute its
+            // fitness, updating the global best
+            evaluations += engine.step(geneticMove);
             
             // Increment iteration counter
-            iteration++;
-        }
-    }
-
-    /**
-     * Calculate fitness for a chromosome
-     * @param chromosome The chromosome
-     * @param dataCenterIterator Index of the datacenter being processed
-     * @param cloudletIteration Index of the cloudlet iteration
-     * @return The fitness value
-     */
-    public double calcFitness(Chromosome chromosome, int dataCenterIterator, int cloudletIteration) {
-        double totalExecutionTime = 0;
-        double totalCost = 0;
-        int iterator = 0;
-        dataCenterIterator = dataCenterIterator - 1;
-
-        for (int i = 0 + dataCenterIterator * 9 + cloudletIteration * 54;
-             i < 9 + dataCenterIterator * 9 + cloudletIteration * 54; i++) {
-            int gene = chromosome.getGene(iterator);
-            double mips = calculateMips(gene % 9);
-
-            totalExecutionTime += cloudletList.get(i).getCloudletLength() / mips;
-            totalCost += calculateCost(vmList.get(gene % 9), cloudletList.get(i));
-            iterator++;
+            run.iteration(evaluations, engine.getBestFitness(dataCenterIterator));
+            run.lap("generations");
         }
-
-        double makespanFitness = calculateMakespanFitness(totalExecutionTime);
-        double costFitness = calculateCostFitness(totalCost);
-
-        double fitness = makespanFitness + costFitness;
-
-        chromosome.setFitness(fitness);
-        return fitness;
     }
 
     /**
-     * Calculate MIPS for a VM
-     * @param vmIndex Index of the VM
-     * @return The MIPS value
+     * Add a termination policy to the MAX iterations, e.g. a deadline; a run stops when either is met
+     * @param termination The termination policy, null for MAX iterations only
      */
-    private double calculateMips(int vmIndex) {
-        double mips = 0;
-        if (vmIndex % 9 == 0 || vmIndex % 9 == 3 || vmIndex % 9 == 6) {
-            mips = 400;
-        } else if (vmIndex % 9 == 1 || vmIndex % 9 == 4 || vmIndex % 9 == 7) {
-            mips = 500;
-        } else if (vmIndex % 9 == 2 || vmIndex % 9 == 5 || vmIndex % 9 == 8) {
-            mips = 600;
-        }
-        return mips;
+    public void setTermination(Termination termination) {
+        this.termination = termination;
     }
 
     /**
-     * Calculate cost for a VM-cloudlet pair
-     * @param vm The VM
-     * @param cloudlet The cloudlet
-     * @return The cost
+     * Get the report of the last run: why it stopped, its iterations and evaluations, and the time
+     * of its phases
+     * @return The report, null before the first run
      */
-    private double calculateCost(Vm vm, Cloudlet cloudlet) {
-        double costPerMips = vm.getCostPerMips();
-        double cloudletLength = cloudlet.getCloudletLength();
-        double mips = vm.getMips();
-        double executionTime = cloudletLength / mips;
-        return costPerMips * executionTime;
+    public RunStatistics getLastRun() {
+        return lastRun;
     }
 
     /**
-     * Calculate makespan fitness
-     * @param totalExecutionTime Total execution time
-     * @return The makespan fitness
+     * Calculate fitness for a chromosome
+     * @param chromosome The genes of the chromosome
+     * @param dataCenterIterator Index of the datacenter being processed
+     * @param cloudletIteration Index of the cloudlet iteration
+     * @return The fitness value
      */
-    private double calculateMakespanFitness(double totalExecutionTime) {
-        return 1.0 / totalExecutionTime;
+    public double calcFitness(int[] chromosome, int dataCenterIterator, int cloudletIteration) {
+        return engine.getEvaluator().evaluate(chromosome, 0, dataCenterIterator, cloudletIteration);
     }
 
     /**
-     * Calculate cost fitness
-     * @param totalCost Total cost
-     * @return The cost fitness
+     * Get the optimisation engine, e.g. to evaluate generations in parallel
+     * @return The engine
      */
-    private double calculateCostFitness(double totalCost) {
-        return 1.0 / totalCost;
+    public MetaheuristicEngine getEngine() {
+        return engine;
     }
 
     /**
@@ -331,7 +166,7 @@ public class GeneticAlgorithm {
      * @return The best VM allocation
      */
     public int[] getBestVmAllocationForDatacenter(int dataCenterIterator) {
-        return globalBestPositions[dataCenterIterator - 1];
+        return engine.getBestPosition(dataCenterIterator);
     }
 
     /**
@@ -340,6 +175,6 @@ public class GeneticAlgorithm {
      * @return The best fitness
      */
     public double getBestFitnessForDatacenter(int dataCenterIterator) {
-        return globalBestFitnesses[dataCenterIterator - 1];
+        return engine.getBestFitness(dataCenterIterator);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
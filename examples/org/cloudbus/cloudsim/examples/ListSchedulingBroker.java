@@ -0,0 +1,89 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.examples.metaheuristic.ListScheduler;
+
+/**
+ * Broker yang menjadwalkan cloudlet dengan heuristik list scheduling (Min-Min, Max-Min atau
+ * round-robin) tanpa optimasi metaheuristik, sebagai pembanding ABC, GA dan PSO atau sebagai
+ * penjadwal cadangan ketika tidak ada waktu untuk optimasi.
+ *
+ * Cloudlet yang belum diikat ke VM dijadwalkan pada semua VM yang berhasil dibuat, berdasarkan MIPS
+ * setiap VM, saat cloudlet dikirim; cloudlet yang sudah diikat dengan bindCloudletToVm tetap pada
+ * VM-nya. Cloudlet dikirim dalam urutan penempatan heuristik, sehingga antrean setiap VM
+ * (space-shared) mengikuti urutan tersebut.
+ */
+public class ListSchedulingBroker extends DatacenterBroker {
+    private final ListScheduler.Policy policy;
+    private long schedulingNanos; // Waktu penjadwalan heuristik
+
+    /**
+     * Konstruktor
+     *
+     * @param name Nama broker
+     * @param policy Heuristik penjadwalan
+     * @throws Exception Jika nama broker tidak valid
+     */
+    public ListSchedulingBroker(String name, ListScheduler.Policy policy) throws Exception {
+        super(name);
+        this.policy = policy;
+    }
+
+    @Override
+    protected void submitCloudlets() {
+        long start = System.nanoTime();
+        List<Vm> vms = getVmsCreatedList();
+        List<Cloudlet> unbound = new ArrayList<Cloudlet>();
+        List<Cloudlet> ordered = new ArrayList<Cloudlet>();
+        for (Cloudlet cloudlet : getCloudletList()) {
+            if (cloudlet.getVmId() == -1) {
+                unbound.add(cloudlet);
+            } else {
+                ordered.add(cloudlet);
+            }
+        }
+
+        if (!unbound.isEmpty() && !vms.isEmpty()) {
+            double[] mips = new double[vms.size()];
+            for (int i = 0; i < mips.length; i++) {
+                mips[i] = vms.get(i).getMips();
+            }
+            double[] lengths = new double[unbound.size()];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = unbound.get(i).getCloudletLength();
+            }
+
+            // Menempatkan setiap cloudlet pada VM yang menyelesaikannya paling awal
+            int[] assigned = new int[lengths.length];
+            int[] placed = new ListScheduler(policy, mips).schedule(lengths, 0, lengths.length, assigned, 0);
+            for (int i = 0; i < lengths.length; i++) {
+                Cloudlet cloudlet = unbound.get(placed[i]);
+                cloudlet.setVmId(vms.get(assigned[placed[i]]).getId());
+                ordered.add(cloudlet);
+            }
+            getCloudletList().clear();
+            getCloudletList().addAll(ordered);
+        }
+        schedulingNanos += System.nanoTime() - start;
+
+        super.submitCloudlets();
+    }
+
+    public ListScheduler.Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Mendapatkan waktu yang digunakan heuristik untuk menjadwalkan cloudlet
+     *
+     * @return Waktu penjadwalan dalam milidetik
+     */
+    public double getSchedulingMillis() {
+        return schedulingNanos / 1e6;
+    }
+}
@@ -5,6 +5,11 @@ import java.util.Random;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.MetaheuristicEngine;
+import org.cloudbus.cloudsim.examples.metaheuristic.ParticleMove;
+import org.cloudbus.cloudsim.examples.metaheuristic.RunStatistics;
+import org.cloudbus.cloudsim.examples.metaheuristic.Termination;
 
 public class PSO {
     // Parameters
@@ -17,9 +22,10 @@ public class PSO {
     private List<Cloudlet> cloudletList;
     private List<Vm> vmList;
 
-    private int numberOfDataCenters = 6;
-    private double[] globalBestFitnesses;
-    private int[][] globalBestPositions;
+    private MetaheuristicEngine engine;
+    private ParticleMove particleMove;
+    private Termination termination; // Additional termination policy, if any
+    private RunStatistics lastRun; // Report of the last run of runPSO
 
     public PSO(int Imax, int populationSize, double w, double l1, double l2,
                          List<Cloudlet> cloudletList, List<Vm> vmList, int chromosomeLength) {
@@ -31,152 +37,78 @@ public class PSO {
         this.cloudletList = cloudletList;
         this.vmList = vmList;
 
-        globalBestFitnesses = new double[numberOfDataCenters];
-        globalBestPositions = new int[numberOfDataCenters][];
-
-        for (int i = 0; i < numberOfDataCenters; i++) {
-            globalBestFitnesses[i] = Double.NEGATIVE_INFINITY;
-            globalBestPositions[i] = null;
-        }
+        engine = new MetaheuristicEngine(new FitnessEvaluator(cloudletList, vmList), new Random());
+        particleMove = new ParticleMove(w, l1, l2);
     }
 
     // Step 3: Initialize population
     public PopulationPSO initPopulation(int chromosomeLength, int dataCenterIterator) {
-        PopulationPSO population = new PopulationPSO(this.populationSize, chromosomeLength, dataCenterIterator);
+        PopulationPSO population = new PopulationPSO(this.populationSize, chromosomeLength, dataCenterIterator,
+                engine.getEvaluator(), engine.getRandom());
         return population;
     }
 
     // Step 4: Evaluate fitness
     public void evaluateFitness(PopulationPSO population, int dataCenterIterator, int cloudletIteration) {
-        for (IndividualPSO individual : population.getIndividuals()) {
-            double fitness = calcFitness(individual, dataCenterIterator, cloudletIteration);
-            individual.setFitness(fitness);
-
-            // Step 5: Update personal best
-            if (fitness > individual.getPersonalBestFitness()) {
-                individual.setPersonalBestFitness(fitness);
-                individual.setPersonalBestPosition(individual.getChromosome());
-            }
-
-            // Step 6: Update global best
-            int dcIndex = dataCenterIterator - 1;
-            if (fitness > globalBestFitnesses[dcIndex]) {
-                globalBestFitnesses[dcIndex] = fitness;
-                globalBestPositions[dcIndex] = individual.getChromosome().clone();
-            }
-        }
+        // Step 6: Update global best, in the engine
+        engine.start(population, dataCenterIterator, cloudletIteration);
+        engine.evaluateAll();
+
+        // Step 5: Update personal best
+        population.updatePersonalBests();
     }
 
     // Step 7: Update velocities and positions
     public void updateVelocitiesAndPositions(PopulationPSO population, int iteration, int dataCenterIterator) {
-        Random random = new Random();
-
-        int dcIndex = dataCenterIterator - 1;
-        
-        int[] currentGlobalBestPosition = globalBestPositions[dcIndex];
-
-        for (IndividualPSO particle : population.getIndividuals()) {
-            for (int i = 0; i < particle.getChromosomeLength(); i++) {
-                double vPrev = particle.getVelocity()[i];
-                double pBest = particle.getPersonalBestPosition()[i];
-                int gBest = currentGlobalBestPosition[i];
-                int currentPosition = particle.getGene(i);
-
-                double r1 = random.nextDouble();
-                double r2 = random.nextDouble();
-
-                double newVelocity = w * vPrev
-                        + l1 * r1 * (pBest - currentPosition)
-                        + l2 * r2 * (gBest - currentPosition);
-
-                double vmSize = ((double) vmList.size() / 6.0 ) - 1.0;
-                double Vmax = vmSize * 0.5;
-                double velocityMin = -Vmax;
-                double velocityMax = Vmax;
-
-                if (newVelocity < velocityMin) {
-                    newVelocity = velocityMin;
-                } else if (newVelocity > velocityMax) {
-                    newVelocity = velocityMax;
-                }
-
-                int newPosition = currentPosition + (int) Math.round(newVelocity);
-
-                int minPosition = (dataCenterIterator - 1) * 9;
-                int maxPosition = ((dataCenterIterator) * 9) - 1;
-
-                if (newPosition < minPosition) {
-                    newPosition = minPosition;
-                } else if (newPosition > maxPosition) {
-                    newPosition = maxPosition;
-                }
-
-                particle.setVelocity(i, newVelocity);
-                particle.setGene(i, newPosition);
-            }
-        }
+        engine.start(population, dataCenterIterator, engine.getCloudletIteration());
+        particleMove.updateVelocitiesAndPositions(engine);
     }
 
-    public double calcFitness(IndividualPSO individual, int dataCenterIterator, int cloudletIteration) {
-        double totalExecutionTime = 0;
-        double totalCost = 0;
-        int iterator = 0;
-        dataCenterIterator = dataCenterIterator - 1;
-
-        for (int i = 0 + dataCenterIterator * 9 + cloudletIteration * 54;
-             i < 9 + dataCenterIterator * 9 + cloudletIteration * 54; i++) {
-            int gene = individual.getGene(iterator);
-            double mips = calculateMips(gene % 9);
-
-            totalExecutionTime += cloudletList.get(i).getCloudletLength() / mips;
-            totalCost += calculateCost(vmList.get(gene % 9), cloudletList.get(i));
-            iterator++;
+    // Steps 4-7 until Imax iterations or the termination policy
+    public void runPSO(PopulationPSO population, int dataCenterIterator, int cloudletIteration) {
+        RunStatistics run = new RunStatistics();
+        lastRun = run;
+        run.start();
+
+        evaluateFitness(population, dataCenterIterator, cloudletIteration);
+        long evaluations = population.size();
+        run.progress(evaluations, engine.getBestFitness(dataCenterIterator));
+        run.lap("initialisation");
+
+        Termination stop = Termination.anyOf(Termination.maxIterations(Imax), termination);
+        while (!run.shouldStop(stop)) {
+            updateVelocitiesAndPositions(population, run.getIterations() + 1, dataCenterIterator);
+            run.lap("velocities and positions");
+            evaluateFitness(population, dataCenterIterator, cloudletIteration);
+            evaluations += population.size();
+            run.iteration(evaluations, engine.getBestFitness(dataCenterIterator));
+            run.lap("evaluation");
         }
-
-       double makespanFitness = calculateMakespanFitness(totalExecutionTime);
-       double costFitness = calculateCostFitness(totalCost);
-       
-       double fitness = makespanFitness + costFitness;
-
-       individual.setFitness(fitness);
-       return fitness;        
     }
 
-    private double calculateMips(int vmIndex) {
-        double mips = 0;
-        if (vmIndex % 9 == 0 || vmIndex % 9 == 3 || vmIndex % 9 == 6) {
-            mips = 400;
-        } else if (vmIndex % 9 == 1 || vmIndex % 9 == 4 || vmIndex % 9 == 7) {
-            mips = 500;
-        } else if (vmIndex % 9 == 2 || vmIndex % 9 == 5 || vmIndex % 9 == 8) {
-            mips = 600;
-        }
-        return mips;
+    // Adds a termination policy to the Imax iterations of runPSO, e.g. a deadline; null for Imax only
+    public void setTermination(Termination termination) {
+        this.termination = termination;
     }
 
-    private double calculateCost(Vm vm, Cloudlet cloudlet) {
-      double costPerMips = vm.getCostPerMips();
-      double cloudletLength = cloudlet.getCloudletLength();
-      double mips = vm.getMips();
-      double executionTime = cloudletLength / mips;
-      return costPerMips * executionTime;
+    // Report of the last run of runPSO: why it stopped, its evaluations and the time of its phases
+    public RunStatistics getLastRun() {
+        return lastRun;
     }
 
-    private double calculateMakespanFitness(double totalExecutionTime) {
-      // The higher the makespan, the lower the fitness
-      return 1.0 / totalExecutionTime;
+    public double calcFitness(int[] chromosome, int dataCenterIterator, int cloudletIteration) {
+        return engine.getEvaluator().evaluate(chromosome, 0, dataCenterIterator, cloudletIteration);
     }
 
-    private double calculateCostFitness(double totalCost) {
-      // The lower the cost, the higher the fitness
-      return 1.0 / totalCost;
+    public MetaheuristicEngine getEngine() {
+        return engine;
     }
 
     public int[] getBestVmAllocationForDatacenter(int dataCenterIterator) {
-        return globalBestPositions[dataCenterIterator - 1];
+        return engine.getBestPosition(dataCenterIterator);
     }
 
     public double getBestFitnessForDatacenter(int dataCenterIterator) {
-        return globalBestFitnesses[dataCenterIterator - 1];
+        return engine.getBestFitness(dataCenterIterator);
     }
 }
\ No newline at end of file
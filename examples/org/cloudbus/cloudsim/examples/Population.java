@@ -1,38 +1,44 @@
 package org.cloudbus.cloudsim.examples;
 
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Random;
 
-public class Population {
-    public Individual population[];
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.FlatPopulation;
 
-    public Population(int populationSize) {
-        this.population = new Individual[populationSize];
-    }
+/**
+ * The food sources of ABC, stored flat: row i holds the VM of each cloudlet for food source i
+ */
+public class Population extends FlatPopulation {
 
     public Population(int populationSize, int chromosomeLength, int dataCenterIterator) {
-        this.population = new Individual[populationSize];
-
-        for (int individualCount = 0; individualCount < populationSize; individualCount++) {
-            Individual individual = new Individual(chromosomeLength, dataCenterIterator);
-            this.population[individualCount] = individual;
-        }
-    }
-
-    public Individual[] getIndividuals() {
-        return this.population;
-    }
-
-    public int size() {
-        return this.population.length;
+        this(populationSize, chromosomeLength, FitnessEvaluator.minPosition(dataCenterIterator),
+                FitnessEvaluator.maxPosition(dataCenterIterator), new Random());
     }
 
-    public Individual setIndividual(int offset, Individual individual) {
-        return population[offset] = individual;
+    /**
+     * Creates random food sources among the VMs of a datacenter, or among all the VMs of the fitness
+     * @param populationSize Number of food sources
+     * @param chromosomeLength Number of genes per food source
+     * @param dataCenterIterator Index of the datacenter, from 1, or FitnessEvaluator.WHOLE_WORKLOAD
+     * @param evaluator The fitness function, for the VMs of the whole workload
+     * @param random Random number generator
+     */
+    public Population(int populationSize, int chromosomeLength, int dataCenterIterator, FitnessEvaluator evaluator,
+            Random random) {
+        this(populationSize, chromosomeLength, FitnessEvaluator.minPosition(dataCenterIterator),
+                evaluator.getMaxPosition(dataCenterIterator), random);
     }
 
-    public Individual getIndividual(int offset) {
-        return population[offset];
+    /**
+     * Creates random food sources among the VMs [minPosition, maxPosition]
+     * @param populationSize Number of food sources
+     * @param chromosomeLength Number of genes per food source
+     * @param minPosition Lowest gene
+     * @param maxPosition Highest gene
+     * @param random Random number generator
+     */
+    public Population(int populationSize, int chromosomeLength, int minPosition, int maxPosition, Random random) {
+        super(populationSize, chromosomeLength);
+        randomize(random, minPosition, maxPosition);
     }
-}
\ No newline at end of file
+}
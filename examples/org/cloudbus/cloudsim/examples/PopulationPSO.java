@@ -1,79 +1,36 @@
 package org.cloudbus.cloudsim.examples;
 
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Random;
 
-public class PopulationPSO {
-  public IndividualPSO population[];
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.ParticleMove;
+import org.cloudbus.cloudsim.examples.metaheuristic.SwarmPopulation;
 
-  public PopulationPSO(int populationSize) {
-      this.population = new IndividualPSO[populationSize];
-  }
+/**
+ * The particles of PSO, stored flat with their velocities and personal bests.
+ * Only the active window of a particle is stored: the 9 genes of the batch of the datacenter that
+ * the fitness reads and the simulation assigns, whatever the chromosome length; for the whole
+ * workload every gene is active.
+ */
+public class PopulationPSO extends SwarmPopulation {
 
   public PopulationPSO(int populationSize, int chromosomeLength, int dataCenterIterator) {
-      this.population = new IndividualPSO[populationSize];
-
-      for (int individualCount = 0; individualCount < populationSize; individualCount++) {
-          IndividualPSO individual = new IndividualPSO(chromosomeLength, dataCenterIterator);
-          this.population[individualCount] = individual;
-      }
-  }
-
-  public IndividualPSO[] getIndividuals() {
-      return this.population;
+      this(populationSize, chromosomeLength, dataCenterIterator, FitnessEvaluator.maxPosition(dataCenterIterator),
+              new Random());
   }
 
-  public IndividualPSO getFittest(int offset) {
-    Arrays.sort(this.population, new Comparator<IndividualPSO>() {
-      @Override
-      public int compare(IndividualPSO o1, IndividualPSO o2) {
-        if (o1.getFitness() < o2.getFitness()) {
-          return 1;
-        } else if (o1.getFitness() > o2.getFitness()) {
-          return -1;
-        }
-        return 0;
-      }
-    });
-    return this.population[offset];
+  public PopulationPSO(int populationSize, int chromosomeLength, int dataCenterIterator, FitnessEvaluator evaluator,
+          Random random) {
+      this(populationSize, chromosomeLength, dataCenterIterator, evaluator.getMaxPosition(dataCenterIterator), random);
   }
 
-  public int getIndexOfLeastFit() {
-      Arrays.sort(this.population, new Comparator<IndividualPSO>() {
-        @Override
-        public int compare(IndividualPSO o1, IndividualPSO o2) {
-          if (o1.getFitness() < o2.getFitness()) {
-            return -1;
-          } else if (o1.getFitness() > o2.getFitness()) {
-            return 1;
-          }
-          return 0;
-        }
-      });
-
-      return 0;
-  }
+  private PopulationPSO(int populationSize, int chromosomeLength, int dataCenterIterator, int max, Random random) {
+      super(populationSize, dataCenterIterator == FitnessEvaluator.WHOLE_WORKLOAD ? chromosomeLength
+              : Math.min(chromosomeLength, FitnessEvaluator.VMS_PER_DATACENTER));
 
-  public int size() {
-      return this.population.length;
-  }
-
-  public IndividualPSO setIndividual(int offset, IndividualPSO individual) {
-      return population[offset] = individual;
-  }
-
-  public IndividualPSO getIndividual(int offset) {
-      return population[offset];
-  }
+      int min = FitnessEvaluator.minPosition(dataCenterIterator);
 
-  public void shuffle() {
-      Random rnd = new Random();
-      for (int i = population.length - 1; i > 0; i--) {
-          int index = rnd.nextInt(i + 1);
-          IndividualPSO a = population[index];
-          population[index] = population[i];
-          population[i] = a;
-      }
+      // max velocity is half the range of the positions, 4 for the 9 VMs of a datacenter
+      randomize(random, min, max, ParticleMove.maxVelocity(min, max));
   }
-}
\ No newline at end of file
+}
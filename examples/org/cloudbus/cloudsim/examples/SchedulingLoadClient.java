@@ -0,0 +1,261 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+
+/**
+ * Klien beban untuk {@link SchedulingService}: worker tiruan melaporkan kapasitasnya, lalu beberapa
+ * klien bersamaan mengirim batch tugas acak ke POST /schedule dan latensi setiap penjadwalan
+ * diukur (p50, p99, maksimum) bersama throughput. Selama pengukuran, worker tiruan terus mengirim
+ * sampel MIPS dan utilisasi setiap {@value #FEED_INTERVAL_MS} ms, seperti monitor.js.
+ *
+ * Argumen: [url|local] [klien] [permintaan per klien] [tugas per batch] [worker] [eobl]. Dengan
+ * "local" (bawaan), layanan dijalankan dalam proses yang sama pada port bebas.
+ */
+public class SchedulingLoadClient {
+    private static final String[] WEIGHTS = { "ringan", "sedang", "berat" }; // Kelas tugas tasks1000.json
+    private static final int WARMUP_REQUESTS = 20; // Permintaan pemanasan, tidak diukur
+    private static final long FEED_INTERVAL_MS = 100; // Interval sampel kapasitas worker tiruan
+
+    private final String url;
+    private final int tasks;
+    private final boolean eobl;
+    private long elapsedNanos; // Waktu run terakhir
+    private volatile int feedSamples; // Laporan kapasitas yang dikirim selama run
+
+    /**
+     * Konstruktor
+     *
+     * @param url Alamat layanan, misalnya http://localhost:8081
+     * @param tasks Jumlah tugas setiap batch
+     * @param eobl true untuk ABC+EOBL
+     */
+    public SchedulingLoadClient(String url, int tasks, boolean eobl) {
+        this.url = url;
+        this.tasks = tasks;
+        this.eobl = eobl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Locale.setDefault(new Locale("en", "US"));
+        String target = args.length >= 1 ? args[0].trim() : "local";
+        int clients = args.length >= 2 ? Integer.parseInt(args[1].trim()) : 4;
+        int requests = args.length >= 3 ? Integer.parseInt(args[2].trim()) : 50;
+        int tasks = args.length >= 4 ? Integer.parseInt(args[3].trim()) : 1000;
+        int workers = args.length >= 5 ? Integer.parseInt(args[4].trim()) : 6;
+        boolean eobl = args.length >= 6 && Boolean.parseBoolean(args[5].trim());
+
+        SchedulingService service = null;
+        if (target.equals("local")) {
+            service = new SchedulingService(0);
+            service.start();
+            target = "http://localhost:" + service.getPort();
+            System.out.println("Local scheduling service on " + target + " ("
+                               + (service.usesVirtualThreads() ? "virtual threads" : "platform thread pool") + ")");
+        }
+
+        try {
+            SchedulingLoadClient client = new SchedulingLoadClient(target, tasks, eobl);
+            client.reportWorkers(workers, new Random(1));
+            client.run(1, WARMUP_REQUESTS, 2);
+            System.out.println("Warm-up: " + WARMUP_REQUESTS + " requests");
+            Thread feed = client.startFeed(workers);
+            long[] latencies = client.run(clients, requests, 3);
+            feed.interrupt();
+            feed.join();
+            print(latencies, client.elapsedNanos, clients, requests, tasks, workers, eobl);
+            System.out.println("Capacity samples during the run: " + client.feedSamples);
+        } finally {
+            if (service != null) {
+                service.stop();
+            }
+        }
+    }
+
+    /**
+     * Melaporkan kapasitas worker tiruan: 400, 500 dan 600 MIPS bergantian, +-10%
+     *
+     * @param workers Jumlah worker
+     * @param random Generator bilangan acak
+     * @throws IOException Jika layanan tidak dapat dihubungi
+     */
+    public void reportWorkers(int workers, Random random) throws IOException {
+        StringBuilder body = new StringBuilder("{\"workers\":[");
+        for (int w = 0; w < workers; w++) {
+            double mips = FitnessEvaluator.calculateMips(w) * (0.9 + 0.2 * random.nextDouble());
+            body.append(w > 0 ? "," : "").append("{\"worker\":\"mock-worker-").append(w + 1)
+                .append("\",\"mips\":").append(mips).append('}');
+        }
+        post("/reset", "{}");
+        post("/capacity", body.append("]}").toString());
+    }
+
+    /**
+     * Menjalankan thread yang mengirim sampel kapasitas worker tiruan hingga diinterupsi: MIPS
+     * +-10% dan utilisasi yang berubah acak, seperti benchmark MIPS dan monitor.js
+     *
+     * @param workers Jumlah worker
+     * @return Thread yang berjalan
+     */
+    public Thread startFeed(final int workers) {
+        Thread feed = new Thread(() -> {
+            Random random = new Random(4);
+            double[] utilisation = new double[workers];
+            while (!Thread.currentThread().isInterrupted()) {
+                StringBuilder body = new StringBuilder("{\"workers\":[");
+                for (int w = 0; w < workers; w++) {
+                    utilisation[w] = Math.max(0, Math.min(1, utilisation[w] + 0.2 * (random.nextDouble() - 0.5)));
+                    body.append(w > 0 ? "," : "").append("{\"worker\":\"mock-worker-").append(w + 1)
+                        .append("\",\"mips\":").append(FitnessEvaluator.calculateMips(w) * (0.9 + 0.2 * random.nextDouble()))
+                        .append(",\"utilisation\":").append(utilisation[w]).append('}');
+                }
+                try {
+                    post("/capacity", body.append("]}").toString());
+                    feedSamples++;
+                    Thread.sleep(FEED_INTERVAL_MS);
+                } catch (IOException e) {
+                    System.err.println("Capacity report failed: " + e.getMessage());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "capacity-feed");
+        feed.start();
+        return feed;
+    }
+
+    /**
+     * Mengirim permintaan penjadwalan dari beberapa klien bersamaan
+     *
+     * @param clients Jumlah klien (thread)
+     * @param requests Jumlah permintaan setiap klien
+     * @param seed Seed tugas acak
+     * @return Latensi setiap permintaan dalam nanodetik, terurut
+     * @throws InterruptedException Jika terinterupsi saat menunggu klien
+     */
+    public long[] run(int clients, final int requests, long seed) throws InterruptedException {
+        final long[] latencies = new long[clients * requests];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(clients);
+        long runStart = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            final Random random = new Random(seed * 1000 + c);
+            new Thread(() -> {
+                try {
+                    for (int r = 0; r < requests; r++) {
+                        String body = batch(random);
+                        long start = System.nanoTime();
+                        try {
+                            String response = post("/schedule", body);
+                            checkAssignments(response);
+                        } catch (IOException | IllegalArgumentException e) {
+                            failures.incrementAndGet();
+                            System.err.println("Request failed: " + e.getMessage());
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - start;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "scheduling-client-" + c).start();
+        }
+        done.await();
+        elapsedNanos = System.nanoTime() - runStart;
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " failed requests");
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    /**
+     * Membuat sebuah batch tugas acak dengan kelas beban tasks1000.json
+     */
+    private String batch(Random random) {
+        StringBuilder body = new StringBuilder(tasks * 22 + 64).append("{\"tasks\":[");
+        for (int i = 0; i < tasks; i++) {
+            body.append(i > 0 ? "," : "").append("{\"weight\":\"").append(WEIGHTS[random.nextInt(WEIGHTS.length)])
+                .append("\"}");
+        }
+        return body.append("],\"eobl\":").append(eobl).append('}').toString();
+    }
+
+    /**
+     * Memeriksa bahwa setiap tugas mendapat worker
+     */
+    private void checkAssignments(String response) {
+        List<Object> assignments = SchedulingService.Json.array(
+                SchedulingService.Json.object(SchedulingService.Json.parse(response)).get("assignments"));
+        if (assignments.size() != tasks) {
+            throw new IllegalArgumentException(assignments.size() + " assignments for " + tasks + " tasks");
+        }
+    }
+
+    private String post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        connection.setFixedLengthStreamingMode(bytes.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(bytes);
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[8192];
+            for (int n; (n = stream.read(buffer)) > 0;) {
+                response.write(buffer, 0, n);
+            }
+        }
+        String text = new String(response.toByteArray(), StandardCharsets.UTF_8);
+        if (status >= 400) {
+            throw new IOException("HTTP " + status + ": " + text);
+        }
+        return text;
+    }
+
+    /**
+     * Menampilkan persentil latensi dan throughput
+     */
+    private static void print(long[] latencies, long elapsedNanos, int clients, int requests, int tasks,
+                              int workers, boolean eobl) {
+        System.out.println("\n====== SCHEDULING LATENCY ======");
+        System.out.println("- Algorithm: " + (eobl ? "ABC+EOBL" : "ABC"));
+        System.out.println("- Clients: " + clients + ", requests per client: " + requests);
+        System.out.println("- Tasks per batch: " + tasks + ", workers: " + workers);
+        System.out.println(String.format("- p50: %.2f ms", percentile(latencies, 50) / 1e6));
+        System.out.println(String.format("- p99: %.2f ms", percentile(latencies, 99) / 1e6));
+        System.out.println(String.format("- Max: %.2f ms", latencies[latencies.length - 1] / 1e6));
+        System.out.println(String.format("- Throughput: %.1f batches/s", latencies.length * 1e9 / elapsedNanos));
+        System.out.println("================================");
+    }
+
+    /**
+     * Persentil dengan metode nearest-rank
+     *
+     * @param sorted Nilai terurut
+     * @param p Persentil, 0 sampai 100
+     * @return Nilai terkecil yang tidak kurang dari p% nilai
+     */
+    static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,726 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.examples.metaheuristic.CapacityRegistry;
+import org.cloudbus.cloudsim.examples.metaheuristic.FitnessEvaluator;
+import org.cloudbus.cloudsim.examples.metaheuristic.ListScheduler;
+import org.cloudbus.cloudsim.examples.metaheuristic.Termination;
+import org.cloudbus.cloudsim.examples.metaheuristic.VmLoads;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Layanan penjadwalan HTTP yang menggantikan endpoint POST /schedule dari indexABC.js: worker
+ * melaporkan kapasitasnya (MIPS), dan setiap batch tugas dijadwalkan pada worker tersebut oleh ABC
+ * atau ABC+EOBL Java dalam mode seluruh beban kerja ({@link FitnessEvaluator#WHOLE_WORKLOAD}), satu
+ * VM per worker, bukan oleh abc.js.
+ *
+ * Endpoint (JSON):
+ * - POST /capacity {"worker": "http://...", "host": "host-1", "mips": 512.3, "utilisation": 0.4},
+ *   atau {"workers": [...]} untuk beberapa worker: sampel MIPS dan/atau utilisasi sebuah worker,
+ *   dihaluskan dengan EWMA oleh {@link CapacityRegistry}
+ * - POST /cpu-usage-report {"host": "host-1", "avgCpu": 40.5}: sampel utilisasi (persen) semua
+ *   worker sebuah host, dalam format monitor.js
+ * - GET /workers: kapasitas yang tercatat
+ * - POST /schedule {"tasks": [{"length": 350} | {"weight": "sedang"}, ...], "eobl": true,
+ *   "iterations": 500, "deadlineMs": 0, "seeds": ["MAX_MIN"], "workers": [...]}: menjawab
+ *   {"assignments": [...], "workers": [...], "makespan", "cost", "evaluations", "schedulingMs"},
+ *   assignments[i] adalah indeks worker tugas i. Setiap elemen "workers" adalah nama worker yang
+ *   tercatat, atau {"worker", "mips"} yang dipakai apa adanya; tanpa "workers", semua worker yang
+ *   tercatat digunakan, berurutan menurut nama.
+ * - POST /reset: menghapus kapasitas yang tercatat
+ *
+ * Worker yang tercatat dijadwalkan dengan MIPS yang tersisa untuk tugas baru, MIPS terhalus dikali
+ * bagian waktu menganggurnya, dibaca dari satu snapshot registry tanpa lock untuk setiap permintaan.
+ *
+ * Server com.sun.net.httpserver bawaan JDK menangani setiap permintaan pada virtual thread pada JDK
+ * 21 ke atas, atau pada pool thread sebanyak prosesor sebelumnya. Proses ini berjalan terus, sehingga
+ * setiap permintaan memakai kode ABC yang sudah dikompilasi JIT; beberapa penjadwalan pemanasan
+ * dijalankan sebelum server dibuka.
+ */
+public class SchedulingService {
+    public static final int DEFAULT_PORT = 8081; // indexABC.js memakai 8080
+
+    private static final int POPULATION_SIZE = 30; // Ukuran populasi lebah, seperti abc.js
+    private static final int DEFAULT_ITERATIONS = 500; // Iterasi maksimum ABC per permintaan
+    private static final double EOABC_COEFFICIENT = 0.9; // Koefisien d EOBL, seperti abc.js
+    private static final double DEFAULT_LENGTH = 1000; // Panjang tugas tanpa length atau weight (MI)
+    private static final int WARMUP_RUNS = 20; // Penjadwalan pemanasan JIT sebelum server dibuka
+    private static final int WARMUP_TASKS = 1000;
+    private static final int WARMUP_WORKERS = 6;
+
+    static {
+        // Jawaban dikirim tanpa menunggu ACK (Nagle), yang menambah ~40 ms pada setiap permintaan
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final CapacityRegistry capacities = new CapacityRegistry(CapacityRegistry.DEFAULT_ALPHA);
+    private final AtomicLong scheduledBatches = new AtomicLong();
+
+    /**
+     * Hasil penjadwalan satu batch tugas
+     */
+    public static class Schedule {
+        private final int[] assignments;
+        private final double makespan;
+        private final double cost;
+        private final long evaluations;
+
+        Schedule(int[] assignments, double makespan, double cost, long evaluations) {
+            this.assignments = assignments;
+            this.makespan = makespan;
+            this.cost = cost;
+            this.evaluations = evaluations;
+        }
+
+        /** Mendapatkan indeks worker setiap tugas */
+        public int[] getAssignments() {
+            return assignments;
+        }
+
+        /** Mendapatkan waktu sibuk terbesar sebuah worker, dalam detik */
+        public double getMakespan() {
+            return makespan;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+    }
+
+    /**
+     * Konstruktor, server belum dibuka
+     *
+     * @param port Port HTTP, 0 untuk port bebas
+     * @throws IOException Jika port tidak dapat dibuka
+     */
+    public SchedulingService(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        executor = virtualThreads ? virtual : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+
+        server.createContext("/capacity", exchange -> respond(exchange, "POST", this::reportCapacity));
+        server.createContext("/cpu-usage-report", exchange -> respond(exchange, "POST", this::reportCpuUsage));
+        server.createContext("/workers", exchange -> respond(exchange, "GET", body -> workersJson()));
+        server.createContext("/schedule", exchange -> respond(exchange, "POST", this::schedule));
+        server.createContext("/reset", exchange -> respond(exchange, "POST", body -> {
+            capacities.clear();
+            return "{\"status\":\"reset done\"}";
+        }));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(new Locale("en", "US"));
+        int port = args.length >= 1 ? Integer.parseInt(args[0].trim()) : DEFAULT_PORT;
+
+        SchedulingService service = new SchedulingService(port);
+        long start = System.nanoTime();
+        service.warmUp(WARMUP_RUNS);
+        System.out.println("Warm-up: " + WARMUP_RUNS + " schedules of " + WARMUP_TASKS + " tasks in "
+                           + String.format("%.1f", (System.nanoTime() - start) / 1e6) + " ms");
+        service.start();
+        System.out.println("Scheduling service running on port " + service.getPort() + " ("
+                           + (service.usesVirtualThreads() ? "virtual threads" : "platform thread pool") + ")");
+    }
+
+    /**
+     * Membuka server
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Menutup server dan menghentikan thread-nya
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Menjadwalkan tugas acak pada worker 400, 500 dan 600 MIPS, agar kode ABC sudah dikompilasi JIT
+     * sebelum permintaan pertama
+     *
+     * @param runs Jumlah penjadwalan
+     */
+    public void warmUp(int runs) {
+        Random random = new Random(0);
+        double[] lengths = new double[WARMUP_TASKS];
+        double[] mips = new double[WARMUP_WORKERS];
+        for (int w = 0; w < mips.length; w++) {
+            mips[w] = FitnessEvaluator.calculateMips(w);
+        }
+        for (int run = 0; run < runs; run++) {
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = 45 + random.nextInt(1106);
+            }
+            schedule(lengths, mips, run % 2 == 1, DEFAULT_ITERATIONS, 0);
+        }
+    }
+
+    /**
+     * Menjadwalkan satu batch tugas pada worker dengan ABC atau ABC+EOBL untuk seluruh beban kerja
+     *
+     * @param lengths Panjang setiap tugas (MI)
+     * @param mips Kapasitas setiap worker (MIPS)
+     * @param eobl true untuk ABC+EOBL
+     * @param iterations Iterasi maksimum
+     * @param deadlineMs Tenggat waktu dalam milidetik, 0 untuk tanpa tenggat
+     * @param seeds Heuristik list scheduling pengisi populasi awal
+     * @return Worker setiap tugas, makespan dan biaya jadwal
+     */
+    public Schedule schedule(double[] lengths, double[] mips, boolean eobl, int iterations, long deadlineMs,
+                             ListScheduler.Policy... seeds) {
+        if (lengths.length == 0 || mips.length == 0) {
+            throw new IllegalArgumentException("No task or no worker to schedule on");
+        }
+        UtilizationModel full = new UtilizationModelFull();
+        List<Cloudlet> cloudlets = new ArrayList<Cloudlet>(lengths.length);
+        for (int i = 0; i < lengths.length; i++) {
+            cloudlets.add(new Cloudlet(i, Math.max(1, Math.round(lengths[i])), 1, 300, 300, full, full, full));
+        }
+        List<Vm> vms = new ArrayList<Vm>(mips.length);
+        for (int w = 0; w < mips.length; w++) {
+            vms.add(new Vm(w, 0, mips[w], 1, 512, 1000, 10000, "Xen", new CloudletSchedulerSpaceShared()));
+        }
+
+        double limit = 0.6 * (POPULATION_SIZE / 2) * lengths.length;
+        ABC abc = new ABC(iterations, POPULATION_SIZE, limit, EOABC_COEFFICIENT, eobl, cloudlets, vms, lengths.length);
+        abc.setVerbose(false);
+        abc.setTermination(deadlineMs > 0 ? Termination.deadline(deadlineMs) : null);
+        abc.setHeuristicSeeds(seeds);
+        Population population = abc.initPopulation(lengths.length, FitnessEvaluator.WHOLE_WORKLOAD);
+        abc.runABCAlgorithm(population, FitnessEvaluator.WHOLE_WORKLOAD, 0);
+
+        int[] assignments = abc.getBestVmAllocationForDatacenter(FitnessEvaluator.WHOLE_WORKLOAD);
+        VmLoads loads = new VmLoads(abc.getEngine().getEvaluator());
+        loads.load(assignments, 0);
+        scheduledBatches.incrementAndGet();
+        return new Schedule(assignments, loads.getMakespan(), loads.getTotalCost(), abc.getLastRun().getEvaluations());
+    }
+
+    /**
+     * POST /capacity: mencatat sampel kapasitas satu atau beberapa worker
+     */
+    private String reportCapacity(String body) {
+        Map<String, Object> report = Json.object(Json.parse(body));
+        Object list = report.get("workers");
+        int ignored = 0;
+        if (list != null) {
+            for (Object worker : Json.array(list)) {
+                ignored += reportWorker(Json.object(worker)) ? 0 : 1;
+            }
+        } else {
+            ignored += reportWorker(report) ? 0 : 1;
+        }
+        return "{\"status\":\"received\",\"workers\":" + capacities.snapshot().size() + ",\"ignored\":" + ignored + "}";
+    }
+
+    /**
+     * Mencatat sampel MIPS dan/atau utilisasi sebuah worker
+     *
+     * @return false jika hanya utilisasi dilaporkan untuk worker yang belum melaporkan MIPS-nya
+     */
+    private boolean reportWorker(Map<String, Object> report) {
+        String worker = Json.string(report.get("worker"));
+        Object host = report.get("host");
+        if (report.get("mips") == null && report.get("utilisation") == null) {
+            throw new IllegalArgumentException("No MIPS or utilisation reported for worker " + worker);
+        }
+        if (report.get("mips") != null) {
+            capacities.reportMips(worker, host == null ? null : Json.string(host), capacity(report));
+        }
+        return report.get("utilisation") == null
+               || capacities.reportUtilisation(worker, Json.number(report.get("utilisation")));
+    }
+
+    /**
+     * POST /cpu-usage-report: mencatat utilisasi sebuah host dari laporan monitor.js
+     */
+    private String reportCpuUsage(String body) {
+        Map<String, Object> report = Json.object(Json.parse(body));
+        int updated = capacities.reportHostUtilisation(Json.string(report.get("host")),
+                Math.max(0, Math.min(100, Json.number(report.get("avgCpu")))) / 100);
+        return "{\"status\":\"received\",\"workers\":" + updated + "}";
+    }
+
+    /**
+     * Membaca kapasitas sebuah worker
+     */
+    private static double capacity(Map<String, Object> worker) {
+        double mips = Json.number(worker.get("mips"));
+        if (!(mips > 0) || Double.isInfinite(mips)) {
+            throw new IllegalArgumentException("Invalid MIPS of worker " + worker.get("worker") + ": " + mips);
+        }
+        return mips;
+    }
+
+    /**
+     * GET /workers: kapasitas yang tercatat, berurutan menurut nama worker
+     */
+    private String workersJson() {
+        CapacityRegistry.Snapshot snapshot = capacities.snapshot();
+        StringBuilder json = new StringBuilder("{\"workers\":[");
+        for (int w = 0; w < snapshot.size(); w++) {
+            String host = snapshot.getHost(w);
+            json.append(w > 0 ? "," : "").append("{\"worker\":").append(Json.quote(snapshot.getWorker(w)))
+                .append(",\"host\":").append(host == null ? "null" : Json.quote(host))
+                .append(",\"mips\":").append(snapshot.getMips(w))
+                .append(",\"utilisation\":").append(snapshot.getUtilisation(w))
+                .append(",\"availableMips\":").append(snapshot.getAvailableMips(w)).append('}');
+        }
+        return json.append("],\"version\":").append(snapshot.getVersion())
+                   .append(",\"scheduledBatches\":").append(scheduledBatches.get()).append('}').toString();
+    }
+
+    /**
+     * POST /schedule: menjadwalkan satu batch tugas
+     */
+    private String schedule(String body) {
+        long start = System.nanoTime();
+        Map<String, Object> request = Json.object(Json.parse(body));
+
+        List<Object> tasks = Json.array(request.get("tasks"));
+        double[] lengths = new double[tasks.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = taskLength(Json.object(tasks.get(i)));
+        }
+
+        // Worker dari permintaan, atau semua worker yang tercatat, dari satu snapshot
+        CapacityRegistry.Snapshot snapshot = capacities.snapshot();
+        List<String> names = new ArrayList<String>();
+        List<Double> available = new ArrayList<Double>();
+        if (request.get("workers") != null) {
+            for (Object item : Json.array(request.get("workers"))) {
+                if (item instanceof String) {
+                    int index = snapshot.indexOf((String) item);
+                    if (index < 0) {
+                        throw new IllegalArgumentException("No capacity reported by worker " + item);
+                    }
+                    names.add((String) item);
+                    available.add(snapshot.getAvailableMips(index));
+                } else {
+                    Map<String, Object> worker = Json.object(item);
+                    names.add(Json.string(worker.get("worker")));
+                    available.add(capacity(worker));
+                }
+            }
+        } else {
+            for (int w = 0; w < snapshot.size(); w++) {
+                names.add(snapshot.getWorker(w));
+                available.add(snapshot.getAvailableMips(w));
+            }
+        }
+        if (available.isEmpty()) {
+            throw new IllegalArgumentException("No worker capacity reported");
+        }
+        double[] mips = new double[available.size()];
+        for (int w = 0; w < mips.length; w++) {
+            mips[w] = available.get(w);
+        }
+
+        List<Object> seedNames = request.get("seeds") == null ? new ArrayList<Object>() : Json.array(request.get("seeds"));
+        ListScheduler.Policy[] seeds = new ListScheduler.Policy[seedNames.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = ListScheduler.Policy.valueOf(Json.string(seedNames.get(i)));
+        }
+
+        Schedule schedule = schedule(lengths, mips, Json.bool(request.get("eobl"), false),
+                (int) Json.number(request.get("iterations"), DEFAULT_ITERATIONS),
+                (long) Json.number(request.get("deadlineMs"), 0), seeds);
+
+        StringBuilder json = new StringBuilder(lengths.length * 2 + 256).append("{\"assignments\":[");
+        int[] assignments = schedule.getAssignments();
+        for (int i = 0; i < assignments.length; i++) {
+            json.append(i > 0 ? "," : "").append(assignments[i]);
+        }
+        json.append("],\"workers\":[");
+        for (int w = 0; w < names.size(); w++) {
+            json.append(w > 0 ? "," : "").append(Json.quote(names.get(w)));
+        }
+        return json.append("],\"makespan\":").append(schedule.getMakespan())
+                   .append(",\"cost\":").append(schedule.getCost())
+                   .append(",\"evaluations\":").append(schedule.getEvaluations())
+                   .append(",\"schedulingMs\":").append((System.nanoTime() - start) / 1e6)
+                   .append('}').toString();
+    }
+
+    /**
+     * Membaca panjang sebuah tugas: length atau mi, jika tidak panjang kelas weight seperti
+     * TASK_LENGTH_CONFIG abc.js, jika tidak DEFAULT_LENGTH
+     */
+    private static double taskLength(Map<String, Object> task) {
+        Object length = task.get("length") != null ? task.get("length") : task.get("mi");
+        if (length != null) {
+            return Json.number(length);
+        }
+        Object weight = task.get("weight");
+        if ("ringan".equals(weight)) {
+            return 45;
+        } else if ("sedang".equals(weight)) {
+            return 350;
+        } else if ("berat".equals(weight)) {
+            return 1150;
+        }
+        return DEFAULT_LENGTH;
+    }
+
+    /**
+     * Handler sebuah endpoint, dari isi permintaan ke isi jawaban JSON
+     */
+    private interface RequestHandler {
+        String handle(String body);
+    }
+
+    /**
+     * Menjawab sebuah permintaan: 405 untuk metode lain, 400 untuk permintaan tidak valid, 500 untuk
+     * kesalahan lainnya
+     */
+    private void respond(HttpExchange exchange, String method, RequestHandler handler) throws IOException {
+        int status = 200;
+        String response;
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                status = 405;
+                response = error("Method " + exchange.getRequestMethod() + " not allowed");
+            } else {
+                response = handler.handle(read(exchange.getRequestBody()));
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            response = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            response = error(e.toString());
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(String.valueOf(message)) + "}";
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) > 0;) {
+            bytes.write(buffer, 0, n);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Membuat executor virtual thread per tugas jika JDK menyediakannya (JDK 21 ke atas)
+     *
+     * @return Executor, atau null sebelum JDK 21
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null; // tidak ada, atau fitur preview yang belum diaktifkan
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Pembaca dan penulis JSON minimal untuk permintaan layanan: objek, array, angka, string,
+     * boolean dan null. Kesalahan format dilaporkan sebagai IllegalArgumentException.
+     */
+    static final class Json {
+        private final String text;
+        private int position;
+
+        private Json(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Membaca sebuah nilai JSON
+         *
+         * @param text Teks JSON
+         * @return Map, List, Double, String, Boolean atau null
+         */
+        static Object parse(String text) {
+            Json json = new Json(text);
+            Object value = json.value();
+            json.skipWhitespace();
+            if (json.position != text.length()) {
+                throw json.error("Unexpected content");
+            }
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Map<String, Object> object(Object value) {
+            if (!(value instanceof Map)) {
+                throw new IllegalArgumentException("JSON object expected: " + value);
+            }
+            return (Map<String, Object>) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        static List<Object> array(Object value) {
+            if (!(value instanceof List)) {
+                throw new IllegalArgumentException("JSON array expected: " + value);
+            }
+            return (List<Object>) value;
+        }
+
+        static String string(Object value) {
+            if (!(value instanceof String)) {
+                throw new IllegalArgumentException("JSON string expected: " + value);
+            }
+            return (String) value;
+        }
+
+        static double number(Object value) {
+            if (!(value instanceof Double)) {
+                throw new IllegalArgumentException("JSON number expected: " + value);
+            }
+            return (Double) value;
+        }
+
+        static double number(Object value, double defaultValue) {
+            return value == null ? defaultValue : number(value);
+        }
+
+        static boolean bool(Object value, boolean defaultValue) {
+            if (value == null) {
+                return defaultValue;
+            } else if (!(value instanceof Boolean)) {
+                throw new IllegalArgumentException("JSON boolean expected: " + value);
+            }
+            return (Boolean) value;
+        }
+
+        /**
+         * Menulis sebuah string JSON
+         */
+        static String quote(String value) {
+            StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            return json.append('"').toString();
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw error("Unexpected end");
+            }
+            char c = text.charAt(position);
+            switch (c) {
+            case '{':
+                return parseObject();
+            case '[':
+                return parseArray();
+            case '"':
+                return parseString();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                return parseNumber();
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<String, Object>();
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Object key expected");
+                }
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> parseArray() {
+            List<Object> array = new ArrayList<Object>();
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+            while (true) {
+                array.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String parseString() {
+            StringBuilder string = new StringBuilder();
+            position++;
+            while (true) {
+                if (position >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return string.toString();
+                } else if (c != '\\') {
+                    string.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                case 'b':
+                    string.append('\b');
+                    break;
+                case 'f':
+                    string.append('\f');
+                    break;
+                case 'n':
+                    string.append('\n');
+                    break;
+                case 'r':
+                    string.append('\r');
+                    break;
+                case 't':
+                    string.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        string.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    string.append(escaped); // " \ /
+                }
+            }
+        }
+
+        private Double parseNumber() {
+            int start = position;
+            while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            try {
+                return Double.valueOf(text.substring(start, position));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Invalid value");
+            }
+        }
+
+        private Object literal(String literal, Object value) {
+            if (!text.startsWith(literal, position)) {
+                throw error("Invalid value");
+            }
+            position += literal.length();
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("'" + c + "' expected");
+            }
+            position++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " of the JSON body");
+        }
+    }
+}
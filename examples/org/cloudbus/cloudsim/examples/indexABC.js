@@ -12,6 +12,9 @@ app.use(express.json());
 // Set to true to use EOBL (should give worse makespan but better imbalance)
 const USE_EOBL = true; // Change this to false to test standard ABC vs EOBL
 
+// Java scheduling service (SchedulingService.java) that computes the mapping; abc.js is used if it is unreachable
+const SCHEDULER_URL = process.env.SCHEDULER_URL || 'http://localhost:8081';
+
 const workers = [
   'http://192.168.56.11:31001',
   'http://192.168.56.11:31002',
@@ -114,6 +117,30 @@ async function getRealWorkerMIPS() {
   return realMipsArray;
 }
 
+// Host of each worker in the HOST_ID naming of monitor.js (2 workers per host)
+const workerHost = (i) => `host-${Math.floor(i / 2) + 1}`;
+
+// Map all tasks to workers with the Java ABC/EOBL service, or with abc.js if the service is down.
+// The measured MIPS feed the service's capacity registry, which also smooths the CPU reports below.
+async function computeMapping(workerMipsArray) {
+  try {
+    await axios.post(`${SCHEDULER_URL}/capacity`, {
+      workers: workers.map((worker, i) => ({ worker, host: workerHost(i), mips: workerMipsArray[i] }))
+    }, { timeout: 3000 });
+    const response = await axios.post(`${SCHEDULER_URL}/schedule`, {
+      tasks,
+      eobl: USE_EOBL,
+      workers
+    }, { timeout: 30000 });
+    console.log(`☕ Java scheduler: makespan ${response.data.makespan.toFixed(3)} s, ` +
+      `${response.data.schedulingMs.toFixed(1)} ms`);
+    return response.data.assignments;
+  } catch (err) {
+    console.error(`⚠️ Java scheduler unavailable at ${SCHEDULER_URL} (${err.message}), using abc.js`);
+    return runABCAlgorithm(tasks.length, workers.length, tasks, workerMipsArray, USE_EOBL);
+  }
+}
+
 app.post('/cpu-usage-report', (req, res) => {
   const { host, avgCpu, totalCpuTime, activeContainers, timestamp } = req.body;
   cpuUsages.push({ 
@@ -123,6 +150,9 @@ app.post('/cpu-usage-report', (req, res) => {
     totalCpuTime: totalCpuTime || 0,
     activeContainers: activeContainers || 0
   });
+
+  // Live utilisation for the Java scheduler's capacity registry
+  axios.post(`${SCHEDULER_URL}/cpu-usage-report`, { host, avgCpu }, { timeout: 1000 }).catch(() => {});
   
   res.json({ status: 'received' });
 });
@@ -141,7 +171,7 @@ app.post('/schedule', async (req, res) => {
       console.log('🔧 Using real MIPS values:', workerMipsArray);
       
       // Run ABC algorithm with the real MIPS configuration
-      abcMapping = runABCAlgorithm(tasks.length, workers.length, tasks, workerMipsArray, USE_EOBL);
+      abcMapping = await computeMapping(workerMipsArray);
       console.log('📌 ABC Mapping completed:', abcMapping);
 
       if (!Array.isArray(abcMapping) || abcMapping.length !== tasks.length) {
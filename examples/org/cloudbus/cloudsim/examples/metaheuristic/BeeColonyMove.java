@@ -0,0 +1,238 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The move of the traditional ABC: the employed bee, onlooker bee and scout bee phases over a
+ * population whose first half are the food sources of the employed bees and second half the
+ * sources found by the onlooker bees.
+ *
+ * A neighbour source differs from its source by one gene, vij = xij + phi * (xij - xkj) with phi in
+ * {-1, 0, 1}, so it is evaluated as a change of one gene of the source through the engine, in
+ * constant time for the whole workload, and the gene is changed only if the neighbour is fitter,
+ * instead of copying the source.
+ */
+public class BeeColonyMove implements Move {
+    private final int employedBeeCount; // Number of employed bees (50% of the population)
+    private final int onlookerBeeCount; // Number of onlooker bees (50% of the population)
+    private final double limit; // Trials before a food source is abandoned
+    private final int[] abandonmentCounter; // Trials of each food source
+    private final double[] probabilities; // Selection probabilities of the onlooker bees
+
+    /**
+     * Constructor
+     * @param populationSize Size of the colony
+     * @param limit Trials before a food source is abandoned
+     */
+    public BeeColonyMove(int populationSize, double limit) {
+        this.employedBeeCount = populationSize / 2;
+        this.onlookerBeeCount = populationSize / 2;
+        this.limit = limit;
+        this.abandonmentCounter = new int[populationSize];
+        this.probabilities = new double[populationSize];
+    }
+
+    /**
+     * Resets the trial counters, before the colony works on a new population
+     */
+    public void reset() {
+        Arrays.fill(abandonmentCounter, 0);
+    }
+
+    @Override
+    public int apply(MetaheuristicEngine engine) {
+        int evaluations = employedBeePhase(engine);
+        calculateProbabilities(engine.getPopulation());
+        evaluations += onlookerBeePhase(engine);
+        if (checkForScoutBees()) {
+            scoutBeePhase(engine);
+            evaluations++;
+        }
+        return evaluations;
+    }
+
+    /**
+     * Employed bee phase: each employed bee tries a neighbour of its food source, and keeps the
+     * fitter one
+     * @param engine The engine
+     * @return The number of fitness evaluations
+     */
+    public int employedBeePhase(MetaheuristicEngine engine) {
+        FlatPopulation population = engine.getPopulation();
+        Random random = engine.getRandom();
+        int[] genes = population.getGenes();
+        int dimensions = population.getDimension();
+
+        for (int i = 0; i < employedBeeCount; i++) {
+            int dimension = random.nextInt(dimensions);
+
+            // another food source than the current one
+            int partnerIndex;
+            do {
+                partnerIndex = random.nextInt(employedBeeCount);
+            } while (partnerIndex == i);
+
+            int oldValue = genes[population.offset(i) + dimension];
+            int phi = random.nextInt(3) - 1;
+            int newValue = engine.clamp(oldValue + phi * (oldValue - genes[population.offset(partnerIndex) + dimension]));
+
+            // greedy selection
+            double newFitness = engine.fitnessWithGene(i, dimension, newValue);
+            if (newFitness > population.getFitness(i)) {
+                engine.setGene(i, dimension, newValue, newFitness);
+                abandonmentCounter[i] = 0;
+            } else {
+                abandonmentCounter[i]++;
+            }
+        }
+        return employedBeeCount;
+    }
+
+    /**
+     * Calculates the probability of each food source to be chosen by an onlooker bee, proportional
+     * to its fitness
+     * @param population The population
+     * @return The probabilities, 0 past the employed bees
+     */
+    public double[] calculateProbabilities(FlatPopulation population) {
+        double fitnessSum = 0;
+        for (int i = 0; i < employedBeeCount; i++) {
+            fitnessSum += population.getFitness(i);
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            if (i < employedBeeCount && fitnessSum > 0) {
+                probabilities[i] = population.getFitness(i) / fitnessSum;
+            } else {
+                probabilities[i] = 0;
+            }
+        }
+        return probabilities;
+    }
+
+    /**
+     * Onlooker bee phase: each onlooker bee chooses a food source by roulette wheel over the
+     * probabilities, tries a neighbour of it, stores the neighbour in its own slot of the population
+     * and replaces the source if the neighbour is fitter
+     * @param engine The engine
+     * @return The number of fitness evaluations
+     */
+    public int onlookerBeePhase(MetaheuristicEngine engine) {
+        FlatPopulation population = engine.getPopulation();
+        Random random = engine.getRandom();
+        int[] genes = population.getGenes();
+        int dimensions = population.getDimension();
+
+        for (int onlooker = 0; onlooker < onlookerBeeCount; onlooker++) {
+            int selected = selectFoodSource(random);
+            int dimension = random.nextInt(dimensions);
+
+            int partnerIndex;
+            do {
+                partnerIndex = random.nextInt(employedBeeCount);
+            } while (partnerIndex == selected);
+
+            int oldValue = genes[population.offset(selected) + dimension];
+            int phi = random.nextInt(3) - 1;
+            int newValue = engine.clamp(oldValue + phi * (oldValue - genes[population.offset(partnerIndex) + dimension]));
+            double newFitness = engine.fitnessWithGene(selected, dimension, newValue);
+
+            // the neighbour goes to the slot of the onlooker bee
+            int onlookerIndex = employedBeeCount + onlooker;
+            engine.copy(selected, onlookerIndex);
+            engine.setGene(onlookerIndex, dimension, newValue, newFitness);
+
+            // greedy selection: positive feedback if fitter, negative feedback otherwise
+            if (newFitness > population.getFitness(selected)) {
+                engine.setGene(selected, dimension, newValue, newFitness);
+                abandonmentCounter[selected] = 0;
+            } else {
+                abandonmentCounter[selected]++;
+            }
+        }
+        return onlookerBeeCount;
+    }
+
+    /**
+     * Chooses a food source by roulette wheel over the probabilities
+     * @param random Random number generator
+     * @return The index of the food source
+     */
+    private int selectFoodSource(Random random) {
+        double r = random.nextDouble();
+        double sum = 0;
+        for (int i = 0; i < employedBeeCount; i++) {
+            sum += probabilities[i];
+            if (r <= sum) {
+                return i;
+            }
+        }
+        // fallback - a random employed bee
+        return random.nextInt(employedBeeCount);
+    }
+
+    /**
+     * Checks whether a food source has exceeded the limit of trials, i.e. an employed bee becomes
+     * a scout bee
+     * @return true if there is a scout bee
+     */
+    public boolean checkForScoutBees() {
+        for (int i = 0; i < employedBeeCount; i++) {
+            if (abandonmentCounter[i] > limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scout bee phase: the single scout bee replaces the most abandoned food source, if it exceeds
+     * the limit, by a random one
+     * @param engine The engine
+     * @return The index of the replaced food source, -1 if none
+     */
+    public int scoutBeePhase(MetaheuristicEngine engine) {
+        int maxAbandonmentIndex = -1;
+        int maxAbandonmentCount = -1;
+        for (int i = 0; i < employedBeeCount; i++) {
+            if (abandonmentCounter[i] > maxAbandonmentCount) {
+                maxAbandonmentCount = abandonmentCounter[i];
+                maxAbandonmentIndex = i;
+            }
+        }
+        if (maxAbandonmentCount <= limit || maxAbandonmentIndex < 0) {
+            return -1;
+        }
+
+        FlatPopulation population = engine.getPopulation();
+        int[] genes = population.getGenes();
+        int offset = population.offset(maxAbandonmentIndex);
+        for (int j = 0; j < population.getDimension(); j++) {
+            genes[offset + j] = engine.randomPosition();
+        }
+        engine.evaluate(maxAbandonmentIndex);
+        abandonmentCounter[maxAbandonmentIndex] = 0;
+        return maxAbandonmentIndex;
+    }
+
+    /**
+     * Gets the number of trials of a food source
+     * @param individual Index of the food source
+     * @return The trials since it last improved
+     */
+    public int getAbandonmentCount(int individual) {
+        return abandonmentCounter[individual];
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getEmployedBeeCount() {
+        return employedBeeCount;
+    }
+
+    public int getOnlookerBeeCount() {
+        return onlookerBeeCount;
+    }
+}
@@ -0,0 +1,254 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The live capacity of the workers of a real deployment, fed by periodic MIPS benchmarks and
+ * utilisation samples and read by the schedulers when they build the problem model.
+ *
+ * Each series is smoothed by an exponentially weighted moving average, s = alpha x + (1 - alpha) s,
+ * from its first sample. The registry publishes immutable {@link Snapshot}s: a reader gets the
+ * current one with a single volatile read and never blocks, and a writer copies it, applies its
+ * sample and publishes the copy by compare-and-set, retrying if another sample was published in
+ * between. Workers are few and report about once a second, so copying on write costs little.
+ */
+public class CapacityRegistry {
+    public static final double DEFAULT_ALPHA = 0.3; // Weight of a new sample
+    private static final double MIN_AVAILABLE_SHARE = 0.05; // Share of the MIPS left to a saturated worker
+
+    /**
+     * The capacity of the workers at one time, ordered by worker name
+     */
+    public static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new double[0],
+                new double[0], 0);
+
+        private final String[] workers;
+        private final String[] hosts; // Host of each worker, null if not reported
+        private final double[] mips; // Smoothed MIPS
+        private final double[] utilisation; // Smoothed utilisation, in [0, 1], NaN until reported
+        private final long version; // Samples applied since the registry was created
+
+        private Snapshot(String[] workers, String[] hosts, double[] mips, double[] utilisation, long version) {
+            this.workers = workers;
+            this.hosts = hosts;
+            this.mips = mips;
+            this.utilisation = utilisation;
+            this.version = version;
+        }
+
+        public int size() {
+            return workers.length;
+        }
+
+        /**
+         * Gets the index of a worker
+         * @param worker Name of the worker
+         * @return Its index, or -1 if it never reported its capacity
+         */
+        public int indexOf(String worker) {
+            int index = Arrays.binarySearch(workers, worker);
+            return index < 0 ? -1 : index;
+        }
+
+        public String getWorker(int index) {
+            return workers[index];
+        }
+
+        public String getHost(int index) {
+            return hosts[index];
+        }
+
+        /** Gets the smoothed MIPS of a worker, idle */
+        public double getMips(int index) {
+            return mips[index];
+        }
+
+        /** Gets the smoothed utilisation of a worker, 0 until reported */
+        public double getUtilisation(int index) {
+            return Double.isNaN(utilisation[index]) ? 0 : utilisation[index];
+        }
+
+        /**
+         * Gets the MIPS left to new tasks on a worker: its MIPS times its idle share, at least
+         * {@value #MIN_AVAILABLE_SHARE} of its MIPS
+         * @param index Index of the worker
+         * @return The available MIPS
+         */
+        public double getAvailableMips(int index) {
+            return mips[index] * Math.max(MIN_AVAILABLE_SHARE, 1 - getUtilisation(index));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        private Snapshot with(int index, String worker, String host, double workerMips, double workerUtilisation) {
+            String[] newWorkers = workers;
+            String[] newHosts = hosts;
+            double[] newMips = mips;
+            double[] newUtilisation = utilisation;
+            if (index < 0) {
+                // new worker, inserted in name order
+                int at = -index - 1;
+                newWorkers = insert(workers, at, worker);
+                newHosts = insert(hosts, at, host);
+                newMips = insert(mips, at, workerMips);
+                newUtilisation = insert(utilisation, at, workerUtilisation);
+            } else {
+                newHosts = hosts.clone();
+                newHosts[index] = host;
+                newMips = mips.clone();
+                newMips[index] = workerMips;
+                newUtilisation = utilisation.clone();
+                newUtilisation[index] = workerUtilisation;
+            }
+            return new Snapshot(newWorkers, newHosts, newMips, newUtilisation, version + 1);
+        }
+
+        private static String[] insert(String[] values, int at, String value) {
+            String[] copy = new String[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+
+        private static double[] insert(double[] values, int at, double value) {
+            double[] copy = new double[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+    }
+
+    private final double alpha;
+    private final AtomicReference<Snapshot> current = new AtomicReference<Snapshot>(Snapshot.EMPTY);
+
+    /**
+     * Constructor
+     * @param alpha Weight of a new sample in the moving averages, in (0, 1]
+     */
+    public CapacityRegistry(double alpha) {
+        if (!(alpha > 0 && alpha <= 1)) {
+            throw new IllegalArgumentException("The smoothing weight must be in (0, 1]: " + alpha);
+        }
+        this.alpha = alpha;
+    }
+
+    /**
+     * Gets the current capacity of the workers, without blocking
+     * @return The last published snapshot
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Adds a MIPS sample of a worker, registering the worker at its first sample
+     * @param worker Name of the worker
+     * @param host Host of the worker, null to keep the one reported before
+     * @param mips Measured MIPS, positive
+     * @return The snapshot with the sample
+     */
+    public Snapshot reportMips(String worker, String host, double mips) {
+        if (!(mips > 0) || Double.isInfinite(mips)) {
+            throw new IllegalArgumentException("Invalid MIPS of worker " + worker + ": " + mips);
+        }
+        while (true) {
+            Snapshot snapshot = current.get();
+            int index = Arrays.binarySearch(snapshot.workers, worker);
+            Snapshot next = index < 0 ? snapshot.with(index, worker, host, mips, Double.NaN)
+                    : snapshot.with(index, worker, host != null ? host : snapshot.hosts[index],
+                            smooth(snapshot.mips[index], mips), snapshot.utilisation[index]);
+            if (current.compareAndSet(snapshot, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Adds a utilisation sample of a worker
+     * @param worker Name of the worker
+     * @param utilisation Busy share of the worker, in [0, 1]
+     * @return true if the worker is registered, false if the sample was ignored
+     */
+    public boolean reportUtilisation(String worker, double utilisation) {
+        checkUtilisation(utilisation);
+        while (true) {
+            Snapshot snapshot = current.get();
+            int index = snapshot.indexOf(worker);
+            if (index < 0) {
+                return false;
+            }
+            Snapshot next = snapshot.with(index, worker, snapshot.hosts[index], snapshot.mips[index],
+                    smoothUtilisation(snapshot.utilisation[index], utilisation));
+            if (current.compareAndSet(snapshot, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds a utilisation sample of a host to each of its workers, e.g. the mean CPU usage of its
+     * containers
+     * @param host Name of the host
+     * @param utilisation Busy share of the host, in [0, 1]
+     * @return The number of workers of the host
+     */
+    public int reportHostUtilisation(String host, double utilisation) {
+        checkUtilisation(utilisation);
+        while (true) {
+            Snapshot snapshot = current.get();
+            Snapshot next = snapshot;
+            int updated = 0;
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (host.equals(snapshot.hosts[i])) {
+                    next = next.with(i, snapshot.workers[i], host, snapshot.mips[i],
+                            smoothUtilisation(snapshot.utilisation[i], utilisation));
+                    updated++;
+                }
+            }
+            if (updated == 0 || current.compareAndSet(snapshot, next)) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Forgets all the workers
+     */
+    public void clear() {
+        while (true) {
+            Snapshot snapshot = current.get();
+            Snapshot next = new Snapshot(new String[0], new String[0], new double[0], new double[0],
+                    snapshot.version + 1);
+            if (current.compareAndSet(snapshot, next)) {
+                return;
+            }
+        }
+    }
+
+    private double smooth(double average, double sample) {
+        return alpha * sample + (1 - alpha) * average;
+    }
+
+    /**
+     * Smooths a utilisation sample, the first one of a worker being taken as is
+     */
+    private double smoothUtilisation(double average, double utilisation) {
+        return Double.isNaN(average) ? utilisation : smooth(average, utilisation);
+    }
+
+    private static void checkUtilisation(double utilisation) {
+        if (!(utilisation >= 0 && utilisation <= 1)) {
+            throw new IllegalArgumentException("The utilisation must be in [0, 1]: " + utilisation);
+        }
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+}
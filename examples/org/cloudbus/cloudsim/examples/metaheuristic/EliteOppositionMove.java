@@ -0,0 +1,79 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Random;
+
+/**
+ * The move of elite opposition-based learning (EOBL): each schedule gets an opposite schedule,
+ * (lb + ub) - x in the bounds of the datacenter, pulled towards a random elite schedule by the
+ * coefficient d; the fittest of the schedules and their opposites make the next population.
+ *
+ * The opposites are written in the next generation of the population, and the merge gathers the
+ * fittest rows of both generations, so the move allocates nothing.
+ */
+public class EliteOppositionMove implements Move {
+    private final double d; // Weight of the elite schedule in the opposite
+    private final int eliteCount; // Number of elite schedules
+    private final int[] rows; // Rows of both generations, ranked by fitness
+
+    /**
+     * Constructor
+     * @param populationSize Size of the population
+     * @param d Weight of the elite schedule in the opposite
+     */
+    public EliteOppositionMove(int populationSize, double d) {
+        this.d = d;
+        this.eliteCount = Math.max(2, populationSize / 10); // Top 10%
+        this.rows = new int[2 * populationSize];
+    }
+
+    @Override
+    public int apply(MetaheuristicEngine engine) {
+        FlatPopulation population = engine.getPopulation();
+        Random random = engine.getRandom();
+        int size = population.size();
+        int dimensions = population.getDimension();
+        int[] genes = population.getGenes();
+        int[] opposites = population.getNextGenes();
+        int bounds = engine.getMinPosition() + engine.getMaxPosition();
+
+        // the elite schedules are the first rows ranked by fitness
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        population.rank(rows, size);
+
+        for (int i = 0; i < size; i++) {
+            double k = random.nextDouble();
+            int eliteIndex = Math.min((int) (k * eliteCount), eliteCount - 1);
+            int elite = population.offset(rows[eliteIndex]);
+            int offset = population.offset(i);
+
+            for (int j = 0; j < dimensions; j++) {
+                int opposite = bounds - genes[offset + j];
+                int newValue = (int) ((1 - d) * opposite + d * genes[elite + j]);
+                opposites[offset + j] = engine.clamp(newValue);
+            }
+            engine.evaluateNext(i);
+        }
+
+        mergeAndSelectBest(population);
+        return size;
+    }
+
+    /**
+     * Makes the current generation out of the fittest schedules and opposites, ranked by fitness
+     * @param population The population, with the opposites in its next generation
+     */
+    public void mergeAndSelectBest(FlatPopulation population) {
+        int size = population.size();
+        for (int i = 0; i < 2 * size; i++) {
+            rows[i] = i;
+        }
+        population.rank(rows, 2 * size);
+        population.select(rows, size);
+    }
+
+    public int getEliteCount() {
+        return eliteCount;
+    }
+}
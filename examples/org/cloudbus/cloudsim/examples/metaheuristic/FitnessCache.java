@@ -0,0 +1,199 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of fitness values, keyed by the 64-bit encoding of a schedule of
+ * {@link FitnessEvaluator#encode(int[], int, int, int)}, so that the schedules the algorithms
+ * revisit (unchanged food sources, elite chromosomes, particles clamped to the same bounds) are not
+ * evaluated again.
+ *
+ * The entries are stored by open addressing with linear probing in primitive arrays, in a table at
+ * most half full. When the cache is full, an entry is evicted by the CLOCK algorithm: a hand sweeps
+ * the table, clearing the reference bit of the entries read since it last passed, and evicts the
+ * first entry whose bit is clear. Removed entries are filled by shifting back the entries of their
+ * probe sequence, so the table needs no tombstones.
+ *
+ * The cache counts its hits and misses. It is not thread-safe.
+ */
+public class FitnessCache {
+    private static final byte EMPTY = 0;
+    private static final byte CACHED = 1;
+    private static final byte REFERENCED = 2; // Cached and read since the hand passed
+
+    private final long[] keys;
+    private final double[] values;
+    private final byte[] states;
+    private final int mask; // Table size - 1, the table size being a power of two
+    private final int maxEntries;
+
+    private int entries;
+    private int hand; // Slot of the CLOCK hand
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor
+     * @param maxEntries Number of fitness values kept, at least 1
+     */
+    public FitnessCache(int maxEntries) {
+        if (maxEntries < 1 || maxEntries > 1 << 29) {
+            throw new IllegalArgumentException("The number of entries must be in [1, 2^29]: " + maxEntries);
+        }
+        int tableSize = Integer.highestOneBit(2 * maxEntries - 1) << 1;
+        this.keys = new long[tableSize];
+        this.values = new double[tableSize];
+        this.states = new byte[tableSize];
+        this.mask = tableSize - 1;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the fitness of a schedule
+     * @param key Encoding of the schedule
+     * @return The fitness, NaN if it is not cached
+     */
+    public double get(long key) {
+        for (int slot = slot(key); states[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                states[slot] = REFERENCED;
+                hits++;
+                return values[slot];
+            }
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    /**
+     * Caches the fitness of a schedule, evicting an entry if the cache is full
+     * @param key Encoding of the schedule
+     * @param fitness The fitness
+     */
+    public void put(long key, double fitness) {
+        int slot = slot(key);
+        for (; states[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = fitness;
+                return;
+            }
+        }
+        if (entries == maxEntries) {
+            evict();
+            // the eviction may have shifted the probe sequence
+            slot = slot(key);
+            while (states[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = fitness;
+        states[slot] = CACHED;
+        entries++;
+    }
+
+    /**
+     * Removes all the entries, keeping the counters
+     */
+    public void clear() {
+        Arrays.fill(states, EMPTY);
+        entries = 0;
+        hand = 0;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters
+     */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Evicts the first entry after the hand that was not read since the hand last passed
+     */
+    private void evict() {
+        while (true) {
+            if (states[hand] == REFERENCED) {
+                states[hand] = CACHED;
+            } else if (states[hand] == CACHED) {
+                // an entry shifted back to the slot of the hand is examined next
+                remove(hand);
+                evictions++;
+                return;
+            }
+            hand = (hand + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the entry of a slot, shifting back the entries that probed past it
+     * @param slot The slot
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; states[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            // the entry stays if its home slot is cyclically in (hole, next]
+            boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!stays) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                states[hole] = states[next];
+                hole = next;
+            }
+        }
+        states[hole] = EMPTY;
+        entries--;
+    }
+
+    /**
+     * Gets the home slot of a key, mixing its bits as the finaliser of MurmurHash3
+     * @param key The key
+     * @return The slot
+     */
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /** Gets the number of fitness values found in the cache */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Gets the number of fitness values not found in the cache, hence evaluated */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Gets the number of entries evicted to make room for new ones */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of the lookups found in the cache
+     * @return The hit ratio, 0 if there was no lookup
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /** Gets the number of fitness values in the cache */
+    public int size() {
+        return entries;
+    }
+
+    /** Gets the number of fitness values the cache can hold */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
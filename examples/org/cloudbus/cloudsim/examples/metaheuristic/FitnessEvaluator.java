@@ -0,0 +1,248 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The fitness function shared by ABC, GA and PSO. A schedule assigns the 9 cloudlets of a batch of a
+ * datacenter to VMs: gene j is the VM of cloudlet j of the batch, and VM gene % 9 runs it. The
+ * fitness adds the inverse of the total execution time and the inverse of the total cost, so the
+ * higher the better.
+ *
+ * The cloudlet lengths and the MIPS and cost of the VMs are read once into arrays, and an evaluation
+ * only reads the genes it needs, so the evaluator can be shared by threads.
+ *
+ * The whole workload can also be optimised at once, by giving {@link #WHOLE_WORKLOAD} as the index
+ * of the datacenter: a schedule then assigns every cloudlet to one of the VMs of the list, gene i
+ * being the VM of cloudlet i, and its fitness adds the inverse of the makespan, the largest busy
+ * time of a VM at its MIPS, and the inverse of the total cost. {@link VmLoads} evaluates the move of
+ * one cloudlet in constant time.
+ */
+public class FitnessEvaluator {
+    public static final int VMS_PER_DATACENTER = 9; // VMs (and cloudlets of a batch) per datacenter
+    public static final int DATACENTERS = 6; // Number of datacenters
+    public static final int CLOUDLETS_PER_BATCH = VMS_PER_DATACENTER * DATACENTERS;
+    public static final int WHOLE_WORKLOAD = 0; // Index of the "datacenter" of the whole workload
+
+    private final double[] lengths; // Length of each cloudlet
+    private final double[] mips = new double[VMS_PER_DATACENTER]; // MIPS of the execution time
+    private final double[] vmMips = new double[VMS_PER_DATACENTER]; // MIPS of the cost
+    private final double[] costPerMips = new double[VMS_PER_DATACENTER];
+    private final double[] secondsPerMi; // Execution time of 1 MI on each VM of the whole workload
+    private final double[] costPerMi; // Cost of 1 MI on each VM of the whole workload
+
+    /**
+     * Constructor
+     * @param cloudletList List of cloudlets
+     * @param vmList List of VMs, of which the first 9 run the cloudlets of a batch, and all the
+     *        cloudlets of the whole workload
+     */
+    public FitnessEvaluator(List<Cloudlet> cloudletList, List<Vm> vmList) {
+        lengths = new double[cloudletList.size()];
+        int i = 0;
+        for (Cloudlet cloudlet : cloudletList) {
+            lengths[i++] = cloudlet.getCloudletLength();
+        }
+        for (int vm = 0; vm < VMS_PER_DATACENTER; vm++) {
+            mips[vm] = calculateMips(vm);
+            if (vm < vmList.size()) {
+                vmMips[vm] = vmList.get(vm).getMips();
+                costPerMips[vm] = vmList.get(vm).getCostPerMips();
+            }
+        }
+        secondsPerMi = new double[vmList.size()];
+        costPerMi = new double[vmList.size()];
+        for (int vm = 0; vm < secondsPerMi.length; vm++) {
+            secondsPerMi[vm] = 1 / vmList.get(vm).getMips();
+            costPerMi[vm] = vmList.get(vm).getCostPerMips() / vmList.get(vm).getMips();
+        }
+    }
+
+    /**
+     * Calculates the fitness of a schedule
+     * @param genes Genes of the schedule, e.g. the genes of a {@link FlatPopulation}
+     * @param offset Offset of the first gene
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     * @return The fitness
+     */
+    public double evaluate(int[] genes, int offset, int dataCenterIterator, int cloudletIteration) {
+        double totalExecutionTime = 0;
+        double totalCost = 0;
+        int first = firstCloudlet(dataCenterIterator, cloudletIteration);
+
+        for (int j = 0; j < VMS_PER_DATACENTER; j++) {
+            int vm = genes[offset + j] % VMS_PER_DATACENTER;
+            double length = lengths[first + j];
+            totalExecutionTime += length / mips[vm];
+            totalCost += costPerMips[vm] * (length / vmMips[vm]);
+        }
+
+        double makespanFitness = 1.0 / totalExecutionTime; // The higher the makespan, the lower the fitness
+        double costFitness = 1.0 / totalCost; // The higher the cost, the lower the fitness
+        return makespanFitness + costFitness;
+    }
+
+    /**
+     * Calculates the fitness of a schedule of the whole workload
+     * @param genes Genes of the schedule, the VM of each cloudlet
+     * @param offset Offset of the first gene
+     * @return The fitness
+     */
+    public double evaluateWorkload(int[] genes, int offset) {
+        double[] loads = new double[secondsPerMi.length];
+        double totalCost = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            int vm = genes[offset + i];
+            loads[vm] += lengths[i] * secondsPerMi[vm];
+            totalCost += lengths[i] * costPerMi[vm];
+        }
+        double makespan = 0;
+        for (double load : loads) {
+            makespan = Math.max(makespan, load);
+        }
+        return workloadFitness(makespan, totalCost);
+    }
+
+    /**
+     * Calculates the fitness of a schedule of the whole workload from its makespan and cost
+     * @param makespan Largest busy time of a VM
+     * @param totalCost Cost of all the cloudlets
+     * @return The fitness
+     */
+    public static double workloadFitness(double makespan, double totalCost) {
+        return 1.0 / makespan + 1.0 / totalCost;
+    }
+
+    /**
+     * Gets the execution time of a cloudlet on a VM of the whole workload
+     * @param cloudlet Index of the cloudlet
+     * @param vm Index of the VM
+     * @return The time, in seconds
+     */
+    public double getExecutionTime(int cloudlet, int vm) {
+        return lengths[cloudlet] * secondsPerMi[vm];
+    }
+
+    /**
+     * Gets the cost of a cloudlet on a VM of the whole workload
+     * @param cloudlet Index of the cloudlet
+     * @param vm Index of the VM
+     * @return The cost
+     */
+    public double getCost(int cloudlet, int vm) {
+        return lengths[cloudlet] * costPerMi[vm];
+    }
+
+    /**
+     * Encodes a schedule as a 64-bit key, e.g. for a {@link FitnessCache}: the VM of each cloudlet of
+     * the batch in 4 bits, below the index of the first cloudlet of the batch. Two schedules have
+     * the same key if and only if they have the same fitness inputs, for datasets of less than 2^27
+     * cloudlets.
+     * @param genes Genes of the schedule
+     * @param offset Offset of the first gene
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     * @return The key
+     */
+    public long encode(int[] genes, int offset, int dataCenterIterator, int cloudletIteration) {
+        long key = firstCloudlet(dataCenterIterator, cloudletIteration);
+        for (int j = 0; j < VMS_PER_DATACENTER; j++) {
+            key = (key << 4) | (genes[offset + j] % VMS_PER_DATACENTER);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the index of the first cloudlet of a batch of a datacenter
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     * @return The index in the list of cloudlets
+     */
+    public static int firstCloudlet(int dataCenterIterator, int cloudletIteration) {
+        return (dataCenterIterator - 1) * VMS_PER_DATACENTER + cloudletIteration * CLOUDLETS_PER_BATCH;
+    }
+
+    /**
+     * Gets the lowest gene of a datacenter
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link #WHOLE_WORKLOAD}
+     * @return The first VM of the datacenter, 0 for the whole workload
+     */
+    public static int minPosition(int dataCenterIterator) {
+        return dataCenterIterator == WHOLE_WORKLOAD ? 0 : (dataCenterIterator - 1) * VMS_PER_DATACENTER;
+    }
+
+    /**
+     * Gets the highest gene of a datacenter; the highest gene of the whole workload depends on the
+     * VMs of the fitness, see {@link #getMaxPosition(int)}
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @return The last VM of the datacenter
+     */
+    public static int maxPosition(int dataCenterIterator) {
+        if (dataCenterIterator == WHOLE_WORKLOAD) {
+            throw new IllegalArgumentException("The last VM of the whole workload is that of the fitness");
+        }
+        return dataCenterIterator * VMS_PER_DATACENTER - 1;
+    }
+
+    /**
+     * Gets the highest gene of a datacenter or of the whole workload
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link #WHOLE_WORKLOAD}
+     * @return The last VM of the datacenter, the last VM of the list for the whole workload
+     */
+    public int getMaxPosition(int dataCenterIterator) {
+        return dataCenterIterator == WHOLE_WORKLOAD ? getVmCount() - 1 : maxPosition(dataCenterIterator);
+    }
+
+    /**
+     * Gets the MIPS of a VM of the whole workload
+     * @param vm Index of the VM
+     * @return The MIPS of the VM of the list
+     */
+    public double getMips(int vm) {
+        return 1 / secondsPerMi[vm];
+    }
+
+    /**
+     * Gets the number of VMs of the whole workload
+     * @return The size of the list of VMs
+     */
+    public int getVmCount() {
+        return secondsPerMi.length;
+    }
+
+    /**
+     * Gets the length of a cloudlet
+     * @param cloudlet Index of the cloudlet in the list of cloudlets
+     * @return The length, in MI
+     */
+    public double getLength(int cloudlet) {
+        return lengths[cloudlet];
+    }
+
+    /**
+     * Gets the number of cloudlets
+     * @return The size of the list of cloudlets
+     */
+    public int getCloudletCount() {
+        return lengths.length;
+    }
+
+    /**
+     * Calculates the MIPS of a VM from its index: 400, 500 and 600 in turn
+     * @param vmIndex Index of the VM
+     * @return The MIPS value
+     */
+    public static double calculateMips(int vmIndex) {
+        switch (vmIndex % 3) {
+        case 0:
+            return 400;
+        case 1:
+            return 500;
+        default:
+            return 600;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A population of schedules stored as one flat int[size * dimension] array, with the fitness of
+ * each schedule in a double[] column, so that a generation is two arrays instead of an object and
+ * a chromosome array per individual.
+ *
+ * Row i holds the genes of individual i, from offset(i). A population has a current and a next
+ * generation, swapped by {@link #swap()}, and a spare buffer used to merge the two generations in
+ * {@link #select(int[], int)}; the moves write their offspring in the next generation, so no array
+ * is allocated once the population is created.
+ */
+public class FlatPopulation {
+    private final int size; // Number of individuals
+    private final int dimension; // Number of genes per individual
+
+    private int[] genes; // Current generation
+    private double[] fitness;
+    private int[] nextGenes; // Next generation
+    private double[] nextFitness;
+    private int[] spareGenes; // Target of the merges
+    private double[] spareFitness;
+
+    /**
+     * Creates a population of zero genes, not evaluated
+     * @param size Number of individuals
+     * @param dimension Number of genes per individual
+     */
+    public FlatPopulation(int size, int dimension) {
+        this.size = size;
+        this.dimension = dimension;
+        this.genes = new int[size * dimension];
+        this.fitness = new double[size];
+        this.nextGenes = new int[size * dimension];
+        this.nextFitness = new double[size];
+        this.spareGenes = new int[size * dimension];
+        this.spareFitness = new double[size];
+    }
+
+    /**
+     * Fills the current generation with random genes in [minPosition, maxPosition]
+     * @param random Random number generator
+     * @param minPosition Lowest gene
+     * @param maxPosition Highest gene
+     */
+    public void randomize(Random random, int minPosition, int maxPosition) {
+        int range = maxPosition - minPosition + 1;
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = minPosition + random.nextInt(range);
+        }
+        Arrays.fill(fitness, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Gets the offset of the genes of an individual in the gene arrays
+     * @param individual Index of the individual
+     * @return The offset
+     */
+    public int offset(int individual) {
+        return individual * dimension;
+    }
+
+    /** Gets the genes of the current generation, row by row */
+    public int[] getGenes() {
+        return genes;
+    }
+
+    /** Gets the fitness of the current generation */
+    public double[] getFitness() {
+        return fitness;
+    }
+
+    /** Gets the genes of the next generation, row by row */
+    public int[] getNextGenes() {
+        return nextGenes;
+    }
+
+    /** Gets the fitness of the next generation */
+    public double[] getNextFitness() {
+        return nextFitness;
+    }
+
+    public int getGene(int individual, int gene) {
+        return genes[individual * dimension + gene];
+    }
+
+    public void setGene(int individual, int gene, int value) {
+        genes[individual * dimension + gene] = value;
+    }
+
+    public double getFitness(int individual) {
+        return fitness[individual];
+    }
+
+    public void setFitness(int individual, double value) {
+        fitness[individual] = value;
+    }
+
+    /**
+     * Gets a copy of the genes of an individual
+     * @param individual Index of the individual
+     * @return The genes
+     */
+    public int[] getChromosome(int individual) {
+        int[] chromosome = new int[dimension];
+        System.arraycopy(genes, individual * dimension, chromosome, 0, dimension);
+        return chromosome;
+    }
+
+    /**
+     * Copies an individual of the current generation, with its fitness, over another one
+     * @param from Index of the copied individual
+     * @param to Index of the overwritten individual
+     */
+    public void copy(int from, int to) {
+        System.arraycopy(genes, from * dimension, genes, to * dimension, dimension);
+        fitness[to] = fitness[from];
+    }
+
+    /**
+     * Copies an individual of the current generation, with its fitness, to the next generation
+     * @param from Index in the current generation
+     * @param to Index in the next generation
+     */
+    public void copyToNext(int from, int to) {
+        System.arraycopy(genes, from * dimension, nextGenes, to * dimension, dimension);
+        nextFitness[to] = fitness[from];
+    }
+
+    /**
+     * Makes the next generation the current one
+     */
+    public void swap() {
+        int[] g = genes;
+        genes = nextGenes;
+        nextGenes = g;
+        double[] f = fitness;
+        fitness = nextFitness;
+        nextFitness = f;
+    }
+
+    /**
+     * Makes the current generation out of individuals of both generations
+     * @param rows Rows of the new generation: i for individual i of the current generation, size + i
+     *            for individual i of the next one
+     * @param count Number of rows, at most the size
+     */
+    public void select(int[] rows, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < size) {
+                System.arraycopy(genes, row * dimension, spareGenes, i * dimension, dimension);
+                spareFitness[i] = fitness[row];
+            } else {
+                System.arraycopy(nextGenes, (row - size) * dimension, spareGenes, i * dimension, dimension);
+                spareFitness[i] = nextFitness[row - size];
+            }
+        }
+        // the individuals past count are kept
+        System.arraycopy(genes, count * dimension, spareGenes, count * dimension, (size - count) * dimension);
+        System.arraycopy(fitness, count, spareFitness, count, size - count);
+
+        int[] g = genes;
+        genes = spareGenes;
+        spareGenes = g;
+        double[] f = fitness;
+        fitness = spareFitness;
+        spareFitness = f;
+    }
+
+    /**
+     * Gets the fittest individual of the current generation
+     * @return The index of the first individual of highest fitness
+     */
+    public int bestIndex() {
+        int best = 0;
+        for (int i = 1; i < size; i++) {
+            if (fitness[i] > fitness[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the least fit individual of the current generation
+     * @return Its index, the first one if several are as unfit
+     */
+    public int worstIndex() {
+        int worst = 0;
+        for (int i = 1; i < size; i++) {
+            if (fitness[i] < fitness[worst]) {
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Ranks rows by decreasing fitness, keeping the order of rows of equal fitness
+     * @param rows Rows to rank, as in {@link #select(int[], int)}
+     * @param count Number of rows
+     */
+    public void rank(int[] rows, int count) {
+        // insertion sort, stable and fast for the small populations of the algorithms
+        for (int i = 1; i < count; i++) {
+            int row = rows[i];
+            double f = rowFitness(row);
+            int j = i - 1;
+            while (j >= 0 && rowFitness(rows[j]) < f) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    private double rowFitness(int row) {
+        return row < size ? fitness[row] : nextFitness[row - size];
+    }
+
+    public String toString(int individual) {
+        StringBuilder output = new StringBuilder();
+        for (int gene = 0; gene < dimension; gene++) {
+            output.append(genes[individual * dimension + gene]);
+            output.append(", ");
+        }
+        return output.toString();
+    }
+}
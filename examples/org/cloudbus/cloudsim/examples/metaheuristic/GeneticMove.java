@@ -0,0 +1,123 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Random;
+
+/**
+ * The move of the genetic algorithm: one generation with elitism, tournament selection of the
+ * parents, single-point crossover and uniform mutation.
+ *
+ * The offspring are written straight into the next generation of the population, which then becomes
+ * the current one, so a generation allocates nothing.
+ */
+public class GeneticMove implements Move {
+    private static final int TOURNAMENT_SIZE = 3;
+
+    private final double crossoverProbability; // Probability of crossover
+    private final double mutationProbability; // Probability of mutation of each gene
+
+    /**
+     * Constructor
+     * @param crossoverProbability Probability of crossover
+     * @param mutationProbability Probability of mutation of each gene
+     */
+    public GeneticMove(double crossoverProbability, double mutationProbability) {
+        this.crossoverProbability = crossoverProbability;
+        this.mutationProbability = mutationProbability;
+    }
+
+    @Override
+    public int apply(MetaheuristicEngine engine) {
+        FlatPopulation population = engine.getPopulation();
+        Random random = engine.getRandom();
+        int size = population.size();
+
+        // Elitism: keep the best chromosome
+        population.copyToNext(population.bestIndex(), 0);
+
+        // Generate the rest of the new population
+        for (int child = 1; child < size; child += 2) {
+            int parent1 = selectParent(population, random);
+            int parent2 = selectParent(population, random);
+            boolean second = child + 1 < size;
+            crossover(population, random, parent1, parent2, child, second);
+            mutate(engine, child);
+            if (second) {
+                mutate(engine, child + 1);
+            }
+        }
+
+        // Replace old population with new population, and compute its fitness
+        population.swap();
+        engine.evaluateAll();
+        return size;
+    }
+
+    /**
+     * Selects a parent by tournament
+     * @param population The population
+     * @param random Random number generator
+     * @return The index of the fittest of random chromosomes
+     */
+    public int selectParent(FlatPopulation population, Random random) {
+        int best = -1;
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < TOURNAMENT_SIZE; j++) {
+            int candidate = random.nextInt(population.size());
+            if (best < 0 || population.getFitness(candidate) > bestFitness) {
+                bestFitness = population.getFitness(candidate);
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Writes the offspring of two parents in the next generation, with single-point crossover with
+     * the crossover probability, else as copies of the parents
+     * @param population The population
+     * @param random Random number generator
+     * @param parent1 Index of the first parent
+     * @param parent2 Index of the second parent
+     * @param child Index of the first offspring in the next generation
+     * @param second true to write the second offspring, after the first one
+     */
+    public void crossover(FlatPopulation population, Random random, int parent1, int parent2, int child,
+            boolean second) {
+        int dimension = population.getDimension();
+        int[] genes = population.getGenes();
+        int[] offspring = population.getNextGenes();
+        int p1 = population.offset(parent1);
+        int p2 = population.offset(parent2);
+        int c1 = population.offset(child);
+        int c2 = c1 + dimension;
+
+        int crossoverPoint = dimension;
+        if (random.nextDouble() < crossoverProbability) {
+            crossoverPoint = random.nextInt(dimension);
+        }
+        System.arraycopy(genes, p1, offspring, c1, crossoverPoint);
+        System.arraycopy(genes, p2 + crossoverPoint, offspring, c1 + crossoverPoint, dimension - crossoverPoint);
+        if (second) {
+            System.arraycopy(genes, p2, offspring, c2, crossoverPoint);
+            System.arraycopy(genes, p1 + crossoverPoint, offspring, c2 + crossoverPoint, dimension - crossoverPoint);
+        }
+    }
+
+    /**
+     * Mutates each gene of an offspring with the mutation probability, to a random gene of the
+     * datacenter
+     * @param engine The engine
+     * @param child Index of the offspring in the next generation
+     */
+    public void mutate(MetaheuristicEngine engine, int child) {
+        FlatPopulation population = engine.getPopulation();
+        Random random = engine.getRandom();
+        int[] offspring = population.getNextGenes();
+        int offset = population.offset(child);
+        for (int i = 0; i < population.getDimension(); i++) {
+            if (random.nextDouble() < mutationProbability) {
+                offspring[offset + i] = engine.randomPosition();
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The island model: several populations (islands), each with its own engine, random number
+ * generator and move, are optimised at the same time on separate threads, and every few iterations
+ * each island sends its best schedule to the next island of a ring.
+ *
+ * The islands do not wait for each other: an island posts its best schedule in the mailbox of the
+ * next island, replacing a migrant that was not taken yet, and takes the migrant of its own mailbox
+ * if there is one, with atomic operations only. A migrant replaces the least fit schedule of the
+ * island if it is fitter.
+ *
+ * The first island runs on the calling thread, the others on a pool of daemon threads shared by
+ * the island models. The engines of the islands must not share a {@link FitnessCache}, the cache
+ * not being thread-safe.
+ */
+public class IslandModel {
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "island");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final int migrationInterval; // Iterations between two migrations
+    private final List<Island> islands = new ArrayList<Island>();
+
+    /**
+     * A population with its engine and move, and its mailbox
+     */
+    public static class Island {
+        private final MetaheuristicEngine engine;
+        private final FlatPopulation population;
+        private final Move move;
+        private final AtomicReference<Migrant> mailbox = new AtomicReference<Migrant>();
+        private RunStatistics run; // Statistics of the last run
+        private int immigrants; // Migrants taken in the last run
+
+        /**
+         * Constructor
+         * @param engine The engine of the island, with its own random number generator
+         * @param population The population of the island
+         * @param move The move of an iteration
+         */
+        public Island(MetaheuristicEngine engine, FlatPopulation population, Move move) {
+            this.engine = engine;
+            this.population = population;
+            this.move = move;
+        }
+
+        public MetaheuristicEngine getEngine() {
+            return engine;
+        }
+
+        public FlatPopulation getPopulation() {
+            return population;
+        }
+
+        public RunStatistics getRun() {
+            return run;
+        }
+
+        public int getImmigrants() {
+            return immigrants;
+        }
+    }
+
+    /**
+     * A schedule sent to another island, immutable once posted
+     */
+    private static final class Migrant {
+        private final int[] genes;
+        private final double fitness;
+
+        private Migrant(int[] genes, double fitness) {
+            this.genes = genes;
+            this.fitness = fitness;
+        }
+    }
+
+    /**
+     * Constructor
+     * @param migrationInterval Iterations between two migrations
+     */
+    public IslandModel(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("The migration interval must be positive: " + migrationInterval);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * Adds an island to the ring
+     * @param island The island
+     */
+    public void addIsland(Island island) {
+        islands.add(island);
+    }
+
+    /**
+     * Optimises the populations of all the islands for a batch of a datacenter, each island until
+     * the termination policy is met for its own run
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     * @param termination Termination policy of each island, which must bound the run
+     */
+    public void run(final int dataCenterIterator, final int cloudletIteration, final Termination termination) {
+        // cleared before any island starts, as an island posts to the next one
+        for (Island island : islands) {
+            island.mailbox.set(null);
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 1; i < islands.size(); i++) {
+            final int island = i;
+            futures.add(WORKERS.submit(new Runnable() {
+                @Override
+                public void run() {
+                    runIsland(island, dataCenterIterator, cloudletIteration, termination);
+                }
+            }));
+        }
+        runIsland(0, dataCenterIterator, cloudletIteration, termination);
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the islands", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An island failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs one island, on the current thread
+     */
+    private void runIsland(int index, int dataCenterIterator, int cloudletIteration, Termination termination) {
+        Island island = islands.get(index);
+        Island next = islands.get((index + 1) % islands.size());
+        MetaheuristicEngine engine = island.engine;
+        RunStatistics run = new RunStatistics();
+        island.run = run;
+        island.immigrants = 0;
+
+        run.start();
+        engine.start(island.population, dataCenterIterator, cloudletIteration);
+        engine.evaluateAll();
+        long evaluations = island.population.size();
+        run.progress(evaluations, engine.getBestFitness(dataCenterIterator));
+        run.lap("initialisation");
+
+        while (!run.shouldStop(termination)) {
+            evaluations += engine.step(island.move);
+            run.iteration(evaluations, engine.getBestFitness(dataCenterIterator));
+            run.lap("iterations");
+            if (run.getIterations() % migrationInterval == 0 && islands.size() > 1) {
+                next.mailbox.set(new Migrant(engine.getBestPosition(dataCenterIterator),
+                        engine.getBestFitness(dataCenterIterator)));
+                immigrate(island);
+                run.lap("migration");
+            }
+        }
+    }
+
+    /**
+     * Replaces the least fit schedule of an island by the migrant of its mailbox, if fitter
+     * @param island The island
+     */
+    private void immigrate(Island island) {
+        Migrant migrant = island.mailbox.getAndSet(null);
+        if (migrant == null) {
+            return;
+        }
+        FlatPopulation population = island.population;
+        int worst = population.worstIndex();
+        if (migrant.fitness > population.getFitness(worst)) {
+            island.engine.replace(worst, migrant.genes, 0, migrant.fitness);
+            island.immigrants++;
+        }
+    }
+
+    /**
+     * Gets the island that found the fittest schedule of a datacenter
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @return The island, the first one if several found schedules as fit
+     */
+    public Island getBestIsland(int dataCenterIterator) {
+        Island best = islands.get(0);
+        for (Island island : islands) {
+            if (island.engine.getBestFitness(dataCenterIterator) > best.engine.getBestFitness(dataCenterIterator)) {
+                best = island;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the report of the last run of all the islands, merged by {@link RunStatistics#merge(List)}
+     * @return The merged report
+     */
+    public RunStatistics getRun() {
+        List<RunStatistics> runs = new ArrayList<RunStatistics>();
+        for (Island island : islands) {
+            runs.add(island.run);
+        }
+        return RunStatistics.merge(runs);
+    }
+
+    public List<Island> getIslands() {
+        return islands;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+}
@@ -0,0 +1,340 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+
+/**
+ * List-scheduling heuristics over VMs of different MIPS: each cloudlet, taken in the order of the
+ * policy, goes to the VM where it completes first given the cloudlets already assigned to it. They
+ * serve as baselines of the metaheuristics, as seeds of their initial populations and as the
+ * scheduler of a broker when there is no time to optimise.
+ *
+ * A cloudlet of length L completes on VM v at ready(v) + L / mips(v). Among VMs of the same MIPS the
+ * one ready first is the best, so the VMs are kept in one min-heap of ready times per MIPS value,
+ * and a cloudlet is placed in O(k + log m) for k distinct MIPS values among m VMs, O(n log n + n log m)
+ * for n cloudlets once sorted.
+ *
+ * On VMs that differ by their MIPS only, the cloudlet with the smallest earliest completion time is
+ * always the shortest one, so Min-Min places the cloudlets from the shortest to the longest and
+ * Max-Min from the longest to the shortest, without recomputing the completion times of all the
+ * cloudlets left after each placement.
+ */
+public class ListScheduler {
+    private static final int INSERTION_SORT_THRESHOLD = 16; // Runs sorted by insertion
+
+    /**
+     * The order in which the cloudlets are placed
+     */
+    public enum Policy {
+        /** Cloudlets in their order, VMs in turn, regardless of their completion times */
+        ROUND_ROBIN,
+        /** Shortest cloudlet first, on the VM where it completes first */
+        MIN_MIN,
+        /**
+         * Longest cloudlet first, on the VM where it completes first. It is also HEFT on independent
+         * cloudlets: with no successors the upward rank of a cloudlet is its mean execution time over
+         * the VMs, in the order of the lengths, and a VM running its cloudlets back to back has no idle
+         * slot to insert one in
+         */
+        MAX_MIN
+    }
+
+    private final Policy policy;
+    private final double[] mips; // MIPS of each VM
+    private final double[] readyTimes; // Time at which each VM is free
+
+    private final double[] speeds; // Distinct MIPS values
+    private final int[][] heaps; // VMs of each MIPS value, min-heap of ready times
+    private final int[] heapSizes;
+
+    private int nextVm; // Next VM of the round robin
+    private int[] order = new int[0]; // Cloudlets of a batch in the order of the policy
+    private double[] keys = new double[0]; // Sort key of each cloudlet of order
+    private int[] orderBuffer = new int[0]; // Merge sort buffers
+    private double[] keyBuffer = new double[0];
+
+    /**
+     * Constructor, all VMs free at time 0
+     * @param policy The order in which the cloudlets are placed
+     * @param mips MIPS of each VM
+     */
+    public ListScheduler(Policy policy, double[] mips) {
+        if (mips.length == 0) {
+            throw new IllegalArgumentException("No VM to schedule on");
+        }
+        this.policy = policy;
+        this.mips = mips.clone();
+        this.readyTimes = new double[mips.length];
+
+        double[] sorted = mips.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.speeds = Arrays.copyOf(sorted, distinct);
+        this.heaps = new int[distinct][];
+        this.heapSizes = new int[distinct];
+        for (int c = 0; c < distinct; c++) {
+            int count = 0;
+            for (double m : mips) {
+                if (m == speeds[c]) {
+                    count++;
+                }
+            }
+            heaps[c] = new int[count];
+        }
+        reset();
+    }
+
+    /**
+     * Creates a scheduler over the VMs of a datacenter, whose MIPS are those of the fitness; see
+     * {@link #forWorkload(Policy, FitnessEvaluator)} for all the VMs
+     * @param policy The order in which the cloudlets are placed
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @return The scheduler, the VMs numbered from 0 in the datacenter
+     */
+    public static ListScheduler forDatacenter(Policy policy, int dataCenterIterator) {
+        int minPosition = FitnessEvaluator.minPosition(dataCenterIterator);
+        double[] mips = new double[FitnessEvaluator.maxPosition(dataCenterIterator) - minPosition + 1];
+        for (int vm = 0; vm < mips.length; vm++) {
+            mips[vm] = FitnessEvaluator.calculateMips(minPosition + vm);
+        }
+        return new ListScheduler(policy, mips);
+    }
+
+    /**
+     * Creates a scheduler over the VMs of the whole workload of a fitness
+     * @param policy The order in which the cloudlets are placed
+     * @param evaluator The fitness function, for the MIPS of its VMs
+     * @return The scheduler
+     */
+    public static ListScheduler forWorkload(Policy policy, FitnessEvaluator evaluator) {
+        double[] mips = new double[evaluator.getVmCount()];
+        for (int vm = 0; vm < mips.length; vm++) {
+            mips[vm] = evaluator.getMips(vm);
+        }
+        return new ListScheduler(policy, mips);
+    }
+
+    /**
+     * Frees all the VMs
+     */
+    public void reset() {
+        Arrays.fill(readyTimes, 0);
+        Arrays.fill(heapSizes, 0);
+        for (int vm = 0; vm < mips.length; vm++) {
+            int c = Arrays.binarySearch(speeds, mips[vm]);
+            heaps[c][heapSizes[c]++] = vm; // all ready at 0, in the order of the VMs: already a heap
+        }
+        nextVm = 0;
+    }
+
+    /**
+     * Schedules a batch of cloudlets after the cloudlets already scheduled
+     * @param lengths Lengths of the cloudlets, in MI
+     * @param from Index of the first cloudlet of the batch in lengths
+     * @param count Number of cloudlets of the batch
+     * @param vms Receives the VM of each cloudlet of the batch, in the order of the cloudlets
+     * @param offset Index in vms of the VM of the first cloudlet
+     * @return The cloudlets of the batch, from 0, in the order they were placed, valid until the
+     *         next call
+     */
+    public int[] schedule(double[] lengths, int from, int count, int[] vms, int offset) {
+        int[] placed = order(lengths, from, count);
+        for (int i = 0; i < count; i++) {
+            int cloudlet = placed[i];
+            vms[offset + cloudlet] = place(lengths[from + cloudlet]);
+        }
+        return placed;
+    }
+
+    /**
+     * Seeds a schedule of a population with the schedule of a batch of a datacenter, or of the whole
+     * workload, by the policy, on VMs free at the start; only the genes read by the fitness are
+     * written
+     * @param population The population
+     * @param individual The individual to seed, left to evaluate
+     * @param evaluator The fitness function, for the cloudlet lengths
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link FitnessEvaluator#WHOLE_WORKLOAD}
+     *        for a scheduler over all the VMs
+     * @param cloudletIteration Index of the batch of cloudlets, ignored for the whole workload
+     */
+    public void seed(FlatPopulation population, int individual, FitnessEvaluator evaluator,
+            int dataCenterIterator, int cloudletIteration) {
+        boolean wholeWorkload = dataCenterIterator == FitnessEvaluator.WHOLE_WORKLOAD;
+        int count = wholeWorkload ? evaluator.getCloudletCount() : FitnessEvaluator.VMS_PER_DATACENTER;
+        int first = wholeWorkload ? 0 : FitnessEvaluator.firstCloudlet(dataCenterIterator, cloudletIteration);
+        double[] lengths = new double[count];
+        for (int j = 0; j < count; j++) {
+            lengths[j] = evaluator.getLength(first + j);
+        }
+        reset();
+        int offset = population.offset(individual);
+        int[] genes = population.getGenes();
+        schedule(lengths, 0, count, genes, offset);
+        int minPosition = FitnessEvaluator.minPosition(dataCenterIterator);
+        for (int j = 0; j < count; j++) {
+            genes[offset + j] += minPosition;
+        }
+        population.setFitness(individual, -1);
+    }
+
+    /**
+     * Orders the cloudlets of a batch by the policy
+     */
+    private int[] order(double[] lengths, int from, int count) {
+        if (order.length < count) {
+            order = new int[count];
+            keys = new double[count];
+            orderBuffer = new int[count];
+            keyBuffer = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            double length = lengths[from + i];
+            switch (policy) {
+            case MIN_MIN:
+                keys[i] = length;
+                break;
+            case MAX_MIN:
+                keys[i] = -length;
+                break;
+            default:
+                keys[i] = 0; // in the order of the cloudlets
+            }
+        }
+        if (policy != Policy.ROUND_ROBIN) {
+            sort(0, count);
+        }
+        return order;
+    }
+
+    /**
+     * Stable merge sort of order[lo, hi) by increasing key, the keys moving with the cloudlets so
+     * that a comparison reads no other array
+     */
+    private void sort(int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            for (int i = lo + 1; i < hi; i++) {
+                int cloudlet = order[i];
+                double key = keys[i];
+                int j = i - 1;
+                while (j >= lo && keys[j] > key) {
+                    order[j + 1] = order[j];
+                    keys[j + 1] = keys[j];
+                    j--;
+                }
+                order[j + 1] = cloudlet;
+                keys[j + 1] = key;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sort(lo, mid);
+        sort(mid, hi);
+        if (keys[mid - 1] <= keys[mid]) {
+            return;
+        }
+        System.arraycopy(order, lo, orderBuffer, lo, hi - lo);
+        System.arraycopy(keys, lo, keyBuffer, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (j >= hi || (i < mid && keyBuffer[i] <= keyBuffer[j])) {
+                order[k] = orderBuffer[i];
+                keys[k] = keyBuffer[i++];
+            } else {
+                order[k] = orderBuffer[j];
+                keys[k] = keyBuffer[j++];
+            }
+        }
+    }
+
+    /**
+     * Places a cloudlet on a VM and updates its ready time
+     * @param length Length of the cloudlet, in MI
+     * @return The VM
+     */
+    private int place(double length) {
+        if (policy == Policy.ROUND_ROBIN) {
+            int vm = nextVm;
+            nextVm = (nextVm + 1) % mips.length;
+            readyTimes[vm] += length / mips[vm];
+            return vm;
+        }
+        // the VM ready first of each MIPS value, the one completing first among them
+        int c = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int s = 0; s < speeds.length; s++) {
+            int head = heaps[s][0];
+            double completion = readyTimes[head] + length / speeds[s];
+            if (completion < best || (completion == best && head < heaps[c][0])) {
+                best = completion;
+                c = s;
+            }
+        }
+        int vm = heaps[c][0];
+        readyTimes[vm] += length / mips[vm];
+        siftDown(c, 0);
+        return vm;
+    }
+
+    /**
+     * Restores the heap of a MIPS value after the ready time of one of its VMs grew; the heaps
+     * are not used by the round robin
+     */
+    private void siftDown(int c, int i) {
+        int[] heap = heaps[c];
+        int size = heapSizes[c];
+        int vm = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], vm)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = vm;
+    }
+
+    /**
+     * Orders the VMs of a heap by ready time, then by index
+     */
+    private boolean before(int vm, int other) {
+        return readyTimes[vm] < readyTimes[other] || (readyTimes[vm] == readyTimes[other] && vm < other);
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the time at which a VM is free
+     * @param vm Index of the VM
+     * @return The ready time, in seconds
+     */
+    public double getReadyTime(int vm) {
+        return readyTimes[vm];
+    }
+
+    /**
+     * Gets the time at which all the VMs are free
+     * @return The makespan of the cloudlets scheduled since the last reset, in seconds
+     */
+    public double getMakespan() {
+        double makespan = 0;
+        for (double readyTime : readyTimes) {
+            makespan = Math.max(makespan, readyTime);
+        }
+        return makespan;
+    }
+}
@@ -0,0 +1,418 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * The optimisation engine shared by ABC, GA and PSO: it runs {@link Move}s over a
+ * {@link FlatPopulation} for a batch of cloudlets of a datacenter, and keeps what the algorithms
+ * used to duplicate:
+ * - the fitness evaluation, through a {@link FitnessEvaluator}, and the count of evaluations;
+ * - the random number generator of the moves;
+ * - the bounds of the genes of the datacenter;
+ * - the best schedule found for each datacenter;
+ * - the evaluation of whole generations, on several threads if enabled;
+ * - an optional {@link FitnessCache} of the schedules already evaluated, which serial evaluations
+ *   read and fill; parallel generations are evaluated without it, the cache not being thread-safe.
+ *
+ * Started on {@link FitnessEvaluator#WHOLE_WORKLOAD}, the engine optimises the VM of every cloudlet
+ * among all the VMs instead of a batch of a datacenter. It then keeps the {@link VmLoads} of each
+ * schedule of the current generation, so that the moves that change one gene, through
+ * {@link #fitnessWithGene(int, int, int)} and {@link #setGene(int, int, int, double)}, are evaluated
+ * in constant time; the loads of a schedule are recalculated when it was changed otherwise, e.g.
+ * after a merge of two generations. The fitness cache is not used for the whole workload.
+ */
+public class MetaheuristicEngine {
+    private final FitnessEvaluator evaluator;
+    private final Random random;
+    private boolean parallel; // Evaluate generations on the common fork-join pool
+    private FitnessCache fitnessCache; // Fitness of the schedules already evaluated, if any
+
+    private FlatPopulation population;
+    private int dataCenterIterator;
+    private int cloudletIteration;
+    private int minPosition;
+    private int maxPosition;
+    private long evaluations;
+
+    private VmLoads[] loads; // Loads of the schedules of the current generation, for the whole workload
+    private boolean[] loaded; // Whether the loads of a schedule match its genes
+
+    private final double[] bestFitnesses; // Best fitness for each datacenter, the whole workload first
+    private final int[][] bestPositions; // Best schedule for each datacenter, the whole workload first
+
+    /**
+     * Constructor
+     * @param evaluator The fitness function
+     * @param random The random number generator of the moves
+     */
+    public MetaheuristicEngine(FitnessEvaluator evaluator, Random random) {
+        this.evaluator = evaluator;
+        this.random = random;
+        bestFitnesses = new double[FitnessEvaluator.DATACENTERS + 1];
+        bestPositions = new int[FitnessEvaluator.DATACENTERS + 1][];
+        Arrays.fill(bestFitnesses, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Starts the optimisation of a batch of a datacenter, or of the whole workload
+     * @param population The population to optimise, of one gene per cloudlet for the whole workload
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link FitnessEvaluator#WHOLE_WORKLOAD}
+     * @param cloudletIteration Index of the batch of cloudlets, ignored for the whole workload
+     */
+    public void start(FlatPopulation population, int dataCenterIterator, int cloudletIteration) {
+        this.population = population;
+        this.dataCenterIterator = dataCenterIterator;
+        this.cloudletIteration = cloudletIteration;
+        this.minPosition = FitnessEvaluator.minPosition(dataCenterIterator);
+        this.maxPosition = evaluator.getMaxPosition(dataCenterIterator);
+
+        if (isWholeWorkload()) {
+            if (population.getDimension() != evaluator.getCloudletCount()) {
+                throw new IllegalArgumentException("The whole workload needs one gene per cloudlet: "
+                        + population.getDimension() + " genes for " + evaluator.getCloudletCount() + " cloudlets");
+            }
+            if (loads == null || loads.length != population.size()) {
+                loads = new VmLoads[population.size()];
+                for (int i = 0; i < loads.length; i++) {
+                    loads[i] = new VmLoads(evaluator);
+                }
+                loaded = new boolean[population.size()];
+            }
+            Arrays.fill(loaded, false);
+        }
+    }
+
+    /**
+     * Applies a move to the population
+     * @param move The move
+     * @return The number of fitness evaluations of the move
+     */
+    public int step(Move move) {
+        return move.apply(this);
+    }
+
+    /**
+     * Calculates the fitness of a schedule, without recording it
+     * @param genes Genes of the schedule
+     * @param offset Offset of the first gene
+     * @return The fitness
+     */
+    public double fitness(int[] genes, int offset) {
+        evaluations++;
+        return lookup(genes, offset);
+    }
+
+    /**
+     * Gets the fitness of a schedule from the cache, evaluating and caching it if missing
+     * @param genes Genes of the schedule
+     * @param offset Offset of the first gene
+     * @return The fitness
+     */
+    private double lookup(int[] genes, int offset) {
+        if (isWholeWorkload()) {
+            return evaluator.evaluateWorkload(genes, offset);
+        }
+        if (fitnessCache == null) {
+            return evaluator.evaluate(genes, offset, dataCenterIterator, cloudletIteration);
+        }
+        long key = evaluator.encode(genes, offset, dataCenterIterator, cloudletIteration);
+        double fitness = fitnessCache.get(key);
+        if (Double.isNaN(fitness)) {
+            fitness = evaluator.evaluate(genes, offset, dataCenterIterator, cloudletIteration);
+            fitnessCache.put(key, fitness);
+        }
+        return fitness;
+    }
+
+    /**
+     * Evaluates an individual of the current generation, recording its fitness and the best schedule
+     * @param individual Index of the individual
+     * @return The fitness
+     */
+    public double evaluate(int individual) {
+        int[] genes = population.getGenes();
+        int offset = population.offset(individual);
+        double fitness;
+        if (isWholeWorkload()) {
+            evaluations++;
+            fitness = loads[individual].load(genes, offset);
+            loaded[individual] = true;
+        } else {
+            fitness = fitness(genes, offset);
+        }
+        population.setFitness(individual, fitness);
+        offer(genes, offset, fitness);
+        return fitness;
+    }
+
+    /**
+     * Evaluates an individual of the next generation, recording its fitness and the best schedule
+     * @param individual Index of the individual
+     * @return The fitness
+     */
+    public double evaluateNext(int individual) {
+        int[] genes = population.getNextGenes();
+        int offset = population.offset(individual);
+        double fitness = fitness(genes, offset);
+        population.getNextFitness()[individual] = fitness;
+        offer(genes, offset, fitness);
+        if (isWholeWorkload()) {
+            // the next generation replaces or merges with the current one
+            Arrays.fill(loaded, false);
+        }
+        return fitness;
+    }
+
+    /**
+     * Calculates the fitness of a schedule of the current generation with one gene changed, without
+     * changing it; in constant time for the whole workload
+     * @param individual Index of the individual
+     * @param gene Index of the gene
+     * @param value The new gene
+     * @return The fitness with the new gene
+     */
+    public double fitnessWithGene(int individual, int gene, int value) {
+        int[] genes = population.getGenes();
+        int offset = population.offset(individual);
+        if (isWholeWorkload()) {
+            evaluations++;
+            return loadsOf(individual).fitnessIfMoved(gene, genes[offset + gene], value);
+        }
+        int oldValue = genes[offset + gene];
+        genes[offset + gene] = value;
+        double fitness = fitness(genes, offset);
+        genes[offset + gene] = oldValue;
+        return fitness;
+    }
+
+    /**
+     * Changes a gene of a schedule of the current generation, recording its new fitness and the best
+     * schedule
+     * @param individual Index of the individual
+     * @param gene Index of the gene
+     * @param value The new gene
+     * @param fitness The fitness with the new gene, from {@link #fitnessWithGene(int, int, int)}
+     */
+    public void setGene(int individual, int gene, int value, double fitness) {
+        int[] genes = population.getGenes();
+        int offset = population.offset(individual);
+        if (isWholeWorkload()) {
+            loadsOf(individual).move(gene, genes[offset + gene], value);
+        }
+        genes[offset + gene] = value;
+        population.setFitness(individual, fitness);
+        offer(genes, offset, fitness);
+    }
+
+    /**
+     * Copies a schedule of the current generation, with its fitness, over another one
+     * @param from Index of the individual to copy
+     * @param to Index of the individual to replace
+     */
+    public void copy(int from, int to) {
+        population.copy(from, to);
+        if (isWholeWorkload()) {
+            if (loaded[from]) {
+                loads[to].copyFrom(loads[from]);
+            }
+            loaded[to] = loaded[from];
+        }
+    }
+
+    /**
+     * Replaces a schedule of the current generation by a schedule evaluated elsewhere, e.g. a
+     * migrant, recording the best schedule
+     * @param individual Index of the individual
+     * @param genes Genes of the new schedule
+     * @param offset Offset of the first gene
+     * @param fitness Fitness of the new schedule
+     */
+    public void replace(int individual, int[] genes, int offset, double fitness) {
+        System.arraycopy(genes, offset, population.getGenes(), population.offset(individual),
+                population.getDimension());
+        population.setFitness(individual, fitness);
+        offer(genes, offset, fitness);
+        if (isWholeWorkload()) {
+            loaded[individual] = false;
+        }
+    }
+
+    /**
+     * Gets the loads of a schedule of the current generation of the whole workload, recalculating
+     * them if the schedule was changed otherwise than by the engine
+     */
+    private VmLoads loadsOf(int individual) {
+        if (!loaded[individual]) {
+            loads[individual].load(population.getGenes(), population.offset(individual));
+            loaded[individual] = true;
+        }
+        return loads[individual];
+    }
+
+    /**
+     * Evaluates the whole current generation
+     */
+    public void evaluateAll() {
+        final int[] genes = population.getGenes();
+        final double[] fitness = population.getFitness();
+        final int size = population.size();
+        if (isWholeWorkload()) {
+            if (parallel) {
+                IntStream.range(0, size).parallel().forEach(i -> fitness[i] =
+                        loads[i].load(genes, population.offset(i)));
+            } else {
+                for (int i = 0; i < size; i++) {
+                    fitness[i] = loads[i].load(genes, population.offset(i));
+                }
+            }
+            Arrays.fill(loaded, true);
+        } else if (parallel) {
+            IntStream.range(0, size).parallel().forEach(i -> fitness[i] =
+                    evaluator.evaluate(genes, population.offset(i), dataCenterIterator, cloudletIteration));
+        } else {
+            for (int i = 0; i < size; i++) {
+                fitness[i] = lookup(genes, population.offset(i));
+            }
+        }
+        evaluations += size;
+        // in order, so that the best schedule does not depend on the threads
+        for (int i = 0; i < size; i++) {
+            offer(genes, population.offset(i), fitness[i]);
+        }
+    }
+
+    /**
+     * Records a schedule as the best of the datacenter if it is fitter than the best so far
+     * @param genes Genes of the schedule
+     * @param offset Offset of the first gene
+     * @param fitness Fitness of the schedule
+     * @return true if the schedule is the new best
+     */
+    public boolean offer(int[] genes, int offset, double fitness) {
+        if (fitness > bestFitnesses[dataCenterIterator]) {
+            int dimension = population.getDimension();
+            if (bestPositions[dataCenterIterator] == null || bestPositions[dataCenterIterator].length != dimension) {
+                bestPositions[dataCenterIterator] = new int[dimension];
+            }
+            System.arraycopy(genes, offset, bestPositions[dataCenterIterator], 0, dimension);
+            bestFitnesses[dataCenterIterator] = fitness;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the best schedule found for the current datacenter, for the moves to read; it changes
+     * as fitter schedules are offered
+     * @return The schedule, null if no schedule was evaluated
+     */
+    public int[] getBestGenes() {
+        return bestPositions[dataCenterIterator];
+    }
+
+    /**
+     * Clamps a gene to the bounds of the datacenter
+     * @param value The gene
+     * @return The gene in [minPosition, maxPosition]
+     */
+    public int clamp(int value) {
+        if (value < minPosition) {
+            return minPosition;
+        } else if (value > maxPosition) {
+            return maxPosition;
+        }
+        return value;
+    }
+
+    /**
+     * Draws a random gene of the datacenter
+     * @return A gene in [minPosition, maxPosition]
+     */
+    public int randomPosition() {
+        return minPosition + random.nextInt(maxPosition - minPosition + 1);
+    }
+
+    public FitnessEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public FlatPopulation getPopulation() {
+        return population;
+    }
+
+    public int getDataCenterIterator() {
+        return dataCenterIterator;
+    }
+
+    /** Checks whether the engine optimises the whole workload rather than a batch */
+    public boolean isWholeWorkload() {
+        return dataCenterIterator == FitnessEvaluator.WHOLE_WORKLOAD;
+    }
+
+    public int getCloudletIteration() {
+        return cloudletIteration;
+    }
+
+    public int getMinPosition() {
+        return minPosition;
+    }
+
+    public int getMaxPosition() {
+        return maxPosition;
+    }
+
+    /** Gets the number of fitness evaluations since the engine was created */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enables the evaluation of the generations on the threads of the common fork-join pool
+     * @param parallel true to evaluate in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Sets the cache of the fitness of the schedules already evaluated; a cache may be shared by
+     * engines run one after the other, its keys identifying the batch
+     * @param fitnessCache The cache, null to evaluate every schedule
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        this.fitnessCache = fitnessCache;
+    }
+
+    /**
+     * Gets the best fitness found for a datacenter
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link FitnessEvaluator#WHOLE_WORKLOAD}
+     * @return The fitness, negative infinity if no schedule was evaluated
+     */
+    public double getBestFitness(int dataCenterIterator) {
+        return bestFitnesses[dataCenterIterator];
+    }
+
+    /**
+     * Gets the best schedule found for a datacenter
+     * @param dataCenterIterator Index of the datacenter, from 1, or {@link FitnessEvaluator#WHOLE_WORKLOAD}
+     * @return A copy of the schedule, null if no schedule was evaluated
+     */
+    public int[] getBestPosition(int dataCenterIterator) {
+        int[] best = bestPositions[dataCenterIterator];
+        return best == null ? null : best.clone();
+    }
+}
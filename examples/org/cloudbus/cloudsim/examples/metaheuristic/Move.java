@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+/**
+ * A move of a metaheuristic: one step of ABC, EOBL, GA or PSO over the population of an engine.
+ * The moves keep their own state, e.g. the trial counters of the food sources or the velocities of
+ * the particles, and evaluate the schedules they produce through the engine.
+ */
+public interface Move {
+
+    /**
+     * Moves the population of the engine to new schedules and evaluates them
+     * @param engine The engine, started on a population
+     * @return The number of fitness evaluations
+     */
+    int apply(MetaheuristicEngine engine);
+}
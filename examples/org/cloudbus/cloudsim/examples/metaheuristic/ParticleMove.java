@@ -0,0 +1,99 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Random;
+
+/**
+ * The move of PSO: each particle of a {@link SwarmPopulation} is accelerated towards its personal
+ * best and the global best position, v = w * v + l1 * r1 * (pBest - x) + l2 * r2 * (gBest - x),
+ * with the speed limited to Vmax, and moved by the rounded velocity within the bounds of the
+ * datacenter.
+ *
+ * The update runs over the flat matrices of the swarm in separate passes: the random coefficients
+ * are drawn first, in the order the particles were always drawn, then the velocities and positions
+ * are computed by branch-free loops over contiguous arrays that the JIT can auto-vectorise. The
+ * global best is tiled into a row per particle for that, and the scratch arrays are kept between
+ * iterations.
+ */
+public class ParticleMove implements Move {
+    private final double w; // Inertia weight
+    private final double l1; // Cognitive component
+    private final double l2; // Social component
+
+    private double[] r1 = new double[0]; // Random cognitive coefficient of each gene
+    private double[] r2 = new double[0]; // Random social coefficient of each gene
+    private int[] globalBests = new int[0]; // Global best position, one row per particle
+
+    /**
+     * Constructor
+     * @param w Inertia weight
+     * @param l1 Cognitive component
+     * @param l2 Social component
+     */
+    public ParticleMove(double w, double l1, double l2) {
+        this.w = w;
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    /**
+     * Gets the highest speed of the particles, half the range of their positions
+     * @param minPosition Lowest position, the first VM of the datacenter
+     * @param maxPosition Highest position, the last VM of the datacenter
+     * @return Vmax
+     */
+    public static double maxVelocity(int minPosition, int maxPosition) {
+        return (maxPosition - minPosition) * 0.5;
+    }
+
+    @Override
+    public int apply(MetaheuristicEngine engine) {
+        updateVelocitiesAndPositions(engine);
+        engine.evaluateAll();
+        ((SwarmPopulation) engine.getPopulation()).updatePersonalBests();
+        return engine.getPopulation().size();
+    }
+
+    /**
+     * Moves the particles of the swarm of the engine
+     * @param engine The engine, started on a {@link SwarmPopulation} whose schedules were evaluated
+     */
+    public void updateVelocitiesAndPositions(MetaheuristicEngine engine) {
+        SwarmPopulation swarm = (SwarmPopulation) engine.getPopulation();
+        Random random = engine.getRandom();
+        int[] positions = swarm.getGenes();
+        double[] velocities = swarm.getVelocities();
+        int[] personalBests = swarm.getPersonalBestPositions();
+        int[] globalBest = engine.getBestGenes();
+        int dimension = swarm.getDimension();
+        int length = swarm.size() * dimension;
+
+        if (r1.length != length) {
+            r1 = new double[length];
+            r2 = new double[length];
+            globalBests = new int[length];
+        }
+        for (int i = 0; i < length; i++) {
+            r1[i] = random.nextDouble();
+            r2[i] = random.nextDouble();
+        }
+        for (int offset = 0; offset < length; offset += dimension) {
+            System.arraycopy(globalBest, 0, globalBests, offset, dimension);
+        }
+
+        int minPosition = engine.getMinPosition();
+        int maxPosition = engine.getMaxPosition();
+        double vmax = maxVelocity(minPosition, maxPosition);
+        for (int i = 0; i < length; i++) {
+            int currentPosition = positions[i];
+            double newVelocity = w * velocities[i]
+                    + l1 * r1[i] * (personalBests[i] - currentPosition)
+                    + l2 * r2[i] * (globalBests[i] - currentPosition);
+            velocities[i] = Math.max(-vmax, Math.min(vmax, newVelocity));
+        }
+
+        for (int i = 0; i < length; i++) {
+            int newPosition = positions[i] + (int) Math.round(velocities[i]);
+            positions[i] = Math.max(minPosition, Math.min(maxPosition, newPosition));
+        }
+    }
+}
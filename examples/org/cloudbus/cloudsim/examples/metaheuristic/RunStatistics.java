@@ -0,0 +1,201 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The progress and report of a run of a metaheuristic: iterations, fitness evaluations, best
+ * fitness and the iterations since it last improved, checked by the {@link Termination} policies,
+ * the evaluations made when the best fitness was reached, and, once the run is over, why it stopped
+ * and how long each phase took.
+ *
+ * The phases are timed as laps: {@link #lap(String)} adds the time since the previous lap, or since
+ * the start, to a phase.
+ */
+public class RunStatistics {
+    private long startNanos;
+    private long lapNanos; // End of the last lap
+    private long endNanos;
+    private int iterations;
+    private long evaluations;
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private long evaluationsToBest; // Evaluations when the best fitness was reached
+    private int stagnantIterations; // Iterations since the best fitness improved
+    private Termination.Reason stopReason;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<String, Long>();
+
+    /**
+     * Starts the clock of the run
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        lapNanos = startNanos;
+    }
+
+    /**
+     * Records the progress of the run, e.g. after the first evaluation of the population
+     * @param evaluations Fitness evaluations so far
+     * @param bestFitness Best fitness so far
+     */
+    public void progress(long evaluations, double bestFitness) {
+        if (bestFitness > this.bestFitness) {
+            evaluationsToBest = evaluations;
+        }
+        this.evaluations = evaluations;
+        this.bestFitness = bestFitness;
+    }
+
+    /**
+     * Records the end of an iteration
+     * @param evaluations Fitness evaluations so far
+     * @param bestFitness Best fitness so far
+     */
+    public void iteration(long evaluations, double bestFitness) {
+        iterations++;
+        if (bestFitness > this.bestFitness) {
+            stagnantIterations = 0;
+        } else {
+            stagnantIterations++;
+        }
+        progress(evaluations, bestFitness);
+    }
+
+    /**
+     * Adds the time since the last lap to a phase
+     * @param phase Name of the phase
+     */
+    public void lap(String phase) {
+        long now = System.nanoTime();
+        Long nanos = phaseNanos.get(phase);
+        phaseNanos.put(phase, (nanos == null ? 0 : nanos) + now - lapNanos);
+        lapNanos = now;
+    }
+
+    /**
+     * Checks a termination policy, and stops the clock if it is met
+     * @param termination The policy
+     * @return true if the run must stop
+     */
+    public boolean shouldStop(Termination termination) {
+        Termination.Reason reason = termination.check(this);
+        if (reason != null) {
+            stopReason = reason;
+            endNanos = System.nanoTime();
+        }
+        return reason != null;
+    }
+
+    /**
+     * Merges the runs of the islands of an island model, made at the same time, into one report:
+     * the evaluations and phase times are summed over the runs, the best fitness is the best of
+     * all the runs and the iterations are those of the longest run. As the islands evaluate at
+     * about the same pace, the evaluations when the best fitness was reached are those of every
+     * run up to the evaluations the fittest run needed to reach it.
+     * @param runs The runs, stopped
+     * @return The merged report, stopped when the last run stopped
+     */
+    public static RunStatistics merge(List<RunStatistics> runs) {
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException("No run to merge");
+        }
+        RunStatistics best = runs.get(0);
+        for (RunStatistics run : runs) {
+            if (run.bestFitness > best.bestFitness) {
+                best = run;
+            }
+        }
+
+        RunStatistics merged = new RunStatistics();
+        merged.startNanos = best.startNanos;
+        merged.endNanos = best.endNanos;
+        merged.bestFitness = best.bestFitness;
+        merged.stagnantIterations = Integer.MAX_VALUE;
+        for (RunStatistics run : runs) {
+            merged.startNanos = Math.min(merged.startNanos, run.startNanos);
+            if (run.endNanos >= merged.endNanos) {
+                merged.endNanos = run.endNanos;
+                merged.stopReason = run.stopReason;
+            }
+            merged.iterations = Math.max(merged.iterations, run.iterations);
+            merged.evaluations += run.evaluations;
+            merged.evaluationsToBest += Math.min(run.evaluations, best.evaluationsToBest);
+            merged.stagnantIterations = Math.min(merged.stagnantIterations, run.stagnantIterations);
+            for (Map.Entry<String, Long> phase : run.phaseNanos.entrySet()) {
+                Long nanos = merged.phaseNanos.get(phase.getKey());
+                merged.phaseNanos.put(phase.getKey(), (nanos == null ? 0 : nanos) + phase.getValue());
+            }
+        }
+        merged.lapNanos = merged.endNanos;
+        return merged;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * Gets the fitness evaluations made when the best fitness was reached, counted at the end of
+     * its iteration
+     * @return The number of evaluations
+     */
+    public long getEvaluationsToBest() {
+        return evaluationsToBest;
+    }
+
+    public int getStagnantIterations() {
+        return stagnantIterations;
+    }
+
+    /** Gets the reason why the run stopped, null while it runs */
+    public Termination.Reason getStopReason() {
+        return stopReason;
+    }
+
+    /** Gets the time since the start of the run, or its duration once stopped */
+    public long getElapsedNanos() {
+        return (stopReason == null ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    /**
+     * Gets the time of a phase
+     * @param phase Name of the phase
+     * @return The time in milliseconds, 0 for an unknown phase
+     */
+    public double getPhaseMillis(String phase) {
+        Long nanos = phaseNanos.get(phase);
+        return nanos == null ? 0 : nanos / 1e6;
+    }
+
+    /** Gets the names of the phases, in the order they were first timed */
+    public Iterable<String> getPhases() {
+        return phaseNanos.keySet();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(stopReason == null ? "running" : "stopped: " + stopReason);
+        report.append(String.format(Locale.US,
+                " after %d iterations, %d function evaluations (best after %d), %.3f ms",
+                iterations, evaluations, evaluationsToBest, getElapsedNanos() / 1e6));
+        String separator = " (";
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            report.append(String.format(Locale.US, "%s%s %.3f ms", separator, phase.getKey(), phase.getValue() / 1e6));
+            separator = ", ";
+        }
+        if (!phaseNanos.isEmpty()) {
+            report.append(')');
+        }
+        return report.toString();
+    }
+}
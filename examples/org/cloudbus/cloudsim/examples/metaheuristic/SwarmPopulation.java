@@ -0,0 +1,75 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A population of particles: a {@link FlatPopulation} of positions with, laid out the same way, the
+ * velocity and the personal best position of each particle and a column of personal best fitness.
+ */
+public class SwarmPopulation extends FlatPopulation {
+    private final double[] velocities; // Velocity of each gene of each particle
+    private final int[] personalBestPositions; // Personal best position of each particle
+    private final double[] personalBestFitness; // Personal best fitness of each particle
+
+    /**
+     * Creates a swarm at rest at zero positions
+     * @param size Number of particles
+     * @param dimension Number of genes per particle
+     */
+    public SwarmPopulation(int size, int dimension) {
+        super(size, dimension);
+        velocities = new double[size * dimension];
+        personalBestPositions = new int[size * dimension];
+        personalBestFitness = new double[size];
+        Arrays.fill(personalBestFitness, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Places the particles at random positions in [minPosition, maxPosition], with random velocities
+     * in [-maxVelocity, maxVelocity], their positions being their personal bests
+     * @param random Random number generator
+     * @param minPosition Lowest gene
+     * @param maxPosition Highest gene
+     * @param maxVelocity Highest speed
+     */
+    public void randomize(Random random, int minPosition, int maxPosition, double maxVelocity) {
+        int[] genes = getGenes();
+        int range = maxPosition - minPosition + 1;
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = minPosition + random.nextInt(range);
+            velocities[i] = -maxVelocity + 2 * maxVelocity * random.nextDouble();
+            personalBestPositions[i] = genes[i];
+        }
+        Arrays.fill(getFitness(), -1);
+        Arrays.fill(personalBestFitness, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Updates the personal best of the particles with their current positions, where fitter
+     */
+    public void updatePersonalBests() {
+        int[] genes = getGenes();
+        double[] fitness = getFitness();
+        for (int i = 0; i < size(); i++) {
+            if (fitness[i] > personalBestFitness[i]) {
+                personalBestFitness[i] = fitness[i];
+                System.arraycopy(genes, offset(i), personalBestPositions, offset(i), getDimension());
+            }
+        }
+    }
+
+    /** Gets the velocities, row by row */
+    public double[] getVelocities() {
+        return velocities;
+    }
+
+    /** Gets the personal best positions, row by row */
+    public int[] getPersonalBestPositions() {
+        return personalBestPositions;
+    }
+
+    public double getPersonalBestFitness(int particle) {
+        return personalBestFitness[particle];
+    }
+}
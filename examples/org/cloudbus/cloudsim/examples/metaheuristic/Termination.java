@@ -0,0 +1,104 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+/**
+ * A termination policy of a run of a metaheuristic, checked before each iteration against the
+ * {@link RunStatistics} of the run. The policies are combined with {@link #anyOf(Termination...)};
+ * the algorithms add their own iteration or evaluation budget to the policy they are given, so a
+ * policy can stop a run earlier but never makes it run longer.
+ *
+ * The wall-clock deadline is checked between iterations, so a run can exceed it by one iteration.
+ */
+public interface Termination {
+
+    /**
+     * The reasons for a run to stop
+     */
+    enum Reason {
+        ITERATIONS("iteration limit reached"),
+        EVALUATIONS("function evaluation budget used"),
+        DEADLINE("deadline reached"),
+        STAGNATION("best fitness stagnated"),
+        TARGET_FITNESS("target fitness reached");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /**
+     * Checks whether a run must stop
+     * @param run The statistics of the run so far
+     * @return The reason to stop, null to go on
+     */
+    Reason check(RunStatistics run);
+
+    /**
+     * Stops after a number of iterations
+     * @param iterations The number of iterations
+     * @return The policy
+     */
+    static Termination maxIterations(final int iterations) {
+        return run -> run.getIterations() >= iterations ? Reason.ITERATIONS : null;
+    }
+
+    /**
+     * Stops once a number of fitness evaluations are made, the first evaluation of the population
+     * included
+     * @param evaluations The number of evaluations
+     * @return The policy
+     */
+    static Termination maxEvaluations(final long evaluations) {
+        return run -> run.getEvaluations() >= evaluations ? Reason.EVALUATIONS : null;
+    }
+
+    /**
+     * Stops once a time has elapsed since the run started
+     * @param millis The time, in milliseconds
+     * @return The policy
+     */
+    static Termination deadline(final long millis) {
+        return run -> run.getElapsedNanos() >= millis * 1000000L ? Reason.DEADLINE : null;
+    }
+
+    /**
+     * Stops when the best fitness has not improved for a number of iterations
+     * @param iterations The number of iterations without improvement
+     * @return The policy
+     */
+    static Termination stagnation(final int iterations) {
+        return run -> run.getStagnantIterations() >= iterations ? Reason.STAGNATION : null;
+    }
+
+    /**
+     * Stops once the best fitness reaches a target
+     * @param fitness The target fitness
+     * @return The policy
+     */
+    static Termination targetFitness(final double fitness) {
+        return run -> run.getBestFitness() >= fitness ? Reason.TARGET_FITNESS : null;
+    }
+
+    /**
+     * Stops when any of several policies says so
+     * @param terminations The policies, null ones being ignored
+     * @return The policy, giving the reason of the first policy met
+     */
+    static Termination anyOf(final Termination... terminations) {
+        return run -> {
+            for (Termination termination : terminations) {
+                Reason reason = termination == null ? null : termination.check(run);
+                if (reason != null) {
+                    return reason;
+                }
+            }
+            return null;
+        };
+    }
+}
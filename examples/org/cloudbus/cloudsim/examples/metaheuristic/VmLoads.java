@@ -0,0 +1,181 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+import java.util.Arrays;
+
+/**
+ * The busy time (load) of each VM under a schedule of the whole workload, for the delta evaluation
+ * of the move of one cloudlet to another VM: the loads and the total cost are kept in arrays, and the
+ * VMs in a max-heap of their loads, indexed by VM.
+ *
+ * Moving a cloudlet changes the loads of two VMs only, so the makespan after the move is the larger
+ * of their new loads and of the largest load of the other VMs. In a max-heap the largest element
+ * other than two given ones has only given ones above it, so it is among the first three levels:
+ * {@link #fitnessIfMoved(int, int, int)} reads at most 7 heap nodes whatever the number of
+ * cloudlets and VMs, and {@link #move(int, int, int)} restores the heap in O(log m).
+ */
+public class VmLoads {
+    private static final int TOP_NODES = 7; // First three levels of the heap
+
+    private final FitnessEvaluator evaluator;
+    private final double[] loads; // Busy time of each VM
+    private final int[] heap; // VMs, max-heap of loads
+    private final int[] positions; // Index of each VM in the heap
+    private double totalCost;
+
+    /**
+     * Constructor
+     * @param evaluator The fitness function, for the execution times and costs
+     */
+    public VmLoads(FitnessEvaluator evaluator) {
+        this.evaluator = evaluator;
+        this.loads = new double[evaluator.getVmCount()];
+        this.heap = new int[loads.length];
+        this.positions = new int[loads.length];
+    }
+
+    /**
+     * Calculates the loads of a schedule of the whole workload
+     * @param genes Genes of the schedule, the VM of each cloudlet
+     * @param offset Offset of the first gene
+     * @return The fitness of the schedule
+     */
+    public double load(int[] genes, int offset) {
+        Arrays.fill(loads, 0);
+        totalCost = 0;
+        for (int i = 0; i < evaluator.getCloudletCount(); i++) {
+            int vm = genes[offset + i];
+            loads[vm] += evaluator.getExecutionTime(i, vm);
+            totalCost += evaluator.getCost(i, vm);
+        }
+        for (int vm = 0; vm < heap.length; vm++) {
+            heap[vm] = vm;
+            positions[vm] = vm;
+        }
+        for (int i = heap.length / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        return fitness();
+    }
+
+    /**
+     * Gets the fitness of the schedule
+     * @return The fitness
+     */
+    public double fitness() {
+        return FitnessEvaluator.workloadFitness(loads[heap[0]], totalCost);
+    }
+
+    /**
+     * Calculates the fitness of the schedule with a cloudlet moved to another VM, without moving it
+     * @param cloudlet Index of the cloudlet
+     * @param from Its current VM
+     * @param to The VM to move it to
+     * @return The fitness after the move
+     */
+    public double fitnessIfMoved(int cloudlet, int from, int to) {
+        if (from == to) {
+            return fitness();
+        }
+        double fromLoad = loads[from] - evaluator.getExecutionTime(cloudlet, from);
+        double toLoad = loads[to] + evaluator.getExecutionTime(cloudlet, to);
+        double makespan = Math.max(fromLoad, toLoad);
+        int top = Math.min(TOP_NODES, heap.length);
+        for (int i = 0; i < top; i++) {
+            int vm = heap[i];
+            if (vm != from && vm != to) {
+                makespan = Math.max(makespan, loads[vm]);
+            }
+        }
+        double cost = totalCost - evaluator.getCost(cloudlet, from) + evaluator.getCost(cloudlet, to);
+        return FitnessEvaluator.workloadFitness(makespan, cost);
+    }
+
+    /**
+     * Moves a cloudlet to another VM
+     * @param cloudlet Index of the cloudlet
+     * @param from Its current VM
+     * @param to The VM to move it to
+     */
+    public void move(int cloudlet, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        loads[from] = loads[from] - evaluator.getExecutionTime(cloudlet, from);
+        loads[to] = loads[to] + evaluator.getExecutionTime(cloudlet, to);
+        totalCost = totalCost - evaluator.getCost(cloudlet, from) + evaluator.getCost(cloudlet, to);
+        siftDown(positions[from]);
+        siftUp(positions[to]);
+    }
+
+    /**
+     * Copies the loads of another schedule
+     * @param other The loads to copy
+     */
+    public void copyFrom(VmLoads other) {
+        System.arraycopy(other.loads, 0, loads, 0, loads.length);
+        System.arraycopy(other.heap, 0, heap, 0, heap.length);
+        System.arraycopy(other.positions, 0, positions, 0, positions.length);
+        totalCost = other.totalCost;
+    }
+
+    private void siftDown(int i) {
+        int vm = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && loads[heap[child + 1]] > loads[heap[child]]) {
+                child++;
+            }
+            if (loads[heap[child]] <= loads[vm]) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = vm;
+        positions[vm] = i;
+    }
+
+    private void siftUp(int i) {
+        int vm = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (loads[heap[parent]] >= loads[vm]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = vm;
+        positions[vm] = i;
+    }
+
+    /**
+     * Gets the busy time of a VM
+     * @param vm Index of the VM
+     * @return The sum of the execution times of its cloudlets, in seconds
+     */
+    public double getLoad(int vm) {
+        return loads[vm];
+    }
+
+    /**
+     * Gets the largest busy time of a VM
+     * @return The makespan of the schedule, in seconds
+     */
+    public double getMakespan() {
+        return loads[heap[0]];
+    }
+
+    /**
+     * Gets the cost of the schedule
+     * @return The sum of the costs of the cloudlets on their VMs
+     */
+    public double getTotalCost() {
+        return totalCost;
+    }
+}
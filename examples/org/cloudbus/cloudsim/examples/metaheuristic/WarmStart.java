@@ -0,0 +1,180 @@
+package org.cloudbus.cloudsim.examples.metaheuristic;
+
+/**
+ * Warm start of the populations of consecutive batches of cloudlets: the elite schedules of the
+ * last batch of each datacenter are kept, and the population of the next batch of the datacenter is
+ * seeded with them and with their elite opposites, the rest of the population staying random.
+ *
+ * A schedule is carried to the next batch by the rank of the cloudlet lengths: the k-th longest
+ * cloudlet of the new batch gets the VM of the k-th longest cloudlet of the last batch, so that a
+ * schedule that put the long cloudlets on the fast VMs still does. The opposite of a carried
+ * schedule x is (lb + ub - x) pulled towards the best carried schedule by the coefficient d, as in
+ * {@link EliteOppositionMove}.
+ *
+ * Only the genes read by the fitness, the first {@value FitnessEvaluator#VMS_PER_DATACENTER} of a
+ * schedule, are carried.
+ */
+public class WarmStart {
+    private static final int WINDOW = FitnessEvaluator.VMS_PER_DATACENTER;
+
+    private final int eliteCount; // Schedules carried to the next batch
+    private final int oppositeCount; // Opposites of the carried schedules
+    private final double d; // Weight of the best carried schedule in the opposites
+
+    private final int[][] elites = new int[FitnessEvaluator.DATACENTERS][]; // Elite windows, row by row
+    private final int[] storedElites = new int[FitnessEvaluator.DATACENTERS]; // Number of elite windows
+    private final int[] batches = new int[FitnessEvaluator.DATACENTERS]; // Batch of the elites
+
+    private int seededBatches; // Batches whose population was seeded
+    private int seededSchedules; // Schedules seeded, opposites included
+
+    /**
+     * Constructor
+     * @param eliteCount Schedules carried to the next batch
+     * @param oppositeCount Opposites of the carried schedules added to the next batch, at most
+     *        eliteCount
+     * @param d Weight of the best carried schedule in the opposites, 0 for plain opposites
+     */
+    public WarmStart(int eliteCount, int oppositeCount, double d) {
+        if (eliteCount < 1 || oppositeCount < 0 || oppositeCount > eliteCount) {
+            throw new IllegalArgumentException("Invalid elite count " + eliteCount + " or opposite count "
+                    + oppositeCount);
+        }
+        this.eliteCount = eliteCount;
+        this.oppositeCount = oppositeCount;
+        this.d = d;
+    }
+
+    /**
+     * Keeps the distinct elite schedules of a population optimised for a batch of a datacenter, the
+     * copies of a schedule made by the onlooker bees or the merges being kept once
+     * @param population The population, evaluated
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     */
+    public void record(FlatPopulation population, int dataCenterIterator, int cloudletIteration) {
+        int dcIndex = dataCenterIterator - 1;
+        int[] rows = new int[population.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        population.rank(rows, rows.length);
+
+        if (elites[dcIndex] == null) {
+            elites[dcIndex] = new int[eliteCount * WINDOW];
+        }
+        int[] elite = elites[dcIndex];
+        int[] genes = population.getGenes();
+        int count = 0;
+        for (int i = 0; i < rows.length && count < eliteCount; i++) {
+            int offset = population.offset(rows[i]);
+            if (!contains(elite, count, genes, offset)) {
+                System.arraycopy(genes, offset, elite, count * WINDOW, WINDOW);
+                count++;
+            }
+        }
+        storedElites[dcIndex] = count;
+        batches[dcIndex] = cloudletIteration;
+    }
+
+    /**
+     * Checks whether a window is among the first elite windows
+     * @param elite The elite windows
+     * @param count Number of elite windows to check
+     * @param genes Genes of the window
+     * @param offset Offset of the window
+     * @return true if an elite window has the same genes
+     */
+    private static boolean contains(int[] elite, int count, int[] genes, int offset) {
+        for (int i = 0; i < count; i++) {
+            int j = 0;
+            while (j < WINDOW && elite[i * WINDOW + j] == genes[offset + j]) {
+                j++;
+            }
+            if (j == WINDOW) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Seeds the first rows of a new population of a batch of a datacenter with the elite schedules of
+     * the last batch of the datacenter and their opposites; nothing is seeded for the first batch
+     * @param population The population, randomised and not evaluated yet
+     * @param evaluator The fitness function, for the cloudlet lengths
+     * @param dataCenterIterator Index of the datacenter, from 1
+     * @param cloudletIteration Index of the batch of cloudlets
+     * @return The number of rows seeded
+     */
+    public int seed(FlatPopulation population, FitnessEvaluator evaluator, int dataCenterIterator,
+            int cloudletIteration) {
+        int dcIndex = dataCenterIterator - 1;
+        int count = Math.min(storedElites[dcIndex], population.size());
+        if (count == 0 || batches[dcIndex] == cloudletIteration) {
+            return 0;
+        }
+        int[] from = lengthRanks(evaluator, FitnessEvaluator.firstCloudlet(dataCenterIterator, batches[dcIndex]));
+        int[] to = lengthRanks(evaluator, FitnessEvaluator.firstCloudlet(dataCenterIterator, cloudletIteration));
+
+        int[] genes = population.getGenes();
+        int[] elite = elites[dcIndex];
+        for (int i = 0; i < count; i++) {
+            int offset = population.offset(i);
+            for (int rank = 0; rank < WINDOW; rank++) {
+                genes[offset + to[rank]] = elite[i * WINDOW + from[rank]];
+            }
+            population.setFitness(i, -1);
+        }
+
+        // opposites of the carried schedules, guided by the best one, in the following rows
+        int minPosition = dcIndex * WINDOW;
+        int maxPosition = minPosition + WINDOW - 1;
+        int opposites = Math.min(Math.min(oppositeCount, count), population.size() - count);
+        int best = population.offset(0);
+        for (int i = 0; i < opposites; i++) {
+            int source = population.offset(i);
+            int offset = population.offset(count + i);
+            for (int j = 0; j < WINDOW; j++) {
+                int opposite = minPosition + maxPosition - genes[source + j];
+                int value = (int) ((1 - d) * opposite + d * genes[best + j]);
+                genes[offset + j] = Math.max(minPosition, Math.min(maxPosition, value));
+            }
+            population.setFitness(count + i, -1);
+        }
+
+        seededBatches++;
+        seededSchedules += count + opposites;
+        return count + opposites;
+    }
+
+    /**
+     * Orders the cloudlets of a batch of a datacenter by decreasing length
+     * @param evaluator The fitness function, for the cloudlet lengths
+     * @param first Index of the first cloudlet of the batch
+     * @return The position in the batch of the cloudlet of each rank, the longest first
+     */
+    private static int[] lengthRanks(FitnessEvaluator evaluator, int first) {
+        int[] order = new int[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            int j = i - 1;
+            double length = evaluator.getLength(first + i);
+            while (j >= 0 && evaluator.getLength(first + order[j]) < length) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = i;
+        }
+        return order;
+    }
+
+    /** Gets the number of batches whose population was seeded */
+    public int getSeededBatches() {
+        return seededBatches;
+    }
+
+    /** Gets the number of schedules seeded, opposites included */
+    public int getSeededSchedules() {
+        return seededSchedules;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.network;
+
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * A microbenchmark of the throughput of the messages sent between entities, first with the
+ * network simulation disabled, then with the entities linked in a network topology, where every
+ * send looks up the delay between the nodes of the two entities.
+ *
+ * Pairs of entities send a message back and forth until each pair has sent the given number of
+ * messages. The time of the delay lookups alone, without the event queue, is measured as well.
+ *
+ * Usage: NetworkSendBenchmark [pairs] [messages per pair] [rounds]
+ */
+public class NetworkSendBenchmark {
+
+	/** The tag of the messages. */
+	private static final int PING = 999999;
+
+	/** The entity IDs of the last run. */
+	private static int[] entityIds;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of pairs, the number of messages per pair and the number of rounds
+	 */
+	public static void main(String[] args) {
+		int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+		Log.disable();
+		for (int round = 1; round <= rounds; round++) {
+			printThroughput("disabled", round, pairs * messages, run(pairs, messages, false));
+		}
+		for (int round = 1; round <= rounds; round++) {
+			printThroughput("enabled ", round, pairs * messages, run(pairs, messages, true));
+		}
+		for (int round = 1; round <= rounds; round++) {
+			printThroughput("lookups ", round, pairs * messages, lookUpDelays(pairs, messages));
+		}
+	}
+
+	/**
+	 * Looks up the delays between the entities of the last run, as the sends do.
+	 *
+	 * @param pairs the number of pairs of entities
+	 * @param messages the number of lookups per pair
+	 * @return the run time in seconds
+	 */
+	private static double lookUpDelays(int pairs, int messages) {
+		double sum = 0;
+		long start = System.nanoTime();
+		for (int m = 0; m < messages; m++) {
+			for (int i = 0; i < pairs; i++) {
+				int src = entityIds[2 * i + (m & 1)];
+				int dest = entityIds[2 * i + 1 - (m & 1)];
+				sum += NetworkTopology.getDelay(src, dest);
+			}
+		}
+		double time = (System.nanoTime() - start) / 1e9;
+		if (sum < 0) {
+			System.out.println(sum); // keeps the lookups from being optimized away
+		}
+		return time;
+	}
+
+	/**
+	 * Runs one simulation.
+	 *
+	 * @param pairs the number of pairs of entities
+	 * @param messages the number of messages sent by each pair
+	 * @param network true to link the entities in a network topology
+	 * @return the run time in seconds
+	 */
+	private static double run(int pairs, int messages, boolean network) {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		PingEntity[] entities = new PingEntity[2 * pairs];
+		for (int i = 0; i < pairs; i++) {
+			entities[2 * i] = new PingEntity("Ping_" + i, messages);
+			entities[2 * i + 1] = new PingEntity("Pong_" + i, messages);
+			entities[2 * i].setPeer(entities[2 * i + 1]);
+			entities[2 * i + 1].setPeer(entities[2 * i]);
+		}
+		entityIds = new int[entities.length];
+		for (int i = 0; i < entities.length; i++) {
+			entityIds[i] = entities[i].getId();
+		}
+		if (network) {
+			// a chain, so that the delays are all different
+			for (int i = 1; i < entities.length; i++) {
+				NetworkTopology.addLink(entities[i - 1].getId(), entities[i].getId(), 1000.0, 0.001 * i);
+			}
+		}
+
+		long start = System.nanoTime();
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		return (System.nanoTime() - start) / 1e9;
+	}
+
+	/**
+	 * Prints the throughput of a run.
+	 *
+	 * @param mode the network mode
+	 * @param round the round
+	 * @param messages the number of messages
+	 * @param time the run time in seconds
+	 */
+	private static void printThroughput(String mode, int round, int messages, double time) {
+		System.out.println(String.format(
+				"network %s round %d: %d messages in %.3f sec, %.0f messages/sec",
+				mode,
+				round,
+				messages,
+				time,
+				messages / time));
+	}
+
+	/**
+	 * An entity that sends a message back to its peer for each message it receives.
+	 */
+	private static class PingEntity extends SimEntity {
+
+		/** The peer. */
+		private PingEntity peer;
+
+		/** The number of messages to send by the pair. */
+		private final int messages;
+
+		/**
+		 * Instantiates a new ping entity.
+		 *
+		 * @param name the name
+		 * @param messages the number of messages to send by the pair
+		 */
+		public PingEntity(String name, int messages) {
+			super(name);
+			this.messages = messages;
+		}
+
+		/**
+		 * Sets the peer.
+		 *
+		 * @param peer the peer
+		 */
+		public void setPeer(PingEntity peer) {
+			this.peer = peer;
+		}
+
+		@Override
+		public void startEntity() {
+			if (getName().startsWith("Ping")) {
+				send(peer.getId(), 0, PING, Integer.valueOf(1));
+			}
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			int count = (Integer) ev.getData();
+			if (count < messages) {
+				send(peer.getId(), 0, PING, Integer.valueOf(count + 1));
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+	}
+
+}
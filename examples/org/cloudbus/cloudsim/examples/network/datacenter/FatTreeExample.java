@@ -0,0 +1,123 @@
+package org.cloudbus.cloudsim.examples.network.datacenter;
+
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.network.datacenter.DatacenterTopologyBuilder;
+import org.cloudbus.cloudsim.network.datacenter.FlowNetwork;
+import org.cloudbus.cloudsim.network.datacenter.LocalityAwareVmAllocationPolicy;
+import org.cloudbus.cloudsim.network.datacenter.NetDatacenterBroker;
+import org.cloudbus.cloudsim.network.datacenter.NetworkConstants;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.cloudbus.cloudsim.network.datacenter.NetworkHost;
+import org.cloudbus.cloudsim.network.datacenter.NetworkVm;
+import org.cloudbus.cloudsim.network.datacenter.NetworkVmAllocationPolicy;
+
+/**
+ * An example of a datacenter of k^3/4 hosts linked through a k-ary fat-tree, whose applications run
+ * on VMs under the same edge switch with the locality-aware VM placement.
+ *
+ * Usage: FatTreeExample [k] [locality|random] [packet|flow]
+ */
+public class FatTreeExample {
+
+	/**
+	 * Creates main() to run this example.
+	 *
+	 * @param args
+	 *            the number of ports of the switches, the VM placement and the network model
+	 */
+	public static void main(String[] args) {
+		int k = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		boolean locality = args.length < 2 || args[1].equals("locality");
+		boolean flow = args.length > 2 && args[2].equals("flow");
+
+		Log.printLine("Starting FatTreeExample...");
+
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false);
+
+			NetworkDatacenter datacenter = createDatacenter("Datacenter_0", k, locality, flow);
+
+			NetDatacenterBroker broker = new NetDatacenterBroker("Broker");
+			broker.setLinkDC(datacenter);
+			broker.submitVmList(new LinkedList<NetworkVm>());
+
+			long start = System.currentTimeMillis();
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			List<Cloudlet> newList = broker.getCloudletReceivedList();
+			System.out.println("hosts " + datacenter.getHostList().size() + " numberofcloudlet "
+					+ newList.size() + " Data transfered " + NetworkConstants.totaldatatransfer
+					+ " run time "
+					+ (System.currentTimeMillis() - start) / 1000.0);
+
+			Log.printLine("FatTreeExample finished!");
+		} catch (Exception e) {
+			e.printStackTrace();
+			Log.printLine("Unwanted errors happen");
+		}
+	}
+
+	/**
+	 * Creates the datacenter.
+	 *
+	 * @param name
+	 *            the name
+	 * @param k
+	 *            the number of ports of the switches
+	 * @param locality
+	 *            true to place the VMs of an application under the same edge switch
+	 * @param flow
+	 *            true to simulate the network at the flow level
+	 * @return the datacenter
+	 */
+	private static NetworkDatacenter createDatacenter(String name, int k, boolean locality, boolean flow)
+			throws Exception {
+		// k^3/4 hosts with 8 PEs
+		List<NetworkHost> hostList = DatacenterTopologyBuilder.createHosts(
+				k * k * k / 4,
+				NetworkConstants.HOST_PEs,
+				1,
+				2048,
+				1000000,
+				10000);
+
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86",
+				"Linux",
+				"Xen",
+				hostList,
+				10.0,
+				3.0,
+				0.05,
+				0.001,
+				0.0);
+
+		VmAllocationPolicy policy = locality
+				? new LocalityAwareVmAllocationPolicy(hostList)
+				: new NetworkVmAllocationPolicy(hostList);
+		NetworkDatacenter datacenter = new NetworkDatacenter(
+				name,
+				characteristics,
+				policy,
+				new LinkedList<Storage>(),
+				0);
+
+		// Create Internal Datacenter network
+		DatacenterTopologyBuilder.buildFatTree(datacenter, k);
+		if (flow) {
+			datacenter.flownetwork = new FlowNetwork("FlowNetwork", datacenter);
+		}
+		return datacenter;
+	}
+
+}
@@ -227,6 +227,8 @@ public class TestExample {
 		}
 		// Create Internal Datacenter network
 		CreateNetwork(2, datacenter);
+		// to simulate the network at the flow level instead of packet by packet:
+		// datacenter.flownetwork = new FlowNetwork("FlowNetwork", datacenter);
 		return datacenter;
 	}
 
@@ -24,6 +24,13 @@ public class Constants {
 	public final static double SCHEDULING_INTERVAL = 300;
 	public final static double SIMULATION_LIMIT = 24 * 60 * 60;
 
+	/*
+	 * The number of threads used by the migration policies to plan the consolidation, 1 to plan it
+	 * on the simulation thread only. Set the cloudsim.planningThreads property to the number of
+	 * cores to evaluate the hosts in parallel.
+	 */
+	public final static int PLANNING_THREADS = Integer.getInteger("cloudsim.planningThreads", 1);
+
 	public final static int CLOUDLET_LENGTH	= 2500 * (int) SIMULATION_LIMIT;
 	public final static int CLOUDLET_PES	= 1;
 
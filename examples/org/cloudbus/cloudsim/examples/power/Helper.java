@@ -36,6 +36,7 @@ import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.CloudletResults;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -313,67 +314,16 @@ public class Helper {
 				folder4.mkdir();
 			}
 
-			StringBuilder data = new StringBuilder();
-			String delimeter = ",";
-
-			data.append(experimentName + delimeter);
-			data.append(parseExperimentName(experimentName));
-			data.append(String.format("%d", numberOfHosts) + delimeter);
-			data.append(String.format("%d", numberOfVms) + delimeter);
-			data.append(String.format("%.2f", totalSimulationTime) + delimeter);
-			data.append(String.format("%.5f", energy) + delimeter);
-			data.append(String.format("%d", numberOfMigrations) + delimeter);
-			data.append(String.format("%.10f", sla) + delimeter);
-			data.append(String.format("%.10f", slaTimePerActiveHost) + delimeter);
-			data.append(String.format("%.10f", slaDegradationDueToMigration) + delimeter);
-			data.append(String.format("%.10f", slaOverall) + delimeter);
-			data.append(String.format("%.10f", slaAverage) + delimeter);
-			// data.append(String.format("%.5f", slaTimePerVmWithMigration) + delimeter);
-			// data.append(String.format("%.5f", slaTimePerVmWithoutMigration) + delimeter);
-			// data.append(String.format("%.5f", slaTimePerHost) + delimeter);
-			data.append(String.format("%d", numberOfHostShutdowns) + delimeter);
-			data.append(String.format("%.2f", meanTimeBeforeHostShutdown) + delimeter);
-			data.append(String.format("%.2f", stDevTimeBeforeHostShutdown) + delimeter);
-			data.append(String.format("%.2f", meanTimeBeforeVmMigration) + delimeter);
-			data.append(String.format("%.2f", stDevTimeBeforeVmMigration) + delimeter);
-
 			if (datacenter.getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
-				PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
-						.getVmAllocationPolicy();
-
-				double executionTimeVmSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeVmSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmSelection());
-				double executionTimeHostSelectionMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeHostSelectionStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryHostSelection());
-				double executionTimeVmReallocationMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeVmReallocationStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryVmReallocation());
-				double executionTimeTotalMean = MathUtil.mean(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
-				double executionTimeTotalStDev = MathUtil.stDev(vmAllocationPolicy
-						.getExecutionTimeHistoryTotal());
-
-				data.append(String.format("%.5f", executionTimeVmSelectionMean) + delimeter);
-				data.append(String.format("%.5f", executionTimeVmSelectionStDev) + delimeter);
-				data.append(String.format("%.5f", executionTimeHostSelectionMean) + delimeter);
-				data.append(String.format("%.5f", executionTimeHostSelectionStDev) + delimeter);
-				data.append(String.format("%.5f", executionTimeVmReallocationMean) + delimeter);
-				data.append(String.format("%.5f", executionTimeVmReallocationStDev) + delimeter);
-				data.append(String.format("%.5f", executionTimeTotalMean) + delimeter);
-				data.append(String.format("%.5f", executionTimeTotalStDev) + delimeter);
-
-				writeMetricHistory(hosts, vmAllocationPolicy, outputFolder + "/metrics/" + experimentName
-						+ "_metric");
+				writeMetricHistory(
+						hosts,
+						(PowerVmAllocationPolicyMigrationAbstract) datacenter.getVmAllocationPolicy(),
+						outputFolder + "/metrics/" + experimentName + "_metric");
 			}
 
-			data.append("\n");
+			String data = getResultsCsvRow(datacenter, vms, lastClock, experimentName);
 
-			writeDataRow(data.toString(), outputFolder + "/stats/" + experimentName + "_stats.csv");
+			writeDataRow(data, outputFolder + "/stats/" + experimentName + "_stats.csv");
 			writeDataColumn(timeBeforeHostShutdown, outputFolder + "/time_before_host_shutdown/"
 					+ experimentName + "_time_before_host_shutdown.csv");
 			writeDataColumn(timeBeforeVmMigration, outputFolder + "/time_before_vm_migration/"
@@ -463,6 +413,135 @@ public class Helper {
 		Log.setDisabled(true);
 	}
 
+	/**
+	 * Gets the results of the experiment as a CSV row, in the format of the stats files written by
+	 * {@link #printResults(PowerDatacenter, List, double, String, boolean, String)}.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param vms the vms
+	 * @param lastClock the last clock
+	 * @param experimentName the experiment name
+	 * @return the CSV row, terminated by a new line
+	 */
+	public static String getResultsCsvRow(
+			PowerDatacenter datacenter,
+			List<Vm> vms,
+			double lastClock,
+			String experimentName) {
+		List<Host> hosts = datacenter.getHostList();
+
+		int numberOfHosts = hosts.size();
+		int numberOfVms = vms.size();
+
+		double totalSimulationTime = lastClock;
+		double energy = datacenter.getPower() / (3600 * 1000);
+		int numberOfMigrations = datacenter.getMigrationCount();
+
+		Map<String, Double> slaMetrics = getSlaMetrics(vms);
+
+		double slaOverall = slaMetrics.get("overall");
+		double slaAverage = slaMetrics.get("average");
+		double slaDegradationDueToMigration = slaMetrics.get("underallocated_migration");
+		double slaTimePerActiveHost = getSlaTimePerActiveHost(hosts);
+
+		double sla = slaTimePerActiveHost * slaDegradationDueToMigration;
+
+		List<Double> timeBeforeHostShutdown = getTimesBeforeHostShutdown(hosts);
+
+		int numberOfHostShutdowns = timeBeforeHostShutdown.size();
+
+		double meanTimeBeforeHostShutdown = Double.NaN;
+		double stDevTimeBeforeHostShutdown = Double.NaN;
+		if (!timeBeforeHostShutdown.isEmpty()) {
+			meanTimeBeforeHostShutdown = MathUtil.mean(timeBeforeHostShutdown);
+			stDevTimeBeforeHostShutdown = MathUtil.stDev(timeBeforeHostShutdown);
+		}
+
+		List<Double> timeBeforeVmMigration = getTimesBeforeVmMigration(vms);
+		double meanTimeBeforeVmMigration = Double.NaN;
+		double stDevTimeBeforeVmMigration = Double.NaN;
+		if (!timeBeforeVmMigration.isEmpty()) {
+			meanTimeBeforeVmMigration = MathUtil.mean(timeBeforeVmMigration);
+			stDevTimeBeforeVmMigration = MathUtil.stDev(timeBeforeVmMigration);
+		}
+
+		StringBuilder data = new StringBuilder();
+		String delimeter = ",";
+
+		data.append(experimentName + delimeter);
+		data.append(parseExperimentName(experimentName));
+		data.append(String.format("%d", numberOfHosts) + delimeter);
+		data.append(String.format("%d", numberOfVms) + delimeter);
+		data.append(String.format("%.2f", totalSimulationTime) + delimeter);
+		data.append(String.format("%.5f", energy) + delimeter);
+		data.append(String.format("%d", numberOfMigrations) + delimeter);
+		data.append(String.format("%.10f", sla) + delimeter);
+		data.append(String.format("%.10f", slaTimePerActiveHost) + delimeter);
+		data.append(String.format("%.10f", slaDegradationDueToMigration) + delimeter);
+		data.append(String.format("%.10f", slaOverall) + delimeter);
+		data.append(String.format("%.10f", slaAverage) + delimeter);
+		// data.append(String.format("%.5f", slaTimePerVmWithMigration) + delimeter);
+		// data.append(String.format("%.5f", slaTimePerVmWithoutMigration) + delimeter);
+		// data.append(String.format("%.5f", slaTimePerHost) + delimeter);
+		data.append(String.format("%d", numberOfHostShutdowns) + delimeter);
+		data.append(String.format("%.2f", meanTimeBeforeHostShutdown) + delimeter);
+		data.append(String.format("%.2f", stDevTimeBeforeHostShutdown) + delimeter);
+		data.append(String.format("%.2f", meanTimeBeforeVmMigration) + delimeter);
+		data.append(String.format("%.2f", stDevTimeBeforeVmMigration) + delimeter);
+
+		if (datacenter.getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy = (PowerVmAllocationPolicyMigrationAbstract) datacenter
+					.getVmAllocationPolicy();
+
+			double executionTimeVmSelectionMean = MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryVmSelection());
+			double executionTimeVmSelectionStDev = MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryVmSelection());
+			double executionTimeHostSelectionMean = MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryHostSelection());
+			double executionTimeHostSelectionStDev = MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryHostSelection());
+			double executionTimeVmReallocationMean = MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryVmReallocation());
+			double executionTimeVmReallocationStDev = MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryVmReallocation());
+			double executionTimeTotalMean = MathUtil.mean(vmAllocationPolicy
+					.getExecutionTimeHistoryTotal());
+			double executionTimeTotalStDev = MathUtil.stDev(vmAllocationPolicy
+					.getExecutionTimeHistoryTotal());
+
+			data.append(String.format("%.5f", executionTimeVmSelectionMean) + delimeter);
+			data.append(String.format("%.5f", executionTimeVmSelectionStDev) + delimeter);
+			data.append(String.format("%.5f", executionTimeHostSelectionMean) + delimeter);
+			data.append(String.format("%.5f", executionTimeHostSelectionStDev) + delimeter);
+			data.append(String.format("%.5f", executionTimeVmReallocationMean) + delimeter);
+			data.append(String.format("%.5f", executionTimeVmReallocationStDev) + delimeter);
+			data.append(String.format("%.5f", executionTimeTotalMean) + delimeter);
+			data.append(String.format("%.5f", executionTimeTotalStDev) + delimeter);
+		}
+
+		data.append("\n");
+		return data.toString();
+	}
+
+	/**
+	 * Gets the header of the CSV rows returned by
+	 * {@link #getResultsCsvRow(PowerDatacenter, List, double, String)}.
+	 * 
+	 * @return the CSV header, terminated by a new line
+	 */
+	public static String getResultsCsvHeader() {
+		return "experiment,workload,vm_allocation_policy,vm_selection_policy,parameter,"
+				+ "hosts,vms,total_simulation_time,energy,migrations,sla,sla_time_per_active_host,"
+				+ "sla_degradation_due_to_migration,sla_overall,sla_average,host_shutdowns,"
+				+ "mean_time_before_host_shutdown,stdev_time_before_host_shutdown,"
+				+ "mean_time_before_vm_migration,stdev_time_before_vm_migration,"
+				+ "execution_time_vm_selection_mean,execution_time_vm_selection_stdev,"
+				+ "execution_time_host_selection_mean,execution_time_host_selection_stdev,"
+				+ "execution_time_vm_reallocation_mean,execution_time_vm_reallocation_stdev,"
+				+ "execution_time_total_mean,execution_time_total_stdev\n";
+	}
+
 	/**
 	 * Parses the experiment name.
 	 * 
@@ -719,27 +798,35 @@ public class Helper {
 	 * @param list list of Cloudlets
 	 */
 	public static void printCloudletList(List<Cloudlet> list) {
-		int size = list.size();
-		Cloudlet cloudlet;
+		CloudletResults results = CloudletResults.of(list);
+		int size = results.size();
 
 		String indent = "\t";
+		String newLine = System.getProperty("line.separator");
 		Log.printLine();
 		Log.printLine("========== OUTPUT ==========");
 		Log.printLine("Cloudlet ID" + indent + "STATUS" + indent + "Resource ID" + indent + "VM ID" + indent
 				+ "Time" + indent + "Start Time" + indent + "Finish Time");
+		if (Log.isDisabled()) {
+			return;
+		}
 
+		// the table is printed at once
 		DecimalFormat dft = new DecimalFormat("###.##");
+		StringBuilder out = new StringBuilder(size * 64);
 		for (int i = 0; i < size; i++) {
-			cloudlet = list.get(i);
-			Log.print(indent + cloudlet.getCloudletId());
-
-			if (cloudlet.getCloudletStatus() == Cloudlet.SUCCESS) {
-				Log.printLine(indent + "SUCCESS" + indent + indent + cloudlet.getResourceId() + indent
-						+ cloudlet.getVmId() + indent + dft.format(cloudlet.getActualCPUTime()) + indent
-						+ dft.format(cloudlet.getExecStartTime()) + indent + indent
-						+ dft.format(cloudlet.getFinishTime()));
+			out.append(indent).append(results.getCloudletId(i));
+
+			if (results.isSuccess(i)) {
+				out.append(indent).append("SUCCESS").append(indent).append(indent).append(results.getResourceId(i))
+						.append(indent).append(results.getVmId(i))
+						.append(indent).append(dft.format(results.getActualCPUTime(i)))
+						.append(indent).append(dft.format(results.getExecStartTime(i)))
+						.append(indent).append(indent).append(dft.format(results.getFinishTime(i)))
+						.append(newLine);
 			}
 		}
+		Log.print(out.toString());
 	}
 
 	/**
@@ -0,0 +1,356 @@
+package org.cloudbus.cloudsim.examples.power;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabRunner;
+import org.cloudbus.cloudsim.examples.power.random.RandomRunner;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.util.PlanetLabTraceRepository;
+
+/**
+ * A runner that simulates all the combinations of the VM allocation policies, the VM selection
+ * policies and the parameters of the allocation policies, e.g. ThrMmt with the thresholds 0.7, 0.8
+ * and 0.9, plus DVFS, on one workload in one JVM, and writes their results into one table.
+ *
+ * The simulation engine keeps its state in static fields, so each experiment runs in its own class
+ * loader, which loads the CloudSim classes again; the experiments then run concurrently. The
+ * PlanetLab traces are loaded once by the {@link PlanetLabTraceRepository} of the main class loader
+ * and shared by all experiments.
+ *
+ * Usage: MatrixRunner [planetlab|random] [workload] [threads], by default the PlanetLab workload
+ * 20110303 with one thread per processor. The table is printed and written to
+ * output/matrix/&lt;workload&gt;_results.csv, in the format of the stats files of
+ * {@link Helper#printResults}.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ */
+public class MatrixRunner {
+
+	/** The VM allocation policies. */
+	public final static String[] VM_ALLOCATION_POLICIES = { "iqr", "mad", "lr", "lrr", "thr" };
+
+	/**
+	 * The parameters of each VM allocation policy, around the one of its single-experiment runner:
+	 * the safety parameters of IQR, MAD, LR and LRR, and the utilization threshold of THR.
+	 */
+	public final static String[][] VM_ALLOCATION_POLICY_PARAMETERS = {
+		{ "1.0", "1.5", "2.0" },
+		{ "2.0", "2.5", "3.0" },
+		{ "1.1", "1.2", "1.3" },
+		{ "1.1", "1.2", "1.3" },
+		{ "0.7", "0.8", "0.9" }
+	};
+
+	/** The VM selection policies. */
+	public final static String[] VM_SELECTION_POLICIES = { "mc", "mmt", "mu", "rs" };
+
+	/** The classes that are shared by the experiments instead of being loaded for each of them. */
+	private final static String[] SHARED_CLASSES = {
+		MatrixRunner.class.getName() + "$ExperimentClassLoader",
+		PlanetLabTraceRepository.class.getName()
+	};
+
+	/** The results of the experiment run in the class loader of this copy of the class. */
+	private static String results;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the workload type, the workload and the number of threads
+	 * @throws Exception if the experiments can't be run
+	 */
+	public static void main(String[] args) throws Exception {
+		String workloadType = args.length > 0 ? args[0] : "planetlab";
+		boolean planetLab = workloadType.equals("planetlab");
+		if (!planetLab && !workloadType.equals("random")) {
+			System.out.println("Unknown workload type: " + workloadType);
+			System.exit(0);
+		}
+		String workload = args.length > 1 ? args[1] : planetLab ? "20110303" : "random";
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		String outputFolder = "output";
+
+		String inputFolder = "";
+		if (planetLab) {
+			inputFolder = MatrixRunner.class.getClassLoader().getResource("workload/planetlab").getPath();
+			// converted and mapped once here, the experiments get the shared repository
+			PlanetLabTraceRepository.getRepository(inputFolder + "/" + workload);
+		}
+
+		List<String[]> experiments = new ArrayList<String[]>();
+		for (int i = 0; i < VM_ALLOCATION_POLICIES.length; i++) {
+			for (String vmSelectionPolicy : VM_SELECTION_POLICIES) {
+				for (String parameter : VM_ALLOCATION_POLICY_PARAMETERS[i]) {
+					experiments.add(new String[] { VM_ALLOCATION_POLICIES[i], vmSelectionPolicy, parameter });
+				}
+			}
+		}
+		experiments.add(new String[] { "dvfs", "", "" });
+
+		long start = System.currentTimeMillis();
+		List<String> rows = runExperiments(workloadType, inputFolder, outputFolder, workload, experiments, threads);
+		double time = (System.currentTimeMillis() - start) / 1000.0;
+
+		StringBuilder table = new StringBuilder(Helper.getResultsCsvHeader());
+		for (String row : rows) {
+			table.append(row);
+		}
+		System.out.println();
+		System.out.print(table);
+		System.out.println(String.format(
+				"%d experiments on %d threads in %.2f sec",
+				experiments.size(),
+				threads,
+				time));
+
+		File folder = new File(outputFolder + "/matrix");
+		if (!folder.exists()) {
+			folder.mkdirs();
+		}
+		writeTable(table.toString(), outputFolder + "/matrix/" + workload + "_results.csv");
+	}
+
+	/**
+	 * Runs the experiments concurrently, each in its own class loader.
+	 *
+	 * @param workloadType the workload type, planetlab or random
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param experiments the experiments, i.e. the VM allocation policy, the VM selection policy and
+	 *            the parameter
+	 * @param threads the number of experiments run at the same time
+	 * @return the CSV rows of the results, in the order of the experiments
+	 * @throws Exception if the experiments can't be run
+	 */
+	public static List<String> runExperiments(
+			final String workloadType,
+			final String inputFolder,
+			final String outputFolder,
+			final String workload,
+			List<String[]> experiments,
+			int threads) throws Exception {
+		final URL[] classPath = getClassPath();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			for (final String[] experiment : experiments) {
+				futures.add(executor.submit(new Callable<String>() {
+
+					@Override
+					public String call() throws Exception {
+						ClassLoader classLoader = new ExperimentClassLoader(
+								classPath,
+								MatrixRunner.class.getClassLoader());
+						Method method = classLoader.loadClass(MatrixRunner.class.getName()).getMethod(
+								"runExperiment",
+								String.class,
+								String.class,
+								String.class,
+								String.class,
+								String.class,
+								String.class,
+								String.class);
+						try {
+							return (String) method.invoke(
+									null,
+									workloadType,
+									inputFolder,
+									outputFolder,
+									workload,
+									experiment[0],
+									experiment[1],
+									experiment[2]);
+						} catch (InvocationTargetException e) {
+							Throwable cause = e.getCause();
+							cause.printStackTrace();
+							return workload + "_" + experiment[0] + "_" + experiment[1] + "_" + experiment[2]
+									+ ",failed: " + cause + "\n";
+						}
+					}
+				}));
+			}
+			List<String> rows = new ArrayList<String>();
+			for (Future<String> future : futures) {
+				rows.add(future.get());
+			}
+			return rows;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Runs one experiment. It is called in the class loader of the experiment, with the log output
+	 * disabled.
+	 *
+	 * @param workloadType the workload type, planetlab or random
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 * @return the CSV row of the results
+	 */
+	public static String runExperiment(
+			String workloadType,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter) {
+		if (workloadType.equals("planetlab")) {
+			new PlanetLabRunner(
+					false,
+					false,
+					inputFolder,
+					outputFolder,
+					workload,
+					vmAllocationPolicy,
+					vmSelectionPolicy,
+					parameter) {
+
+				@Override
+				protected void printResults(
+						PowerDatacenter datacenter,
+						double lastClock,
+						String experimentName,
+						String outputFolder) {
+					results = Helper.getResultsCsvRow(datacenter, vmList, lastClock, experimentName);
+				}
+			};
+		} else {
+			new RandomRunner(
+					false,
+					false,
+					inputFolder,
+					outputFolder,
+					workload,
+					vmAllocationPolicy,
+					vmSelectionPolicy,
+					parameter) {
+
+				@Override
+				protected void printResults(
+						PowerDatacenter datacenter,
+						double lastClock,
+						String experimentName,
+						String outputFolder) {
+					results = Helper.getResultsCsvRow(datacenter, vmList, lastClock, experimentName);
+				}
+			};
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the class path of the JVM.
+	 *
+	 * @return the class path
+	 * @throws MalformedURLException if an entry of the class path is invalid
+	 */
+	protected static URL[] getClassPath() throws MalformedURLException {
+		String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		URL[] classPath = new URL[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			classPath[i] = new File(entries[i]).toURI().toURL();
+		}
+		return classPath;
+	}
+
+	/**
+	 * Writes the table.
+	 *
+	 * @param table the table
+	 * @param outputPath the output path
+	 */
+	protected static void writeTable(String table, String outputPath) {
+		try {
+			BufferedWriter writer = new BufferedWriter(new FileWriter(new File(outputPath)));
+			writer.write(table);
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * A class loader that loads the CloudSim classes again, except the shared ones, and delegates
+	 * the other classes to its parent.
+	 */
+	private static class ExperimentClassLoader extends URLClassLoader {
+
+		/**
+		 * Instantiates a new experiment class loader.
+		 *
+		 * @param classPath the class path
+		 * @param parent the parent class loader
+		 */
+		public ExperimentClassLoader(URL[] classPath, ClassLoader parent) {
+			super(classPath, parent);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+		 */
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith("org.cloudbus.cloudsim.") || isShared(name)) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> loadedClass = findLoadedClass(name);
+			if (loadedClass == null) {
+				try {
+					loadedClass = findClass(name);
+				} catch (ClassNotFoundException e) {
+					loadedClass = super.loadClass(name, resolve);
+				}
+			}
+			if (resolve) {
+				resolveClass(loadedClass);
+			}
+			return loadedClass;
+		}
+
+		/**
+		 * Checks if the class is shared by the experiments.
+		 *
+		 * @param name the class name
+		 * @return true, if the class is shared
+		 */
+		private boolean isShared(String name) {
+			for (String sharedClass : SHARED_CLASSES) {
+				if (sharedClass.equals(name)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
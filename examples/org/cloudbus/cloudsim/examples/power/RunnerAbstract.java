@@ -177,23 +177,37 @@ public abstract class RunnerAbstract {
 
 			CloudSim.stopSimulation();
 
-			Helper.printResults(
-					datacenter,
-					vmList,
-					lastClock,
-					experimentName,
-					Constants.OUTPUT_CSV,
-					outputFolder);
+			printResults(datacenter, lastClock, experimentName, outputFolder);
 
 		} catch (Exception e) {
 			e.printStackTrace();
 			Log.printLine("The simulation has been terminated due to an unexpected error");
 			System.exit(0);
+		} finally {
+			if (vmAllocationPolicy instanceof PowerVmAllocationPolicyMigrationAbstract) {
+				((PowerVmAllocationPolicyMigrationAbstract) vmAllocationPolicy).shutdownPlanningExecutor();
+			}
 		}
 
 		Log.printLine("Finished " + experimentName);
 	}
 
+	/**
+	 * Prints the results of the simulation.
+	 * 
+	 * @param datacenter the datacenter
+	 * @param lastClock the last clock
+	 * @param experimentName the experiment name
+	 * @param outputFolder the output folder
+	 */
+	protected void printResults(
+			PowerDatacenter datacenter,
+			double lastClock,
+			String experimentName,
+			String outputFolder) {
+		Helper.printResults(datacenter, vmList, lastClock, experimentName, Constants.OUTPUT_CSV, outputFolder);
+	}
+
 	/**
 	 * Gets the experiment name.
 	 * 
@@ -288,6 +302,10 @@ public abstract class RunnerAbstract {
 			System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
 			System.exit(0);
 		}
+		if (vmAllocationPolicy instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			((PowerVmAllocationPolicyMigrationAbstract) vmAllocationPolicy)
+					.setPlanningThreads(Constants.PLANNING_THREADS);
+		}
 		return vmAllocationPolicy;
 	}
 
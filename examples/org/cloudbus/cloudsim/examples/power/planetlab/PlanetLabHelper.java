@@ -1,6 +1,5 @@
 package org.cloudbus.cloudsim.examples.power.planetlab;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +9,7 @@ import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
 import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.util.PlanetLabTraceRepository;
 
 /**
  * A helper class for the running examples for the PlanetLab workload.
@@ -28,7 +28,8 @@ import org.cloudbus.cloudsim.examples.power.Constants;
 public class PlanetLabHelper {
 
 	/**
-	 * Creates the cloudlet list planet lab.
+	 * Creates the cloudlet list planet lab. The traces are read from the memory-mapped trace
+	 * repository of the input folder and shared by the utilization models.
 	 * 
 	 * @param brokerId the broker id
 	 * @param inputFolderName the input folder name
@@ -43,10 +44,15 @@ public class PlanetLabHelper {
 		long outputSize = 300;
 		UtilizationModel utilizationModelNull = new UtilizationModelNull();
 
-		File inputFolder = new File(inputFolderName);
-		File[] files = inputFolder.listFiles();
+		PlanetLabTraceRepository traces = null;
+		try {
+			traces = PlanetLabTraceRepository.getRepository(inputFolderName);
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
 
-		for (int i = 0; i < files.length; i++) {
+		for (int i = 0; i < traces.getNumberOfTraces(); i++) {
 			Cloudlet cloudlet = null;
 			try {
 				cloudlet = new Cloudlet(
@@ -56,7 +62,7 @@ public class PlanetLabHelper {
 						fileSize,
 						outputSize,
 						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
+								traces.getTrace(i),
 								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -9,15 +9,17 @@
 package org.cloudbus.cloudsim;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
 import org.cloudbus.cloudsim.network.TopologicalLink;
 import org.cloudbus.cloudsim.network.TopologicalNode;
+import org.cloudbus.cloudsim.network.TopologyMatrixRepository;
 
 /**
  * NetworkTopology is a class that implements network layer in CloudSim. It reads a BRITE file and
@@ -29,6 +31,10 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p>
+ * The delay and bandwidth matrices of a topology read from a file are kept in a
+ * {@link TopologyMatrixRepository}, so that they are only computed by the first run using the
+ * topology.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -42,11 +48,33 @@ public class NetworkTopology {
 
 	protected static DelayMatrix_Float delayMatrix = null;
 
+	/**
+	 * the bandwidth between any two nodes
+	 * 
+	 * @deprecated use {@link #bwBuffer}, which holds the same values row after row
+	 */
+	@Deprecated
 	protected static double[][] bwMatrix = null;
 
+	/** the bandwidth between any two nodes, row after row */
+	protected static DoubleBuffer bwBuffer = null;
+
 	protected static TopologicalGraph graph = null;
 
-	protected static Map<Integer, Integer> map = null;
+	/** the delay between any two nodes, row after row, taken from the delay matrix */
+	protected static FloatBuffer delays = null;
+
+	/** the number of nodes of the delay matrix */
+	protected static int nodeNum = 0;
+
+	/** the node of each entity, by entity ID; only valid for the entities in {@link #mappedEntities} */
+	protected static int[] entityNodes = new int[0];
+
+	/** the entities mapped to a node */
+	protected static BitSet mappedEntities = new BitSet();
+
+	/** the nodes mapped to an entity */
+	protected static BitSet mappedNodes = new BitSet();
 
 	/**
 	 * Creates the network topology if file exists and if file can be succesfully parsed. File is
@@ -64,8 +92,8 @@ public class NetworkTopology {
 
 		try {
 			graph = reader.readGraphFile(fileName);
-			map = new HashMap<Integer, Integer>();
-			generateMatrices();
+			clearMappings();
+			generateMatrices(true);
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printLine("Problem in processing BRITE file. Network simulation is disabled. Error: "
@@ -76,17 +104,57 @@ public class NetworkTopology {
 
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements
+	 * 
+	 * @param cached true to take the matrices from the repository, which computes them only for
+	 *            the first run using the topology; false to compute them in memory
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(boolean cached) {
+		if (cached) {
+			try {
+				TopologyMatrixRepository repository = TopologyMatrixRepository.getRepository(graph, false);
+				delayMatrix = repository.getDelayMatrix();
+				bwBuffer = repository.getBwMatrix();
+				delays = delayMatrix.getDelays();
+				nodeNum = delayMatrix.getNodeNum();
+				bwMatrix = toMatrix(bwBuffer, nodeNum);
+				networkEnabled = true;
+				return;
+			} catch (IOException e) {
+				Log.printLine("Problem in caching the topology matrices, they are computed in memory. Error: "
+						+ e.getMessage());
+			}
+		}
+
 		// creates the delay matrix
 		delayMatrix = new DelayMatrix_Float(graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		bwBuffer = TopologyMatrixRepository.createBwMatrix(graph, false);
 
+		delays = delayMatrix.getDelays();
+		nodeNum = delayMatrix.getNodeNum();
+		bwMatrix = toMatrix(bwBuffer, nodeNum);
 		networkEnabled = true;
 	}
 
+	/**
+	 * Copies a square matrix stored row after row into an array of rows, for the subclasses that
+	 * still read {@link #bwMatrix}
+	 * 
+	 * @param buffer the matrix, row after row
+	 * @param nodes the number of rows and columns
+	 * @return the rows of the matrix
+	 */
+	private static double[][] toMatrix(DoubleBuffer buffer, int nodes) {
+		double[][] matrix = new double[nodes][nodes];
+		DoubleBuffer rows = buffer.duplicate();
+		rows.rewind();
+		for (int i = 0; i < nodes; i++) {
+			rows.get(matrix[i]);
+		}
+		return matrix;
+	}
+
 	/**
 	 * Adds a new link in the network topology
 	 * 
@@ -104,61 +172,25 @@ public class NetworkTopology {
 			graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<Integer, Integer>();
-		}
-
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
+		if (!isMapped(srcId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
+			map(srcId, nextIdx);
 			nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
+		if (!isMapped(destId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
+			map(destId, nextIdx);
 			nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
-
-		generateMatrices();
-
-	}
-
-	/**
-	 * Creates the matrix containiing the available bandiwdth beteen two nodes
-	 * 
-	 * @param graph topological graph describing the topology
-	 * @param directed true if the graph is directed; false otherwise
-	 * @return the bandwidth graph
-	 */
-	private static double[][] createBwMatrix(TopologicalGraph graph, boolean directed) {
-		int nodes = graph.getNumberOfNodes();
+		graph.addLink(new TopologicalLink(entityNodes[srcId], entityNodes[destId], (float) lat, (float) bw));
 
-		double[][] mtx = new double[nodes][nodes];
+		// the topology changes with every link, so the matrices are not cached
+		generateMatrices(false);
 
-		// cleanup matrix
-		for (int i = 0; i < nodes; i++) {
-			for (int j = 0; j < nodes; j++) {
-				mtx[i][j] = 0.0;
-			}
-		}
-
-		Iterator<TopologicalLink> iter = graph.getLinkIterator();
-		while (iter.hasNext()) {
-			TopologicalLink edge = iter.next();
-
-			mtx[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkBw();
-
-			if (!directed) {
-				mtx[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkBw();
-			}
-		}
-
-		return mtx;
 	}
 
 	/**
@@ -174,9 +206,9 @@ public class NetworkTopology {
 		if (networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
-				if (!map.containsKey(cloudSimEntityID)) {
-					if (!map.containsValue(briteID)) { // this BRITE node was already mapped?
-						map.put(cloudSimEntityID, briteID);
+				if (!isMapped(cloudSimEntityID)) {
+					if (!mappedNodes.get(briteID)) { // this BRITE node was already mapped?
+						map(cloudSimEntityID, briteID);
 					} else {
 						Log.printLine("Error in network mapping. BRITE node " + briteID + " already in use.");
 					}
@@ -201,7 +233,10 @@ public class NetworkTopology {
 	public static void unmapNode(int cloudSimEntityID) {
 		if (networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				if (isMapped(cloudSimEntityID)) {
+					mappedEntities.clear(cloudSimEntityID);
+					mappedNodes.clear(entityNodes[cloudSimEntityID]);
+				}
 			} catch (Exception e) {
 				Log.printLine("Error in network unmapping. CloudSim node: " + cloudSimEntityID);
 			}
@@ -219,19 +254,55 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
-			try {
+		// the entities that are not mapped, or mapped to a node out of the topology, have no delay
+		if (networkEnabled && isMapped(srcID) && isMapped(destID)) {
+			int srcNode = entityNodes[srcID];
+			int destNode = entityNodes[destID];
+			if (srcNode < nodeNum && destNode < nodeNum) {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
-
-				return delay;
-			} catch (Exception e) {
-				// in case of error, just keep running and return 0.0
+				return delays.get(srcNode * nodeNum + destNode);
 			}
 		}
 		return 0.0;
 	}
 
+	/**
+	 * Checks whether a CloudSim entity is mapped to a node
+	 * 
+	 * @param cloudSimEntityID ID of the entity
+	 * @return $true if the entity is mapped. $false otherwise
+	 */
+	private static boolean isMapped(int cloudSimEntityID) {
+		return cloudSimEntityID >= 0 && mappedEntities.get(cloudSimEntityID);
+	}
+
+	/**
+	 * Maps a CloudSim entity to a node, growing the node array if needed
+	 * 
+	 * @param cloudSimEntityID ID of the entity
+	 * @param node the node
+	 */
+	private static void map(int cloudSimEntityID, int node) {
+		if (cloudSimEntityID < 0 || node < 0) {
+			throw new IllegalArgumentException("Negative entity or node ID");
+		}
+		if (cloudSimEntityID >= entityNodes.length) {
+			entityNodes = Arrays.copyOf(entityNodes, Math.max(cloudSimEntityID + 1, 2 * entityNodes.length));
+		}
+		entityNodes[cloudSimEntityID] = node;
+		mappedEntities.set(cloudSimEntityID);
+		mappedNodes.set(node);
+	}
+
+	/**
+	 * Removes the mappings of all CloudSim entities
+	 */
+	private static void clearMappings() {
+		entityNodes = new int[0];
+		mappedEntities = new BitSet();
+		mappedNodes = new BitSet();
+	}
+
 	/**
 	 * This method returns true if network simulation is working. If there were some problem during
 	 * creation of network (e.g., during parsing of BRITE file) that does not allow a proper
@@ -3,6 +3,7 @@ package org.cloudbus.cloudsim;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.DoubleBuffer;
 
 /**
  * The Class UtilizationModelPlanetLab.
@@ -13,7 +14,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	private double schedulingInterval;
 
 	/** The data (5 min * 288 = 24 hours). */
-	private final double[] data; 
+	private final DoubleBuffer data; 
 	
 	/**
 	 * Instantiates a new utilization model PlanetLab.
@@ -25,15 +26,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval)
 			throws NumberFormatException,
 			IOException {
-		data = new double[289];
-		setSchedulingInterval(schedulingInterval);
-		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
-		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.valueOf(input.readLine()) / 100.0;
-		}
-		data[n - 1] = data[n - 2];
-		input.close();
+		this(inputPath, schedulingInterval, 289);
 	}
 	
 	/**
@@ -48,14 +41,28 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 			throws NumberFormatException,
 			IOException {
 		setSchedulingInterval(schedulingInterval);
-		data = new double[dataSamples];
+		double[] samples = new double[dataSamples];
 		BufferedReader input = new BufferedReader(new FileReader(inputPath));
-		int n = data.length;
+		int n = samples.length;
 		for (int i = 0; i < n - 1; i++) {
-			data[i] = Integer.valueOf(input.readLine()) / 100.0;
+			samples[i] = Integer.valueOf(input.readLine()) / 100.0;
 		}
-		data[n - 1] = data[n - 2];
+		samples[n - 1] = samples[n - 2];
 		input.close();
+		data = DoubleBuffer.wrap(samples);
+	}
+
+	/**
+	 * Instantiates a new utilization model PlanetLab over already loaded data, e.g. a trace of a
+	 * {@link org.cloudbus.cloudsim.util.PlanetLabTraceRepository}. The data is not copied and is only
+	 * read with absolute gets, so it may be shared by several models.
+	 * 
+	 * @param data the utilization samples
+	 * @param schedulingInterval the scheduling interval
+	 */
+	public UtilizationModelPlanetLabInMemory(DoubleBuffer data, double schedulingInterval) {
+		setSchedulingInterval(schedulingInterval);
+		this.data = data;
 	}
 
 	/*
@@ -65,12 +72,12 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	@Override
 	public double getUtilization(double time) {
 		if (time % getSchedulingInterval() == 0) {
-			return data[(int) time / (int) getSchedulingInterval()];
+			return data.get((int) time / (int) getSchedulingInterval());
 		}
 		int time1 = (int) Math.floor(time / getSchedulingInterval());
 		int time2 = (int) Math.ceil(time / getSchedulingInterval());
-		double utilization1 = data[time1];
-		double utilization2 = data[time2];
+		double utilization1 = data.get(time1);
+		double utilization2 = data.get(time2);
 		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
 		double utilization = utilization1 + delta * (time - time1 * getSchedulingInterval());
 		return utilization;
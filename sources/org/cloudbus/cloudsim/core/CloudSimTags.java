@@ -265,6 +265,11 @@ public class CloudSimTags {
 
 	public static final int NextCycle = BASE + 48;
 
+	/**
+	 * Denotes the end of the transfer of a flow in a flow network
+	 */
+	public static final int Network_Event_Flow = BASE + 49;
+
 	/** Private Constructor */
 	private CloudSimTags() {
 		throw new UnsupportedOperationException("CloudSim Tags cannot be instantiated");
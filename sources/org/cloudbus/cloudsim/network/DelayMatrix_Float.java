@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.nio.FloatBuffer;
 import java.util.Iterator;
 
 /**
@@ -19,9 +20,10 @@ import java.util.Iterator;
 public class DelayMatrix_Float {
 
 	/**
-	 * matrix holding delay information between any two nodes
+	 * matrix holding delay information between any two nodes, row after row; it is read-only and
+	 * may be memory-mapped from a {@link TopologyMatrixRepository} file
 	 */
-	protected float[][] mDelayMatrix = null;
+	protected FloatBuffer mDelayMatrix = null;
 
 	/**
 	 * number of nodes in the distance-aware-topology
@@ -44,10 +46,37 @@ public class DelayMatrix_Float {
 	public DelayMatrix_Float(TopologicalGraph graph, boolean directed) {
 
 		// lets preinitialize the Delay-Matrix
-		createDelayMatrix(graph, directed);
+		float[][] delayMatrix = createDelayMatrix(graph, directed);
 
 		// now its time to calculate all possible connection-delays
-		calculateShortestPath();
+		calculateShortestPath(delayMatrix);
+	}
+
+	/**
+	 * this constructor creates an correct initialized Float-Delay-Matrix from a sparse graph, with
+	 * Dijkstra from every node
+	 * 
+	 * @param graph the sparse graph as source-information, whose links have the direction asked to
+	 *            its builder
+	 */
+	public DelayMatrix_Float(SparseTopologicalGraph graph) {
+		mTotalNodeNum = graph.getNumberOfNodes();
+		storeDelays(new Dijkstra_Float().allPairsShortestPaths(graph));
+	}
+
+	/**
+	 * this constructor wraps an already computed Float-Delay-Matrix
+	 * 
+	 * @param delayMatrix the delays between any two nodes, row after row
+	 * @param nodeNum the number of nodes
+	 */
+	public DelayMatrix_Float(FloatBuffer delayMatrix, int nodeNum) {
+		if (delayMatrix.remaining() != (long) nodeNum * nodeNum) {
+			throw new IllegalArgumentException("The delay matrix doesn't have " + nodeNum + " x " + nodeNum
+					+ " delays");
+		}
+		mTotalNodeNum = nodeNum;
+		mDelayMatrix = delayMatrix.slice().asReadOnlyBuffer();
 	}
 
 	/**
@@ -57,11 +86,25 @@ public class DelayMatrix_Float {
 	 */
 	public float getDelay(int srcID, int destID) {
 		// check the nodeIDs against internal array-boundarys
-		if (srcID > mTotalNodeNum || destID > mTotalNodeNum) {
+		if (srcID >= mTotalNodeNum || destID >= mTotalNodeNum) {
 			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
 		}
 
-		return mDelayMatrix[srcID][destID];
+		return mDelayMatrix.get(srcID * mTotalNodeNum + destID);
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNodeNum() {
+		return mTotalNodeNum;
+	}
+
+	/**
+	 * @return a read-only view of the delays between any two nodes, row after row
+	 */
+	public FloatBuffer getDelays() {
+		return mDelayMatrix.duplicate();
 	}
 
 	/**
@@ -71,18 +114,19 @@ public class DelayMatrix_Float {
 	 * 
 	 * @param graph this graph contains all node and link information
 	 * @param directed defines to preinitialize an directed or undirected Delay-Matrix!
+	 * @return the delays of the links
 	 */
-	private void createDelayMatrix(TopologicalGraph graph, boolean directed) {
+	private float[][] createDelayMatrix(TopologicalGraph graph, boolean directed) {
 
 		// number of nodes inside the network
 		mTotalNodeNum = graph.getNumberOfNodes();
 
-		mDelayMatrix = new float[mTotalNodeNum][mTotalNodeNum];
+		float[][] delayMatrix = new float[mTotalNodeNum][mTotalNodeNum];
 
 		// cleanup the complete distance-matrix with "0"s
 		for (int row = 0; row < mTotalNodeNum; ++row) {
 			for (int col = 0; col < mTotalNodeNum; ++col) {
-				mDelayMatrix[row][col] = Float.MAX_VALUE;
+				delayMatrix[row][col] = Float.MAX_VALUE;
 			}
 		}
 
@@ -92,24 +136,58 @@ public class DelayMatrix_Float {
 		while (itr.hasNext()) {
 			edge = itr.next();
 
-			mDelayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkDelay();
+			delayMatrix[edge.getSrcNodeID()][edge.getDestNodeID()] = edge.getLinkDelay();
 
 			if (!directed) {
 				// according to aproximity of symmetry to all kommunication-paths
-				mDelayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkDelay();
+				delayMatrix[edge.getDestNodeID()][edge.getSrcNodeID()] = edge.getLinkDelay();
 			}
 
 		}
+		return delayMatrix;
 	}
 
 	/**
-	 * just calculates all pairs shortest paths
+	 * just calculates all pairs shortest paths, in place: with Dijkstra from every node if the
+	 * topology is sparse, with Floyd-Warshall otherwise, then stores them row after row
+	 * 
+	 * @param delayMatrix the delays of the links
 	 */
-	private void calculateShortestPath() {
-		FloydWarshall_Float floyd = new FloydWarshall_Float();
+	private void calculateShortestPath(float[][] delayMatrix) {
+		long numLinks = 0;
+		for (int row = 0; row < mTotalNodeNum; ++row) {
+			for (int col = 0; col < mTotalNodeNum; ++col) {
+				float delay = delayMatrix[row][col];
+				if (row != col && delay != 0 && delay != Float.MAX_VALUE) {
+					numLinks++;
+				}
+			}
+		}
+
+		if (Dijkstra_Float.isSparse(mTotalNodeNum, numLinks)) {
+			delayMatrix = new Dijkstra_Float().allPairsShortestPathsInPlace(delayMatrix);
+		} else {
+			FloydWarshall_Float floyd = new FloydWarshall_Float();
 
-		floyd.initialize(mTotalNodeNum);
-		mDelayMatrix = floyd.allPairsShortestPaths(mDelayMatrix);
+			// the predecessors are not needed for the delays
+			floyd.initialize(mTotalNodeNum, false);
+			delayMatrix = floyd.allPairsShortestPathsInPlace(delayMatrix);
+		}
+		storeDelays(delayMatrix);
+	}
+
+	/**
+	 * stores the delays row after row
+	 * 
+	 * @param delayMatrix the delays between any two nodes
+	 */
+	private void storeDelays(float[][] delayMatrix) {
+		float[] delays = new float[mTotalNodeNum * mTotalNodeNum];
+		for (int row = 0; row < mTotalNodeNum; ++row) {
+			System.arraycopy(delayMatrix[row], 0, delays, row * mTotalNodeNum, mTotalNodeNum);
+			delayMatrix[row] = null; // the rows can go as soon as they are copied
+		}
+		mDelayMatrix = FloatBuffer.wrap(delays).asReadOnlyBuffer();
 	}
 
 	/**
@@ -131,10 +209,11 @@ public class DelayMatrix_Float {
 			buffer.append("\n" + row);
 
 			for (int col = 0; col < mTotalNodeNum; ++col) {
-				if (mDelayMatrix[row][col] == Float.MAX_VALUE) {
+				float delay = mDelayMatrix.get(row * mTotalNodeNum + col);
+				if (delay == Float.MAX_VALUE) {
 					buffer.append("\t" + "-");
 				} else {
-					buffer.append("\t" + mDelayMatrix[row][col]);
+					buffer.append("\t" + delay);
 				}
 			}
 		}
@@ -0,0 +1,328 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dijkstra algorithm run from every node to calculate all pairs delay. It takes O(n m log n) time
+ * instead of the O(n^3) of {@link FloydWarshall_Float}, which pays off for sparse topologies such as
+ * the BRITE ones, where the number of links m grows linearly with the number of nodes n.
+ *
+ * The links are taken from the delay matrix into a {@link SparseTopologicalGraph}, or come in one
+ * from a {@link SparseGraphReader}; the graph is shared by a pool of threads, each one computing
+ * the delays from a stripe of the source nodes. The delays from a single node can be computed as
+ * well, for graphs whose all pairs delay matrix wouldn't fit in memory. The delays are the same as
+ * the ones of {@link FloydWarshall_Float}, except that a path may be summed in a different order,
+ * so a delay may differ in the last bit of the float. The delays must not be negative.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class Dijkstra_Float {
+
+	/**
+	 * number of threads computing the delays
+	 */
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * checks whether a topology is sparse enough for Dijkstra to be faster than Floyd-Warshall
+	 *
+	 * @param numVertices number of nodes
+	 * @param numEdges number of directed links
+	 * @return true if Dijkstra should be used
+	 */
+	public static boolean isSparse(int numVertices, long numEdges) {
+		// n (m log n) heap operations of Dijkstra against n^3 branch-free ones of Floyd-Warshall
+		int log = 32 - Integer.numberOfLeadingZeros(Math.max(numVertices, 1));
+		return numEdges * log * 4 < (long) numVertices * numVertices;
+	}
+
+	/**
+	 * sets the number of threads computing the delays
+	 *
+	 * @param numThreads number of threads, 1 computes the delays in the calling thread
+	 */
+	public void setNumThreads(int numThreads) {
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be at least 1");
+		}
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * gets the number of threads computing the delays
+	 *
+	 * @return number of threads
+	 */
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * calculates all pairs delay
+	 *
+	 * @param adjMatrix original delay matrix, 0 and Float.MAX_VALUE stand for no link; it is not
+	 *            modified
+	 * @return all pairs delay matrix, Float.MAX_VALUE for the unreachable nodes
+	 */
+	public float[][] allPairsShortestPaths(float[][] adjMatrix) {
+		float[][] matrix = new float[adjMatrix.length][];
+		for (int i = 0; i < adjMatrix.length; i++) {
+			matrix[i] = adjMatrix[i].clone();
+		}
+		return allPairsShortestPathsInPlace(matrix);
+	}
+
+	/**
+	 * calculates all pairs delay in the given matrix, which saves the memory of a copy
+	 *
+	 * @param matrix original delay matrix, 0 and Float.MAX_VALUE stand for no link; it is
+	 *            overwritten with the all pairs delay matrix
+	 * @return the all pairs delay matrix, i.e. the given matrix
+	 */
+	public float[][] allPairsShortestPathsInPlace(float[][] matrix) {
+		return allPairsShortestPaths(createGraph(matrix), matrix);
+	}
+
+	/**
+	 * calculates all pairs delay of a graph
+	 *
+	 * @param graph the graph; the links with a delay of 0 or Float.MAX_VALUE don't count
+	 * @return all pairs delay matrix, Float.MAX_VALUE for the unreachable nodes
+	 */
+	public float[][] allPairsShortestPaths(SparseTopologicalGraph graph) {
+		int numVertices = graph.getNumberOfNodes();
+		float[][] matrix = new float[numVertices][];
+		for (int i = 0; i < numVertices; i++) {
+			matrix[i] = new float[numVertices];
+		}
+		return allPairsShortestPaths(graph, matrix);
+	}
+
+	/**
+	 * calculates the delays from a node of a graph
+	 *
+	 * @param graph the graph; the links with a delay of 0 or Float.MAX_VALUE don't count
+	 * @param source the source node
+	 * @param dist the delays to fill in, Float.MAX_VALUE for the unreachable nodes
+	 */
+	public void shortestPaths(SparseTopologicalGraph graph, int source, float[] dist) {
+		int numVertices = graph.getNumberOfNodes();
+		shortestPaths(graph, source, dist, new int[numVertices], new int[numVertices]);
+	}
+
+	/**
+	 * calculates all pairs delay of a graph into a matrix
+	 *
+	 * @param graph the graph
+	 * @param matrix the matrix to fill in
+	 * @return the matrix
+	 */
+	private float[][] allPairsShortestPaths(final SparseTopologicalGraph graph, final float[][] matrix) {
+		final int numVertices = graph.getNumberOfNodes();
+
+		int threads = Math.max(1, Math.min(numThreads, numVertices));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int t = 0; t < threads; t++) {
+			final int stripe = t;
+			final int stripes = threads;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					int[] heap = new int[numVertices];
+					int[] heapIndex = new int[numVertices];
+					for (int source = stripe; source < numVertices; source += stripes) {
+						shortestPaths(graph, source, matrix[source], heap, heapIndex);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			if (threads == 1) {
+				tasks.get(0).call();
+			} else {
+				ExecutorService executor = Executors.newFixedThreadPool(threads);
+				try {
+					for (Future<Void> future : executor.invokeAll(tasks)) {
+						future.get();
+					}
+				} finally {
+					executor.shutdown();
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return matrix;
+	}
+
+	/**
+	 * takes the links out of the delay matrix
+	 *
+	 * @param matrix the delay matrix
+	 * @return the graph of the links
+	 */
+	private static SparseTopologicalGraph createGraph(float[][] matrix) {
+		int numVertices = matrix.length;
+		SparseTopologicalGraph.Builder builder = new SparseTopologicalGraph.Builder();
+		builder.setNumberOfNodes(numVertices);
+		for (int i = 0; i < numVertices; i++) {
+			float[] row = matrix[i];
+			for (int j = 0; j < numVertices; j++) {
+				if (isLink(row[j]) && i != j) {
+					builder.addLink(i, j, row[j], 0);
+				}
+			}
+		}
+		return builder.build(true);
+	}
+
+	/**
+	 * checks whether an entry of the delay matrix is a link
+	 *
+	 * @param delay the entry
+	 * @return true if it is a link
+	 */
+	private static boolean isLink(float delay) {
+		return delay != 0 && delay != Float.MAX_VALUE;
+	}
+
+	/**
+	 * calculates the delays from a node
+	 *
+	 * @param graph the graph
+	 * @param source the source node
+	 * @param dist the delays to fill in
+	 * @param heap the binary heap of the nodes to visit, ordered by delay
+	 * @param heapIndex the position of each node in the heap, -1 if it was never reached, -2 once
+	 *            it is visited
+	 */
+	private static void shortestPaths(
+			SparseTopologicalGraph graph,
+			int source,
+			float[] dist,
+			int[] heap,
+			int[] heapIndex) {
+		int[] linkStart = graph.linkStart;
+		int[] linkDest = graph.linkDest;
+		float[] linkDelay = graph.linkDelay;
+		int numVertices = dist.length;
+		for (int i = 0; i < numVertices; i++) {
+			dist[i] = Float.MAX_VALUE;
+			heapIndex[i] = -1;
+		}
+		dist[source] = 0;
+		heap[0] = source;
+		heapIndex[source] = 0;
+		int size = 1;
+
+		while (size > 0) {
+			int node = heap[0];
+			heapIndex[node] = -2;
+			size--;
+			if (size > 0) {
+				heap[0] = heap[size];
+				heapIndex[heap[0]] = 0;
+				siftDown(0, size, dist, heap, heapIndex);
+			}
+
+			float d = dist[node];
+			for (int link = linkStart[node]; link < linkStart[node + 1]; link++) {
+				int dest = linkDest[link];
+				float delay = linkDelay[link];
+				if (heapIndex[dest] == -2 || !isLink(delay)) {
+					continue;
+				}
+				float newDelay = d + delay;
+				if (newDelay < dist[dest]) {
+					dist[dest] = newDelay;
+					if (heapIndex[dest] == -1) {
+						heap[size] = dest;
+						heapIndex[dest] = size;
+						size++;
+					}
+					siftUp(heapIndex[dest], dist, heap, heapIndex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * moves a node up the heap to its place
+	 *
+	 * @param position the position of the node
+	 * @param dist the delays
+	 * @param heap the heap
+	 * @param heapIndex the position of each node in the heap
+	 */
+	private static void siftUp(int position, float[] dist, int[] heap, int[] heapIndex) {
+		int node = heap[position];
+		float key = dist[node];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (dist[heap[parent]] <= key) {
+				break;
+			}
+			heap[position] = heap[parent];
+			heapIndex[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = node;
+		heapIndex[node] = position;
+	}
+
+	/**
+	 * moves a node down the heap to its place
+	 *
+	 * @param position the position of the node
+	 * @param size the size of the heap
+	 * @param dist the delays
+	 * @param heap the heap
+	 * @param heapIndex the position of each node in the heap
+	 */
+	private static void siftDown(int position, int size, float[] dist, int[] heap, int[] heapIndex) {
+		int node = heap[position];
+		float key = dist[node];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && dist[heap[child + 1]] < dist[heap[child]]) {
+				child++;
+			}
+			if (key <= dist[heap[child]]) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapIndex[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = node;
+		heapIndex[node] = position;
+	}
+
+}
@@ -8,9 +8,26 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * FloydWarshall algorithm to calculate all pairs delay and predecessor matrix.
  * 
+ * The delays are computed in place, in one matrix, tile by tile: for each block of intermediate
+ * nodes, the diagonal tile is computed first, then the tiles in its row and column, then all the
+ * other tiles, so that a tile and the two tiles it depends on stay in the cache. The tiles of the
+ * second and third phases are independent of each other and are computed by a pool of threads.
+ * The predecessor matrix is only computed if requested in {@link #initialize(int, boolean)}.
+ * 
+ * The paths through the nodes of a block may be summed in a different order than in the textbook
+ * algorithm, so a delay may differ from it in the last bit of the float.
+ * 
  * @author Rahul Simha
  * @author Weishuai Yang
  * @version 1.2, 6/20/2005
@@ -18,124 +35,309 @@ package org.cloudbus.cloudsim.network;
  */
 public class FloydWarshall_Float {
 
+	/**
+	 * Number of nodes of a side of a tile; a tile of floats fits in the L1 cache
+	 */
+	public static final int BLOCK_SIZE = 64;
+
 	/**
 	 * Number of vertices (when initialized)
 	 */
 	private int numVertices;
 
-	// /**
-	// * The adjacency matrix (given as input),
-	// * here I use float rather than double to save memory,
-	// * since there won't be a lot of spilting for delay,
-	// * and float is accurate enough.
-	// */
-	// private float[][] adjMatrix;
+	/**
+	 * Whether the predecessor matrix is computed
+	 */
+	private boolean computePredecessors;
 
 	/**
-	 * Matrices used in dynamic programming
+	 * Number of threads computing the tiles
 	 */
-	private float[][] Dk, Dk_minus_one;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
 
 	/**
-	 * Matrices used in dynamic programming
+	 * Delay matrix, computed in place
 	 */
-	private int[][] Pk, Pk_minus_one;
+	private float[][] D;
 
 	/**
-	 * initialization matrix
+	 * Predecessor matrix, computed in place
+	 */
+	private int[][] Pk;
+
+	/**
+	 * initialization matrix, the predecessor matrix is computed as well
 	 * 
 	 * @param numVertices number of nodes
 	 */
 	public void initialize(int numVertices) {
-		this.numVertices = numVertices;
+		initialize(numVertices, true);
+	}
 
-		// Initialize Dk matrices.
-		Dk = new float[numVertices][];
-		Dk_minus_one = new float[numVertices][];
-		for (int i = 0; i < numVertices; i++) {
-			Dk[i] = new float[numVertices];
-			Dk_minus_one[i] = new float[numVertices];
-		}
+	/**
+	 * initialization matrix
+	 * 
+	 * @param numVertices number of nodes
+	 * @param computePredecessors whether the predecessor matrix is computed
+	 */
+	public void initialize(int numVertices, boolean computePredecessors) {
+		this.numVertices = numVertices;
+		this.computePredecessors = computePredecessors;
+		Pk = null;
+	}
 
-		// Initialize Pk matrices.
-		Pk = new int[numVertices][];
-		Pk_minus_one = new int[numVertices][];
-		for (int i = 0; i < numVertices; i++) {
-			Pk[i] = new int[numVertices];
-			Pk_minus_one[i] = new int[numVertices];
+	/**
+	 * sets the number of threads computing the tiles
+	 * 
+	 * @param numThreads number of threads, 1 computes the tiles in the calling thread
+	 */
+	public void setNumThreads(int numThreads) {
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be at least 1");
 		}
+		this.numThreads = numThreads;
+	}
 
+	/**
+	 * gets the number of threads computing the tiles
+	 * 
+	 * @return number of threads
+	 */
+	public int getNumThreads() {
+		return numThreads;
 	}
 
 	/**
 	 * calculates all pairs delay
 	 * 
-	 * @param adjMatrix original delay matrix
+	 * @param adjMatrix original delay matrix, 0 stands for no link; it is not modified
 	 * @return all pairs delay matrix
 	 */
 	public float[][] allPairsShortestPaths(float[][] adjMatrix) {
-		// Dk_minus_one = weights when k = -1
+		float[][] matrix = new float[numVertices][];
+		for (int i = 0; i < numVertices; i++) {
+			matrix[i] = adjMatrix[i].clone();
+		}
+		return allPairsShortestPathsInPlace(matrix);
+	}
+
+	/**
+	 * calculates all pairs delay in the given matrix, which saves the memory of a copy
+	 * 
+	 * @param matrix original delay matrix, 0 stands for no link; it is overwritten with the all
+	 *            pairs delay matrix
+	 * @return the all pairs delay matrix, i.e. the given matrix
+	 */
+	public float[][] allPairsShortestPathsInPlace(float[][] matrix) {
+		D = matrix;
+		if (computePredecessors) {
+			Pk = new int[numVertices][numVertices];
+		}
+
+		// D = weights when k = -1
 		for (int i = 0; i < numVertices; i++) {
+			float[] row = D[i];
 			for (int j = 0; j < numVertices; j++) {
-				if (adjMatrix[i][j] != 0) {
-					Dk_minus_one[i][j] = adjMatrix[i][j];
-					Pk_minus_one[i][j] = i;
+				if (row[j] != 0) {
+					if (Pk != null) {
+						Pk[i][j] = i;
+					}
 				} else {
-					Dk_minus_one[i][j] = Float.MAX_VALUE;
-					Pk_minus_one[i][j] = -1;
+					row[j] = Float.MAX_VALUE;
+					if (Pk != null) {
+						Pk[i][j] = -1;
+					}
 				}
 				// NOTE: we have set the value to infinity and will exploit
 				// this to avoid a comparison.
 			}
+			// a node is at no distance from itself; with non-negative delays it is never relaxed
+			row[i] = 0;
+			if (Pk != null) {
+				Pk[i][i] = -1;
+			}
 		}
 
-		// Now iterate over k.
+		int numBlocks = (numVertices + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		ExecutorService executor = null;
+		if (numThreads > 1 && numBlocks > 1) {
+			executor = Executors.newFixedThreadPool(Math.min(numThreads, numBlocks));
+		}
+		try {
+			for (int kb = 0; kb < numBlocks; kb++) {
+				// phase 1: the diagonal tile
+				relaxTile(kb, kb, kb);
+
+				// phase 2: the tiles in the row and in the column of the diagonal tile
+				List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+				for (int b = 0; b < numBlocks; b++) {
+					if (b != kb) {
+						tasks.add(new TileTask(kb, b, kb));
+						tasks.add(new TileTask(b, kb, kb));
+					}
+				}
+				run(executor, tasks);
 
-		for (int k = 0; k < numVertices; k++) {
+				// phase 3: the other tiles, a row of tiles per task
+				tasks.clear();
+				for (int ib = 0; ib < numBlocks; ib++) {
+					if (ib != kb) {
+						tasks.add(new TileRowTask(ib, numBlocks, kb));
+					}
+				}
+				run(executor, tasks);
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
 
-			// Compute Dk[i][j], for each i,j
+		float[][] result = D;
+		D = null;
+		return result;
+	}
 
-			for (int i = 0; i < numVertices; i++) {
-				for (int j = 0; j < numVertices; j++) {
-					if (i != j) {
+	/**
+	 * runs the tasks in the pool, or in the calling thread if there is no pool
+	 * 
+	 * @param executor the pool, or null
+	 * @param tasks the tasks
+	 */
+	private void run(ExecutorService executor, List<Callable<Void>> tasks) {
+		try {
+			if (executor == null) {
+				for (Callable<Void> task : tasks) {
+					task.call();
+				}
+				return;
+			}
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
 
+	/**
+	 * relaxes the paths of a tile through the intermediate nodes of a block
+	 * 
+	 * @param ib the block of the sources
+	 * @param jb the block of the destinations
+	 * @param kb the block of the intermediate nodes
+	 */
+	private void relaxTile(int ib, int jb, int kb) {
+		int iEnd = Math.min((ib + 1) * BLOCK_SIZE, numVertices);
+		int jStart = jb * BLOCK_SIZE;
+		int jEnd = Math.min(jStart + BLOCK_SIZE, numVertices);
+		int kEnd = Math.min((kb + 1) * BLOCK_SIZE, numVertices);
+		for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+			float[] rowK = D[k];
+			for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+				float[] rowI = D[i];
+				float dik = rowI[k];
+				if (dik == Float.MAX_VALUE) {
+					continue; // no path from i through k can be shorter
+				}
+				if (Pk == null) {
+					for (int j = jStart; j < jEnd; j++) {
 						// D_k[i][j] = min ( D_k-1[i][j], D_k-1[i][k] + D_k-1[k][j].
-						if (Dk_minus_one[i][j] <= Dk_minus_one[i][k] + Dk_minus_one[k][j]) {
-							Dk[i][j] = Dk_minus_one[i][j];
-							Pk[i][j] = Pk_minus_one[i][j];
-						} else {
-							Dk[i][j] = Dk_minus_one[i][k] + Dk_minus_one[k][j];
-							Pk[i][j] = Pk_minus_one[k][j];
+						float d = dik + rowK[j];
+						if (d < rowI[j]) {
+							rowI[j] = d;
+						}
+					}
+				} else {
+					int[] predI = Pk[i];
+					int[] predK = Pk[k];
+					for (int j = jStart; j < jEnd; j++) {
+						float d = dik + rowK[j];
+						if (d < rowI[j]) {
+							rowI[j] = d;
+							predI[j] = predK[j];
 						}
-					} else {
-						Pk[i][j] = -1;
 					}
 				}
 			}
-
-			// Now store current Dk into D_k-1
-			for (int i = 0; i < numVertices; i++) {
-				for (int j = 0; j < numVertices; j++) {
-					Dk_minus_one[i][j] = Dk[i][j];
-					Pk_minus_one[i][j] = Pk[i][j];
-				}
-			}
-
-		} // end-outermost-for
-
-		return Dk;
-
+		}
 	}
 
 	/**
 	 * gets predecessor matrix
 	 * 
-	 * @return predecessor matrix
+	 * @return predecessor matrix, or null if it was not requested
 	 */
 	public int[][] getPK() {
 		return Pk;
 	}
 
+	/**
+	 * A task relaxing a tile through the intermediate nodes of a block.
+	 */
+	private class TileTask implements Callable<Void> {
+
+		/** the blocks of the sources, of the destinations and of the intermediate nodes */
+		private final int ib, jb, kb;
+
+		/**
+		 * @param ib the block of the sources
+		 * @param jb the block of the destinations
+		 * @param kb the block of the intermediate nodes
+		 */
+		public TileTask(int ib, int jb, int kb) {
+			this.ib = ib;
+			this.jb = jb;
+			this.kb = kb;
+		}
+
+		@Override
+		public Void call() {
+			relaxTile(ib, jb, kb);
+			return null;
+		}
+
+	}
+
+	/**
+	 * A task relaxing a row of tiles, except the tile in the column of the intermediate nodes,
+	 * through the intermediate nodes of a block.
+	 */
+	private class TileRowTask implements Callable<Void> {
+
+		/** the block of the sources, the number of blocks and the block of the intermediate nodes */
+		private final int ib, numBlocks, kb;
+
+		/**
+		 * @param ib the block of the sources
+		 * @param numBlocks the number of blocks
+		 * @param kb the block of the intermediate nodes
+		 */
+		public TileRowTask(int ib, int numBlocks, int kb) {
+			this.ib = ib;
+			this.numBlocks = numBlocks;
+			this.kb = kb;
+		}
+
+		@Override
+		public Void call() {
+			for (int jb = 0; jb < numBlocks; jb++) {
+				if (jb != kb) {
+					relaxTile(ib, jb, kb);
+				}
+			}
+			return null;
+		}
+
+	}
+
 
 /*
   public static void main (String[] argv)
@@ -0,0 +1,417 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A streaming reader of topology files into a {@link SparseTopologicalGraph}. The file is
+ * memory-mapped and its bytes are parsed in place, without building a String per line, a
+ * StringTokenizer or a {@link TopologicalLink} per link, so that topologies of hundreds of
+ * thousands of nodes can be read.
+ *
+ * Two formats are read:
+ * <ul>
+ * <li>BRITE, read as {@link GraphReaderBrite} does: after the line containing "Nodes:", a node per
+ * line (NodeID, xpos, ypos, ...); after the line containing "Edges:", a link per line (EdgeID,
+ * fromNode, toNode, euclideanLength, linkDelay, linkBandwith, ...). The nodes are counted, and the
+ * bandwidth is truncated to an integer.</li>
+ * <li>an edge list: a link per line (fromNode, toNode, [linkDelay, [linkBandwith]]), with a delay
+ * of 1 and a bandwidth of 0 by default; the lines starting with '#' are comments. There are as
+ * many nodes as the highest node ID plus one.</li>
+ * </ul>
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class SparseGraphReader {
+
+	/** the marker of the node section of a BRITE file */
+	private static final byte[] NODES = { 'N', 'o', 'd', 'e', 's', ':' };
+
+	/** the marker of the link section of a BRITE file */
+	private static final byte[] EDGES = { 'E', 'd', 'g', 'e', 's', ':' };
+
+	/** the bytes being parsed */
+	private ByteBuffer buffer;
+
+	/** the start and the end of the current line */
+	private int lineStart, lineEnd;
+
+	/** the number of the current line, from 1 */
+	private int lineNumber;
+
+	/** the start and the end of the current token */
+	private int tokenStart, tokenEnd;
+
+	/**
+	 * reads a BRITE file
+	 *
+	 * @param filename name of the file to read
+	 * @param directed true if the links are directed, false if each link goes both ways
+	 * @return the graph
+	 * @throws IOException if the file can't be read or parsed
+	 */
+	public SparseTopologicalGraph readBriteFile(String filename, boolean directed) throws IOException {
+		return readBrite(map(filename), directed);
+	}
+
+	/**
+	 * reads an edge list file
+	 *
+	 * @param filename name of the file to read
+	 * @param directed true if the links are directed, false if each link goes both ways
+	 * @return the graph
+	 * @throws IOException if the file can't be read or parsed
+	 */
+	public SparseTopologicalGraph readEdgeListFile(String filename, boolean directed) throws IOException {
+		return readEdgeList(map(filename), directed);
+	}
+
+	/**
+	 * reads a BRITE topology
+	 *
+	 * @param bytes the bytes of the topology, from the position to the limit
+	 * @param directed true if the links are directed, false if each link goes both ways
+	 * @return the graph
+	 * @throws IOException if the topology can't be parsed
+	 */
+	public SparseTopologicalGraph readBrite(ByteBuffer bytes, boolean directed) throws IOException {
+		start(bytes);
+		SparseTopologicalGraph.Builder builder = new SparseTopologicalGraph.Builder();
+		int numNodes = 0;
+
+		// the lines before the nodes
+		while (nextLine() && !lineContains(NODES)) {
+		}
+
+		// the nodes, until the line containing the start of the edges
+		while (nextLine() && !lineContains(EDGES)) {
+			if (nextToken()) {
+				parseInt(); // NodeID
+				if (nextToken()) {
+					parseInt(); // xpos
+				}
+				if (nextToken()) {
+					parseInt(); // ypos
+				}
+				numNodes++;
+			}
+		}
+		builder.setNumberOfNodes(numNodes);
+
+		// the edges: EdgeID, fromNode, toNode, euclideanLength, linkDelay, linkBandwith
+		while (nextLine()) {
+			if (!nextToken()) {
+				continue;
+			}
+			int fromNode = 0;
+			int toNode = 0;
+			float linkDelay = 0;
+			int linkBandwith = 0;
+			if (nextToken()) {
+				fromNode = parseInt();
+			}
+			if (nextToken()) {
+				toNode = parseInt();
+			}
+			if (nextToken() && nextToken()) {
+				linkDelay = parseFloat();
+			}
+			if (nextToken()) {
+				linkBandwith = (int) parseFloat();
+			}
+			checkNode(fromNode, numNodes);
+			checkNode(toNode, numNodes);
+			builder.addLink(fromNode, toNode, linkDelay, linkBandwith);
+		}
+		buffer = null;
+		return builder.build(directed);
+	}
+
+	/**
+	 * reads an edge list topology
+	 *
+	 * @param bytes the bytes of the topology, from the position to the limit
+	 * @param directed true if the links are directed, false if each link goes both ways
+	 * @return the graph
+	 * @throws IOException if the topology can't be parsed
+	 */
+	public SparseTopologicalGraph readEdgeList(ByteBuffer bytes, boolean directed) throws IOException {
+		start(bytes);
+		SparseTopologicalGraph.Builder builder = new SparseTopologicalGraph.Builder();
+		while (nextLine()) {
+			if (!nextToken() || buffer.get(tokenStart) == '#') {
+				continue;
+			}
+			int fromNode = parseInt();
+			if (!nextToken()) {
+				throw new IOException("Line " + lineNumber + ": the destination node is missing");
+			}
+			int toNode = parseInt();
+			float linkDelay = 1;
+			float linkBandwith = 0;
+			if (nextToken()) {
+				linkDelay = parseFloat();
+				if (nextToken()) {
+					linkBandwith = parseFloat();
+				}
+			}
+			checkNode(fromNode, Integer.MAX_VALUE);
+			checkNode(toNode, Integer.MAX_VALUE);
+			builder.addLink(fromNode, toNode, linkDelay, linkBandwith);
+		}
+		buffer = null;
+		return builder.build(directed);
+	}
+
+	/**
+	 * memory-maps a file
+	 *
+	 * @param filename name of the file
+	 * @return the bytes of the file
+	 * @throws IOException if the file can't be read
+	 */
+	private static ByteBuffer map(String filename) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			if (file.length() > Integer.MAX_VALUE) {
+				throw new IOException("The topology file " + filename + " is larger than 2 GB");
+			}
+			// the mapping stays valid after the channel is closed
+			return file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * starts parsing the bytes
+	 *
+	 * @param bytes the bytes, from the position to the limit
+	 */
+	private void start(ByteBuffer bytes) {
+		buffer = bytes.duplicate();
+		lineStart = buffer.position();
+		lineEnd = lineStart - 1;
+		lineNumber = 0;
+	}
+
+	/**
+	 * moves to the next line
+	 *
+	 * @return false if there is no line left
+	 */
+	private boolean nextLine() {
+		int limit = buffer.limit();
+		lineStart = lineEnd + 1;
+		if (lineStart >= limit) {
+			return false;
+		}
+		lineEnd = lineStart;
+		while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+			lineEnd++;
+		}
+		lineNumber++;
+		tokenEnd = lineStart;
+		return true;
+	}
+
+	/**
+	 * moves to the next token of the line; the tokens are separated as by a StringTokenizer
+	 *
+	 * @return false if there is no token left in the line
+	 */
+	private boolean nextToken() {
+		tokenStart = tokenEnd;
+		while (tokenStart < lineEnd && isSpace(buffer.get(tokenStart))) {
+			tokenStart++;
+		}
+		if (tokenStart == lineEnd) {
+			tokenEnd = tokenStart;
+			return false;
+		}
+		tokenEnd = tokenStart;
+		while (tokenEnd < lineEnd && !isSpace(buffer.get(tokenEnd))) {
+			tokenEnd++;
+		}
+		return true;
+	}
+
+	/**
+	 * @param b a byte
+	 * @return true if the byte separates tokens
+	 */
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+	}
+
+	/**
+	 * checks whether the line contains the bytes
+	 *
+	 * @param pattern the bytes
+	 * @return true if the line contains them
+	 */
+	private boolean lineContains(byte[] pattern) {
+		for (int i = lineStart; i + pattern.length <= lineEnd; i++) {
+			int j = 0;
+			while (j < pattern.length && buffer.get(i + j) == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * parses the current token as an int, as Integer.valueOf does
+	 *
+	 * @return the int
+	 * @throws IOException if the token isn't an int
+	 */
+	private int parseInt() throws IOException {
+		int i = tokenStart;
+		boolean negative = false;
+		byte b = buffer.get(i);
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			i++;
+		}
+		if (i == tokenEnd) {
+			throw invalidToken();
+		}
+		long value = 0;
+		for (; i < tokenEnd; i++) {
+			b = buffer.get(i);
+			if (b < '0' || b > '9') {
+				throw invalidToken();
+			}
+			value = value * 10 + (b - '0');
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw invalidToken();
+			}
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw invalidToken();
+		}
+		return (int) value;
+	}
+
+	/**
+	 * parses the current token as a float, as Float.valueOf does. A plain decimal number is parsed
+	 * in place; the others, e.g. with an exponent, go through Float.parseFloat.
+	 *
+	 * @return the float
+	 * @throws IOException if the token isn't a float
+	 */
+	private float parseFloat() throws IOException {
+		int i = tokenStart;
+		boolean negative = false;
+		byte b = buffer.get(i);
+		if (b == '-' || b == '+') {
+			negative = b == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int significantDigits = 0;
+		int fractionDigits = -1;
+		for (; i < tokenEnd; i++) {
+			b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				digits++;
+				if (mantissa > 0 || b != '0') {
+					significantDigits++;
+				}
+				mantissa = mantissa * 10 + (b - '0');
+				if (fractionDigits >= 0) {
+					fractionDigits++;
+				}
+			} else if (b == '.' && fractionDigits < 0) {
+				fractionDigits = 0;
+			} else {
+				return parseFloatSlowly();
+			}
+		}
+		if (digits == 0 || significantDigits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+			return parseFloatSlowly();
+		}
+
+		// both are exact doubles, so the quotient is the correctly rounded double
+		double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+		float rounded = (float) value;
+		if (rounded != value) {
+			// rounding the double to a float rounds twice, which is only wrong at a midpoint
+			float other = value > rounded ? Math.nextUp(rounded) : -Math.nextUp(-rounded);
+			if (value - rounded == other - value) {
+				return parseFloatSlowly();
+			}
+		}
+		return negative ? -rounded : rounded;
+	}
+
+	/** the powers of ten that are exact doubles */
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	/**
+	 * parses the current token with Float.parseFloat
+	 *
+	 * @return the float
+	 * @throws IOException if the token isn't a float
+	 */
+	private float parseFloatSlowly() throws IOException {
+		byte[] token = new byte[tokenEnd - tokenStart];
+		for (int i = 0; i < token.length; i++) {
+			token[i] = buffer.get(tokenStart + i);
+		}
+		try {
+			return Float.parseFloat(new String(token, "US-ASCII"));
+		} catch (NumberFormatException e) {
+			throw invalidToken();
+		}
+	}
+
+	/**
+	 * checks that a link joins nodes of the graph
+	 *
+	 * @param node the node
+	 * @param numNodes the number of nodes
+	 * @throws IOException if the node isn't in the graph
+	 */
+	private void checkNode(int node, int numNodes) throws IOException {
+		if (node < 0 || node >= numNodes) {
+			throw new IOException("Line " + lineNumber + ": the node " + node + " is not in the topology");
+		}
+	}
+
+	/**
+	 * @return the exception for the current token
+	 * @throws IOException if the token can't be decoded
+	 */
+	private IOException invalidToken() throws IOException {
+		byte[] token = new byte[tokenEnd - tokenStart];
+		for (int i = 0; i < token.length; i++) {
+			token[i] = buffer.get(tokenStart + i);
+		}
+		return new IOException("Line " + lineNumber + ": invalid number " + new String(token, "US-ASCII"));
+	}
+
+}
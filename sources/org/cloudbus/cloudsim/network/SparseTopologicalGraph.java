@@ -0,0 +1,243 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a graph in compressed sparse row form: the links leaving a node are stored
+ * next to each other in primitive arrays, without a {@link TopologicalLink} object per link, so
+ * that topologies with hundreds of thousands of nodes fit in the heap. It is built by a
+ * {@link Builder}, e.g. from a {@link SparseGraphReader}, and is read by {@link Dijkstra_Float}.
+ *
+ * As in {@link DelayMatrix_Float}, when several links join the same nodes in the same direction,
+ * only the last one is kept; a link with a delay of 0 is kept, but doesn't count as a link for
+ * the shortest paths.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class SparseTopologicalGraph {
+
+	/** the number of nodes */
+	private final int numNodes;
+
+	/** the index of the first link of each node, plus the number of links */
+	final int[] linkStart;
+
+	/** the destination of each link */
+	final int[] linkDest;
+
+	/** the delay of each link */
+	final float[] linkDelay;
+
+	/** the bandwidth of each link */
+	final float[] linkBw;
+
+	/**
+	 * @param numNodes the number of nodes
+	 * @param linkStart the index of the first link of each node, plus the number of links
+	 * @param linkDest the destination of each link
+	 * @param linkDelay the delay of each link
+	 * @param linkBw the bandwidth of each link
+	 */
+	private SparseTopologicalGraph(int numNodes, int[] linkStart, int[] linkDest, float[] linkDelay, float[] linkBw) {
+		this.numNodes = numNodes;
+		this.linkStart = linkStart;
+		this.linkDest = linkDest;
+		this.linkDelay = linkDelay;
+		this.linkBw = linkBw;
+	}
+
+	/**
+	 * returns the number of nodes contained inside the graph
+	 *
+	 * @return number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * returns the number of directed links contained inside the graph; an undirected link counts
+	 * twice
+	 *
+	 * @return number of links
+	 */
+	public int getNumberOfLinks() {
+		return linkDest.length;
+	}
+
+	/**
+	 * returns the index of the first link leaving the node; the links of the node end at the first
+	 * link of the next node
+	 *
+	 * @param node the node
+	 * @return the index of the first link
+	 */
+	public int getFirstLink(int node) {
+		return linkStart[node];
+	}
+
+	/**
+	 * @param link the index of the link
+	 * @return the destination node of the link
+	 */
+	public int getLinkDest(int link) {
+		return linkDest[link];
+	}
+
+	/**
+	 * @param link the index of the link
+	 * @return the delay of the link
+	 */
+	public float getLinkDelay(int link) {
+		return linkDelay[link];
+	}
+
+	/**
+	 * @param link the index of the link
+	 * @return the bandwidth of the link
+	 */
+	public float getLinkBw(int link) {
+		return linkBw[link];
+	}
+
+	/**
+	 * This class collects the links of a graph into growing primitive arrays and sorts them into a
+	 * {@link SparseTopologicalGraph}.
+	 */
+	public static class Builder {
+
+		/** the number of nodes, at least the highest node referenced plus one */
+		private int numNodes;
+
+		/** the number of links added */
+		private int numLinks;
+
+		/** the links added, in order */
+		private int[] src = new int[1024];
+
+		private int[] dest = new int[1024];
+
+		private float[] delay = new float[1024];
+
+		private float[] bw = new float[1024];
+
+		/**
+		 * sets the number of nodes; the graph has more nodes if a link references them
+		 *
+		 * @param numNodes the number of nodes
+		 */
+		public void setNumberOfNodes(int numNodes) {
+			this.numNodes = numNodes;
+		}
+
+		/**
+		 * adds a link between two nodes
+		 *
+		 * @param srcNode the source node
+		 * @param destNode the destination node
+		 * @param linkDelay the delay
+		 * @param linkBw the bandwidth
+		 */
+		public void addLink(int srcNode, int destNode, float linkDelay, float linkBw) {
+			if (srcNode < 0 || destNode < 0) {
+				throw new IllegalArgumentException("Negative node ID in link " + srcNode + " -> " + destNode);
+			}
+			if (numLinks == src.length) {
+				int capacity = 2 * src.length;
+				src = Arrays.copyOf(src, capacity);
+				dest = Arrays.copyOf(dest, capacity);
+				delay = Arrays.copyOf(delay, capacity);
+				bw = Arrays.copyOf(bw, capacity);
+			}
+			src[numLinks] = srcNode;
+			dest[numLinks] = destNode;
+			delay[numLinks] = linkDelay;
+			bw[numLinks] = linkBw;
+			numLinks++;
+		}
+
+		/**
+		 * sorts the links by source node into a graph
+		 *
+		 * @param directed true if the links are directed, false if each link goes both ways
+		 * @return the graph
+		 */
+		public SparseTopologicalGraph build(boolean directed) {
+			int nodes = numNodes;
+			for (int i = 0; i < numLinks; i++) {
+				nodes = Math.max(nodes, Math.max(src[i], dest[i]) + 1);
+			}
+
+			// counting sort by source node, which keeps the order of the links of a node
+			int[] start = new int[nodes + 1];
+			for (int i = 0; i < numLinks; i++) {
+				start[src[i] + 1]++;
+				if (!directed) {
+					start[dest[i] + 1]++;
+				}
+			}
+			for (int node = 0; node < nodes; node++) {
+				start[node + 1] += start[node];
+			}
+			int total = start[nodes];
+			int[] next = Arrays.copyOf(start, nodes);
+			int[] sortedDest = new int[total];
+			float[] sortedDelay = new float[total];
+			float[] sortedBw = new float[total];
+			for (int i = 0; i < numLinks; i++) {
+				int link = next[src[i]]++;
+				sortedDest[link] = dest[i];
+				sortedDelay[link] = delay[i];
+				sortedBw[link] = bw[i];
+				if (!directed) {
+					link = next[dest[i]]++;
+					sortedDest[link] = src[i];
+					sortedDelay[link] = delay[i];
+					sortedBw[link] = bw[i];
+				}
+			}
+
+			// keeps the last of the links of a node to the same destination
+			int[] last = new int[nodes];
+			Arrays.fill(last, -1);
+			int[] linkStart = new int[nodes + 1];
+			int kept = 0;
+			for (int node = 0; node < nodes; node++) {
+				for (int link = start[node]; link < start[node + 1]; link++) {
+					last[sortedDest[link]] = link;
+				}
+				linkStart[node] = kept;
+				for (int link = start[node]; link < start[node + 1]; link++) {
+					int d = sortedDest[link];
+					if (last[d] == link) {
+						sortedDest[kept] = d;
+						sortedDelay[kept] = sortedDelay[link];
+						sortedBw[kept] = sortedBw[link];
+						kept++;
+					}
+				}
+				for (int link = linkStart[node]; link < kept; link++) {
+					last[sortedDest[link]] = -1;
+				}
+			}
+			linkStart[nodes] = kept;
+
+			return new SparseTopologicalGraph(
+					nodes,
+					linkStart,
+					Arrays.copyOf(sortedDest, kept),
+					Arrays.copyOf(sortedDelay, kept),
+					Arrays.copyOf(sortedBw, kept));
+		}
+
+	}
+
+}
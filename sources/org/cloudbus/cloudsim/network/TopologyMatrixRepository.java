@@ -0,0 +1,325 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A repository of the delay and bandwidth matrices of network topologies. The matrices of a
+ * topology are computed once and written into a binary file named after a hash of the topology,
+ * i.e. of its number of nodes and of its links. The binary file is memory-mapped, so that later
+ * runs, in this JVM or in other ones, neither compute the matrices again nor copy them into the
+ * heap, and the runs using the same topology at the same time share the pages of one copy.
+ *
+ * A topology whose bandwidth matrix doesn't fit in a mapping, i.e. of more than 16383 nodes, is not
+ * written; its matrices are computed in memory.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class TopologyMatrixRepository {
+
+	/** The magic number of the binary file. */
+	private static final int MAGIC = 0x544F504D; // "TOPM"
+
+	/** The version of the binary file format, part of the hash of a topology. */
+	private static final int VERSION = 1;
+
+	/** The size of the hash of a topology. */
+	private static final int DIGEST_LENGTH = 20;
+
+	/** The size of the header, aligned to doubles: magic, version, nodes, padding and hash. */
+	private static final int HEADER_SIZE = 4 * 4 + DIGEST_LENGTH + 4;
+
+	/** The largest number of nodes whose bandwidth matrix fits in a mapping. */
+	private static final int MAX_MAPPED_NODES = 16383;
+
+	/** The repositories opened in this JVM, by binary file path. */
+	private static final Map<String, TopologyMatrixRepository> repositories = new HashMap<String, TopologyMatrixRepository>();
+
+	/** The directory of the binary files. */
+	private static File cacheFolder = new File(System.getProperty("java.io.tmpdir"), "cloudsim-topology");
+
+	/** The delay matrix. */
+	private final DelayMatrix_Float delayMatrix;
+
+	/** The bandwidth matrix, row after row. */
+	private final DoubleBuffer bwMatrix;
+
+	/**
+	 * Gets the repository of the topology. The matrices are computed and written into a binary file
+	 * if there is no such file yet.
+	 *
+	 * @param graph the topology
+	 * @param directed true if the links are directed, false otherwise
+	 * @return the repository
+	 * @throws IOException if the binary file can't be written or read
+	 */
+	public static synchronized TopologyMatrixRepository getRepository(TopologicalGraph graph, boolean directed)
+			throws IOException {
+		int nodes = graph.getNumberOfNodes();
+		if (nodes > MAX_MAPPED_NODES) {
+			return new TopologyMatrixRepository(new DelayMatrix_Float(graph, directed), createBwMatrix(
+					graph,
+					directed));
+		}
+		byte[] digest = getDigest(graph, directed);
+		File cacheFile = getCacheFile(digest);
+
+		TopologyMatrixRepository repository = repositories.get(cacheFile.getPath());
+		if (repository != null) {
+			return repository;
+		}
+		if (cacheFile.exists()) {
+			repository = open(cacheFile, nodes, digest);
+		}
+		if (repository == null) {
+			write(new DelayMatrix_Float(graph, directed), createBwMatrix(graph, directed), digest, cacheFile);
+			repository = open(cacheFile, nodes, digest);
+			if (repository == null) {
+				throw new IOException("Couldn't read the topology matrix file " + cacheFile);
+			}
+		}
+		repositories.put(cacheFile.getPath(), repository);
+		return repository;
+	}
+
+	/**
+	 * Instantiates a new repository.
+	 *
+	 * @param delayMatrix the delay matrix
+	 * @param bwMatrix the bandwidth matrix, row after row
+	 */
+	private TopologyMatrixRepository(DelayMatrix_Float delayMatrix, DoubleBuffer bwMatrix) {
+		this.delayMatrix = delayMatrix;
+		this.bwMatrix = bwMatrix;
+	}
+
+	/**
+	 * Gets the delay matrix.
+	 *
+	 * @return the delay matrix
+	 */
+	public DelayMatrix_Float getDelayMatrix() {
+		return delayMatrix;
+	}
+
+	/**
+	 * Gets a read-only view of the bandwidth matrix.
+	 *
+	 * @return the bandwidth between any two nodes, row after row, 0 if they are not linked
+	 */
+	public DoubleBuffer getBwMatrix() {
+		return bwMatrix.duplicate();
+	}
+
+	/**
+	 * Sets the directory of the binary files.
+	 *
+	 * @param cacheFolder the new cache folder
+	 */
+	public static synchronized void setCacheFolder(File cacheFolder) {
+		TopologyMatrixRepository.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * Gets the directory of the binary files.
+	 *
+	 * @return the cache folder
+	 */
+	public static synchronized File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	/**
+	 * Creates the bandwidth matrix in memory. When several links join the same nodes, the last one
+	 * counts.
+	 *
+	 * @param graph the topology
+	 * @param directed true if the links are directed, false otherwise
+	 * @return the bandwidth between any two nodes, row after row, 0 if they are not linked
+	 */
+	public static DoubleBuffer createBwMatrix(TopologicalGraph graph, boolean directed) {
+		int nodes = graph.getNumberOfNodes();
+		double[] bwMatrix = new double[nodes * nodes];
+		Iterator<TopologicalLink> iter = graph.getLinkIterator();
+		while (iter.hasNext()) {
+			TopologicalLink edge = iter.next();
+			bwMatrix[edge.getSrcNodeID() * nodes + edge.getDestNodeID()] = edge.getLinkBw();
+			if (!directed) {
+				bwMatrix[edge.getDestNodeID() * nodes + edge.getSrcNodeID()] = edge.getLinkBw();
+			}
+		}
+		return DoubleBuffer.wrap(bwMatrix).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the hash of the topology: the number of nodes and the links, in order, since the last
+	 * of several links between the same nodes counts.
+	 *
+	 * @param graph the topology
+	 * @param directed true if the links are directed, false otherwise
+	 * @return the hash
+	 */
+	protected static byte[] getDigest(TopologicalGraph graph, boolean directed) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] buffer = new byte[16];
+		putInt(buffer, 0, VERSION);
+		putInt(buffer, 4, directed ? 1 : 0);
+		putInt(buffer, 8, graph.getNumberOfNodes());
+		putInt(buffer, 12, graph.getNumberOfLinks());
+		digest.update(buffer);
+		Iterator<TopologicalLink> iter = graph.getLinkIterator();
+		while (iter.hasNext()) {
+			TopologicalLink edge = iter.next();
+			putInt(buffer, 0, edge.getSrcNodeID());
+			putInt(buffer, 4, edge.getDestNodeID());
+			putInt(buffer, 8, Float.floatToIntBits(edge.getLinkDelay()));
+			putInt(buffer, 12, Float.floatToIntBits(edge.getLinkBw()));
+			digest.update(buffer);
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Puts an int into a byte array, most significant byte first.
+	 *
+	 * @param buffer the byte array
+	 * @param offset the offset
+	 * @param value the value
+	 */
+	private static void putInt(byte[] buffer, int offset, int value) {
+		buffer[offset] = (byte) (value >>> 24);
+		buffer[offset + 1] = (byte) (value >>> 16);
+		buffer[offset + 2] = (byte) (value >>> 8);
+		buffer[offset + 3] = (byte) value;
+	}
+
+	/**
+	 * Gets the binary file of the topology.
+	 *
+	 * @param digest the hash of the topology
+	 * @return the binary file
+	 */
+	protected static File getCacheFile(byte[] digest) {
+		StringBuilder name = new StringBuilder();
+		for (byte b : digest) {
+			name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return new File(getCacheFolder(), name.append(".matrix").toString());
+	}
+
+	/**
+	 * Writes the matrices into the binary file: the header, the bandwidth matrix and the delay
+	 * matrix.
+	 *
+	 * @param delayMatrix the delay matrix
+	 * @param bwMatrix the bandwidth matrix
+	 * @param digest the hash of the topology
+	 * @param cacheFile the binary file
+	 * @throws IOException if the binary file can't be written
+	 */
+	protected static void write(DelayMatrix_Float delayMatrix, DoubleBuffer bwMatrix, byte[] digest, File cacheFile)
+			throws IOException {
+		File folder = cacheFile.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Couldn't create the directory " + folder);
+		}
+
+		// the file is written under a temporary name, so that an interrupted write is never read
+		File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", folder);
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(delayMatrix.getNodeNum());
+			output.writeInt(0);
+			output.write(digest);
+			output.writeInt(0);
+			DoubleBuffer bw = bwMatrix.duplicate();
+			while (bw.hasRemaining()) {
+				output.writeDouble(bw.get());
+			}
+			FloatBuffer delays = delayMatrix.getDelays();
+			while (delays.hasRemaining()) {
+				output.writeFloat(delays.get());
+			}
+		} finally {
+			output.close();
+		}
+		if (!tempFile.renameTo(cacheFile)) {
+			cacheFile.delete();
+			if (!tempFile.renameTo(cacheFile)) {
+				tempFile.delete();
+				throw new IOException("Couldn't write the topology matrix file " + cacheFile);
+			}
+		}
+	}
+
+	/**
+	 * Memory-maps the binary file.
+	 *
+	 * @param cacheFile the binary file
+	 * @param nodes the number of nodes of the topology
+	 * @param digest the hash of the topology
+	 * @return the repository, or null if the file isn't a matrix file of this topology and version
+	 * @throws IOException if the file can't be read
+	 */
+	private static TopologyMatrixRepository open(File cacheFile, int nodes, byte[] digest) throws IOException {
+		long cells = (long) nodes * nodes;
+		RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+		MappedByteBuffer header;
+		MappedByteBuffer bw;
+		MappedByteBuffer delays;
+		try {
+			if (file.length() != HEADER_SIZE + cells * 8 + cells * 4) {
+				return null; // a truncated or corrupted file
+			}
+			// the mappings stay valid after the channel is closed
+			FileChannel channel = file.getChannel();
+			header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			bw = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, cells * 8);
+			delays = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + cells * 8, cells * 4);
+		} finally {
+			file.close();
+		}
+		if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != nodes) {
+			return null;
+		}
+		header.getInt();
+		byte[] fileDigest = new byte[DIGEST_LENGTH];
+		header.get(fileDigest);
+		if (!Arrays.equals(fileDigest, digest)) {
+			return null;
+		}
+		return new TopologyMatrixRepository(
+				new DelayMatrix_Float(delays.asFloatBuffer(), nodes),
+				bw.asReadOnlyBuffer().asDoubleBuffer());
+	}
+
+}
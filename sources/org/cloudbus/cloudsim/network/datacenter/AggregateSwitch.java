@@ -10,12 +10,8 @@ package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class allows to simulate aggregate switch for Datacenter network. It interacts with other
@@ -42,8 +38,8 @@ public class AggregateSwitch extends Switch {
 	 */
 	public AggregateSwitch(String name, int level, NetworkDatacenter dc) {
 		super(name, level, dc);
-		downlinkswitchpktlist = new HashMap<Integer, List<NetworkPacket>>();
-		uplinkswitchpktlist = new HashMap<Integer, List<NetworkPacket>>();
+		downlinkswitchpktlist = new HashMap<Integer, SwitchPort>();
+		uplinkswitchpktlist = new HashMap<Integer, SwitchPort>();
 		uplinkbandwidth = NetworkConstants.BandWidthAggRoot;
 		downlinkbandwidth = NetworkConstants.BandWidthEdgeAgg;
 		latency = NetworkConstants.SwitchingDelayAgg;
@@ -67,19 +63,11 @@ public class AggregateSwitch extends Switch {
 		// add packet in the host list
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
-		schedule(getId(), latency, CloudSimTags.Network_Event_send);
-
 		if (level == NetworkConstants.Agg_LEVEL) {
 			// packet is coming from root so need to be sent to edgelevel swich
 			// find the id for edgelevel switch
 			int switchid = dc.VmToSwitchid.get(recvVMid);
-			List<NetworkPacket> pktlist = downlinkswitchpktlist.get(switchid);
-			if (pktlist == null) {
-				pktlist = new ArrayList<NetworkPacket>();
-				downlinkswitchpktlist.put(switchid, pktlist);
-			}
-			pktlist.add(hspkt);
+			forwardDown(switchid, hspkt, latency);
 			return;
 		}
 
@@ -100,9 +88,6 @@ public class AggregateSwitch extends Switch {
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
-		schedule(getId(), switching_delay, CloudSimTags.Network_Event_send);
-
 		if (level == NetworkConstants.Agg_LEVEL) {
 			// packet is coming from edge level router so need to be sent to
 			// either root or another edge level swich
@@ -115,21 +100,11 @@ public class AggregateSwitch extends Switch {
 				}
 			}
 			if (flagtoswtich) {
-				List<NetworkPacket> pktlist = downlinkswitchpktlist.get(switchid);
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					downlinkswitchpktlist.put(switchid, pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardDown(switchid, hspkt, switching_delay);
 			} else// send to up
 			{
 				Switch sw = uplinkswitches.get(0);
-				List<NetworkPacket> pktlist = uplinkswitchpktlist.get(sw.getId());
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					uplinkswitchpktlist.put(sw.getId(), pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardUp(sw.getId(), hspkt, switching_delay);
 			}
 		}
 	}
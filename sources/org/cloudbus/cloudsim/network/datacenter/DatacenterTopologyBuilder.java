@@ -0,0 +1,173 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * This class builds the hosts and the switch network of a {@link NetworkDatacenter}, so that large
+ * datacenters don't have to be wired by hand:
+ * <ul>
+ * <li>a k-ary fat-tree has k pods of k/2 edge and k/2 aggregate switches, each edge switch linked
+ * to k/2 hosts and to every aggregate switch of its pod, and (k/2)^2 root switches, each linked to
+ * one aggregate switch of every pod; it connects k^3/4 hosts;</li>
+ * <li>a leaf-spine network has edge switches (leaves) linked to every aggregate switch (spine), and
+ * no root switch.</li>
+ * </ul>
+ * The switches forward the packets up through their first uplink switch, so the uplinks of the
+ * switches are rotated to spread the traffic over the switches of the upper level.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class DatacenterTopologyBuilder {
+
+	/**
+	 * creates hosts with time-shared PEs, numbered from 0
+	 *
+	 * @param numHosts number of hosts
+	 * @param pes number of PEs per host
+	 * @param mips MIPS of a PE
+	 * @param ram memory of a host (MB)
+	 * @param storage storage of a host
+	 * @param bw bandwidth of a host
+	 * @return the hosts
+	 */
+	public static List<NetworkHost> createHosts(int numHosts, int pes, double mips, int ram, long storage, long bw) {
+		List<NetworkHost> hostList = new ArrayList<NetworkHost>(numHosts);
+		for (int i = 0; i < numHosts; i++) {
+			List<Pe> peList = new ArrayList<Pe>(pes);
+			for (int j = 0; j < pes; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(mips)));
+			}
+			hostList.add(new NetworkHost(
+					i,
+					new RamProvisionerSimple(ram),
+					new BwProvisionerSimple(bw),
+					storage,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		return hostList;
+	}
+
+	/**
+	 * links the hosts of the datacenter, in order, through a k-ary fat-tree
+	 *
+	 * @param dc the datacenter
+	 * @param k number of ports of the switches, even
+	 */
+	public static void buildFatTree(NetworkDatacenter dc, int k) {
+		if (k < 2 || k % 2 != 0) {
+			throw new IllegalArgumentException("The number of ports of a fat-tree must be even, not " + k);
+		}
+		int half = k / 2;
+		List<Host> hosts = dc.getHostList();
+		if (hosts.size() > k * half * half) {
+			throw new IllegalArgumentException("A " + k + "-ary fat-tree connects at most " + k * half * half
+					+ " hosts, not " + hosts.size());
+		}
+
+		RootSwitch[] roots = new RootSwitch[half * half];
+		for (int i = 0; i < roots.length; i++) {
+			roots[i] = new RootSwitch("Root" + i, NetworkConstants.ROOT_LEVEL, dc);
+			dc.Switchlist.put(roots[i].getId(), roots[i]);
+		}
+		EdgeSwitch[] edges = new EdgeSwitch[k * half];
+		for (int pod = 0; pod < k; pod++) {
+			AggregateSwitch[] aggs = new AggregateSwitch[half];
+			for (int j = 0; j < half; j++) {
+				aggs[j] = new AggregateSwitch("Agg" + (pod * half + j), NetworkConstants.Agg_LEVEL, dc);
+				dc.Switchlist.put(aggs[j].getId(), aggs[j]);
+				// aggregate switch j of each pod is linked to the root switches j * k/2 to j * k/2 + k/2 - 1
+				for (int r = 0; r < half; r++) {
+					RootSwitch root = roots[j * half + (pod + r) % half];
+					aggs[j].uplinkswitches.add(root);
+					root.downlinkswitches.add(aggs[j]);
+				}
+			}
+			for (int e = 0; e < half; e++) {
+				EdgeSwitch edge = new EdgeSwitch("Edge" + (pod * half + e), NetworkConstants.EDGE_LEVEL, dc);
+				dc.Switchlist.put(edge.getId(), edge);
+				edges[pod * half + e] = edge;
+				for (int a = 0; a < half; a++) {
+					edge.uplinkswitches.add(aggs[(e + a) % half]);
+				}
+				for (AggregateSwitch agg : aggs) {
+					agg.downlinkswitches.add(edge);
+				}
+			}
+		}
+		attachHosts(dc, edges, half);
+	}
+
+	/**
+	 * links the hosts of the datacenter, in order, through a leaf-spine network
+	 *
+	 * @param dc the datacenter
+	 * @param leaves number of leaf switches
+	 * @param spines number of spine switches
+	 */
+	public static void buildLeafSpine(NetworkDatacenter dc, int leaves, int spines) {
+		if (leaves < 1 || spines < 1) {
+			throw new IllegalArgumentException("A leaf-spine network needs leaves and spines");
+		}
+		AggregateSwitch[] spine = new AggregateSwitch[spines];
+		for (int i = 0; i < spines; i++) {
+			spine[i] = new AggregateSwitch("Spine" + i, NetworkConstants.Agg_LEVEL, dc);
+			dc.Switchlist.put(spine[i].getId(), spine[i]);
+		}
+		EdgeSwitch[] edges = new EdgeSwitch[leaves];
+		for (int i = 0; i < leaves; i++) {
+			edges[i] = new EdgeSwitch("Leaf" + i, NetworkConstants.EDGE_LEVEL, dc);
+			dc.Switchlist.put(edges[i].getId(), edges[i]);
+			for (int s = 0; s < spines; s++) {
+				edges[i].uplinkswitches.add(spine[(i + s) % spines]);
+			}
+			for (AggregateSwitch sw : spine) {
+				sw.downlinkswitches.add(edges[i]);
+			}
+		}
+		int hostsPerLeaf = (dc.getHostList().size() + leaves - 1) / leaves;
+		attachHosts(dc, edges, hostsPerLeaf);
+	}
+
+	/**
+	 * links the hosts of the datacenter, in order, to the edge switches
+	 *
+	 * @param dc the datacenter
+	 * @param edges the edge switches
+	 * @param hostsPerEdge number of hosts per edge switch
+	 */
+	private static void attachHosts(NetworkDatacenter dc, EdgeSwitch[] edges, int hostsPerEdge) {
+		int i = 0;
+		for (Host hs : dc.getHostList()) {
+			NetworkHost hs1 = (NetworkHost) hs;
+			EdgeSwitch edge = edges[i++ / hostsPerEdge];
+			hs1.bandwidth = NetworkConstants.BandWidthEdgeHost;
+			edge.hostlist.put(hs.getId(), hs1);
+			dc.HostToSwitchid.put(hs.getId(), edge.getId());
+			hs1.sw = edge;
+			List<NetworkHost> hslist = edge.fintimelistHost.get(0D);
+			if (hslist == null) {
+				hslist = new ArrayList<NetworkHost>();
+				edge.fintimelistHost.put(0D, hslist);
+			}
+			hslist.add(hs1);
+		}
+	}
+
+}
@@ -0,0 +1,483 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * This class simulates the network of a {@link NetworkDatacenter} at the flow level, as a fast
+ * alternative to forwarding every {@link NetworkPacket} hop by hop through the switches. When a
+ * datacenter has a flow network, the packets a {@link NetworkHost} sends to other hosts become
+ * flows along the path of links between the two hosts, i.e. up the switch tree to the lowest
+ * switch common to both hosts and down again.
+ *
+ * The flows sharing a link get max-min fair rates: the capacity of a link is shared equally
+ * between its flows, except the flows limited to less by another link, whose leftover goes to the
+ * others. The rates are computed again only when a flow starts or finishes, and only for the flows
+ * linked to that one through shared links. The data of a flow is counted in thousands, as on the
+ * links between switches in the packet model. A flow crosses its whole path at once, where the
+ * packet model stores and forwards a packet at each switch, and is handed over to the receiving
+ * host after the switching delays along its path. The stages of the cloudlets then go on as in
+ * the packet model.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class FlowNetwork extends SimEntity {
+
+	/** the datacenter whose network is simulated */
+	private final NetworkDatacenter dc;
+
+	/** links from the hosts to their edge switch, by host id */
+	private final Map<Integer, FlowLink> hostUplinks = new HashMap<Integer, FlowLink>();
+
+	/** links from the edge switches to their hosts, by host id */
+	private final Map<Integer, FlowLink> hostDownlinks = new HashMap<Integer, FlowLink>();
+
+	/** links between switches, by source and destination switch id */
+	private final Map<Long, FlowLink> switchLinks = new HashMap<Long, FlowLink>();
+
+	/** the finish times of the flows, with stale entries left behind by rate changes */
+	private final PriorityQueue<FlowFinish> finishes = new PriorityQueue<FlowFinish>();
+
+	/** the time of the earliest finish event scheduled, Double.MAX_VALUE if none */
+	private double nextFinish = Double.MAX_VALUE;
+
+	/** the number of flows being transferred */
+	private int activeFlows;
+
+	/** the number of flows transferred */
+	private long finishedFlows;
+
+	/** the mark of the last rate computation, to visit the links and flows of a component once */
+	private int mark;
+
+	/**
+	 * @param name name of the entity
+	 * @param dc the datacenter whose network is simulated
+	 */
+	public FlowNetwork(String name, NetworkDatacenter dc) {
+		super(name);
+		this.dc = dc;
+	}
+
+	@Override
+	public void startEntity() {
+		Log.printLine(getName() + " is starting...");
+	}
+
+	@Override
+	public void processEvent(SimEvent ev) {
+		if (ev.getTag() == CloudSimTags.Network_Event_Flow) {
+			processflowfinish();
+		}
+	}
+
+	@Override
+	public void shutdownEntity() {
+		Log.printLine(getName() + " is shutting down...");
+	}
+
+	/**
+	 * @return the number of flows being transferred
+	 */
+	public int getActiveFlows() {
+		return activeFlows;
+	}
+
+	/**
+	 * @return the number of flows transferred
+	 */
+	public long getFinishedFlows() {
+		return finishedFlows;
+	}
+
+	/**
+	 * Starts the transfer of a packet from its host to the host of the receiving VM.
+	 *
+	 * @param hspkt the packet
+	 */
+	public void startFlow(NetworkPacket hspkt) {
+		double now = CloudSim.clock();
+		int recvhostid = dc.VmtoHostlist.get(hspkt.pkt.reciever);
+		hspkt.recieverhostid = recvhostid;
+		Flow flow = createFlow(hspkt, now);
+
+		for (FlowLink link : flow.path) {
+			link.flows.add(flow);
+		}
+		activeFlows++;
+		updateRates(flow.path, now);
+		scheduleNextFinish(now);
+	}
+
+	/**
+	 * Hands over the flows whose transfer is over and shares their links between the others.
+	 */
+	protected void processflowfinish() {
+		double now = CloudSim.clock();
+		if (now >= nextFinish) {
+			nextFinish = Double.MAX_VALUE;
+		}
+		List<FlowLink> freed = new ArrayList<FlowLink>();
+		while (!finishes.isEmpty()) {
+			FlowFinish finish = finishes.peek();
+			if (finish.version != finish.flow.version) {
+				finishes.poll(); // the rate of the flow changed since
+				continue;
+			}
+			if (finish.time > now) {
+				break;
+			}
+			finishes.poll();
+			Flow flow = finish.flow;
+			for (FlowLink link : flow.path) {
+				link.flows.remove(flow);
+				freed.add(link);
+			}
+			flow.version++;
+			activeFlows--;
+			finishedFlows++;
+			send(flow.edge.getId(), flow.latency, CloudSimTags.Network_Event_Host, flow.pkt);
+		}
+		if (!freed.isEmpty()) {
+			updateRates(freed.toArray(new FlowLink[freed.size()]), now);
+		}
+		scheduleNextFinish(now);
+	}
+
+	/**
+	 * Creates the flow of a packet along the links from its host to the receiving one.
+	 *
+	 * @param hspkt the packet
+	 * @param now the current time
+	 * @return the flow
+	 */
+	private Flow createFlow(NetworkPacket hspkt, double now) {
+		Switch srcEdge = dc.Switchlist.get(dc.HostToSwitchid.get(hspkt.senderhostid));
+		Switch dstEdge = dc.Switchlist.get(dc.VmToSwitchid.get(hspkt.pkt.reciever));
+
+		// the route of the packet model: up until a switch reaches the receiving edge switch
+		List<FlowLink> path = new ArrayList<FlowLink>();
+		double latency = 0;
+		NetworkHost srchost = srcEdge.hostlist.get(hspkt.senderhostid);
+		path.add(getHostLink(hostUplinks, hspkt.senderhostid, srchost.bandwidth));
+		Switch sw = srcEdge;
+		while (sw != dstEdge && getDownlinkSwitch(sw, dstEdge) == null) {
+			Switch up = getUplinkSwitch(sw);
+			if (up == null) {
+				throw new IllegalArgumentException("No path from host " + hspkt.senderhostid + " to host "
+						+ hspkt.recieverhostid);
+			}
+			latency += sw.switching_delay;
+			path.add(getSwitchLink(sw, up, sw.uplinkbandwidth));
+			sw = up;
+		}
+		latency += sw.switching_delay;
+		while (sw != dstEdge) {
+			Switch down = getDownlinkSwitch(sw, dstEdge);
+			path.add(getSwitchLink(sw, down, sw.downlinkbandwidth));
+			latency += down.latency;
+			sw = down;
+		}
+		path.add(getHostLink(hostDownlinks, hspkt.recieverhostid, dstEdge.downlinkbandwidth));
+
+		Flow flow = new Flow();
+		flow.pkt = hspkt;
+		flow.path = path.toArray(new FlowLink[path.size()]);
+		flow.edge = dstEdge;
+		flow.latency = latency;
+		flow.remaining = 1000 * hspkt.pkt.data;
+		flow.updated = now;
+		return flow;
+	}
+
+	/**
+	 * @param sw a switch
+	 * @return the switch up from the given one, or null for a root switch
+	 */
+	private static Switch getUplinkSwitch(Switch sw) {
+		if (sw.uplinkswitches == null || sw.uplinkswitches.isEmpty()) {
+			return null;
+		}
+		// ASSUMPTION packets go up through the first uplink switch, as in the packet model
+		return sw.uplinkswitches.get(0);
+	}
+
+	/**
+	 * @param sw a switch
+	 * @param dstEdge the receiving edge switch
+	 * @return the switch down from the given one towards the edge switch, or null if the edge
+	 *         switch isn't below the given one
+	 */
+	private static Switch getDownlinkSwitch(Switch sw, Switch dstEdge) {
+		if (sw.downlinkswitches == null) {
+			return null;
+		}
+		Switch found = null;
+		for (Switch down : sw.downlinkswitches) {
+			if (down == dstEdge) {
+				return down;
+			}
+			// as the root switch does, the last aggregate switch having the edge switch
+			if (down.downlinkswitches != null && down.downlinkswitches.contains(dstEdge)) {
+				found = down;
+			}
+		}
+		return found;
+	}
+
+	private static FlowLink getHostLink(Map<Integer, FlowLink> links, int hostid, double capacity) {
+		FlowLink link = links.get(hostid);
+		if (link == null) {
+			link = new FlowLink(capacity);
+			links.put(hostid, link);
+		}
+		return link;
+	}
+
+	private FlowLink getSwitchLink(Switch src, Switch dest, double capacity) {
+		Long key = ((long) src.getId() << 32) | dest.getId();
+		FlowLink link = switchLinks.get(key);
+		if (link == null) {
+			link = new FlowLink(capacity);
+			switchLinks.put(key, link);
+		}
+		return link;
+	}
+
+	/**
+	 * Computes the max-min fair rates of the flows linked to the given links, by progressive
+	 * filling: the link offering the smallest equal share to its flows fixes their rate, which is
+	 * taken from the other links of these flows, until every flow has a rate.
+	 *
+	 * @param links the links whose flows changed
+	 * @param now the current time
+	 */
+	private void updateRates(FlowLink[] links, double now) {
+		mark++;
+		List<FlowLink> component = new ArrayList<FlowLink>();
+		List<Flow> flows = new ArrayList<Flow>();
+		for (FlowLink link : links) {
+			if (link.mark != mark) {
+				link.mark = mark;
+				component.add(link);
+			}
+		}
+		// the links and flows connected to the given links through shared flows
+		for (int i = 0; i < component.size(); i++) {
+			for (Flow flow : component.get(i).flows) {
+				if (flow.mark == mark) {
+					continue;
+				}
+				flow.mark = mark;
+				flow.fixed = false;
+				flows.add(flow);
+				for (FlowLink other : flow.path) {
+					if (other.mark != mark) {
+						other.mark = mark;
+						component.add(other);
+					}
+				}
+			}
+		}
+
+		PriorityQueue<LinkShare> shares = new PriorityQueue<LinkShare>();
+		for (FlowLink link : component) {
+			link.residual = link.capacity;
+			link.unfixed = link.flows.size();
+			link.version++;
+			if (link.unfixed > 0) {
+				shares.add(new LinkShare(link));
+			}
+		}
+		while (!shares.isEmpty()) {
+			LinkShare bottleneck = shares.poll();
+			FlowLink link = bottleneck.link;
+			if (bottleneck.version != link.version || link.unfixed == 0) {
+				continue;
+			}
+			double rate = bottleneck.share;
+			for (Flow flow : link.flows) {
+				if (flow.fixed) {
+					continue;
+				}
+				flow.fixed = true;
+				setRate(flow, rate, now);
+				for (FlowLink other : flow.path) {
+					other.residual = Math.max(0, other.residual - rate);
+					other.unfixed--;
+					if (other != link && other.unfixed > 0) {
+						other.version++;
+						shares.add(new LinkShare(other));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Changes the rate of a flow and schedules its new finish time.
+	 *
+	 * @param flow the flow
+	 * @param rate the new rate
+	 * @param now the current time
+	 */
+	private void setRate(Flow flow, double rate, double now) {
+		if (flow.rate == rate && flow.version > 0) {
+			return;
+		}
+		flow.remaining = Math.max(0, flow.remaining - flow.rate * (now - flow.updated));
+		flow.updated = now;
+		flow.rate = rate;
+		flow.version++;
+		if (flow.remaining == 0) {
+			finishes.add(new FlowFinish(flow, now));
+		} else if (rate > 0) {
+			finishes.add(new FlowFinish(flow, now + flow.remaining / rate));
+		}
+	}
+
+	/**
+	 * Schedules a finish event for the earliest flow to finish, unless one is scheduled already.
+	 *
+	 * @param now the current time
+	 */
+	private void scheduleNextFinish(double now) {
+		while (!finishes.isEmpty() && finishes.peek().version != finishes.peek().flow.version) {
+			finishes.poll();
+		}
+		if (finishes.isEmpty()) {
+			return;
+		}
+		double time = finishes.peek().time;
+		if (time < nextFinish) {
+			nextFinish = time;
+			schedule(getId(), Math.max(0, time - now), CloudSimTags.Network_Event_Flow);
+		}
+	}
+
+	/**
+	 * A transfer of a packet between two hosts.
+	 */
+	private static class Flow {
+
+		NetworkPacket pkt;
+
+		/** the links from the sending host to the receiving one */
+		FlowLink[] path;
+
+		/** the edge switch of the receiving host */
+		Switch edge;
+
+		/** the switching delays along the path */
+		double latency;
+
+		/** the data left to transfer when the rate was last set */
+		double remaining;
+
+		/** the time the rate was last set */
+		double updated;
+
+		double rate;
+
+		/** the number of rate changes, to recognize the stale finish times */
+		int version;
+
+		int mark;
+
+		boolean fixed;
+
+	}
+
+	/**
+	 * A link in one direction, between a host and a switch or between two switches.
+	 */
+	private static class FlowLink {
+
+		final double capacity;
+
+		/** the flows through the link */
+		final List<Flow> flows = new ArrayList<Flow>();
+
+		/** the capacity left to the flows without a rate, while rates are computed */
+		double residual;
+
+		/** the number of flows without a rate, while rates are computed */
+		int unfixed;
+
+		/** the number of changes of the share, to recognize the stale shares */
+		int version;
+
+		int mark;
+
+		FlowLink(double capacity) {
+			this.capacity = capacity;
+		}
+
+	}
+
+	/**
+	 * The finish time of a flow at a given rate.
+	 */
+	private static class FlowFinish implements Comparable<FlowFinish> {
+
+		final Flow flow;
+
+		final int version;
+
+		final double time;
+
+		FlowFinish(Flow flow, double time) {
+			this.flow = flow;
+			this.version = flow.version;
+			this.time = time;
+		}
+
+		@Override
+		public int compareTo(FlowFinish other) {
+			return Double.compare(time, other.time);
+		}
+
+	}
+
+	/**
+	 * The equal share of a link between its flows without a rate.
+	 */
+	private static class LinkShare implements Comparable<LinkShare> {
+
+		final FlowLink link;
+
+		final int version;
+
+		final double share;
+
+		LinkShare(FlowLink link) {
+			this.link = link;
+			this.version = link.version;
+			this.share = link.residual / link.unfixed;
+		}
+
+		@Override
+		public int compareTo(LinkShare other) {
+			return Double.compare(share, other.share);
+		}
+
+	}
+
+}
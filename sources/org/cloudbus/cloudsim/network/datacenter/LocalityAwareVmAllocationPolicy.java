@@ -0,0 +1,305 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * LocalityAwareVmAllocationPolicy is a {@link NetworkVmAllocationPolicy} that keeps the number of
+ * free PEs under every switch, i.e. of the hosts of the subtree of the switch, where the subtree of
+ * a switch holds the switches whose first uplink switch it is. A VM goes down the subtrees with the
+ * most free PEs to a host, instead of a scan of all the hosts. A group of communicating VMs, e.g.
+ * the VMs of an {@link AppCloudlet}, goes under the edge switch, else under the switch of the
+ * lowest level, with the fewest free PEs that fit the whole group, so that their packets cross as
+ * few switches as possible.
+ *
+ * The subtrees are taken from the switches of the hosts at the first allocation, so the network of
+ * the datacenter must be built by then.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class LocalityAwareVmAllocationPolicy extends NetworkVmAllocationPolicy {
+
+	/** The subtree of the datacenter, above the switches of the highest level. */
+	private Subtree top;
+
+	/** The subtree of each edge switch. */
+	private Map<Switch, Subtree> edgeSubtrees;
+
+	/** The index of each host in the host list. */
+	private Map<Host, Integer> hostIndex;
+
+	public LocalityAwareVmAllocationPolicy(List<? extends Host> list) {
+		super(list);
+	}
+
+	@Override
+	public boolean allocateHostForVm(Vm vm) {
+		if (getVmTable().containsKey(vm.getUid())) { // if this vm was already created
+			return false;
+		}
+		return allocateHostForVm(vm, getTop());
+	}
+
+	/**
+	 * Allocates hosts to a group of communicating VMs, under a single switch if possible.
+	 *
+	 * @param vmList the VMs
+	 * @return true if every VM got a host
+	 */
+	public boolean allocateHostsForVms(List<? extends Vm> vmList) {
+		int requiredPes = 0;
+		for (Vm vm : vmList) {
+			requiredPes += vm.getNumberOfPes();
+		}
+		// the smallest subtree fitting the group
+		Subtree subtree = getTop();
+		Subtree fit = subtree.freePes >= requiredPes ? subtree : null;
+		while (fit != null) {
+			subtree = fit;
+			fit = null;
+			for (Subtree child : subtree.children) {
+				if (child.freePes >= requiredPes && (fit == null || child.freePes < fit.freePes)) {
+					fit = child;
+				}
+			}
+		}
+
+		boolean result = true;
+		for (Vm vm : vmList) {
+			if (!getVmTable().containsKey(vm.getUid())) {
+				result &= allocateHostForVm(vm, subtree);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the VMs running under the edge switch of a VM, the VM included.
+	 *
+	 * @param vm the VM
+	 * @return the VMs, empty if the VM has no host
+	 */
+	public List<Vm> getVmsUnderEdgeSwitch(Vm vm) {
+		List<Vm> vms = new ArrayList<Vm>();
+		Host host = getHost(vm);
+		if (host != null) {
+			getTop();
+			Subtree edge = edgeSubtrees.get(((NetworkHost) host).sw);
+			for (NetworkHost hs : edge.hosts) {
+				vms.addAll(hs.getVmList());
+			}
+		}
+		return vms;
+	}
+
+	/**
+	 * Allocates a host to a VM under a subtree, down the subtrees with the most free PEs, or to any
+	 * host if none under the edge switch reached can run the VM.
+	 *
+	 * @param vm the VM
+	 * @param subtree the subtree
+	 * @return true if the VM got a host
+	 */
+	protected boolean allocateHostForVm(Vm vm, Subtree subtree) {
+		while (!subtree.children.isEmpty()) {
+			Subtree moreFree = null;
+			for (Subtree child : subtree.children) {
+				if (moreFree == null || child.freePes > moreFree.freePes) {
+					moreFree = child;
+				}
+			}
+			subtree = moreFree;
+		}
+
+		// we want the host with less pes in use under the edge switch
+		if (allocateHostForVm(vm, subtree.hosts)) {
+			return true;
+		}
+		// else any host which can run the VM
+		for (Host host : getHostList()) {
+			if (allocate(vm, host)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Allocates one of the hosts to a VM, trying the hosts with the most free PEs first.
+	 *
+	 * @param vm the VM
+	 * @param hosts the hosts
+	 * @return true if the VM got a host
+	 */
+	private boolean allocateHostForVm(Vm vm, List<? extends Host> hosts) {
+		boolean[] tried = new boolean[hosts.size()];
+		for (int tries = 0; tries < hosts.size(); tries++) {
+			int moreFree = Integer.MIN_VALUE;
+			int idx = -1;
+			for (int i = 0; i < hosts.size(); i++) {
+				int freePes = getFreePes().get(getHostIndex(hosts.get(i)));
+				if (!tried[i] && freePes > moreFree) {
+					moreFree = freePes;
+					idx = i;
+				}
+			}
+			if (allocate(vm, hosts.get(idx))) {
+				return true;
+			}
+			tried[idx] = true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean allocateHostForVm(Vm vm, Host host) {
+		if (allocate(vm, host)) {
+			Log.formatLine(
+					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+					CloudSim.clock());
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void deallocateHostForVm(Vm vm) {
+		Host host = getVmTable().remove(vm.getUid());
+		Integer pes = getUsedPes().remove(vm.getUid());
+		if (host != null) {
+			host.vmDestroy(vm);
+			updateFreePes(host, pes);
+		}
+	}
+
+	/**
+	 * Creates a VM in a host.
+	 *
+	 * @param vm the VM
+	 * @param host the host
+	 * @return true if the VM was created
+	 */
+	private boolean allocate(Vm vm, Host host) {
+		if (!host.vmCreate(vm)) {
+			return false;
+		}
+		int requiredPes = vm.getNumberOfPes();
+		getVmTable().put(vm.getUid(), host);
+		getUsedPes().put(vm.getUid(), requiredPes);
+		updateFreePes(host, -requiredPes);
+		return true;
+	}
+
+	/**
+	 * Updates the free PEs of a host and of the subtrees above it.
+	 *
+	 * @param host the host
+	 * @param pes the number of PEs freed, negative if taken
+	 */
+	private void updateFreePes(Host host, int pes) {
+		int idx = getHostIndex(host);
+		getFreePes().set(idx, getFreePes().get(idx) + pes);
+		getTop();
+		Subtree subtree = edgeSubtrees.get(((NetworkHost) host).sw);
+		for (; subtree != null; subtree = subtree.parent) {
+			subtree.freePes += pes;
+		}
+	}
+
+	private int getHostIndex(Host host) {
+		getTop();
+		return hostIndex.get(host);
+	}
+
+	/**
+	 * Gets the subtree of the datacenter, building the subtrees of the switches at the first call.
+	 *
+	 * @return the subtree of the datacenter
+	 */
+	protected Subtree getTop() {
+		if (top != null) {
+			return top;
+		}
+		top = new Subtree(null);
+		edgeSubtrees = new HashMap<Switch, Subtree>();
+		hostIndex = new HashMap<Host, Integer>();
+		Map<Switch, Subtree> subtrees = new HashMap<Switch, Subtree>();
+		List<NetworkHost> hosts = getHostList();
+		for (int i = 0; i < hosts.size(); i++) {
+			NetworkHost host = hosts.get(i);
+			hostIndex.put(host, i);
+			int freePes = getFreePes().get(i);
+			Subtree subtree = getSubtree(subtrees, host.sw);
+			subtree.hosts.add(host);
+			edgeSubtrees.put(host.sw, subtree);
+			for (; subtree != null; subtree = subtree.parent) {
+				subtree.freePes += freePes;
+			}
+		}
+		return top;
+	}
+
+	/**
+	 * Gets the subtree of a switch, creating it and the subtrees above it if needed.
+	 *
+	 * @param subtrees the subtrees by switch
+	 * @param sw the switch, null for the hosts without a switch
+	 * @return the subtree
+	 */
+	private Subtree getSubtree(Map<Switch, Subtree> subtrees, Switch sw) {
+		if (sw == null) {
+			return top;
+		}
+		Subtree subtree = subtrees.get(sw);
+		if (subtree == null) {
+			Switch up = null;
+			if (sw.uplinkswitches != null && !sw.uplinkswitches.isEmpty()) {
+				up = sw.uplinkswitches.get(0);
+			}
+			Subtree parent = up == null ? top : getSubtree(subtrees, up);
+			subtree = new Subtree(parent);
+			parent.children.add(subtree);
+			subtrees.put(sw, subtree);
+		}
+		return subtree;
+	}
+
+	/**
+	 * The hosts under a switch.
+	 */
+	protected static class Subtree {
+
+		/** The subtree above, null for the datacenter. */
+		final Subtree parent;
+
+		/** The subtrees of the switches below. */
+		final List<Subtree> children = new ArrayList<Subtree>();
+
+		/** The hosts linked to the switch, if it is an edge switch. */
+		final List<NetworkHost> hosts = new ArrayList<NetworkHost>();
+
+		/** The number of free PEs of the hosts under the switch. */
+		int freePes;
+
+		Subtree(Subtree parent) {
+			this.parent = parent;
+		}
+
+	}
+
+}
@@ -327,6 +327,14 @@ public class NetDatacenterBroker extends SimEntity {
 				vmids.add(vmid);
 
 			}
+			if (linkDC.getVmAllocationPolicy() instanceof LocalityAwareVmAllocationPolicy) {
+				// the other VMs of the application under the edge switch of the first one
+				List<Vm> colocated = ((LocalityAwareVmAllocationPolicy) linkDC.getVmAllocationPolicy())
+						.getVmsUnderEdgeSwitch(VmList.getById(linkDC.getVmList(), vmids.get(0)));
+				for (int i = 1; i < vmids.size() && !colocated.isEmpty(); i++) {
+					vmids.set(i, colocated.get(vmids.get(i) * colocated.size() / numVms).getId());
+				}
+			}
 
 			if (vmids != null) {
 				if (!vmids.isEmpty()) {
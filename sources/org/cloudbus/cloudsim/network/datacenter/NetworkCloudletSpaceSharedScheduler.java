@@ -8,11 +8,12 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletScheduler;
@@ -55,7 +56,8 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 
 	public Map<Integer, List<HostPacket>> pkttosend;
 
-	public Map<Integer, List<HostPacket>> pktrecv;
+	// packets received, in order of arrival, by sender VM
+	public Map<Integer, Queue<HostPacket>> pktrecv;
 
 	/**
 	 * Creates a new CloudletSchedulerSpaceShared object. This method must be invoked before
@@ -73,7 +75,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 		usedPes = 0;
 		currentCpus = 0;
 		pkttosend = new HashMap<Integer, List<HostPacket>>();
-		pktrecv = new HashMap<Integer, List<HostPacket>>();
+		pktrecv = new HashMap<Integer, Queue<HostPacket>>();
 	}
 
 	/**
@@ -129,23 +131,16 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 					}
 				}
 				if (st.type == NetworkConstants.WAIT_RECV) {
-					List<HostPacket> pktlist = pktrecv.get(st.peer);
-					List<HostPacket> pkttoremove = new ArrayList<HostPacket>();
-					if (pktlist != null) {
-						Iterator<HostPacket> it = pktlist.iterator();
-						HostPacket pkt = null;
-						if (it.hasNext()) {
-							pkt = it.next();
-							// Asumption packet will not arrive in the same cycle
-							if (pkt.reciever == cl.getVmId()) {
-								pkt.recievetime = CloudSim.clock();
-								st.time = CloudSim.clock() - pkt.sendtime;
-								changetonextstage(cl, st);
-								pkttoremove.add(pkt);
-							}
+					Queue<HostPacket> pktqueue = pktrecv.get(st.peer);
+					if (pktqueue != null) {
+						HostPacket pkt = pktqueue.peek();
+						// Asumption packet will not arrive in the same cycle
+						if (pkt != null && pkt.reciever == cl.getVmId()) {
+							pkt.recievetime = CloudSim.clock();
+							st.time = CloudSim.clock() - pkt.sendtime;
+							changetonextstage(cl, st);
+							pktqueue.poll();
 						}
-						pktlist.removeAll(pkttoremove);
-						// if(pkt!=null)
 						// else wait for recieving the packet
 					}
 				}
@@ -229,6 +224,21 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 		return nextEvent;
 	}
 
+	/**
+	 * Queues a packet received by the VM behind the other ones from the same sender, where the
+	 * cloudlet waiting for it finds it at the next update.
+	 * 
+	 * @param pkt the packet
+	 */
+	public void receivePacket(HostPacket pkt) {
+		Queue<HostPacket> pktqueue = pktrecv.get(pkt.sender);
+		if (pktqueue == null) {
+			pktqueue = new ArrayDeque<HostPacket>();
+			pktrecv.put(pkt.sender, pktqueue);
+		}
+		pktqueue.add(pkt);
+	}
+
 	private void changetonextstage(NetworkCloudlet cl, TaskStage st) {
 		cl.timespentInStage = 0;
 		cl.timetostartStage = CloudSim.clock();
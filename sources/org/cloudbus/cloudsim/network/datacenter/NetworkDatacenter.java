@@ -88,6 +88,9 @@ public class NetworkDatacenter extends Datacenter {
 
 	public Map<Integer, Integer> VmtoHostlist;
 
+	// flow level network, null to forward the packets through the switches
+	public FlowNetwork flownetwork;
+
 	/**
 	 * Get list of all EdgeSwitches in the Datacenter network One can design similar functions for
 	 * other type of switches.
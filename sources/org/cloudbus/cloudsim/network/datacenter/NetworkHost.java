@@ -9,8 +9,12 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Pe;
@@ -19,7 +23,6 @@ import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.lists.PeList;
-import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
@@ -57,6 +60,14 @@ public class NetworkHost extends Host {
 
 	public double fintime = 0;
 
+	/** the VMs of the host by id, rebuilt after the VM list changes */
+	private final Map<Integer, Vm> vmIndex = new HashMap<Integer, Vm>();
+
+	private boolean vmIndexValid;
+
+	/** the VMs which received a packet from a local VM */
+	private final Set<Vm> readyVms = new HashSet<Vm>();
+
 	public NetworkHost(
 			int id,
 			RamProvisioner ramProvisioner,
@@ -113,18 +124,8 @@ public class NetworkHost extends Host {
 			hs.pkt.recievetime = CloudSim.clock();
 
 			// insertthe packet in recievedlist of VM
-			Vm vm = VmList.getById(getVmList(), hs.pkt.reciever);
-			List<HostPacket> pktlist = ((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).pktrecv
-					.get(hs.pkt.sender);
-
-			if (pktlist == null) {
-				pktlist = new ArrayList<HostPacket>();
-				((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).pktrecv.put(
-						hs.pkt.sender,
-						pktlist);
-
-			}
-			pktlist.add(hs.pkt);
+			Vm vm = getVmById(hs.pkt.reciever);
+			((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).receivePacket(hs.pkt);
 
 		}
 		packetrecieved.clear();
@@ -138,52 +139,58 @@ public class NetworkHost extends Host {
 	private void sendpackets() {
 
 		for (Vm vm : super.getVmList()) {
-			for (Entry<Integer, List<HostPacket>> es : ((NetworkCloudletSpaceSharedScheduler) vm
-					.getCloudletScheduler()).pkttosend.entrySet()) {
+			Map<Integer, List<HostPacket>> pkttosend = ((NetworkCloudletSpaceSharedScheduler) vm
+					.getCloudletScheduler()).pkttosend;
+			if (pkttosend.isEmpty()) {
+				continue;
+			}
+			for (Entry<Integer, List<HostPacket>> es : pkttosend.entrySet()) {
 				List<HostPacket> pktlist = es.getValue();
 				for (HostPacket pkt : pktlist) {
 					NetworkPacket hpkt = new NetworkPacket(getId(), pkt, vm.getId(), pkt.sender);
-					Vm vm2 = VmList.getById(this.getVmList(), hpkt.recievervmid);
+					Vm vm2 = getVmById(hpkt.recievervmid);
 					if (vm2 != null) {
 						packetTosendLocal.add(hpkt);
 					} else {
 						packetTosendGlobal.add(hpkt);
 					}
 				}
-				pktlist.clear();
-
 			}
+			pkttosend.clear();
 
 		}
 
-		boolean flag = false;
-
 		for (NetworkPacket hs : packetTosendLocal) {
-			flag = true;
 			hs.stime = hs.rtime;
 			hs.pkt.recievetime = CloudSim.clock();
 			// insertthe packet in recievedlist
-			Vm vm = VmList.getById(getVmList(), hs.pkt.reciever);
-
-			List<HostPacket> pktlist = ((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).pktrecv
-					.get(hs.pkt.sender);
-			if (pktlist == null) {
-				pktlist = new ArrayList<HostPacket>();
-				((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).pktrecv.put(
-						hs.pkt.sender,
-						pktlist);
-			}
-			pktlist.add(hs.pkt);
+			Vm vm = getVmById(hs.pkt.reciever);
+			((NetworkCloudletSpaceSharedScheduler) vm.getCloudletScheduler()).receivePacket(hs.pkt);
+			readyVms.add(vm);
 
 		}
-		if (flag) {
+		if (!readyVms.isEmpty()) {
+			// only the VMs which received a packet have stages to change
 			for (Vm vm : super.getVmList()) {
-				vm.updateVmProcessing(CloudSim.clock(), getVmScheduler().getAllocatedMipsForVm(vm));
+				if (readyVms.contains(vm)) {
+					vm.updateVmProcessing(CloudSim.clock(), getVmScheduler().getAllocatedMipsForVm(vm));
+				}
 			}
+			readyVms.clear();
 		}
 
 		// Sending packet to other VMs therefore packet is forwarded to a Edge switch
 		packetTosendLocal.clear();
+		FlowNetwork flownetwork = ((NetworkDatacenter) getDatacenter()).flownetwork;
+		if (flownetwork != null) {
+			// or becomes a flow sharing the links with the others
+			for (NetworkPacket hs : packetTosendGlobal) {
+				NetworkConstants.totaldatatransfer += hs.pkt.data;
+				flownetwork.startFlow(hs);
+			}
+			packetTosendGlobal.clear();
+			return;
+		}
 		double avband = bandwidth / packetTosendGlobal.size();
 		for (NetworkPacket hs : packetTosendGlobal) {
 			double delay = (1000 * hs.pkt.data) / avband;
@@ -195,6 +202,59 @@ public class NetworkHost extends Host {
 		packetTosendGlobal.clear();
 	}
 
+	/**
+	 * Gets a VM of the host.
+	 * 
+	 * @param vmId the id of the VM
+	 * @return the VM, or null if the VM doesn't run on the host
+	 */
+	protected Vm getVmById(int vmId) {
+		if (!vmIndexValid) {
+			vmIndex.clear();
+			for (Vm vm : getVmList()) {
+				vmIndex.put(vm.getId(), vm);
+			}
+			vmIndexValid = true;
+		}
+		return vmIndex.get(vmId);
+	}
+
+	@Override
+	public boolean vmCreate(Vm vm) {
+		vmIndexValid = false;
+		return super.vmCreate(vm);
+	}
+
+	@Override
+	public void vmDestroy(Vm vm) {
+		vmIndexValid = false;
+		super.vmDestroy(vm);
+	}
+
+	@Override
+	public void vmDestroyAll() {
+		vmIndexValid = false;
+		super.vmDestroyAll();
+	}
+
+	@Override
+	public void addMigratingInVm(Vm vm) {
+		vmIndexValid = false;
+		super.addMigratingInVm(vm);
+	}
+
+	@Override
+	public void removeMigratingInVm(Vm vm) {
+		vmIndexValid = false;
+		super.removeMigratingInVm(vm);
+	}
+
+	@Override
+	public void reallocateMigratingInVms() {
+		vmIndexValid = false;
+		super.reallocateMigratingInVms();
+	}
+
 	public double getMaxUtilizationAmongVmsPes(Vm vm) {
 		return PeList.getMaxUtilizationAmongVmsPes(getPeList(), vm);
 	}
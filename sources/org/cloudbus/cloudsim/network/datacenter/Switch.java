@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -34,9 +33,11 @@ public class Switch extends SimEntity {
 
 	public int datacenterid;
 
-	public Map<Integer, List<NetworkPacket>> uplinkswitchpktlist;
+	// output ports towards the uplink switches, by switch id
+	public Map<Integer, SwitchPort> uplinkswitchpktlist;
 
-	public Map<Integer, List<NetworkPacket>> downlinkswitchpktlist;
+	// output ports towards the downlink switches, by switch id
+	public Map<Integer, SwitchPort> downlinkswitchpktlist;
 
 	public Map<Integer, NetworkHost> hostlist;
 
@@ -44,7 +45,8 @@ public class Switch extends SimEntity {
 
 	public List<Switch> downlinkswitches;
 
-	public Map<Integer, List<NetworkPacket>> packetTohost;
+	// output ports towards the hosts, by host id
+	public Map<Integer, SwitchPort> packetTohost;
 
 	int type;// edge switch or aggregation switch
 
@@ -117,44 +119,30 @@ public class Switch extends SimEntity {
 
 	protected void processhostpacket(SimEvent ev) {
 		// Send packet to host
-		NetworkPacket hspkt = (NetworkPacket) ev.getData();
-		NetworkHost hs = hostlist.get(hspkt.recieverhostid);
-		hs.packetrecieved.add(hspkt);
+		deliverToHost((NetworkPacket) ev.getData());
 	}
 
 	protected void processpacket_down(SimEvent ev) {
 		// packet coming from up level router.
 		// has to send downward
 		// check which switch to forward to
-		// add packet in the switch list
-		// add packet in the host list
+		// add packet in the switch port
+		// add packet in the host port
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
-		schedule(getId(), latency, CloudSimTags.Network_Event_send);
 		if (level == NetworkConstants.EDGE_LEVEL) {
 			// packet is to be recieved by host
 			int hostid = dc.VmtoHostlist.get(recvVMid);
 			hspkt.recieverhostid = hostid;
-			List<NetworkPacket> pktlist = packetTohost.get(hostid);
-			if (pktlist == null) {
-				pktlist = new ArrayList<NetworkPacket>();
-				packetTohost.put(hostid, pktlist);
-			}
-			pktlist.add(hspkt);
+			forwardToHost(hostid, hspkt, latency);
 			return;
 		}
 		if (level == NetworkConstants.Agg_LEVEL) {
 			// packet is coming from root so need to be sent to edgelevel swich
 			// find the id for edgelevel switch
 			int switchid = dc.VmToSwitchid.get(recvVMid);
-			List<NetworkPacket> pktlist = downlinkswitchpktlist.get(switchid);
-			if (pktlist == null) {
-				pktlist = new ArrayList<NetworkPacket>();
-				downlinkswitchpktlist.put(switchid, pktlist);
-			}
-			pktlist.add(hspkt);
+			forwardDown(switchid, hspkt, latency);
 			return;
 		}
 
@@ -164,13 +152,11 @@ public class Switch extends SimEntity {
 		// packet coming from down level router.
 		// has to send up
 		// check which switch to forward to
-		// add packet in the switch list
+		// add packet in the switch port
 		//
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
-		schedule(getId(), switching_delay, CloudSimTags.Network_Event_send);
 		if (level == NetworkConstants.EDGE_LEVEL) {
 			// packet is recieved from host
 			// packet is to be sent to aggregate level or to another host in the
@@ -181,12 +167,7 @@ public class Switch extends SimEntity {
 			hspkt.recieverhostid = hostid;
 			if (hs != null) {
 				// packet to be sent to host connected to the switch
-				List<NetworkPacket> pktlist = packetTohost.get(hostid);
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					packetTohost.put(hostid, pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardToHost(hostid, hspkt, switching_delay);
 				return;
 
 			}
@@ -194,12 +175,7 @@ public class Switch extends SimEntity {
 			// ASSUMPTION EACH EDGE is Connected to one aggregate level switch
 
 			Switch sw = uplinkswitches.get(0);
-			List<NetworkPacket> pktlist = uplinkswitchpktlist.get(sw.getId());
-			if (pktlist == null) {
-				pktlist = new ArrayList<NetworkPacket>();
-				uplinkswitchpktlist.put(sw.getId(), pktlist);
-			}
-			pktlist.add(hspkt);
+			forwardUp(sw.getId(), hspkt, switching_delay);
 			return;
 		}
 		if (level == NetworkConstants.Agg_LEVEL) {
@@ -214,21 +190,11 @@ public class Switch extends SimEntity {
 				}
 			}
 			if (flagtoswtich) {
-				List<NetworkPacket> pktlist = downlinkswitchpktlist.get(switchid);
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					downlinkswitchpktlist.put(switchid, pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardDown(switchid, hspkt, switching_delay);
 			} else// send to up
 			{
 				Switch sw = uplinkswitches.get(0);
-				List<NetworkPacket> pktlist = uplinkswitchpktlist.get(sw.getId());
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					uplinkswitchpktlist.put(sw.getId(), pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardUp(sw.getId(), hspkt, switching_delay);
 			}
 		}
 		if (level == NetworkConstants.ROOT_LEVEL) {
@@ -248,12 +214,7 @@ public class Switch extends SimEntity {
 			if (aggSwtichid < 0) {
 				System.out.println(" No destination for this packet");
 			} else {
-				List<NetworkPacket> pktlist = downlinkswitchpktlist.get(aggSwtichid);
-				if (pktlist == null) {
-					pktlist = new ArrayList<NetworkPacket>();
-					downlinkswitchpktlist.put(aggSwtichid, pktlist);
-				}
-				pktlist.add(hspkt);
+				forwardDown(aggSwtichid, hspkt, switching_delay);
 			}
 		}
 	}
@@ -277,63 +238,127 @@ public class Switch extends SimEntity {
 
 	}
 
+	/**
+	 * Sends the packet at the head of a port, whose transmission is over, and starts the
+	 * transmission of the next one.
+	 * 
+	 * @param ev departure of the port
+	 */
 	protected void processpacketforward(SimEvent ev) {
-		// search for the host and packets..send to them
-
-		if (downlinkswitchpktlist != null) {
-			for (Entry<Integer, List<NetworkPacket>> es : downlinkswitchpktlist.entrySet()) {
-				int tosend = es.getKey();
-				List<NetworkPacket> hspktlist = es.getValue();
-				if (!hspktlist.isEmpty()) {
-					double avband = downlinkbandwidth / hspktlist.size();
-					Iterator<NetworkPacket> it = hspktlist.iterator();
-					while (it.hasNext()) {
-						NetworkPacket hspkt = it.next();
-						double delay = 1000 * hspkt.pkt.data / avband;
-
-						this.send(tosend, delay, CloudSimTags.Network_Event_DOWN, hspkt);
-					}
-					hspktlist.clear();
-				}
-			}
+		SwitchPort port = (SwitchPort) ev.getData();
+		NetworkPacket hspkt = port.poll();
+		if (port.getTag() == CloudSimTags.Network_Event_Host) {
+			deliverToHost(hspkt);
+		} else {
+			this.send(port.getTarget(), 0, port.getTag(), hspkt);
 		}
-		if (uplinkswitchpktlist != null) {
-			for (Entry<Integer, List<NetworkPacket>> es : uplinkswitchpktlist.entrySet()) {
-				int tosend = es.getKey();
-				List<NetworkPacket> hspktlist = es.getValue();
-				if (!hspktlist.isEmpty()) {
-					double avband = uplinkbandwidth / hspktlist.size();
-					Iterator<NetworkPacket> it = hspktlist.iterator();
-					while (it.hasNext()) {
-						NetworkPacket hspkt = it.next();
-						double delay = 1000 * hspkt.pkt.data / avband;
-
-						this.send(tosend, delay, CloudSimTags.Network_Event_UP, hspkt);
-					}
-					hspktlist.clear();
-				}
-			}
+		port.setBusy(false);
+		scheduleDeparture(port);
+	}
+
+	/**
+	 * Queues a packet on the port towards a downlink switch.
+	 * 
+	 * @param switchid id of the downlink switch
+	 * @param hspkt the packet
+	 * @param delay the time the switch takes to process the packet
+	 */
+	protected void forwardDown(int switchid, NetworkPacket hspkt, double delay) {
+		SwitchPort port = downlinkswitchpktlist.get(switchid);
+		if (port == null) {
+			port = new SwitchPort(switchid, CloudSimTags.Network_Event_DOWN);
+			downlinkswitchpktlist.put(switchid, port);
 		}
-		if (packetTohost != null) {
-			for (Entry<Integer, List<NetworkPacket>> es : packetTohost.entrySet()) {
-				List<NetworkPacket> hspktlist = es.getValue();
-				if (!hspktlist.isEmpty()) {
-					double avband = downlinkbandwidth / hspktlist.size();
-					Iterator<NetworkPacket> it = hspktlist.iterator();
-					while (it.hasNext()) {
-						NetworkPacket hspkt = it.next();
-						// hspkt.recieverhostid=tosend;
-						// hs.packetrecieved.add(hspkt);
-						this.send(getId(), hspkt.pkt.data / avband, CloudSimTags.Network_Event_Host, hspkt);
-					}
-					hspktlist.clear();
-				}
-			}
+		enqueue(port, hspkt, delay);
+	}
+
+	/**
+	 * Queues a packet on the port towards an uplink switch.
+	 * 
+	 * @param switchid id of the uplink switch
+	 * @param hspkt the packet
+	 * @param delay the time the switch takes to process the packet
+	 */
+	protected void forwardUp(int switchid, NetworkPacket hspkt, double delay) {
+		SwitchPort port = uplinkswitchpktlist.get(switchid);
+		if (port == null) {
+			port = new SwitchPort(switchid, CloudSimTags.Network_Event_UP);
+			uplinkswitchpktlist.put(switchid, port);
+		}
+		enqueue(port, hspkt, delay);
+	}
+
+	/**
+	 * Queues a packet on the port towards a host connected to the switch.
+	 * 
+	 * @param hostid id of the host
+	 * @param hspkt the packet
+	 * @param delay the time the switch takes to process the packet
+	 */
+	protected void forwardToHost(int hostid, NetworkPacket hspkt, double delay) {
+		SwitchPort port = packetTohost.get(hostid);
+		if (port == null) {
+			port = new SwitchPort(hostid, CloudSimTags.Network_Event_Host);
+			packetTohost.put(hostid, port);
 		}
+		enqueue(port, hspkt, delay);
+	}
 
-		// or to switch at next level.
-		// clear the list
+	/**
+	 * Adds a packet at the tail of a port, and starts its transmission if the port is idle.
+	 * 
+	 * @param port the port
+	 * @param hspkt the packet
+	 * @param delay the time the switch takes to process the packet
+	 */
+	private void enqueue(SwitchPort port, NetworkPacket hspkt, double delay) {
+		port.add(hspkt, CloudSim.clock() + delay);
+		scheduleDeparture(port);
+	}
 
+	/**
+	 * Schedules the end of the transmission of the packet at the head of an idle port. The packet
+	 * starts once it is ready and the previous one has left, and takes its serialisation delay on
+	 * the link.
+	 * 
+	 * @param port the port
+	 */
+	private void scheduleDeparture(SwitchPort port) {
+		if (port.isBusy() || port.isEmpty()) {
+			return;
+		}
+		double start = Math.max(CloudSim.clock(), port.peekReadyTime());
+		double delay = start - CloudSim.clock() + getTransmissionTime(port, port.peek());
+		port.setBusy(true);
+		schedule(getId(), delay, CloudSimTags.Network_Event_send, port);
+	}
+
+	/**
+	 * Gets the serialisation delay of a packet on the link of a port. As in the original model,
+	 * the data of the packets sent to switches is counted in thousands.
+	 * 
+	 * @param port the port
+	 * @param hspkt the packet
+	 * @return the serialisation delay
+	 */
+	protected double getTransmissionTime(SwitchPort port, NetworkPacket hspkt) {
+		if (port.getTag() == CloudSimTags.Network_Event_Host) {
+			return hspkt.pkt.data / downlinkbandwidth;
+		}
+		if (port.getTag() == CloudSimTags.Network_Event_UP) {
+			return 1000 * hspkt.pkt.data / uplinkbandwidth;
+		}
+		return 1000 * hspkt.pkt.data / downlinkbandwidth;
+	}
+
+	/**
+	 * Hands a packet over to the host it is addressed to.
+	 * 
+	 * @param hspkt the packet
+	 */
+	protected void deliverToHost(NetworkPacket hspkt) {
+		NetworkHost hs = hostlist.get(hspkt.recieverhostid);
+		hs.packetrecieved.add(hspkt);
 	}
 
 	//
@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an output port of a {@link Switch}, i.e. the link towards a neighbour
+ * switch or host. The packets waiting for the link are kept in a FIFO ring buffer, along with the
+ * time at which each one is ready to leave, i.e. when the switch is done processing it. The port
+ * sends one packet at a time; while it is busy, the switch has a single departure scheduled for
+ * it, at the end of the transmission of the packet at the head of the queue.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class SwitchPort {
+
+	/** the id of the switch or host at the other end of the link */
+	private final int target;
+
+	/** the tag of the event delivering a packet to the target */
+	private final int tag;
+
+	/** the packets waiting for the link, from head to head + size, wrapping around */
+	private NetworkPacket[] packets = new NetworkPacket[16];
+
+	/** the time at which each packet is ready to leave */
+	private double[] readyTimes = new double[16];
+
+	private int head;
+
+	private int size;
+
+	/** whether a departure is scheduled for the port */
+	private boolean busy;
+
+	/**
+	 * @param target the id of the switch or host at the other end of the link
+	 * @param tag the tag of the event delivering a packet to the target
+	 */
+	public SwitchPort(int target, int tag) {
+		this.target = target;
+		this.tag = tag;
+	}
+
+	/**
+	 * @return the id of the switch or host at the other end of the link
+	 */
+	public int getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the tag of the event delivering a packet to the target
+	 */
+	public int getTag() {
+		return tag;
+	}
+
+	/**
+	 * adds a packet at the tail of the queue
+	 *
+	 * @param pkt the packet
+	 * @param readyTime the time at which the packet is ready to leave
+	 */
+	public void add(NetworkPacket pkt, double readyTime) {
+		if (size == packets.length) {
+			// unwraps the ring into arrays twice as large
+			NetworkPacket[] newPackets = Arrays.copyOfRange(packets, head, head + 2 * size);
+			System.arraycopy(packets, 0, newPackets, size - head, head);
+			double[] newReadyTimes = Arrays.copyOfRange(readyTimes, head, head + 2 * size);
+			System.arraycopy(readyTimes, 0, newReadyTimes, size - head, head);
+			packets = newPackets;
+			readyTimes = newReadyTimes;
+			head = 0;
+		}
+		int tail = (head + size) & (packets.length - 1);
+		packets[tail] = pkt;
+		readyTimes[tail] = readyTime;
+		size++;
+	}
+
+	/**
+	 * @return the packet at the head of the queue, or null if the queue is empty
+	 */
+	public NetworkPacket peek() {
+		return size == 0 ? null : packets[head];
+	}
+
+	/**
+	 * @return the time at which the packet at the head of the queue is ready to leave
+	 */
+	public double peekReadyTime() {
+		return readyTimes[head];
+	}
+
+	/**
+	 * removes the packet at the head of the queue
+	 *
+	 * @return the packet, or null if the queue is empty
+	 */
+	public NetworkPacket poll() {
+		if (size == 0) {
+			return null;
+		}
+		NetworkPacket pkt = packets[head];
+		packets[head] = null;
+		head = (head + 1) & (packets.length - 1);
+		size--;
+		return pkt;
+	}
+
+	/**
+	 * @return the number of packets waiting for the link
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return true if a departure is scheduled for the port
+	 */
+	public boolean isBusy() {
+		return busy;
+	}
+
+	/**
+	 * @param busy true if a departure is scheduled for the port
+	 */
+	public void setBusy(boolean busy) {
+		this.busy = busy;
+	}
+
+}
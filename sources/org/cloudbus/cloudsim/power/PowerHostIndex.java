@@ -0,0 +1,372 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * An index of the hosts of a migration VM allocation policy used while the new VM placement is
+ * searched. The hosts are kept sorted by their available MIPS, so that the hosts that cannot fit
+ * the requested MIPS of a VM are skipped in bulk, and the utilization MIPS and the power of each
+ * host are cached, so that the power increase of a candidate host is computed in O(1). The
+ * candidates are then checked in the ascending order of the power increase, and the expensive
+ * over-utilization check, which temporarily allocates the VM, is only run until the first suitable
+ * host is found. If the policy plans the consolidation on several threads, the candidates are
+ * checked in batches of the size of the number of planning threads, on snapshots of the hosts.
+ *
+ * The selected host is the same as the one found by
+ * {@link PowerVmAllocationPolicyMigrationAbstract#findHostForVm(Vm, Set)}: the suitable host with
+ * the minimum power increase, the first one in the host list in case of a tie. The cached values of
+ * a host must be refreshed with {@link #update(Host)} whenever VMs are allocated to or deallocated
+ * from the host.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class PowerHostIndex {
+
+	/** The policy. */
+	private final PowerVmAllocationPolicyMigrationAbstract policy;
+
+	/** The hosts, in the order of the host list. */
+	private final PowerHost[] hosts;
+
+	/** The positions of the hosts in the host list. */
+	private final Map<Integer, Integer> positions;
+
+	/** The available MIPS of the hosts. */
+	private final double[] availableMips;
+
+	/** The utilization of the CPU in MIPS of the hosts. */
+	private final double[] utilizationMips;
+
+	/** The current power of the hosts. */
+	private final double[] power;
+
+	/** The host positions sorted by the available MIPS. */
+	private final int[] order;
+
+	/** The rank of each host position in the order. */
+	private final int[] rank;
+
+	/** The power increases of the candidates, a binary heap. */
+	private final double[] heapPowerDiff;
+
+	/** The host positions of the candidates, a binary heap. */
+	private final int[] heapHost;
+
+	/** The host positions of the candidates checked together. */
+	private final int[] batch;
+
+	/**
+	 * Instantiates a new power host index.
+	 *
+	 * @param policy the policy whose hosts are indexed
+	 */
+	public PowerHostIndex(PowerVmAllocationPolicyMigrationAbstract policy) {
+		this.policy = policy;
+		List<PowerHost> hostList = policy.<PowerHost> getHostList();
+		int n = hostList.size();
+		hosts = hostList.toArray(new PowerHost[n]);
+		positions = new HashMap<Integer, Integer>(n * 2);
+		availableMips = new double[n];
+		utilizationMips = new double[n];
+		power = new double[n];
+		order = new int[n];
+		rank = new int[n];
+		heapPowerDiff = new double[n];
+		heapHost = new int[n];
+		if (policy.getPlanningThreads() > 1 && policy.isSnapshotSupported()) {
+			batch = new int[policy.getPlanningThreads()];
+		} else {
+			batch = new int[1];
+		}
+		for (int i = 0; i < n; i++) {
+			positions.put(hosts[i].getId(), i);
+			refresh(i);
+			order[i] = i;
+		}
+		sortOrder();
+	}
+
+	/**
+	 * Refreshes the cached values of the host after VMs have been allocated to or deallocated from
+	 * it.
+	 *
+	 * @param host the host
+	 */
+	public void update(Host host) {
+		Integer position = positions.get(host.getId());
+		if (position == null) {
+			return;
+		}
+		int i = position;
+		refresh(i);
+
+		// move the host to its new place in the order
+		int r = rank[i];
+		while (r > 0 && availableMips[order[r - 1]] > availableMips[i]) {
+			order[r] = order[r - 1];
+			rank[order[r]] = r;
+			r--;
+		}
+		while (r < order.length - 1 && availableMips[order[r + 1]] < availableMips[i]) {
+			order[r] = order[r + 1];
+			rank[order[r]] = r;
+			r++;
+		}
+		order[r] = i;
+		rank[i] = r;
+	}
+
+	/**
+	 * Finds the host for the VM with the minimum power increase.
+	 *
+	 * @param vm the vm
+	 * @param excludedHosts the excluded hosts
+	 * @return the power host, or null if no host is suitable
+	 */
+	public PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts) {
+		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
+		int heapSize = 0;
+		PowerHost uncachedHost = null;
+		double uncachedPowerDiff = Double.MAX_VALUE;
+		int uncachedPosition = Integer.MAX_VALUE;
+
+		for (int r = lowerBound(requestedTotalMips); r < order.length; r++) {
+			int i = order[r];
+			PowerHost host = hosts[i];
+			if (excludedHosts.contains(host)) {
+				continue;
+			}
+			double utilization = (utilizationMips[i] + requestedTotalMips) / host.getTotalMips();
+			if (utilization < 0 || utilization > 1) {
+				// the power model can't be evaluated before the host is known to be suitable,
+				// such hosts are checked in the same way as by the policy itself
+				if (isSuitable(host, vm)) {
+					double powerDiff = getPowerDiff(host, vm);
+					if (powerDiff < uncachedPowerDiff
+							|| powerDiff == uncachedPowerDiff && i < uncachedPosition) {
+						uncachedPowerDiff = powerDiff;
+						uncachedPosition = i;
+						uncachedHost = host;
+					}
+				}
+				continue;
+			}
+			heapPowerDiff[heapSize] = host.getPowerModel().getPower(utilization) - power[i];
+			heapHost[heapSize] = i;
+			heapSize++;
+		}
+
+		for (int k = heapSize / 2 - 1; k >= 0; k--) {
+			siftDown(k, heapSize);
+		}
+		while (heapSize > 0) {
+			int count = 0;
+			while (heapSize > 0 && count < batch.length) {
+				double powerDiff = heapPowerDiff[0];
+				int i = heapHost[0];
+				if (powerDiff > uncachedPowerDiff || powerDiff == uncachedPowerDiff && i > uncachedPosition) {
+					break;
+				}
+				heapSize--;
+				heapPowerDiff[0] = heapPowerDiff[heapSize];
+				heapHost[0] = heapHost[heapSize];
+				siftDown(0, heapSize);
+				batch[count++] = i;
+			}
+			if (count == 0) {
+				break;
+			}
+			int i = findSuitable(count, vm);
+			if (i != -1) {
+				return hosts[i];
+			}
+		}
+		return uncachedHost;
+	}
+
+	/**
+	 * Finds the first suitable host among the candidates of the batch. The over-utilization checks of
+	 * the candidates are run in parallel on snapshots of the hosts.
+	 * 
+	 * @param count the number of candidates in the batch
+	 * @param vm the vm
+	 * @return the position of the host, or -1 if no candidate is suitable
+	 */
+	private int findSuitable(int count, Vm vm) {
+		if (count == 1) {
+			return isSuitable(hosts[batch[0]], vm) ? batch[0] : -1;
+		}
+
+		// a host with no utilization is suitable without the over-utilization check, the candidates
+		// after it don't need to be checked
+		PowerHostSnapshot[] snapshots = new PowerHostSnapshot[count];
+		int[] checked = new int[count];
+		int checkedCount = 0;
+		int accepted = -1;
+		for (int k = 0; k < count; k++) {
+			PowerHost host = hosts[batch[k]];
+			if (!host.isSuitableForVm(vm)) {
+				continue;
+			}
+			if (utilizationMips[batch[k]] == 0) {
+				accepted = batch[k];
+				break;
+			}
+			if (host.getStorage() < vm.getSize()) {
+				continue; // the VM can't be allocated, as in the check on the live host
+			}
+			snapshots[checkedCount] = new PowerHostSnapshot(host).withVm(vm);
+			checked[checkedCount] = batch[k];
+			checkedCount++;
+		}
+
+		boolean[] overUtilized = policy.areHostsOverUtilized(Arrays.copyOf(snapshots, checkedCount));
+		for (int k = 0; k < checkedCount; k++) {
+			if (!overUtilized[k]) {
+				return checked[k];
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * Checks if the VM can be allocated to the host without over-utilizing it.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 * @return true, if the host is suitable
+	 */
+	protected boolean isSuitable(PowerHost host, Vm vm) {
+		if (!host.isSuitableForVm(vm)) {
+			return false;
+		}
+		if (utilizationMips[positions.get(host.getId())] != 0
+				&& policy.isHostOverUtilizedAfterAllocation(host, vm)) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the power increase of the host after the allocation of the VM as computed by the policy.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 * @return the power increase, or Double.MAX_VALUE if it can't be computed
+	 */
+	protected double getPowerDiff(PowerHost host, Vm vm) {
+		try {
+			double powerAfterAllocation = policy.getPowerAfterAllocation(host, vm);
+			if (powerAfterAllocation != -1) {
+				return powerAfterAllocation - host.getPower();
+			}
+		} catch (Exception e) {
+		}
+		return Double.MAX_VALUE;
+	}
+
+	/**
+	 * Refreshes the cached values of the host.
+	 *
+	 * @param i the position of the host
+	 */
+	private void refresh(int i) {
+		PowerHost host = hosts[i];
+		availableMips[i] = host.getVmScheduler().getAvailableMips();
+		utilizationMips[i] = policy.getUtilizationOfCpuMips(host);
+		power[i] = host.getPower();
+	}
+
+	/**
+	 * Sorts the host positions by the available MIPS.
+	 */
+	private void sortOrder() {
+		Integer[] sorted = new Integer[order.length];
+		for (int r = 0; r < order.length; r++) {
+			sorted[r] = order[r];
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Double.compare(availableMips[a], availableMips[b]);
+			}
+		});
+		for (int r = 0; r < order.length; r++) {
+			order[r] = sorted[r];
+			rank[order[r]] = r;
+		}
+	}
+
+	/**
+	 * Gets the rank of the first host with at least the given available MIPS.
+	 *
+	 * @param mips the mips
+	 * @return the rank
+	 */
+	private int lowerBound(double mips) {
+		int lo = 0;
+		int hi = order.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (availableMips[order[mid]] < mips) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Restores the heap order below the given node. The candidates are ordered by the power increase
+	 * and then by the position in the host list.
+	 *
+	 * @param k the node
+	 * @param heapSize the heap size
+	 */
+	private void siftDown(int k, int heapSize) {
+		double powerDiff = heapPowerDiff[k];
+		int host = heapHost[k];
+		while (true) {
+			int child = 2 * k + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && isBefore(child + 1, child)) {
+				child++;
+			}
+			if (heapPowerDiff[child] > powerDiff
+					|| heapPowerDiff[child] == powerDiff && heapHost[child] > host) {
+				break;
+			}
+			heapPowerDiff[k] = heapPowerDiff[child];
+			heapHost[k] = heapHost[child];
+			k = child;
+		}
+		heapPowerDiff[k] = powerDiff;
+		heapHost[k] = host;
+	}
+
+	private boolean isBefore(int a, int b) {
+		return heapPowerDiff[a] < heapPowerDiff[b]
+				|| heapPowerDiff[a] == heapPowerDiff[b] && heapHost[a] < heapHost[b];
+	}
+
+}
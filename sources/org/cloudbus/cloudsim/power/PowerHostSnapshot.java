@@ -0,0 +1,205 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.MathUtil;
+
+/**
+ * An immutable snapshot of the VMs allocated to a power host, used to plan the consolidation
+ * without allocating or deallocating VMs on the live host. A snapshot is taken on the simulation
+ * thread, where the current requested MIPS of the VMs are read; it can then be evaluated from any
+ * thread, since the remaining data, i.e. the utilization histories of the VMs, is not modified
+ * while the allocation is being optimized.
+ *
+ * Adding or removing a VM gives a new snapshot and leaves the original one untouched.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class PowerHostSnapshot {
+
+	/** The host. */
+	private final PowerHost host;
+
+	/** The vms, in the order of the host's vm list. */
+	private final PowerVm[] vms;
+
+	/** The current requested total mips of the vms. */
+	private final double[] requestedTotalMips;
+
+	/**
+	 * Takes a snapshot of the VMs allocated to the host.
+	 *
+	 * @param host the host
+	 */
+	public PowerHostSnapshot(PowerHost host) {
+		this.host = host;
+		List<PowerVm> vmList = host.<PowerVm> getVmList();
+		vms = vmList.toArray(new PowerVm[vmList.size()]);
+		requestedTotalMips = new double[vms.length];
+		for (int i = 0; i < vms.length; i++) {
+			requestedTotalMips[i] = vms[i].getCurrentRequestedTotalMips();
+		}
+	}
+
+	/**
+	 * Instantiates a new snapshot of the host with the given VMs.
+	 *
+	 * @param host the host
+	 * @param vms the vms
+	 * @param requestedTotalMips the current requested total mips of the vms
+	 */
+	private PowerHostSnapshot(PowerHost host, PowerVm[] vms, double[] requestedTotalMips) {
+		this.host = host;
+		this.vms = vms;
+		this.requestedTotalMips = requestedTotalMips;
+	}
+
+	/**
+	 * Gets a snapshot in which the VM is allocated to the host as well. Must be called on the
+	 * simulation thread, since the current requested MIPS of the VM are read.
+	 *
+	 * @param vm the vm
+	 * @return the new snapshot
+	 */
+	public PowerHostSnapshot withVm(Vm vm) {
+		int n = vms.length;
+		PowerVm[] newVms = new PowerVm[n + 1];
+		double[] newRequestedTotalMips = new double[n + 1];
+		System.arraycopy(vms, 0, newVms, 0, n);
+		System.arraycopy(requestedTotalMips, 0, newRequestedTotalMips, 0, n);
+		newVms[n] = (PowerVm) vm;
+		newRequestedTotalMips[n] = vm.getCurrentRequestedTotalMips();
+		return new PowerHostSnapshot(host, newVms, newRequestedTotalMips);
+	}
+
+	/**
+	 * Gets a snapshot in which the VM is no longer allocated to the host.
+	 *
+	 * @param vm the vm
+	 * @return the new snapshot, or this snapshot if the VM is not allocated to the host
+	 */
+	public PowerHostSnapshot withoutVm(Vm vm) {
+		int index = -1;
+		for (int i = 0; i < vms.length; i++) {
+			if (vms[i] == vm) {
+				index = i;
+				break;
+			}
+		}
+		if (index == -1) {
+			return this;
+		}
+		int n = vms.length;
+		PowerVm[] newVms = new PowerVm[n - 1];
+		double[] newRequestedTotalMips = new double[n - 1];
+		System.arraycopy(vms, 0, newVms, 0, index);
+		System.arraycopy(vms, index + 1, newVms, index, n - index - 1);
+		System.arraycopy(requestedTotalMips, 0, newRequestedTotalMips, 0, index);
+		System.arraycopy(requestedTotalMips, index + 1, newRequestedTotalMips, index, n - index - 1);
+		return new PowerHostSnapshot(host, newVms, newRequestedTotalMips);
+	}
+
+	/**
+	 * Gets the host utilization history, computed in the same way as
+	 * {@link PowerHostUtilizationHistory#getUtilizationHistory()}.
+	 *
+	 * @return the host utilization history, the most recent value first
+	 */
+	public double[] getUtilizationHistory() {
+		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		double hostMips = getTotalMips();
+		for (PowerVm vm : vms) {
+			List<Double> vmUtilizationHistory = vm.getUtilizationHistory();
+			for (int i = 0; i < vmUtilizationHistory.size(); i++) {
+				utilizationHistory[i] += vmUtilizationHistory.get(i) * vm.getMips() / hostMips;
+			}
+		}
+		return MathUtil.trimZeroTail(utilizationHistory);
+	}
+
+	/**
+	 * Gets the total current requested mips of the VMs.
+	 *
+	 * @return the total requested mips
+	 */
+	public double getTotalRequestedMips() {
+		double totalRequestedMips = 0;
+		for (int i = 0; i < requestedTotalMips.length; i++) {
+			totalRequestedMips += requestedTotalMips[i];
+		}
+		return totalRequestedMips;
+	}
+
+	/**
+	 * Gets the current requested total mips of the VM.
+	 *
+	 * @param index the index of the vm
+	 * @return the requested total mips
+	 */
+	public double getRequestedTotalMips(int index) {
+		return requestedTotalMips[index];
+	}
+
+	/**
+	 * Gets the VMs that are not in migration.
+	 *
+	 * @return the migratable vms
+	 */
+	public List<PowerVm> getMigratableVms() {
+		List<PowerVm> migratableVms = new ArrayList<PowerVm>();
+		for (PowerVm vm : vms) {
+			if (!vm.isInMigration()) {
+				migratableVms.add(vm);
+			}
+		}
+		return migratableVms;
+	}
+
+	/**
+	 * Gets the vm.
+	 *
+	 * @param index the index
+	 * @return the vm
+	 */
+	public PowerVm getVm(int index) {
+		return vms[index];
+	}
+
+	/**
+	 * Gets the number of VMs.
+	 *
+	 * @return the number of vms
+	 */
+	public int getNumberOfVms() {
+		return vms.length;
+	}
+
+	/**
+	 * Gets the total mips of the host.
+	 *
+	 * @return the total mips
+	 */
+	public double getTotalMips() {
+		return host.getTotalMips();
+	}
+
+	/**
+	 * Gets the host.
+	 *
+	 * @return the host
+	 */
+	public PowerHost getHost() {
+		return host;
+	}
+
+}
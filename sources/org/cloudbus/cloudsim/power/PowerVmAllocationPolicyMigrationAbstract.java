@@ -15,6 +15,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
@@ -23,6 +29,7 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.lists.PowerVmList;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.SlidingWindowStatistics;
 
 /**
  * The class of an abstract power-aware VM allocation policy that dynamically optimizes the VM
@@ -56,6 +63,21 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/** The time history. */
 	private final Map<Integer, List<Double>> timeHistory = new HashMap<Integer, List<Double>>();
 
+	/** The sliding windows over the utilization histories of the hosts. */
+	private final Map<Integer, SlidingWindowStatistics> utilizationWindows = new HashMap<Integer, SlidingWindowStatistics>();
+
+	/** The windows for evaluations of a host that differ from its actual history, one per thread. */
+	private final ThreadLocal<SlidingWindowStatistics> scratchUtilizationWindow = new ThreadLocal<SlidingWindowStatistics>();
+
+	/** The host index used while the new VM placement is searched. */
+	private PowerHostIndex hostIndex;
+
+	/** The number of threads used to plan the consolidation. */
+	private int planningThreads = 1;
+
+	/** The executor of the planning tasks. */
+	private ExecutorService planningExecutor;
+
 	/** The execution time history vm selection. */
 	private final List<Double> executionTimeHistoryVmSelection = new LinkedList<Double>();
 
@@ -210,6 +232,10 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts) {
+		if (getHostIndex() != null) {
+			return getHostIndex().findHostForVm(vm, excludedHosts);
+		}
+
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
 
@@ -295,17 +321,23 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			Set<? extends Host> excludedHosts) {
 		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
 		PowerVmList.sortByCpuUtilization(vmsToMigrate);
-		for (Vm vm : vmsToMigrate) {
-			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
-			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
-				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
-
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
+		setHostIndex(new PowerHostIndex(this));
+		try {
+			for (Vm vm : vmsToMigrate) {
+				PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
+				if (allocatedHost != null) {
+					allocatedHost.vmCreate(vm);
+					getHostIndex().update(allocatedHost);
+					Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
+
+					Map<String, Object> migrate = new HashMap<String, Object>();
+					migrate.put("vm", vm);
+					migrate.put("host", allocatedHost);
+					migrationMap.add(migrate);
+				}
 			}
+		} finally {
+			setHostIndex(null);
 		}
 		return migrationMap;
 	}
@@ -322,24 +354,30 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			Set<? extends Host> excludedHosts) {
 		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
 		PowerVmList.sortByCpuUtilization(vmsToMigrate);
-		for (Vm vm : vmsToMigrate) {
-			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
-			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
-				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
-
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
-			} else {
-				Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
-				for (Map<String, Object> map : migrationMap) {
-					((Host) map.get("host")).vmDestroy((Vm) map.get("vm"));
+		setHostIndex(new PowerHostIndex(this));
+		try {
+			for (Vm vm : vmsToMigrate) {
+				PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
+				if (allocatedHost != null) {
+					allocatedHost.vmCreate(vm);
+					getHostIndex().update(allocatedHost);
+					Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
+
+					Map<String, Object> migrate = new HashMap<String, Object>();
+					migrate.put("vm", vm);
+					migrate.put("host", allocatedHost);
+					migrationMap.add(migrate);
+				} else {
+					Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
+					for (Map<String, Object> map : migrationMap) {
+						((Host) map.get("host")).vmDestroy((Vm) map.get("vm"));
+					}
+					migrationMap.clear();
+					break;
 				}
-				migrationMap.clear();
-				break;
 			}
+		} finally {
+			setHostIndex(null);
 		}
 		return migrationMap;
 	}
@@ -353,6 +391,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	protected
 			List<? extends Vm>
 			getVmsToMigrateFromHosts(List<PowerHostUtilizationHistory> overUtilizedHosts) {
+		if (getPlanningThreads() > 1 && isSnapshotSupported() && getVmSelectionPolicy().isSnapshotSupported()) {
+			return getVmsToMigrateFromHostSnapshots(overUtilizedHosts);
+		}
 		List<Vm> vmsToMigrate = new LinkedList<Vm>();
 		for (PowerHostUtilizationHistory host : overUtilizedHosts) {
 			while (true) {
@@ -370,6 +411,63 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return vmsToMigrate;
 	}
 
+	/**
+	 * Gets the vms to migrate from hosts. The VMs of the hosts are selected in parallel on snapshots
+	 * of the hosts, and then deallocated from the hosts in the order of the list.
+	 * 
+	 * @param overUtilizedHosts the over utilized hosts
+	 * @return the vms to migrate from hosts
+	 */
+	protected List<? extends Vm> getVmsToMigrateFromHostSnapshots(
+			List<PowerHostUtilizationHistory> overUtilizedHosts) {
+		final PowerHostSnapshot[] snapshots = new PowerHostSnapshot[overUtilizedHosts.size()];
+		final List<List<Vm>> selectedVms = new ArrayList<List<Vm>>(snapshots.length);
+		int i = 0;
+		for (PowerHostUtilizationHistory host : overUtilizedHosts) {
+			snapshots[i++] = new PowerHostSnapshot(host);
+			selectedVms.add(new ArrayList<Vm>());
+		}
+
+		int threads = Math.min(getPlanningThreads(), snapshots.length);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+		for (int t = 0; t < threads; t++) {
+			final int first = t;
+			final int step = threads;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int j = first; j < snapshots.length; j += step) {
+						PowerHostSnapshot snapshot = snapshots[j];
+						while (true) {
+							Vm vm = getVmSelectionPolicy().getVmToMigrate(snapshot);
+							if (vm == null) {
+								break;
+							}
+							selectedVms.get(j).add(vm);
+							snapshot = snapshot.withoutVm(vm);
+							if (!isHostOverUtilized(snapshot)) {
+								break;
+							}
+						}
+					}
+					return null;
+				}
+			});
+		}
+		invokePlanningTasks(tasks);
+
+		List<Vm> vmsToMigrate = new LinkedList<Vm>();
+		i = 0;
+		for (PowerHostUtilizationHistory host : overUtilizedHosts) {
+			for (Vm vm : selectedVms.get(i++)) {
+				vmsToMigrate.add(vm);
+				host.vmDestroy(vm);
+			}
+		}
+		return vmsToMigrate;
+	}
+
 	/**
 	 * Gets the vms to migrate from under utilized host.
 	 * 
@@ -393,6 +491,20 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected List<PowerHostUtilizationHistory> getOverUtilizedHosts() {
 		List<PowerHostUtilizationHistory> overUtilizedHosts = new LinkedList<PowerHostUtilizationHistory>();
+		if (getPlanningThreads() > 1 && isSnapshotSupported()) {
+			List<PowerHostUtilizationHistory> hostList = this.<PowerHostUtilizationHistory> getHostList();
+			PowerHostSnapshot[] snapshots = new PowerHostSnapshot[hostList.size()];
+			for (int i = 0; i < snapshots.length; i++) {
+				snapshots[i] = new PowerHostSnapshot(hostList.get(i));
+			}
+			boolean[] overUtilized = areHostsOverUtilized(snapshots);
+			for (int i = 0; i < snapshots.length; i++) {
+				if (overUtilized[i]) {
+					overUtilizedHosts.add(hostList.get(i));
+				}
+			}
+			return overUtilizedHosts;
+		}
 		for (PowerHostUtilizationHistory host : this.<PowerHostUtilizationHistory> getHostList()) {
 			if (isHostOverUtilized(host)) {
 				overUtilizedHosts.add(host);
@@ -401,6 +513,66 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return overUtilizedHosts;
 	}
 
+	/**
+	 * Checks which of the host snapshots are over-utilized. The snapshots are evaluated in parallel
+	 * if more than one planning thread is set.
+	 * 
+	 * @param snapshots the host snapshots
+	 * @return the over-utilization flags, in the order of the snapshots
+	 */
+	protected boolean[] areHostsOverUtilized(final PowerHostSnapshot[] snapshots) {
+		final boolean[] overUtilized = new boolean[snapshots.length];
+		int threads = Math.min(getPlanningThreads(), snapshots.length);
+		if (threads <= 1) {
+			for (int i = 0; i < snapshots.length; i++) {
+				overUtilized[i] = isHostOverUtilized(snapshots[i]);
+			}
+			return overUtilized;
+		}
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threads);
+		for (int t = 0; t < threads; t++) {
+			final int first = t;
+			final int step = threads;
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int i = first; i < snapshots.length; i += step) {
+						overUtilized[i] = isHostOverUtilized(snapshots[i]);
+					}
+					return null;
+				}
+			});
+		}
+		invokePlanningTasks(tasks);
+		return overUtilized;
+	}
+
+	/**
+	 * Runs the planning tasks on the planning threads and waits for all of them to complete.
+	 * 
+	 * @param tasks the tasks
+	 */
+	protected void invokePlanningTasks(List<Callable<Void>> tasks) {
+		try {
+			for (Future<Void> future : getPlanningExecutor().invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
 	/**
 	 * Gets the switched off host.
 	 * 
@@ -465,13 +637,55 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
+	/**
+	 * Checks if the host is over-utilized with the VMs of the snapshot. Unlike
+	 * {@link #isHostOverUtilized(PowerHost)}, it may be called from the planning threads, and it
+	 * only reads the snapshot and the utilization histories of the VMs. Policies that implement it
+	 * must also override {@link #isSnapshotSupported()}. By default, the live host of the snapshot
+	 * is checked, without the VMs added to or removed from the snapshot.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return true, if is host over utilized
+	 */
+	protected boolean isHostOverUtilized(PowerHostSnapshot snapshot) {
+		return isHostOverUtilized(snapshot.getHost());
+	}
+
+	/**
+	 * Checks whether the policy can evaluate host snapshots. If not, the consolidation is planned
+	 * on the live hosts on the simulation thread, whatever the number of planning threads.
+	 * 
+	 * @return true, if host snapshots are supported
+	 */
+	public boolean isSnapshotSupported() {
+		return false;
+	}
+
+	/**
+	 * Checks if the host is over-utilized according to the fallback policy. The snapshot is passed to
+	 * the fallback policy if it supports snapshots, otherwise the live host is checked, which is
+	 * only valid when the snapshot has just been taken on the simulation thread.
+	 * 
+	 * @param fallbackVmAllocationPolicy the fallback vm allocation policy
+	 * @param snapshot the host snapshot
+	 * @return true, if is host over utilized
+	 */
+	protected static boolean isHostOverUtilizedByFallback(
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmAllocationPolicy,
+			PowerHostSnapshot snapshot) {
+		if (fallbackVmAllocationPolicy.isSnapshotSupported()) {
+			return fallbackVmAllocationPolicy.isHostOverUtilized(snapshot);
+		}
+		return fallbackVmAllocationPolicy.isHostOverUtilized(snapshot.getHost());
+	}
+
 	/**
 	 * Adds the history value.
 	 * 
 	 * @param host the host
 	 * @param metric the metric
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		if (!getTimeHistory().containsKey(hostId)) {
 			getTimeHistory().put(hostId, new LinkedList<Double>());
@@ -489,6 +703,52 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		}
 	}
 
+	/**
+	 * Gets a sliding window holding the first values of the utilization history of the host. The
+	 * first evaluation of a host at a given time is taken as its actual history: the host's window is
+	 * advanced by the new value if the history has only shifted, and rebuilt otherwise. Later
+	 * evaluations at the same time, e.g. with a VM temporarily allocated to or removed from the host,
+	 * are loaded into a scratch window so that the host's window is kept. A host must not be
+	 * evaluated by several planning threads at the same time.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the utilization history, the most recent value first
+	 * @param capacity the number of values in the window
+	 * @return the window
+	 */
+	protected SlidingWindowStatistics getUtilizationWindow(
+			PowerHost host,
+			double[] utilizationHistory,
+			int capacity) {
+		int length = Math.min(utilizationHistory.length, capacity);
+		SlidingWindowStatistics window;
+		synchronized (getUtilizationWindows()) {
+			window = getUtilizationWindows().get(host.getId());
+			if (window == null || window.getCapacity() != capacity) {
+				window = new SlidingWindowStatistics(capacity);
+				getUtilizationWindows().put(host.getId(), window);
+			}
+		}
+		double time = CloudSim.clock();
+		if (window.getLastSyncTime() != time) {
+			if (!window.update(utilizationHistory, length)) {
+				window.reset(utilizationHistory, length);
+			}
+			window.setLastSyncTime(time);
+			return window;
+		}
+		if (window.matches(utilizationHistory, length)) {
+			return window;
+		}
+		SlidingWindowStatistics scratchWindow = scratchUtilizationWindow.get();
+		if (scratchWindow == null || scratchWindow.getCapacity() != capacity) {
+			scratchWindow = new SlidingWindowStatistics(capacity);
+			scratchUtilizationWindow.set(scratchWindow);
+		}
+		scratchWindow.reset(utilizationHistory, length);
+		return scratchWindow;
+	}
+
 	/**
 	 * Save allocation.
 	 */
@@ -608,6 +868,83 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return vmSelectionPolicy;
 	}
 
+	/**
+	 * Sets the host index.
+	 * 
+	 * @param hostIndex the new host index, or null to scan the host list
+	 */
+	protected void setHostIndex(PowerHostIndex hostIndex) {
+		this.hostIndex = hostIndex;
+	}
+
+	/**
+	 * Gets the host index used while the new VM placement is searched.
+	 * 
+	 * @return the host index, or null outside of the placement search
+	 */
+	protected PowerHostIndex getHostIndex() {
+		return hostIndex;
+	}
+
+	/**
+	 * Sets the number of threads used to plan the consolidation, i.e. to detect the over-utilized
+	 * hosts, to select the VMs to migrate and to check the candidate hosts for the VMs. With one
+	 * thread, the consolidation is planned on the simulation thread only.
+	 * 
+	 * @param planningThreads the new number of planning threads
+	 */
+	public void setPlanningThreads(int planningThreads) {
+		if (planningThreads < 1) {
+			Log.printLine("The number of planning threads cannot be less than one. The passed value is: "
+					+ planningThreads);
+			System.exit(0);
+		}
+		shutdownPlanningExecutor();
+		this.planningThreads = planningThreads;
+	}
+
+	/**
+	 * Gets the number of threads used to plan the consolidation.
+	 * 
+	 * @return the number of planning threads
+	 */
+	public int getPlanningThreads() {
+		return planningThreads;
+	}
+
+	/**
+	 * Gets the executor of the planning tasks, created on first use. Its threads are daemon threads,
+	 * so that they don't keep the JVM alive after the simulation.
+	 * 
+	 * @return the planning executor
+	 */
+	protected ExecutorService getPlanningExecutor() {
+		if (planningExecutor == null) {
+			planningExecutor = Executors.newFixedThreadPool(getPlanningThreads(), new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "ConsolidationPlanner");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return planningExecutor;
+	}
+
+	/**
+	 * Shuts down the executor of the planning tasks, if it was created. It should be called when the
+	 * simulation ends, so that the planning threads don't outlive the policy; an executor is created
+	 * again if the consolidation is planned afterwards.
+	 */
+	public void shutdownPlanningExecutor() {
+		if (planningExecutor != null) {
+			planningExecutor.shutdown();
+			planningExecutor = null;
+		}
+	}
+
 	/**
 	 * Gets the utilization history.
 	 * 
@@ -635,6 +972,15 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return timeHistory;
 	}
 
+	/**
+	 * Gets the sliding windows over the utilization histories of the hosts.
+	 * 
+	 * @return the utilization windows
+	 */
+	protected Map<Integer, SlidingWindowStatistics> getUtilizationWindows() {
+		return utilizationWindows;
+	}
+
 	/**
 	 * Gets the execution time history vm selection.
 	 * 
@@ -12,7 +12,6 @@ import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
-import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -82,22 +81,39 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) host;
+		return isHostOverUtilized(new PowerHostSnapshot(host));
+	}
+
+	/**
+	 * Checks if is host over utilized.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return true, if is host over utilized
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostSnapshot snapshot) {
 		double upperThreshold = 0;
 		try {
-			upperThreshold = 1 - getSafetyParameter() * getHostUtilizationIqr(_host);
+			upperThreshold = 1 - getSafetyParameter()
+					* getHostUtilizationIqr(snapshot.getHost(), snapshot.getUtilizationHistory());
 		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
-		}
-		addHistoryEntry(host, upperThreshold);
-		double totalRequestedMips = 0;
-		for (Vm vm : host.getVmList()) {
-			totalRequestedMips += vm.getCurrentRequestedTotalMips();
+			return isHostOverUtilizedByFallback(getFallbackVmAllocationPolicy(), snapshot);
 		}
-		double utilization = totalRequestedMips / host.getTotalMips();
+		addHistoryEntry(snapshot.getHost(), upperThreshold);
+		double utilization = snapshot.getTotalRequestedMips() / snapshot.getTotalMips();
 		return utilization > upperThreshold;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract#isSnapshotSupported()
+	 */
+	@Override
+	public boolean isSnapshotSupported() {
+		return getFallbackVmAllocationPolicy() != null
+				&& getFallbackVmAllocationPolicy().isSnapshotSupported();
+	}
+
 	/**
 	 * Gets the host utilization iqr.
 	 * 
@@ -105,9 +121,19 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * @return the host utilization iqr
 	 */
 	protected double getHostUtilizationIqr(PowerHostUtilizationHistory host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
+		return getHostUtilizationIqr(host, host.getUtilizationHistory());
+	}
+
+	/**
+	 * Gets the host utilization iqr.
+	 * 
+	 * @param host the host
+	 * @param data the utilization history of the host, the most recent value first
+	 * @return the host utilization iqr
+	 */
+	protected double getHostUtilizationIqr(PowerHost host, double[] data) throws IllegalArgumentException {
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.iqr(data);
+			return getUtilizationWindow(host, data, PowerVm.HISTORY_LENGTH).iqr();
 		}
 		throw new IllegalArgumentException();
 	}
@@ -13,6 +13,7 @@ import java.util.List;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.SlidingWindowStatistics;
 
 /**
  * The Local Regression (LR) VM allocation policy.
@@ -89,31 +90,66 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) host;
-		double[] utilizationHistory = _host.getUtilizationHistory();
+		return isHostOverUtilized(new PowerHostSnapshot(host));
+	}
+
+	/**
+	 * Checks if is host over utilized.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return true, if is host over utilized
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostSnapshot snapshot) {
+		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) snapshot.getHost();
+		double[] utilizationHistory = snapshot.getUtilizationHistory();
 		int length = 10; // we use 10 to make the regression responsive enough to latest values
 		if (utilizationHistory.length < length) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
-		}
-		double[] utilizationHistoryReversed = new double[length];
-		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
+			return isHostOverUtilizedByFallback(getFallbackVmAllocationPolicy(), snapshot);
 		}
 		double[] estimates = null;
 		try {
-			estimates = getParameterEstimates(utilizationHistoryReversed);
+			estimates = getParameterEstimates(_host, utilizationHistory, length);
 		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
+			return isHostOverUtilizedByFallback(getFallbackVmAllocationPolicy(), snapshot);
 		}
-		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(_host) / getSchedulingInterval());
+		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(snapshot) / getSchedulingInterval());
 		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
 		predictedUtilization *= getSafetyParameter();
 
-		addHistoryEntry(host, predictedUtilization);
+		addHistoryEntry(_host, predictedUtilization);
 
 		return predictedUtilization >= 1;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract#isSnapshotSupported()
+	 */
+	@Override
+	public boolean isSnapshotSupported() {
+		return getFallbackVmAllocationPolicy() != null
+				&& getFallbackVmAllocationPolicy().isSnapshotSupported();
+	}
+
+	/**
+	 * Gets the parameter estimates of the last values of the host's utilization history. The
+	 * estimates are read from the host's sliding window, which keeps the least squares sums up to
+	 * date as the history advances.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the utilization history, the most recent value first
+	 * @param length the number of values to use
+	 * @return the parameter estimates
+	 */
+	protected double[] getParameterEstimates(
+			PowerHostUtilizationHistory host,
+			double[] utilizationHistory,
+			int length) {
+		SlidingWindowStatistics window = getUtilizationWindow(host, utilizationHistory, length);
+		return new double[] { window.getIntercept(), window.getSlope() };
+	}
+
 	/**
 	 * Gets the parameter estimates.
 	 * 
@@ -141,6 +177,23 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		return maxRam / ((double) host.getBw() / (2 * 8000));
 	}
 
+	/**
+	 * Gets the maximum vm migration time.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return the maximum vm migration time
+	 */
+	protected double getMaximumVmMigrationTime(PowerHostSnapshot snapshot) {
+		int maxRam = Integer.MIN_VALUE;
+		for (int i = 0; i < snapshot.getNumberOfVms(); i++) {
+			int ram = snapshot.getVm(i).getRam();
+			if (ram > maxRam) {
+				maxRam = ram;
+			}
+		}
+		return maxRam / ((double) snapshot.getHost().getBw() / (2 * 8000));
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
@@ -72,6 +72,27 @@ public class PowerVmAllocationPolicyMigrationLocalRegressionRobust extends
 		super(hostList, vmSelectionPolicy, safetyParameter, schedulingInterval, fallbackVmAllocationPolicy);
 	}
 
+	/**
+	 * Gets the parameter estimates. The bisquare weights depend on the residuals of the whole
+	 * window, so the robust estimates are computed from scratch.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the utilization history, the most recent value first
+	 * @param length the number of values to use
+	 * @return the parameter estimates
+	 */
+	@Override
+	protected double[] getParameterEstimates(
+			PowerHostUtilizationHistory host,
+			double[] utilizationHistory,
+			int length) {
+		double[] utilizationHistoryReversed = new double[length];
+		for (int i = 0; i < length; i++) {
+			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
+		}
+		return getParameterEstimates(utilizationHistoryReversed);
+	}
+
 	/**
 	 * Gets the parameter estimates.
 	 * 
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
-import org.cloudbus.cloudsim.Vm;
 
 /**
  * The Static Threshold (THR) VM allocation policy.
@@ -55,15 +54,31 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-		addHistoryEntry(host, getUtilizationThreshold());
-		double totalRequestedMips = 0;
-		for (Vm vm : host.getVmList()) {
-			totalRequestedMips += vm.getCurrentRequestedTotalMips();
-		}
-		double utilization = totalRequestedMips / host.getTotalMips();
+		return isHostOverUtilized(new PowerHostSnapshot(host));
+	}
+
+	/**
+	 * Checks if is host over utilized.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return true, if is host over utilized
+	 */
+	@Override
+	protected boolean isHostOverUtilized(PowerHostSnapshot snapshot) {
+		addHistoryEntry(snapshot.getHost(), getUtilizationThreshold());
+		double utilization = snapshot.getTotalRequestedMips() / snapshot.getTotalMips();
 		return utilization > getUtilizationThreshold();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract#isSnapshotSupported()
+	 */
+	@Override
+	public boolean isSnapshotSupported() {
+		return true;
+	}
+
 	/**
 	 * Sets the utilization threshold.
 	 * 
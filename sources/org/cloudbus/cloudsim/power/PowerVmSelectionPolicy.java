@@ -37,6 +37,37 @@ public abstract class PowerVmSelectionPolicy {
 	 */
 	public abstract Vm getVmToMigrate(PowerHost host);
 
+	/**
+	 * Gets the vm to migrate from the host snapshot. Unlike {@link #getVmToMigrate(PowerHost)}, it
+	 * may be called from the planning threads of the VM allocation policy. Policies that implement
+	 * it must also override {@link #isSnapshotSupported()}. By default, the vm is selected from the
+	 * live host of the snapshot, and none is returned if that vm was already removed from the
+	 * snapshot.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return the vm to migrate
+	 */
+	public Vm getVmToMigrate(PowerHostSnapshot snapshot) {
+		Vm vm = getVmToMigrate(snapshot.getHost());
+		for (int i = 0; vm != null && i < snapshot.getNumberOfVms(); i++) {
+			if (snapshot.getVm(i) == vm) {
+				return vm;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the policy can select VMs from host snapshots. Policies whose selection has side
+	 * effects, e.g. reading the current utilization of stochastic workloads or drawing random
+	 * numbers, must select on the simulation thread and don't support snapshots.
+	 * 
+	 * @return true, if host snapshots are supported
+	 */
+	public boolean isSnapshotSupported() {
+		return false;
+	}
+
 	/**
 	 * Gets the migratable vms.
 	 * 
@@ -53,4 +84,14 @@ public abstract class PowerVmSelectionPolicy {
 		return migratableVms;
 	}
 
+	/**
+	 * Gets the migratable vms.
+	 * 
+	 * @param snapshot the host snapshot
+	 * @return the migratable vms
+	 */
+	protected List<PowerVm> getMigratableVms(PowerHostSnapshot snapshot) {
+		return snapshot.getMigratableVms();
+	}
+
 }
@@ -62,6 +62,47 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
 			return getFallbackPolicy().getVmToMigrate(host);
 		}
+		return getVmWithMaxMetric(migratableVms, metrics);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * org.cloudbus.cloudsim.power.PowerVmSelectionPolicy#getVmToMigrate(org.cloudbus.cloudsim.power
+	 * .PowerHostSnapshot)
+	 */
+	@Override
+	public Vm getVmToMigrate(final PowerHostSnapshot snapshot) {
+		List<PowerVm> migratableVms = getMigratableVms(snapshot);
+		if (migratableVms.isEmpty()) {
+			return null;
+		}
+		List<Double> metrics = null;
+		try {
+			metrics = getCorrelationCoefficients(getUtilizationMatrix(migratableVms));
+		} catch (IllegalArgumentException e) { // the degrees of freedom must be greater than zero
+			return getFallbackPolicy().getVmToMigrate(snapshot);
+		}
+		return getVmWithMaxMetric(migratableVms, metrics);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.PowerVmSelectionPolicy#isSnapshotSupported()
+	 */
+	@Override
+	public boolean isSnapshotSupported() {
+		return getFallbackPolicy() != null && getFallbackPolicy().isSnapshotSupported();
+	}
+
+	/**
+	 * Gets the vm with the maximum correlation coefficient.
+	 * 
+	 * @param migratableVms the migratable vms
+	 * @param metrics the correlation coefficients of the vms
+	 * @return the vm to migrate
+	 */
+	protected Vm getVmWithMaxMetric(final List<PowerVm> migratableVms, final List<Double> metrics) {
 		double maxMetric = Double.MIN_VALUE;
 		int maxIndex = 0;
 		for (int i = 0; i < metrics.size(); i++) {
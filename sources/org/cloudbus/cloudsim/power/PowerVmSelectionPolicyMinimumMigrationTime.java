@@ -36,7 +36,36 @@ public class PowerVmSelectionPolicyMinimumMigrationTime extends PowerVmSelection
 	 */
 	@Override
 	public Vm getVmToMigrate(PowerHost host) {
-		List<PowerVm> migratableVms = getMigratableVms(host);
+		return getVmToMigrate(getMigratableVms(host));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * org.cloudbus.cloudsim.power.PowerVmSelectionPolicy#getVmToMigrate(org.cloudbus.cloudsim.power
+	 * .PowerHostSnapshot)
+	 */
+	@Override
+	public Vm getVmToMigrate(PowerHostSnapshot snapshot) {
+		return getVmToMigrate(getMigratableVms(snapshot));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.PowerVmSelectionPolicy#isSnapshotSupported()
+	 */
+	@Override
+	public boolean isSnapshotSupported() {
+		return true;
+	}
+
+	/**
+	 * Gets the vm with the minimum RAM.
+	 * 
+	 * @param migratableVms the migratable vms
+	 * @return the vm to migrate
+	 */
+	protected Vm getVmToMigrate(List<PowerVm> migratableVms) {
 		if (migratableVms.isEmpty()) {
 			return null;
 		}
@@ -0,0 +1,519 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * The results of finished cloudlets, kept in primitive columns: one array per attribute, indexed by
+ * the position of the cloudlet in the results. Reports read the columns directly, so that the
+ * statistics of a trial are computed in a single pass without going through the cloudlets again,
+ * and the results are written either as CSV or as a binary file with one block per column, which
+ * {@link #read(DataInputStream)} loads back.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class CloudletResults {
+
+	/** The magic number of the binary format. */
+	private static final int MAGIC = 0x434c5231; // "CLR1"
+
+	/** The header of the CSV format. */
+	public static final String CSV_HEADER = "Cloudlet ID,Status,Resource ID,VM ID,CPU Time,Start Time,Finish Time,Waiting Time";
+
+	private int size;
+
+	private int[] cloudletId;
+
+	private int[] vmId;
+
+	private int[] resourceId;
+
+	private int[] status;
+
+	private double[] execStartTime;
+
+	private double[] finishTime;
+
+	private double[] actualCpuTime;
+
+	private double[] waitingTime;
+
+	/**
+	 * Instantiates empty results.
+	 *
+	 * @param capacity the expected number of cloudlets
+	 */
+	public CloudletResults(final int capacity) {
+		int n = Math.max(capacity, 16);
+		cloudletId = new int[n];
+		vmId = new int[n];
+		resourceId = new int[n];
+		status = new int[n];
+		execStartTime = new double[n];
+		finishTime = new double[n];
+		actualCpuTime = new double[n];
+		waitingTime = new double[n];
+	}
+
+	/**
+	 * Captures the results of cloudlets.
+	 *
+	 * @param list the cloudlets, e.g. the cloudlets received by a broker
+	 * @return the results, in the order of the list
+	 */
+	public static CloudletResults of(final List<? extends Cloudlet> list) {
+		CloudletResults results = new CloudletResults(list.size());
+		for (Cloudlet cloudlet : list) {
+			results.add(cloudlet);
+		}
+		return results;
+	}
+
+	/**
+	 * Adds the results of a cloudlet.
+	 *
+	 * @param cloudlet the cloudlet
+	 */
+	public void add(final Cloudlet cloudlet) {
+		int status = cloudlet.getCloudletStatus();
+		boolean success = status == Cloudlet.SUCCESS;
+		add(
+				cloudlet.getCloudletId(),
+				cloudlet.getVmId(),
+				cloudlet.getResourceId(),
+				status,
+				cloudlet.getExecStartTime(),
+				cloudlet.getFinishTime(),
+				success ? cloudlet.getActualCPUTime() : 0,
+				success ? cloudlet.getWaitingTime() : 0);
+	}
+
+	/**
+	 * Adds a row of results.
+	 */
+	private void add(
+			final int id,
+			final int vm,
+			final int resource,
+			final int stat,
+			final double start,
+			final double finish,
+			final double cpuTime,
+			final double wait) {
+		if (size == cloudletId.length) {
+			int n = size * 2;
+			cloudletId = Arrays.copyOf(cloudletId, n);
+			vmId = Arrays.copyOf(vmId, n);
+			resourceId = Arrays.copyOf(resourceId, n);
+			status = Arrays.copyOf(status, n);
+			execStartTime = Arrays.copyOf(execStartTime, n);
+			finishTime = Arrays.copyOf(finishTime, n);
+			actualCpuTime = Arrays.copyOf(actualCpuTime, n);
+			waitingTime = Arrays.copyOf(waitingTime, n);
+		}
+		cloudletId[size] = id;
+		vmId[size] = vm;
+		resourceId[size] = resource;
+		status[size] = stat;
+		execStartTime[size] = start;
+		finishTime[size] = finish;
+		actualCpuTime[size] = cpuTime;
+		waitingTime[size] = wait;
+		size++;
+	}
+
+	/**
+	 * Gets the number of cloudlets.
+	 *
+	 * @return the number of cloudlets
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getCloudletId(final int i) {
+		return cloudletId[i];
+	}
+
+	public int getVmId(final int i) {
+		return vmId[i];
+	}
+
+	public int getResourceId(final int i) {
+		return resourceId[i];
+	}
+
+	public int getStatus(final int i) {
+		return status[i];
+	}
+
+	public boolean isSuccess(final int i) {
+		return status[i] == Cloudlet.SUCCESS;
+	}
+
+	public double getExecStartTime(final int i) {
+		return execStartTime[i];
+	}
+
+	public double getFinishTime(final int i) {
+		return finishTime[i];
+	}
+
+	/**
+	 * Gets the actual CPU time of a cloudlet.
+	 *
+	 * @param i the position of the cloudlet
+	 * @return the CPU time, 0 if the cloudlet did not succeed
+	 */
+	public double getActualCPUTime(final int i) {
+		return actualCpuTime[i];
+	}
+
+	/**
+	 * Gets the waiting time of a cloudlet.
+	 *
+	 * @param i the position of the cloudlet
+	 * @return the waiting time, 0 if the cloudlet did not succeed
+	 */
+	public double getWaitingTime(final int i) {
+		return waitingTime[i];
+	}
+
+	/**
+	 * Computes the statistics of the cloudlets, globally and per VM, in a single pass.
+	 *
+	 * @param numVms the number of VMs, whose ids are 0 to numVms - 1; the VMs of higher ids found
+	 *            in the results are added
+	 * @return the statistics
+	 */
+	public Statistics getStatistics(final int numVms) {
+		int vms = numVms;
+		for (int i = 0; i < size; i++) {
+			if (vmId[i] >= vms) {
+				vms = vmId[i] + 1;
+			}
+		}
+		Statistics stats = new Statistics(vms);
+		for (int i = 0; i < size; i++) {
+			stats.totalStartTime += execStartTime[i];
+			stats.totalFinishTime += finishTime[i];
+			stats.maxFinishTime = Math.max(stats.maxFinishTime, finishTime[i]);
+			if (status[i] != Cloudlet.SUCCESS) {
+				continue;
+			}
+			double cpuTime = actualCpuTime[i];
+			stats.successes++;
+			stats.successCpuTime += cpuTime;
+			stats.successWaitingTime += waitingTime[i];
+			stats.successStartTime += execStartTime[i];
+			stats.successFinishTime += finishTime[i];
+			stats.successMaxFinishTime = Math.max(stats.successMaxFinishTime, finishTime[i]);
+			stats.minCpuTime = Math.min(stats.minCpuTime, cpuTime);
+			stats.maxCpuTime = Math.max(stats.maxCpuTime, cpuTime);
+			int vm = vmId[i];
+			if (vm >= 0) {
+				stats.vmCount[vm]++;
+				stats.vmCpuTime[vm] += cpuTime;
+				stats.vmMinCpuTime[vm] = Math.min(stats.vmMinCpuTime[vm], cpuTime);
+				stats.vmMaxCpuTime[vm] = Math.max(stats.vmMaxCpuTime[vm], cpuTime);
+			}
+		}
+		stats.count = size;
+		return stats;
+	}
+
+	/**
+	 * Groups the successful cloudlets by VM, the cloudlets of each VM by decreasing CPU time.
+	 *
+	 * @param stats the statistics of the results
+	 * @return the positions of the cloudlets, VM after VM in increasing id order,
+	 *         {@link Statistics#getVmCount(int)} for each
+	 */
+	public int[] groupByVm(final Statistics stats) {
+		int vms = stats.getNumberOfVms();
+		int[] next = new int[vms];
+		for (int vm = 1; vm < vms; vm++) {
+			next[vm] = next[vm - 1] + stats.vmCount[vm - 1];
+		}
+		int[] rows = new int[stats.successes];
+		for (int i = 0; i < size; i++) {
+			if (status[i] == Cloudlet.SUCCESS && vmId[i] >= 0) {
+				rows[next[vmId[i]]++] = i;
+			}
+		}
+		int[] tmp = new int[rows.length];
+		for (int vm = 0; vm < vms; vm++) {
+			int to = next[vm];
+			sortByCpuTime(rows, tmp, to - stats.vmCount[vm], to);
+		}
+		return rows;
+	}
+
+	/**
+	 * Sorts positions by decreasing CPU time, equal CPU times keeping their order (merge sort).
+	 */
+	private void sortByCpuTime(final int[] rows, final int[] tmp, final int from, final int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		sortByCpuTime(rows, tmp, from, mid);
+		sortByCpuTime(rows, tmp, mid, to);
+		if (actualCpuTime[rows[mid - 1]] >= actualCpuTime[rows[mid]]) {
+			return;
+		}
+		System.arraycopy(rows, from, tmp, from, to - from);
+		int i = from;
+		int j = mid;
+		for (int k = from; k < to; k++) {
+			if (j >= to || i < mid && actualCpuTime[tmp[i]] >= actualCpuTime[tmp[j]]) {
+				rows[k] = tmp[i++];
+			} else {
+				rows[k] = tmp[j++];
+			}
+		}
+	}
+
+	/**
+	 * Writes the results as CSV, with {@link #CSV_HEADER}.
+	 *
+	 * @param writer the writer, which should be buffered
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void writeCsv(final Writer writer) throws IOException {
+		StringBuilder line = new StringBuilder(128);
+		writer.write(CSV_HEADER);
+		writer.write('\n');
+		for (int i = 0; i < size; i++) {
+			line.setLength(0);
+			line.append(cloudletId[i]).append(',')
+					.append(status[i] == Cloudlet.SUCCESS ? "SUCCESS" : Cloudlet.getStatusString(status[i])).append(',')
+					.append(resourceId[i]).append(',')
+					.append(vmId[i]).append(',')
+					.append(actualCpuTime[i]).append(',')
+					.append(execStartTime[i]).append(',')
+					.append(finishTime[i]).append(',')
+					.append(waitingTime[i]).append('\n');
+			writer.append(line);
+		}
+	}
+
+	/**
+	 * Writes the results in binary: the magic number, the number of cloudlets, then each column
+	 * in turn.
+	 *
+	 * @param out the output, which should be buffered
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void write(final DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(size);
+		for (int[] column : new int[][] { cloudletId, vmId, resourceId, status }) {
+			for (int i = 0; i < size; i++) {
+				out.writeInt(column[i]);
+			}
+		}
+		for (double[] column : new double[][] { execStartTime, finishTime, actualCpuTime, waitingTime }) {
+			for (int i = 0; i < size; i++) {
+				out.writeDouble(column[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads results written by {@link #write(DataOutputStream)}.
+	 *
+	 * @param in the input, which should be buffered
+	 * @return the results
+	 * @throws IOException Signals that an I/O exception has occurred, or that the input is not in
+	 *             the binary format.
+	 */
+	public static CloudletResults read(final DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a cloudlet results file");
+		}
+		int n = in.readInt();
+		CloudletResults results = new CloudletResults(n);
+		for (int[] column : new int[][] {
+				results.cloudletId,
+				results.vmId,
+				results.resourceId,
+				results.status }) {
+			for (int i = 0; i < n; i++) {
+				column[i] = in.readInt();
+			}
+		}
+		for (double[] column : new double[][] {
+				results.execStartTime,
+				results.finishTime,
+				results.actualCpuTime,
+				results.waitingTime }) {
+			for (int i = 0; i < n; i++) {
+				column[i] = in.readDouble();
+			}
+		}
+		results.size = n;
+		return results;
+	}
+
+	/**
+	 * The statistics of cloudlet results, over all the cloudlets or over the successful ones, and
+	 * per VM over the successful ones.
+	 */
+	public static class Statistics {
+
+		private int count;
+
+		private int successes;
+
+		private double totalStartTime;
+
+		private double totalFinishTime;
+
+		private double maxFinishTime;
+
+		private double successCpuTime;
+
+		private double successWaitingTime;
+
+		private double successStartTime;
+
+		private double successFinishTime;
+
+		private double successMaxFinishTime;
+
+		private double minCpuTime = Double.POSITIVE_INFINITY;
+
+		private double maxCpuTime = Double.NEGATIVE_INFINITY;
+
+		private final int[] vmCount;
+
+		private final double[] vmCpuTime;
+
+		private final double[] vmMinCpuTime;
+
+		private final double[] vmMaxCpuTime;
+
+		private Statistics(final int numVms) {
+			vmCount = new int[numVms];
+			vmCpuTime = new double[numVms];
+			vmMinCpuTime = new double[numVms];
+			vmMaxCpuTime = new double[numVms];
+			Arrays.fill(vmMinCpuTime, Double.POSITIVE_INFINITY);
+			Arrays.fill(vmMaxCpuTime, Double.NEGATIVE_INFINITY);
+		}
+
+		/** @return the number of cloudlets */
+		public int getCount() {
+			return count;
+		}
+
+		/** @return the number of successful cloudlets */
+		public int getSuccesses() {
+			return successes;
+		}
+
+		/** @return the sum of the start times of all the cloudlets */
+		public double getTotalStartTime() {
+			return totalStartTime;
+		}
+
+		/** @return the sum of the finish times of all the cloudlets */
+		public double getTotalFinishTime() {
+			return totalFinishTime;
+		}
+
+		/** @return the latest finish time of all the cloudlets, 0 if none */
+		public double getMaxFinishTime() {
+			return maxFinishTime;
+		}
+
+		/** @return the sum of the CPU times of the successful cloudlets */
+		public double getTotalCpuTime() {
+			return successCpuTime;
+		}
+
+		/** @return the sum of the waiting times of the successful cloudlets */
+		public double getTotalWaitingTime() {
+			return successWaitingTime;
+		}
+
+		/** @return the sum of the start times of the successful cloudlets */
+		public double getSuccessStartTime() {
+			return successStartTime;
+		}
+
+		/** @return the sum of the finish times of the successful cloudlets */
+		public double getSuccessFinishTime() {
+			return successFinishTime;
+		}
+
+		/** @return the latest finish time of the successful cloudlets, 0 if none */
+		public double getSuccessMaxFinishTime() {
+			return successMaxFinishTime;
+		}
+
+		/** @return the shortest CPU time of the successful cloudlets, infinity if none */
+		public double getMinCpuTime() {
+			return minCpuTime;
+		}
+
+		/** @return the longest CPU time of the successful cloudlets, -infinity if none */
+		public double getMaxCpuTime() {
+			return maxCpuTime;
+		}
+
+		/** @return the number of VMs */
+		public int getNumberOfVms() {
+			return vmCount.length;
+		}
+
+		/**
+		 * @param vm the VM id
+		 * @return the number of successful cloudlets of the VM
+		 */
+		public int getVmCount(final int vm) {
+			return vmCount[vm];
+		}
+
+		/**
+		 * @param vm the VM id
+		 * @return the sum of the CPU times of the successful cloudlets of the VM
+		 */
+		public double getVmCpuTime(final int vm) {
+			return vmCpuTime[vm];
+		}
+
+		/**
+		 * @param vm the VM id
+		 * @return the shortest CPU time of the successful cloudlets of the VM, infinity if none
+		 */
+		public double getVmMinCpuTime(final int vm) {
+			return vmMinCpuTime[vm];
+		}
+
+		/**
+		 * @param vm the VM id
+		 * @return the longest CPU time of the successful cloudlets of the VM, -infinity if none
+		 */
+		public double getVmMaxCpuTime(final int vm) {
+			return vmMaxCpuTime[vm];
+		}
+
+	}
+
+}
@@ -0,0 +1,373 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A repository of PlanetLab utilization traces. A day directory, with one trace file per VM, is
+ * converted once into a columnar binary file, which holds the samples of each trace contiguously,
+ * already divided by 100. The binary file is memory-mapped, and the traces are handed out as
+ * read-only views of the mapping, so that the traces of a day are neither parsed nor copied again
+ * for each VM, for each run in the same JVM, or for each later run that finds the binary file. The
+ * views may be read from several threads.
+ *
+ * The traces are kept in the order of {@link File#listFiles()} on the day directory, which is the
+ * order used to assign the traces to the cloudlets. The binary file is rebuilt if the trace files
+ * or their latest modification time change.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class PlanetLabTraceRepository {
+
+	/** The default number of samples in a trace (5 min * 288 = 24 hours, plus the last value). */
+	public static final int DEFAULT_SAMPLES = 289;
+
+	/** The magic number of the binary file. */
+	private static final int MAGIC = 0x504C5452; // "PLTR"
+
+	/** The version of the binary file format. */
+	private static final int VERSION = 1;
+
+	/** The repositories opened in this JVM, by binary file path. */
+	private static final Map<String, PlanetLabTraceRepository> repositories = new HashMap<String, PlanetLabTraceRepository>();
+
+	/** The directory of the binary files. */
+	private static File cacheFolder = new File(System.getProperty("java.io.tmpdir"), "cloudsim-planetlab");
+
+	/** The names of the trace files. */
+	private final String[] names;
+
+	/** The samples of all traces, trace after trace. */
+	private final DoubleBuffer data;
+
+	/** The number of samples in a trace. */
+	private final int samples;
+
+	/** The latest modification time of the trace files when the binary file was built. */
+	private final long lastModified;
+
+	/**
+	 * Gets the repository of the day directory with traces of {@link #DEFAULT_SAMPLES} samples.
+	 *
+	 * @param inputFolderName the day directory
+	 * @return the repository
+	 * @throws IOException if the traces can't be read or converted
+	 */
+	public static PlanetLabTraceRepository getRepository(String inputFolderName) throws IOException {
+		return getRepository(inputFolderName, DEFAULT_SAMPLES);
+	}
+
+	/**
+	 * Gets the repository of the day directory. The directory is converted into a binary file if
+	 * there is no up-to-date one.
+	 *
+	 * @param inputFolderName the day directory
+	 * @param samples the number of samples in a trace
+	 * @return the repository
+	 * @throws IOException if the traces can't be read or converted
+	 */
+	public static synchronized PlanetLabTraceRepository getRepository(String inputFolderName, int samples)
+			throws IOException {
+		File inputFolder = new File(inputFolderName).getCanonicalFile();
+		File[] files = inputFolder.listFiles();
+		if (files == null) {
+			throw new FileNotFoundException("The PlanetLab workload directory doesn't exist: " + inputFolder);
+		}
+		long lastModified = getLastModified(files);
+		File cacheFile = getCacheFile(inputFolder, samples);
+
+		PlanetLabTraceRepository repository = repositories.get(cacheFile.getPath());
+		if (repository != null && repository.matches(files, lastModified)) {
+			return repository;
+		}
+		repository = null;
+		if (cacheFile.exists()) {
+			repository = open(cacheFile);
+			if (repository != null && !repository.matches(files, lastModified)) {
+				repository = null;
+			}
+		}
+		if (repository == null) {
+			convert(files, lastModified, samples, cacheFile);
+			repository = open(cacheFile);
+			if (repository == null) {
+				throw new IOException("Couldn't read the PlanetLab trace file " + cacheFile);
+			}
+		}
+		repositories.put(cacheFile.getPath(), repository);
+		return repository;
+	}
+
+	/**
+	 * Instantiates a new repository.
+	 *
+	 * @param names the names of the trace files
+	 * @param data the samples of all traces
+	 * @param samples the number of samples in a trace
+	 * @param lastModified the latest modification time of the trace files
+	 */
+	private PlanetLabTraceRepository(String[] names, DoubleBuffer data, int samples, long lastModified) {
+		this.names = names;
+		this.data = data;
+		this.samples = samples;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Gets a read-only view of the samples of the trace.
+	 *
+	 * @param index the index of the trace
+	 * @return the samples, the utilization in [0, 1]
+	 */
+	public DoubleBuffer getTrace(int index) {
+		DoubleBuffer trace = data.duplicate();
+		trace.position(index * samples);
+		trace.limit((index + 1) * samples);
+		return trace.slice();
+	}
+
+	/**
+	 * Gets the name of the trace file.
+	 *
+	 * @param index the index of the trace
+	 * @return the name
+	 */
+	public String getTraceName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Gets the number of traces.
+	 *
+	 * @return the number of traces
+	 */
+	public int getNumberOfTraces() {
+		return names.length;
+	}
+
+	/**
+	 * Gets the number of samples in a trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Sets the directory of the binary files.
+	 *
+	 * @param cacheFolder the new cache folder
+	 */
+	public static synchronized void setCacheFolder(File cacheFolder) {
+		PlanetLabTraceRepository.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * Gets the directory of the binary files.
+	 *
+	 * @return the cache folder
+	 */
+	public static synchronized File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	/**
+	 * Gets the binary file of the day directory.
+	 *
+	 * @param inputFolder the day directory
+	 * @param samples the number of samples in a trace
+	 * @return the binary file
+	 */
+	protected static File getCacheFile(File inputFolder, int samples) {
+		String name = inputFolder.getName() + "-" + Integer.toHexString(inputFolder.getPath().hashCode()) + "-"
+				+ samples + ".trace";
+		return new File(getCacheFolder(), name);
+	}
+
+	/**
+	 * Converts the trace files into the binary file. Each trace file holds one utilization
+	 * percentage per line; the last sample repeats the previous one.
+	 *
+	 * @param files the trace files
+	 * @param lastModified the latest modification time of the trace files
+	 * @param samples the number of samples in a trace
+	 * @param cacheFile the binary file
+	 * @throws IOException if a trace file can't be read or the binary file can't be written
+	 */
+	protected static void convert(File[] files, long lastModified, int samples, File cacheFile)
+			throws IOException {
+		File folder = cacheFile.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Couldn't create the directory " + folder);
+		}
+		byte[][] names = new byte[files.length][];
+		int headerSize = 4 * 4 + 8;
+		for (int i = 0; i < files.length; i++) {
+			names[i] = files[i].getName().getBytes("UTF-8");
+			headerSize += 4 + names[i].length;
+		}
+		int padding = (8 - headerSize % 8) % 8; // the samples are aligned to doubles
+
+		// the file is written under a temporary name, so that an interrupted conversion is never read
+		File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", folder);
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(files.length);
+			output.writeInt(samples);
+			output.writeLong(lastModified);
+			for (byte[] name : names) {
+				output.writeInt(name.length);
+				output.write(name);
+			}
+			for (int i = 0; i < padding; i++) {
+				output.writeByte(0);
+			}
+			for (File file : files) {
+				double[] trace = readTrace(file, samples);
+				for (double value : trace) {
+					output.writeDouble(value);
+				}
+			}
+		} finally {
+			output.close();
+		}
+		if (!tempFile.renameTo(cacheFile)) {
+			cacheFile.delete();
+			if (!tempFile.renameTo(cacheFile)) {
+				tempFile.delete();
+				throw new IOException("Couldn't write the PlanetLab trace file " + cacheFile);
+			}
+		}
+	}
+
+	/**
+	 * Reads the trace file in the same way as
+	 * {@link org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory}.
+	 *
+	 * @param file the trace file
+	 * @param samples the number of samples
+	 * @return the samples
+	 * @throws IOException if the file can't be read
+	 */
+	protected static double[] readTrace(File file, int samples) throws IOException {
+		double[] trace = new double[samples];
+		BufferedReader input = new BufferedReader(new FileReader(file));
+		try {
+			for (int i = 0; i < samples - 1; i++) {
+				String line = input.readLine();
+				if (line == null) {
+					throw new IOException("The trace " + file + " has less than " + (samples - 1) + " samples");
+				}
+				trace[i] = Integer.valueOf(line) / 100.0;
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("The trace " + file + " has an invalid sample: " + e.getMessage());
+		} finally {
+			input.close();
+		}
+		trace[samples - 1] = trace[samples - 2];
+		return trace;
+	}
+
+	/**
+	 * Memory-maps the binary file.
+	 *
+	 * @param cacheFile the binary file
+	 * @return the repository, or null if the file isn't a trace file of this version
+	 * @throws IOException if the file can't be read
+	 */
+	private static PlanetLabTraceRepository open(File cacheFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+		MappedByteBuffer buffer;
+		try {
+			// the mapping stays valid after the channel is closed
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		} finally {
+			file.close();
+		}
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return null;
+			}
+			int count = buffer.getInt();
+			int samples = buffer.getInt();
+			long lastModified = buffer.getLong();
+			String[] names = new String[count];
+			for (int i = 0; i < count; i++) {
+				byte[] name = new byte[buffer.getInt()];
+				buffer.get(name);
+				names[i] = new String(name, "UTF-8");
+			}
+			buffer.position(buffer.position() + (8 - buffer.position() % 8) % 8);
+			if (buffer.remaining() != (long) count * samples * 8) {
+				return null;
+			}
+			ByteBuffer samplesBuffer = buffer.slice();
+			DoubleBuffer data = samplesBuffer.asReadOnlyBuffer().asDoubleBuffer();
+			return new PlanetLabTraceRepository(names, data, samples, lastModified);
+		} catch (BufferUnderflowException e) {
+			return null; // a truncated file
+		} catch (IllegalArgumentException e) {
+			return null; // a corrupted file
+		}
+	}
+
+	/**
+	 * Checks whether the repository holds the trace files, in the same order.
+	 *
+	 * @param files the trace files
+	 * @param lastModified the latest modification time of the trace files
+	 * @return true, if the repository is up to date
+	 */
+	private boolean matches(File[] files, long lastModified) {
+		if (files.length != names.length || this.lastModified != lastModified) {
+			return false;
+		}
+		for (int i = 0; i < files.length; i++) {
+			if (!files[i].getName().equals(names[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the latest modification time of the files.
+	 *
+	 * @param files the files
+	 * @return the latest modification time
+	 */
+	private static long getLastModified(File[] files) {
+		long lastModified = 0;
+		for (File file : files) {
+			lastModified = Math.max(lastModified, file.lastModified());
+		}
+		return lastModified;
+	}
+
+}
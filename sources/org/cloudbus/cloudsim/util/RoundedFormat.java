@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats numbers rounded to integers, with their digits grouped, e.g. the times of the cloudlet
+ * reports. The output is that of a {@link java.text.DecimalFormat} without fraction digits, such as
+ * "###,##" for groups of two digits, in the default locale, but the digits are appended straight
+ * to a {@link StringBuilder} instead of going through the field positions and digit lists of
+ * DecimalFormat, which is most of the time spent printing large reports.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class RoundedFormat {
+
+	/** The smallest double whose neighbours are all integers. */
+	private static final double TWO_POW_53 = 9007199254740992.0;
+
+	/** The number of digits per group, 0 for no grouping. */
+	private final int groupingSize;
+
+	private final char groupingSeparator;
+
+	private final char minusSign;
+
+	private final String infinity;
+
+	private final String nan;
+
+	/**
+	 * Instantiates a format for the default locale.
+	 *
+	 * @param groupingSize the number of digits per group, 0 for no grouping
+	 */
+	public RoundedFormat(final int groupingSize) {
+		this.groupingSize = groupingSize;
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+		groupingSeparator = symbols.getGroupingSeparator();
+		minusSign = symbols.getMinusSign();
+		infinity = symbols.getInfinity();
+		nan = symbols.getNaN();
+	}
+
+	/**
+	 * Formats a number.
+	 *
+	 * @param value the number
+	 * @return the number, rounded half-even
+	 */
+	public String format(final double value) {
+		return append(new StringBuilder(24), value).toString();
+	}
+
+	/**
+	 * Appends a number.
+	 *
+	 * @param out the builder
+	 * @param value the number
+	 * @return the builder
+	 */
+	public StringBuilder append(final StringBuilder out, final double value) {
+		if (Double.isNaN(value)) {
+			return out.append(nan);
+		}
+		// DecimalFormat keeps the sign of the values rounded to 0, e.g. "-0" for -0.3
+		if (value < 0 || value == 0 && 1 / value < 0) {
+			out.append(minusSign);
+		}
+		double abs = Math.abs(value);
+		if (Double.isInfinite(abs)) {
+			return out.append(infinity);
+		}
+
+		String digits;
+		if (abs < TWO_POW_53) {
+			digits = Long.toString((long) Math.rint(abs));
+		} else {
+			// beyond 2^53, the values are integers and DecimalFormat prints their shortest digits
+			digits = new BigDecimal(Double.toString(abs)).toPlainString();
+		}
+		int length = digits.length();
+		if (groupingSize <= 0 || length <= groupingSize) {
+			return out.append(digits);
+		}
+		int first = length % groupingSize;
+		if (first == 0) {
+			first = groupingSize;
+		}
+		out.append(digits, 0, first);
+		for (int i = first; i < length; i += groupingSize) {
+			out.append(groupingSeparator).append(digits, i, i + groupingSize);
+		}
+		return out;
+	}
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * Incremental statistics over a sliding window of the most recent values. The window keeps its
+ * values both in arrival order (a ring buffer) and in sorted order, so that the median, the MAD and
+ * the IQR are answered by binary searches over the sorted copy, and the least squares line over the
+ * arrival order is maintained from running sums.
+ *
+ * The results follow the batch versions in {@link MathUtil}: {@link #median()} and {@link #mad()}
+ * use the same percentile estimation as {@link MathUtil#median(double[])}, {@link #iqr()} uses the
+ * same quartile positions as {@link MathUtil#iqr(double[])}, and {@link #getIntercept()} and
+ * {@link #getSlope()} are the ordinary least squares estimates for x = 1..n, where x = 1 is the
+ * oldest value in the window.
+ *
+ * Histories are passed in the layout of {@link org.cloudbus.cloudsim.power.PowerVm} and
+ * {@link org.cloudbus.cloudsim.power.PowerHostUtilizationHistory}, i.e. the most recent value
+ * first.
+ *
+ * @since CloudSim Toolkit 3.0.3
+ */
+public class SlidingWindowStatistics {
+
+	/** The values in arrival order. */
+	private final double[] ring;
+
+	/** The values in ascending order. */
+	private final double[] sorted;
+
+	/** The index of the oldest value in the ring. */
+	private int head;
+
+	/** The number of values in the window. */
+	private int size;
+
+	/** The sum of the values. */
+	private double sumY;
+
+	/** The sum of the values multiplied by their position in the window. */
+	private double sumXY;
+
+	/** The number of incremental updates since the sums were recomputed. */
+	private int updatesSinceRecompute;
+
+	/** The time of the last synchronization with a history. */
+	private double lastSyncTime = -1;
+
+	/**
+	 * Instantiates a new sliding window.
+	 *
+	 * @param capacity the maximum number of values in the window
+	 */
+	public SlidingWindowStatistics(final int capacity) {
+		ring = new double[capacity];
+		sorted = new double[capacity];
+	}
+
+	/**
+	 * Replaces the content of the window by the first values of the history.
+	 *
+	 * @param history the history, the most recent value first
+	 * @param length the number of values to take from the history
+	 */
+	public void reset(final double[] history, final int length) {
+		int n = Math.min(length, getCapacity());
+		head = 0;
+		size = n;
+		for (int i = 0; i < n; i++) {
+			ring[i] = history[n - 1 - i];
+		}
+		System.arraycopy(ring, 0, sorted, 0, n);
+		Arrays.sort(sorted, 0, n);
+		recomputeSums();
+	}
+
+	/**
+	 * Brings the window in line with the history if the history is the current content of the
+	 * window, possibly followed by one new value. The window is not modified otherwise.
+	 *
+	 * @param history the history, the most recent value first
+	 * @param length the number of values to take from the history
+	 * @return true, if the window now holds the first values of the history
+	 */
+	public boolean update(final double[] history, final int length) {
+		if (matches(history, length)) {
+			return true;
+		}
+		int n = Math.min(length, getCapacity());
+		boolean shifted = n == size ? size == getCapacity() : n == size + 1;
+		if (n > 0 && shifted && matchesRecent(history, 1, n - 1)) {
+			add(history[0]);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds a value to the window, evicting the oldest value if the window is full.
+	 *
+	 * @param value the value
+	 */
+	public void add(final double value) {
+		if (size == getCapacity()) {
+			double oldest = ring[head];
+			ring[head] = value;
+			head = (head + 1) % getCapacity();
+			removeSorted(oldest);
+			// every position moves one step back, the oldest value drops to position zero
+			sumXY += size * value - sumY;
+			sumY += value - oldest;
+		} else {
+			ring[(head + size) % getCapacity()] = value;
+			size++;
+			sumXY += size * value;
+			sumY += value;
+		}
+		insertSorted(value);
+		if (++updatesSinceRecompute >= getCapacity()) {
+			recomputeSums();
+		}
+	}
+
+	/**
+	 * Gets the median.
+	 *
+	 * @return the median
+	 */
+	public double median() {
+		return percentile(50);
+	}
+
+	/**
+	 * Gets the median absolute deviation.
+	 *
+	 * @return the mad
+	 */
+	public double mad() {
+		if (size == 0) {
+			return 0;
+		}
+		double median = median();
+		// values <= median give one ascending run of deviations going left, the rest another
+		// going right; the median of the deviations is selected from the two runs
+		int split = upperBound(median, size);
+		double pos = 0.5 * (size + 1);
+		int intPos = (int) Math.floor(pos);
+		if (pos < 1) {
+			return kthDeviation(0, median, split);
+		}
+		if (pos >= size) {
+			return kthDeviation(size - 1, median, split);
+		}
+		double lower = kthDeviation(intPos - 1, median, split);
+		double upper = kthDeviation(intPos, median, split);
+		return lower + (pos - intPos) * (upper - lower);
+	}
+
+	/**
+	 * Gets the interquartile range.
+	 *
+	 * @return the IQR
+	 */
+	public double iqr() {
+		int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+		return sorted[q3] - sorted[q1];
+	}
+
+	/**
+	 * Gets the percentile of the values in the window.
+	 *
+	 * @param p the percentile, in (0, 100]
+	 * @return the percentile
+	 */
+	public double percentile(final double p) {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		double pos = p * (size + 1) / 100;
+		int intPos = (int) Math.floor(pos);
+		if (pos < 1) {
+			return sorted[0];
+		}
+		if (pos >= size) {
+			return sorted[size - 1];
+		}
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return lower + (pos - intPos) * (upper - lower);
+	}
+
+	/**
+	 * Gets the slope of the least squares line through the window.
+	 *
+	 * @return the slope
+	 */
+	public double getSlope() {
+		double n = size;
+		double sumX = n * (n + 1) / 2;
+		double sumXX = n * (n + 1) * (2 * n + 1) / 6;
+		return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+	}
+
+	/**
+	 * Gets the intercept of the least squares line through the window.
+	 *
+	 * @return the intercept
+	 */
+	public double getIntercept() {
+		double n = size;
+		return (sumY - getSlope() * n * (n + 1) / 2) / n;
+	}
+
+	/**
+	 * Gets the number of values in the window.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the capacity.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return ring.length;
+	}
+
+	/**
+	 * Gets the time of the last synchronization with a history.
+	 *
+	 * @return the last sync time, or -1 if the window has never been synchronized
+	 */
+	public double getLastSyncTime() {
+		return lastSyncTime;
+	}
+
+	/**
+	 * Sets the time of the last synchronization with a history.
+	 *
+	 * @param lastSyncTime the last sync time
+	 */
+	public void setLastSyncTime(final double lastSyncTime) {
+		this.lastSyncTime = lastSyncTime;
+	}
+
+	/**
+	 * Checks whether the window holds exactly the first values of the history.
+	 *
+	 * @param history the history, the most recent value first
+	 * @param length the number of values to take from the history
+	 * @return true, if the window holds the values
+	 */
+	public boolean matches(final double[] history, final int length) {
+		int n = Math.min(length, getCapacity());
+		return n == size && matchesRecent(history, 0, n);
+	}
+
+	/**
+	 * Checks whether history[offset..offset + count) equals the most recent values of the window.
+	 *
+	 * @param history the history, the most recent value first
+	 * @param offset the offset in the history
+	 * @param count the number of values to compare
+	 * @return true, if the values are equal
+	 */
+	private boolean matchesRecent(final double[] history, final int offset, final int count) {
+		for (int i = 0; i < count; i++) {
+			if (ring[(head + size - 1 - i) % getCapacity()] != history[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the k-th smallest absolute deviation from the median, merging the deviations of the
+	 * values below and above the split point.
+	 *
+	 * @param k the zero-based rank
+	 * @param median the median
+	 * @param split the number of values <= median
+	 * @return the deviation
+	 */
+	private double kthDeviation(final int k, final double median, final int split) {
+		int a = split;
+		int b = size - split;
+		int lo = Math.max(0, k + 1 - b);
+		int hi = Math.min(a, k + 1);
+		while (true) {
+			int i = (lo + hi) >>> 1;
+			int j = k + 1 - i;
+			if (i > 0 && j < b && leftDeviation(i - 1, median, split) > rightDeviation(j, median, split)) {
+				hi = i - 1;
+			} else if (j > 0 && i < a && rightDeviation(j - 1, median, split) > leftDeviation(i, median, split)) {
+				lo = i + 1;
+			} else {
+				double left = i > 0 ? leftDeviation(i - 1, median, split) : Double.NEGATIVE_INFINITY;
+				double right = j > 0 ? rightDeviation(j - 1, median, split) : Double.NEGATIVE_INFINITY;
+				return Math.max(left, right);
+			}
+		}
+	}
+
+	private double leftDeviation(final int t, final double median, final int split) {
+		return Math.abs(median - sorted[split - 1 - t]);
+	}
+
+	private double rightDeviation(final int t, final double median, final int split) {
+		return Math.abs(median - sorted[split + t]);
+	}
+
+	/**
+	 * Gets the number of sorted values <= the given value.
+	 *
+	 * @param value the value
+	 * @param count the number of valid sorted values
+	 * @return the index of the first value greater than the given value
+	 */
+	private int upperBound(final double value, final int count) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private void insertSorted(final double value) {
+		int n = size - 1; // the value is already counted in size
+		int index = upperBound(value, n);
+		System.arraycopy(sorted, index, sorted, index + 1, n - index);
+		sorted[index] = value;
+	}
+
+	private void removeSorted(final double value) {
+		int index = Arrays.binarySearch(sorted, 0, size, value); // the value is in the window
+		System.arraycopy(sorted, index + 1, sorted, index, size - index - 1);
+	}
+
+	/**
+	 * Recomputes the running sums to drop the accumulated rounding error.
+	 */
+	private void recomputeSums() {
+		sumY = 0;
+		sumXY = 0;
+		for (int i = 0; i < size; i++) {
+			double y = ring[(head + i) % getCapacity()];
+			sumY += y;
+			sumXY += (i + 1) * y;
+		}
+		updatesSinceRecompute = 0;
+	}
+
+}